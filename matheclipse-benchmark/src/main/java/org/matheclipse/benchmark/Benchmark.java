@@ -0,0 +1,111 @@
+package org.matheclipse.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.form.output.OutputFormFactory;
+import org.matheclipse.core.form.output.StringBufferWriter;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * A benchmark, which runs an operation for each input of its corpus
+ * <code>corpus/&lt;corpus&gt;.m</code>. One operation of the benchmark is the
+ * run of all inputs. The results are compared with the baseline
+ * <code>baseline/&lt;corpus&gt;.txt</code> before the measurement. Several
+ * benchmarks could measure the same corpus with different engine settings.
+ *
+ * @see BenchmarkRunner
+ */
+public abstract class Benchmark {
+	private final String fName;
+
+	private final String fCorpus;
+
+	protected final List<String> fInputs;
+
+	protected Benchmark(final String name) {
+		this(name, name);
+	}
+
+	protected Benchmark(final String name, final String corpus) {
+		fName = name;
+		fCorpus = corpus;
+		fInputs = Corpus.readInputs(corpus);
+	}
+
+	public String getName() {
+		return fName;
+	}
+
+	/**
+	 * The name of the corpus and of the baseline
+	 *
+	 * @return
+	 */
+	public String getCorpus() {
+		return fCorpus;
+	}
+
+	/**
+	 * The number of inputs
+	 *
+	 * @return
+	 */
+	public int size() {
+		return fInputs.size();
+	}
+
+	/**
+	 * Prepare the inputs. The preparation isn't measured.
+	 *
+	 * @param engine
+	 */
+	public void setUp(final EvalEngine engine) {
+	}
+
+	/**
+	 * Restore the settings of the engine after the measurement.
+	 *
+	 * @param engine
+	 */
+	public void tearDown(final EvalEngine engine) {
+	}
+
+	/**
+	 * Run the operation for the input with the given index.
+	 *
+	 * @param engine
+	 * @param index
+	 * @return the result of the operation
+	 */
+	public abstract IExpr run(EvalEngine engine, int index);
+
+	/**
+	 * Convert a result to the single line string, which is compared with the
+	 * baseline.
+	 *
+	 * @param result
+	 * @return
+	 */
+	public String toString(final IExpr result) {
+		return outputForm(result);
+	}
+
+	/**
+	 * Convert an expression to the single line output form.
+	 *
+	 * @param expr
+	 * @return
+	 */
+	protected static String outputForm(final IExpr expr) {
+		final StringBufferWriter buf = new StringBufferWriter();
+		buf.setIgnoreNewLine(true);
+		try {
+			OutputFormFactory.get().convert(buf, expr);
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return buf.toString();
+	}
+}
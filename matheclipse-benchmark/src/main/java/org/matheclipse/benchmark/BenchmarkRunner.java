@@ -0,0 +1,274 @@
+package org.matheclipse.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Run the benchmarks of the evaluator and the algebra functions.
+ *
+ * Each benchmark first checks the results of its inputs against the checked in
+ * baseline. Then it runs the warmup iterations and the measurement iterations;
+ * every iteration repeats the benchmark operation for at least the iteration
+ * time. The score is the average time of one operation (the run of all inputs
+ * of the corpus) in microseconds. The allocated memory of one operation in the
+ * calling thread is measured in an additional run.
+ *
+ * <pre>
+ * BenchmarkRunner [-warmup n] [-iterations n] [-time ms] [-update directory] [name ...]
+ * </pre>
+ *
+ * <code>-update</code> writes the results as new baselines into the directory
+ * instead of checking them. Without names all benchmarks are run. The exit code
+ * is <code>1</code>, if a result differs from the baseline.
+ */
+public class BenchmarkRunner {
+	private final static int DEFAULT_WARMUP_ITERATIONS = 5;
+
+	private final static int DEFAULT_ITERATIONS = 5;
+
+	private final static long DEFAULT_ITERATION_TIME = 1000L;
+
+	/**
+	 * Consumes the results, so that the JIT can't eliminate the benchmark
+	 * operations
+	 */
+	private static volatile int fSink;
+
+	/**
+	 * All benchmarks in the order of their output
+	 *
+	 * @return
+	 */
+	public static List<Benchmark> createBenchmarks() {
+		final List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new ParserBenchmark("parse"));
+		benchmarks.add(new RuleTableParserBenchmark("ruleast2expr", "ruletable", RuleTableParserBenchmark.AST2EXPR));
+		benchmarks.add(new RuleTableParserBenchmark("ruleparser", "ruletable", RuleTableParserBenchmark.EXPR_PARSER));
+		benchmarks.add(new RuleTableParserBenchmark("rulestreaming", "ruletable", RuleTableParserBenchmark.STREAMING));
+		benchmarks.add(new ColdStartBenchmark("coldstart", "coldstart", true));
+		benchmarks.add(new ColdStartBenchmark("noimage", "coldstart", false));
+		benchmarks.add(new EvaluationBenchmark("evaluate"));
+		benchmarks.add(new EvaluationBenchmark("integer"));
+		benchmarks.add(new EvaluationBenchmark("localvariables"));
+		benchmarks.add(new EvaluationBenchmark("profile"));
+		benchmarks.add(new ProfiledEvaluationBenchmark("profiled", "profile", true));
+		benchmarks.add(new ProfiledEvaluationBenchmark("profiledtime", "profile", false));
+		benchmarks.add(new PlusTimesBenchmark("plustimes"));
+		benchmarks.add(new ReevaluationBenchmark("fixedpoint"));
+		benchmarks.add(new ParallelEvaluationBenchmark("sequential", "parallel", 0, 1));
+		benchmarks.add(new ParallelEvaluationBenchmark("parallel", "parallel", 100, Runtime.getRuntime().availableProcessors()));
+		benchmarks.add(new EvaluationBenchmark("expand"));
+		benchmarks.add(new EvaluationBenchmark("hashconsing"));
+		benchmarks.add(new InternedEvaluationBenchmark("interned", "hashconsing"));
+		benchmarks.add(new EvaluationBenchmark("factor"));
+		benchmarks.add(new EvaluationBenchmark("polynomialgcd"));
+		benchmarks.add(new EvaluationBenchmark("groebnerbasis"));
+		benchmarks.add(new EvaluationBenchmark("integrate"));
+		benchmarks.add(new EvaluationBenchmark("rubi"));
+		benchmarks.add(new NIntegrateBenchmark("trapezoid", "nintegrate", "Trapezoid"));
+		benchmarks.add(new NIntegrateBenchmark("simpson", "nintegrate", "Simpson"));
+		benchmarks.add(new NIntegrateBenchmark("romberg", "nintegrate", "Romberg"));
+		benchmarks.add(new NIntegrateBenchmark("legendregauss", "nintegrate", "LegendreGauss"));
+		benchmarks.add(new NIntegrateBenchmark("gausskronrod", "nintegrate", "GaussKronrod"));
+		benchmarks.add(new NIntegrateBenchmark("adaptive", "adaptivenintegrate", "GaussKronrod"));
+		benchmarks.add(new EvaluationBenchmark("d"));
+		benchmarks.add(new EvaluationBenchmark("simplify"));
+		benchmarks.add(new EvaluationBenchmark("linearalgebra"));
+		benchmarks.add(new PackedArrayBenchmark("boxed", "packedarray", false));
+		benchmarks.add(new PackedArrayBenchmark("packed", "packedarray", true));
+		benchmarks.add(new PlotBenchmark("uniformplot"));
+		benchmarks.add(new PlotBenchmark("adaptiveplot"));
+		benchmarks.add(new SamplingBenchmark("interpreted", "sampling", false));
+		benchmarks.add(new SamplingBenchmark("compiled", "sampling", true));
+		benchmarks.add(new DoubleFormulaBenchmark("doubleevaluator", "doubleformula", false, 1));
+		benchmarks.add(new DoubleFormulaBenchmark("doubleformula", "doubleformula", true, 1));
+		benchmarks.add(new DoubleFormulaBenchmark("parallelformula", "doubleformula", true, Runtime.getRuntime()
+				.availableProcessors()));
+		benchmarks.add(new EvaluationBenchmark("patternmatching"));
+		benchmarks.add(new EvaluationBenchmark("matcher"));
+		benchmarks.add(new DispatchBenchmark("rulelist", "dispatch", false));
+		benchmarks.add(new DispatchBenchmark("dispatch", "dispatch", true));
+		benchmarks.add(new ReplaceBenchmark("fullreplace", "replace", false));
+		benchmarks.add(new ReplaceBenchmark("incremental", "replace", true));
+		benchmarks.add(new SymbolMaskBenchmark("fullmask", "symbolmask", false));
+		benchmarks.add(new SymbolMaskBenchmark("prunedmask", "symbolmask", true));
+		benchmarks.add(new ConfigEvaluationBenchmark("fullintegrals", "maskintegrals", "SYMBOL_MASK_PRUNING", false));
+		benchmarks.add(new ConfigEvaluationBenchmark("prunedintegrals", "maskintegrals", "SYMBOL_MASK_PRUNING", true));
+		benchmarks.add(new ConfigEvaluationBenchmark("enumerating", "flatorderless", "PRUNED_FLAT_ORDERLESS_MATCHING", false));
+		benchmarks.add(new ConfigEvaluationBenchmark("pruned", "flatorderless", "PRUNED_FLAT_ORDERLESS_MATCHING", true));
+		benchmarks.add(new ConfigEvaluationBenchmark("uncompiledrules", "compiledmatcher", "COMPILE_PATTERN_MATCHERS", false));
+		benchmarks.add(new ConfigEvaluationBenchmark("compiledrules", "compiledmatcher", "COMPILE_PATTERN_MATCHERS", true));
+		benchmarks.add(new OutputFormBenchmark("outputform"));
+		return benchmarks;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		int warmup = DEFAULT_WARMUP_ITERATIONS;
+		int iterations = DEFAULT_ITERATIONS;
+		long time = DEFAULT_ITERATION_TIME;
+		File updateDirectory = null;
+		final List<String> names = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-warmup")) {
+				warmup = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-iterations")) {
+				iterations = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-time")) {
+				time = Long.parseLong(args[++i]);
+			} else if (args[i].equals("-update")) {
+				updateDirectory = new File(args[++i]);
+			} else {
+				names.add(args[i]);
+			}
+		}
+
+		F.initSymbols(null, null, false);
+		Config.SERVER_MODE = true;
+		final EvalEngine engine = new EvalEngine();
+		EvalEngine.set(engine);
+		// discard the output of the benchmarked functions
+		final PrintStream out = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(final int b) {
+			}
+		}));
+
+		boolean failed = false;
+		out.println(format("Benchmark", "Inputs", "Cnt", "Score", "StdDev", "Units", "Alloc KB/op"));
+		for (Benchmark benchmark : createBenchmarks()) {
+			if (!names.isEmpty() && !names.contains(benchmark.getName())) {
+				continue;
+			}
+			benchmark.setUp(engine);
+			try {
+				final List<String> results = new ArrayList<String>();
+				for (int i = 0; i < benchmark.size(); i++) {
+					results.add(benchmark.toString(benchmark.run(engine, i)));
+				}
+				if (updateDirectory != null) {
+					Corpus.writeBaseline(updateDirectory, benchmark.getCorpus(), results);
+				} else if (!check(out, benchmark, results)) {
+					failed = true;
+					continue;
+				}
+
+				for (int i = 0; i < warmup; i++) {
+					iterate(benchmark, engine, time);
+				}
+				final double[] scores = new double[iterations];
+				for (int i = 0; i < iterations; i++) {
+					scores[i] = iterate(benchmark, engine, time);
+				}
+				final long allocated = allocatedBytes(benchmark, engine);
+				out.println(format(benchmark.getName(), Integer.toString(benchmark.size()), Integer.toString(iterations),
+						String.format("%.1f", mean(scores)), String.format("%.1f", standardDeviation(scores)), "us/op",
+						allocated < 0L ? "-" : String.format("%.1f", allocated / 1024.0)));
+			} finally {
+				benchmark.tearDown(engine);
+			}
+		}
+		System.exit(failed ? 1 : 0);
+	}
+
+	/**
+	 * Compare the results with the baseline of the benchmark.
+	 *
+	 * @return <code>true</code> if all results are equal to the baseline
+	 */
+	private static boolean check(final PrintStream out, final Benchmark benchmark, final List<String> results) {
+		final List<String> baseline = Corpus.readBaseline(benchmark.getCorpus());
+		boolean equal = baseline.size() == results.size();
+		if (!equal) {
+			out.println(benchmark.getName() + ": " + results.size() + " results, but " + baseline.size() + " baseline results");
+		}
+		for (int i = 0; i < Math.min(baseline.size(), results.size()); i++) {
+			if (!baseline.get(i).equals(results.get(i))) {
+				out.println(benchmark.getName() + "[" + (i + 1) + "]: expected " + baseline.get(i) + " but was "
+						+ results.get(i));
+				equal = false;
+			}
+		}
+		return equal;
+	}
+
+	/**
+	 * Repeat the benchmark operation for at least the given time.
+	 *
+	 * @return the average time of one operation in microseconds
+	 */
+	private static double iterate(final Benchmark benchmark, final EvalEngine engine, final long time) {
+		final int size = benchmark.size();
+		final long start = System.nanoTime();
+		final long end = start + time * 1000000L;
+		long operations = 0;
+		long now;
+		do {
+			for (int i = 0; i < size; i++) {
+				final IExpr result = benchmark.run(engine, i);
+				fSink += result.hashCode();
+			}
+			operations++;
+			now = System.nanoTime();
+		} while (now < end);
+		return (now - start) / 1000.0 / operations;
+	}
+
+	/**
+	 * Run the benchmark operation once and measure the memory, which is allocated
+	 * in the calling thread.
+	 *
+	 * @return the allocated bytes or <code>-1</code>, if the JVM doesn't measure
+	 *         the allocations of a thread
+	 */
+	private static long allocatedBytes(final Benchmark benchmark, final EvalEngine engine) {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return -1L;
+		}
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+		final long threadId = Thread.currentThread().getId();
+		final long start = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < benchmark.size(); i++) {
+			final IExpr result = benchmark.run(engine, i);
+			fSink += result.hashCode();
+		}
+		return threadBean.getThreadAllocatedBytes(threadId) - start;
+	}
+
+	private static double mean(final double[] values) {
+		double sum = 0.0;
+		for (int i = 0; i < values.length; i++) {
+			sum += values[i];
+		}
+		return sum / values.length;
+	}
+
+	private static double standardDeviation(final double[] values) {
+		if (values.length < 2) {
+			return 0.0;
+		}
+		final double mean = mean(values);
+		double sum = 0.0;
+		for (int i = 0; i < values.length; i++) {
+			sum += (values[i] - mean) * (values[i] - mean);
+		}
+		return Math.sqrt(sum / (values.length - 1));
+	}
+
+	private static String format(final String name, final String inputs, final String count, final String score,
+			final String deviation, final String units, final String allocated) {
+		return String.format("%-16s %6s %4s %14s %12s  %-6s %12s", name, inputs, count, score, deviation, units, allocated);
+	}
+}
@@ -0,0 +1,95 @@
+package org.matheclipse.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.IStringX;
+
+/**
+ * Measure the start of a new JVM, which initializes the symbol table and
+ * evaluates the input once. The symbol table is loaded from the symbol image
+ * <code>Config.SYMBOL_IMAGE</code>, if it's on the classpath (see the
+ * <code>symbol-image</code> target of the build file) and the image isn't
+ * disabled for this benchmark. The result is the output form of the
+ * evaluation in the new JVM.
+ */
+public class ColdStartBenchmark extends Benchmark {
+	private static final String NO_IMAGE = "-noimage";
+
+	private final boolean fImage;
+
+	public ColdStartBenchmark(final String name, final String corpus, final boolean image) {
+		super(name, corpus);
+		fImage = image;
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		final List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.add("-Xss64m");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(ColdStartBenchmark.class.getName());
+		if (!fImage) {
+			command.add(NO_IMAGE);
+		}
+		command.add(fInputs.get(index));
+		try {
+			final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+			String output = "";
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					// the result is the last line, after possible log messages
+					output = line;
+				}
+			} finally {
+				reader.close();
+			}
+			if (process.waitFor() != 0) {
+				throw new IllegalStateException("Exit code " + process.exitValue() + ": " + output);
+			}
+			return F.stringx(output);
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		} catch (final InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String toString(final IExpr result) {
+		if (result instanceof IStringX) {
+			return result.toString();
+		}
+		return super.toString(result);
+	}
+
+	/**
+	 * Evaluate the last argument in this new JVM and print the result.
+	 * <code>-noimage</code> as first argument disables the symbol image.
+	 *
+	 * @param args
+	 */
+	public static void main(final String[] args) {
+		if (args[0].equals(NO_IMAGE)) {
+			Config.SYMBOL_IMAGE = null;
+		}
+		F.initSymbols(null, null, false);
+		Config.SERVER_MODE = true;
+		final EvalEngine engine = new EvalEngine();
+		EvalEngine.set(engine);
+		final IExpr result = engine.evaluate(args[args.length - 1]);
+		System.out.println(outputForm(result));
+	}
+}
@@ -0,0 +1,59 @@
+package org.matheclipse.benchmark;
+
+import java.lang.reflect.Field;
+
+import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.eval.EvalEngine;
+
+/**
+ * Measure <code>EvalEngine#evaluate()</code> of the parsed inputs with the
+ * given value of a boolean switch of the <code>Config</code> class (e.g.
+ * <code>PRUNED_FLAT_ORDERLESS_MATCHING</code>). The switch is restored after
+ * the measurement.
+ */
+public class ConfigEvaluationBenchmark extends EvaluationBenchmark {
+	private final Field fSwitch;
+
+	private final boolean fValue;
+
+	private boolean fOldValue;
+
+	/**
+	 * 
+	 * @param name
+	 * @param corpus
+	 * @param switchName
+	 *          the name of a <code>public static boolean</code> field of
+	 *          <code>Config</code>
+	 * @param value
+	 */
+	public ConfigEvaluationBenchmark(final String name, final String corpus, final String switchName, final boolean value) {
+		super(name, corpus);
+		try {
+			fSwitch = Config.class.getField(switchName);
+		} catch (final NoSuchFieldException e) {
+			throw new IllegalArgumentException("unknown Config switch: " + switchName);
+		}
+		fValue = value;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		super.setUp(engine);
+		try {
+			fOldValue = fSwitch.getBoolean(null);
+			fSwitch.setBoolean(null, fValue);
+		} catch (final IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void tearDown(final EvalEngine engine) {
+		try {
+			fSwitch.setBoolean(null, fOldValue);
+		} catch (final IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package org.matheclipse.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read the input corpora and the result baselines of the benchmarks from the
+ * class path.
+ *
+ * A corpus <code>corpus/&lt;name&gt;.m</code> contains one input per line;
+ * empty lines and lines starting with <code>#</code> are ignored. The baseline
+ * <code>baseline/&lt;name&gt;.txt</code> contains the result of each input on
+ * one line.
+ */
+public class Corpus {
+	private final static String ENCODING = "UTF-8";
+
+	private Corpus() {
+	}
+
+	public static List<String> readInputs(final String name) {
+		final List<String> inputs = new ArrayList<String>();
+		for (String line : readLines("corpus/" + name + ".m")) {
+			if (line.trim().length() > 0 && !line.startsWith("#")) {
+				inputs.add(line);
+			}
+		}
+		return inputs;
+	}
+
+	public static List<String> readBaseline(final String name) {
+		return readLines("baseline/" + name + ".txt");
+	}
+
+	/**
+	 * Write the baseline of a benchmark into the given directory.
+	 *
+	 * @param directory
+	 * @param name
+	 * @param results
+	 * @throws IOException
+	 */
+	public static void writeBaseline(final File directory, final String name, final List<String> results) throws IOException {
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(new File(directory, name + ".txt")), ENCODING);
+		try {
+			for (String result : results) {
+				writer.write(result);
+				writer.write('\n');
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static List<String> readLines(final String resource) {
+		final InputStream stream = Corpus.class.getResourceAsStream(resource);
+		if (stream == null) {
+			throw new IllegalArgumentException("missing resource: " + resource);
+		}
+		final List<String> lines = new ArrayList<String>();
+		try {
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, ENCODING));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					lines.add(line);
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,57 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+
+/**
+ * Measure the substitution of a large parameter table into a model. The setup
+ * defines the held model <code>$model</code> with 500 terms and the table
+ * <code>$table</code> with 2000 literal rules for the parameters and 200
+ * pattern rules for the model functions, either as rule list or as
+ * <code>Dispatch[]</code> table.
+ */
+public class DispatchBenchmark extends EvaluationBenchmark {
+	private final static int PARAMETERS = 2000;
+
+	private final static int FUNCTIONS = 200;
+
+	private final static int TERMS = 500;
+
+	private final boolean fDispatch;
+
+	public DispatchBenchmark(final String name, final String corpus, final boolean dispatch) {
+		super(name, corpus);
+		fDispatch = dispatch;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		final StringBuilder rules = new StringBuilder("$table={");
+		for (int i = 0; i < PARAMETERS; i++) {
+			rules.append("p" + i + "->" + (i + 1) + ",");
+		}
+		for (int i = 0; i < FUNCTIONS; i++) {
+			rules.append("f" + i + "[x_,y_]:>x+" + i + "*y,");
+		}
+		rules.setCharAt(rules.length() - 1, '}');
+		engine.evaluate(rules.toString());
+		if (fDispatch) {
+			engine.evaluate("$table=Dispatch[$table]");
+		}
+
+		final StringBuilder model = new StringBuilder("$model=Hold[");
+		for (int i = 0; i < TERMS; i++) {
+			if (i > 0) {
+				model.append("+");
+			}
+			model.append("c" + i + "*f" + (i % FUNCTIONS) + "[p" + (i * 3 % PARAMETERS) + ",p" + (i * 7 % PARAMETERS) + "]");
+		}
+		model.append("]");
+		engine.evaluate(model.toString());
+		super.setUp(engine);
+	}
+
+	@Override
+	public void tearDown(final EvalEngine engine) {
+		engine.evaluate("Clear[$table,$model]");
+	}
+}
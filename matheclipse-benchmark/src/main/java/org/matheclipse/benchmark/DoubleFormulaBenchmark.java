@@ -0,0 +1,91 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.parser.client.eval.DoubleEvaluator;
+import org.matheclipse.parser.client.eval.DoubleFormula;
+import org.matheclipse.parser.client.eval.DoubleVariable;
+
+/**
+ * Measure the evaluation of the input formulas of the variables
+ * <code>x, y, a, b</code> for 100000 rows of columnar inputs. The formulas are
+ * either evaluated row by row by the <code>DoubleEvaluator</code> or as a
+ * prepared <code>DoubleFormula</code> in the given number of threads. The
+ * result is the sum of the rows.
+ */
+public class DoubleFormulaBenchmark extends Benchmark {
+	private final static String[] VARIABLES = { "x", "y", "a", "b" };
+
+	private final static int ROWS = 100000;
+
+	private final boolean fPrepared;
+
+	private final int fThreads;
+
+	private double[][] fColumns;
+
+	private double[] fResult;
+
+	private DoubleFormula[] fFormulas;
+
+	/**
+	 * 
+	 * @param name
+	 * @param corpus
+	 * @param prepared
+	 *          evaluate a prepared <code>DoubleFormula</code> instead of the
+	 *          <code>DoubleEvaluator</code>
+	 * @param threads
+	 *          the number of threads of the prepared formula
+	 */
+	public DoubleFormulaBenchmark(final String name, final String corpus, final boolean prepared, final int threads) {
+		super(name, corpus);
+		fPrepared = prepared;
+		fThreads = threads;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fColumns = new double[VARIABLES.length][ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			fColumns[0][i] = i * 1.0e-4;
+			fColumns[1][i] = 10.0 - i * 2.0e-5;
+			fColumns[2][i] = (i % 100) * 0.5;
+			fColumns[3][i] = (i % 7) - 3.0;
+		}
+		fResult = new double[ROWS];
+		fFormulas = new DoubleFormula[size()];
+		if (fPrepared) {
+			for (int i = 0; i < fFormulas.length; i++) {
+				fFormulas[i] = new DoubleEvaluator().prepare(fInputs.get(i), VARIABLES);
+			}
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		double sum = 0.0;
+		if (fPrepared) {
+			fFormulas[index].evaluate(fColumns, fResult, fThreads);
+			for (int i = 0; i < ROWS; i++) {
+				sum += fResult[i];
+			}
+		} else {
+			final DoubleEvaluator evaluator = new DoubleEvaluator();
+			final DoubleVariable[] variables = new DoubleVariable[VARIABLES.length];
+			for (int j = 0; j < VARIABLES.length; j++) {
+				variables[j] = new DoubleVariable(0.0);
+				evaluator.defineVariable(VARIABLES[j], variables[j]);
+			}
+			evaluator.parse(fInputs.get(index));
+			for (int i = 0; i < ROWS; i++) {
+				for (int j = 0; j < VARIABLES.length; j++) {
+					variables[j].setValue(fColumns[j][i]);
+				}
+				sum += evaluator.evaluate();
+			}
+		}
+		return F.num(sum);
+	}
+}
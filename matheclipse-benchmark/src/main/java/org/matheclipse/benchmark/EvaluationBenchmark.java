@@ -0,0 +1,32 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Measure <code>EvalEngine#evaluate()</code> of the parsed inputs.
+ */
+public class EvaluationBenchmark extends Benchmark {
+	private IExpr[] fExpressions;
+
+	public EvaluationBenchmark(final String name) {
+		super(name);
+	}
+
+	public EvaluationBenchmark(final String name, final String corpus) {
+		super(name, corpus);
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fExpressions = new IExpr[size()];
+		for (int i = 0; i < fExpressions.length; i++) {
+			fExpressions[i] = engine.parse(fInputs.get(i));
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		return engine.evaluate(fExpressions[index]);
+	}
+}
@@ -0,0 +1,28 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.ExprInterner;
+
+/**
+ * Measure <code>EvalEngine#evaluate()</code> of the parsed inputs, while the
+ * results are interned in the <code>ExprInterner</code>.
+ */
+public class InternedEvaluationBenchmark extends EvaluationBenchmark {
+
+	public InternedEvaluationBenchmark(final String name, final String corpus) {
+		super(name, corpus);
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		super.setUp(engine);
+		ExprInterner.INSTANCE.clear();
+		engine.setInternResults(true);
+	}
+
+	@Override
+	public void tearDown(final EvalEngine engine) {
+		engine.setInternResults(false);
+		ExprInterner.INSTANCE.clear();
+	}
+}
@@ -0,0 +1,47 @@
+package org.matheclipse.benchmark;
+
+import java.util.Locale;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.INum;
+
+/**
+ * Measure the <code>NIntegrate[]</code> inputs with the given integration
+ * method, which is appended as last argument. The result is rounded to 5
+ * significant digits, so that all methods share the baseline.
+ */
+public class NIntegrateBenchmark extends Benchmark {
+	private final String fMethod;
+
+	private IAST[] fExpressions;
+
+	public NIntegrateBenchmark(final String name, final String corpus, final String method) {
+		super(name, corpus);
+		fMethod = method;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fExpressions = new IAST[size()];
+		for (int i = 0; i < fExpressions.length; i++) {
+			fExpressions[i] = (IAST) engine.parse(fInputs.get(i));
+			fExpressions[i].add(F.$s(fMethod));
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		return engine.evaluate(fExpressions[index]);
+	}
+
+	@Override
+	public String toString(final IExpr result) {
+		if (result instanceof INum) {
+			return String.format(Locale.US, "%.5g", ((INum) result).getRealPart());
+		}
+		return super.toString(result);
+	}
+}
@@ -0,0 +1,38 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.IStringX;
+
+/**
+ * Measure the conversion of the evaluated inputs to the output form.
+ */
+public class OutputFormBenchmark extends Benchmark {
+	private IExpr[] fResults;
+
+	public OutputFormBenchmark(final String name) {
+		super(name);
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fResults = new IExpr[size()];
+		for (int i = 0; i < fResults.length; i++) {
+			fResults[i] = engine.evaluate(fInputs.get(i));
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		return F.stringx(toString(fResults[index]));
+	}
+
+	@Override
+	public String toString(final IExpr result) {
+		if (result instanceof IStringX) {
+			return result.toString();
+		}
+		return super.toString(result);
+	}
+}
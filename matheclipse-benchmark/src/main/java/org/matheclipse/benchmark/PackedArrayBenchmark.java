@@ -0,0 +1,102 @@
+package org.matheclipse.benchmark;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.AST;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.INum;
+
+import com.google.common.base.Function;
+
+/**
+ * Measure list and matrix functions of machine numbers, which are either
+ * stored as packed arrays or as lists of boxed <code>Num</code> values. The
+ * symbols of the inputs are substituted by random values: <code>m</code> is a
+ * 1000x1000 matrix, <code>v</code> its first row and <code>s</code> a 60x60
+ * matrix. The result is the dimensions of a list or the rounded machine
+ * number.
+ */
+public class PackedArrayBenchmark extends Benchmark {
+	private final static int SIZE = 1000;
+
+	private final static int SMALL_SIZE = 60;
+
+	private final boolean fPacked;
+
+	private IExpr[] fExpressions;
+
+	public PackedArrayBenchmark(final String name, final String corpus, final boolean packed) {
+		super(name, corpus);
+		fPacked = packed;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		// the same random values for the packed and the boxed storage
+		final Random random = new Random(42L);
+		final IAST matrix = newMatrix(random, SIZE);
+		final IAST vector = (IAST) matrix.get(1);
+		final IAST smallMatrix = newMatrix(random, SMALL_SIZE);
+		final Function<IExpr, IExpr> values = new Function<IExpr, IExpr>() {
+			public IExpr apply(final IExpr expr) {
+				if (expr.equals(F.$s("m"))) {
+					return matrix;
+				}
+				if (expr.equals(F.$s("v"))) {
+					return vector;
+				}
+				if (expr.equals(F.$s("s"))) {
+					return smallMatrix;
+				}
+				return null;
+			}
+		};
+		fExpressions = new IExpr[size()];
+		for (int i = 0; i < fExpressions.length; i++) {
+			fExpressions[i] = F.subst(engine.parse(fInputs.get(i)), values);
+		}
+	}
+
+	private IAST newMatrix(final Random random, final int size) {
+		final double[][] matrix = new double[size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				matrix[i][j] = random.nextDouble();
+			}
+		}
+		if (fPacked) {
+			return PackedArray.newMatrix(matrix);
+		}
+		return AST.newInstance(F.List, matrix);
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		return engine.evaluate(fExpressions[index]);
+	}
+
+	@Override
+	public String toString(final IExpr result) {
+		if (result.isList()) {
+			final StringBuilder buf = new StringBuilder();
+			IExpr list = result;
+			while (list.isList()) {
+				if (buf.length() > 0) {
+					buf.append('x');
+				}
+				buf.append(((IAST) list).size() - 1);
+				list = ((IAST) list).size() > 1 ? ((IAST) list).get(1) : F.Null;
+			}
+			return buf.toString();
+		}
+		if (result instanceof INum) {
+			return String.format(Locale.US, "%.8g", ((INum) result).getRealPart());
+		}
+		return super.toString(result);
+	}
+}
@@ -0,0 +1,43 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ParallelEvaluator;
+
+/**
+ * Measure <code>EvalEngine#evaluate()</code> of the parsed inputs with the
+ * given parallel threshold of the engine and the given number of threads of
+ * the <code>ParallelEvaluator</code>.
+ *
+ * @see EvalEngine#setParallelThreshold(int)
+ * @see ParallelEvaluator#setParallelism(int)
+ */
+public class ParallelEvaluationBenchmark extends EvaluationBenchmark {
+	private final int fThreshold;
+
+	private final int fParallelism;
+
+	private int fOldThreshold;
+
+	private int fOldParallelism;
+
+	public ParallelEvaluationBenchmark(final String name, final String corpus, final int threshold, final int parallelism) {
+		super(name, corpus);
+		fThreshold = threshold;
+		fParallelism = parallelism;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		super.setUp(engine);
+		fOldThreshold = engine.getParallelThreshold();
+		fOldParallelism = ParallelEvaluator.getParallelism();
+		engine.setParallelThreshold(fThreshold);
+		ParallelEvaluator.setParallelism(fParallelism);
+	}
+
+	@Override
+	public void tearDown(final EvalEngine engine) {
+		engine.setParallelThreshold(fOldThreshold);
+		ParallelEvaluator.setParallelism(fOldParallelism);
+	}
+}
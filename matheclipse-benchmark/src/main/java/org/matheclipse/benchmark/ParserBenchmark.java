@@ -0,0 +1,23 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.convert.AST2Expr;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.parser.client.Parser;
+
+/**
+ * Measure the <code>Parser</code> and the conversion of the parsed
+ * <code>ASTNode</code>s with <code>AST2Expr</code>, without evaluation.
+ */
+public class ParserBenchmark extends Benchmark {
+
+	public ParserBenchmark(final String name) {
+		super(name);
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		final Parser parser = new Parser();
+		return AST2Expr.CONST.convert(parser.parse(fInputs.get(index)));
+	}
+}
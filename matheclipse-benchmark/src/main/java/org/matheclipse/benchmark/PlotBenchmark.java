@@ -0,0 +1,37 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Measure <code>EvalEngine#evaluate()</code> of the parsed
+ * <code>Plot[]</code> and <code>Plot3D[]</code> inputs. The result is the
+ * number of the sampled numbers (i.e. the numbers outside of the option
+ * rules) of the graphics.
+ */
+public class PlotBenchmark extends EvaluationBenchmark {
+
+	public PlotBenchmark(final String name) {
+		super(name);
+	}
+
+	@Override
+	public String toString(final IExpr result) {
+		return Integer.toString(countNumbers(result));
+	}
+
+	private static int countNumbers(final IExpr expr) {
+		if (expr.isAST()) {
+			int count = 0;
+			for (IExpr arg : (IAST) expr) {
+				if (arg.isNumber()) {
+					count++;
+				} else if (!arg.isRuleAST()) {
+					count += countNumbers(arg);
+				}
+			}
+			return count;
+		}
+		return 0;
+	}
+}
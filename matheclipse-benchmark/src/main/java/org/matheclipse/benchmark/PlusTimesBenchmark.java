@@ -0,0 +1,58 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Measure the collection of the like terms of large sums and products. Every
+ * input <code>Plus n</code> or <code>Times n</code> is generated as an AST with
+ * <code>n</code> arguments, because the parser would dominate the inputs of
+ * this size. The result is the number of the collected terms.
+ */
+public class PlusTimesBenchmark extends Benchmark {
+	private IAST[] fExpressions;
+
+	public PlusTimesBenchmark(final String name) {
+		super(name);
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fExpressions = new IAST[size()];
+		for (int i = 0; i < fExpressions.length; i++) {
+			final String[] input = fInputs.get(i).split(" ");
+			final int n = Integer.parseInt(input[1]);
+			final ISymbol[] symbols = new ISymbol[n / 2];
+			for (int j = 0; j < symbols.length; j++) {
+				symbols[j] = F.$s("$x" + j);
+			}
+			final IAST ast;
+			if (input[0].equals("Plus")) {
+				ast = F.Plus();
+				for (int j = 0; j < n; j++) {
+					ast.add(F.Times(F.integer(j % symbols.length + 1), symbols[j % symbols.length]));
+				}
+			} else {
+				ast = F.Times();
+				for (int j = 0; j < n; j++) {
+					ast.add(F.Power(symbols[j % symbols.length], F.integer(j % symbols.length + 1)));
+				}
+			}
+			fExpressions[i] = ast;
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		// the evaluation may sort the arguments in place
+		return engine.evaluate(fExpressions[index].clone());
+	}
+
+	@Override
+	public String toString(final IExpr result) {
+		return Integer.toString(((IAST) result).size() - 1);
+	}
+}
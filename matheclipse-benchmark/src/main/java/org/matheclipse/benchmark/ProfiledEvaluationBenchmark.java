@@ -0,0 +1,36 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.EvalProfiler;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Measure <code>EvalEngine#evaluate()</code> of the parsed inputs with a new
+ * <code>EvalProfiler</code> for every evaluation, like <code>Profile[]</code>
+ * evaluates its argument.
+ */
+public class ProfiledEvaluationBenchmark extends EvaluationBenchmark {
+	private final boolean fAllocations;
+
+	/**
+	 * 
+	 * @param name
+	 * @param corpus
+	 * @param allocations
+	 *          measure the allocated bytes of the evaluations
+	 */
+	public ProfiledEvaluationBenchmark(final String name, final String corpus, final boolean allocations) {
+		super(name, corpus);
+		fAllocations = allocations;
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		final EvalProfiler previous = engine.beginProfile(new EvalProfiler(fAllocations));
+		try {
+			return super.run(engine, index);
+		} finally {
+			engine.endProfile(previous);
+		}
+	}
+}
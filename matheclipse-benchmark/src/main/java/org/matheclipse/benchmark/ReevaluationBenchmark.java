@@ -0,0 +1,40 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Measure the evaluation of large, already evaluated results, which are
+ * passed through another evaluation round. The inputs are evaluated in the
+ * setup. The result is the number of the arguments of the evaluated
+ * expression.
+ */
+public class ReevaluationBenchmark extends Benchmark {
+	private IExpr[] fResults;
+
+	public ReevaluationBenchmark(final String name) {
+		super(name);
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fResults = new IExpr[size()];
+		for (int i = 0; i < fResults.length; i++) {
+			fResults[i] = engine.evaluate(engine.parse(fInputs.get(i)));
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		return engine.evaluate(fResults[index]);
+	}
+
+	@Override
+	public String toString(final IExpr result) {
+		if (result.isAST()) {
+			return Integer.toString(((IAST) result).size() - 1);
+		}
+		return super.toString(result);
+	}
+}
@@ -0,0 +1,47 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+
+/**
+ * Measure <code>ReplaceAll</code> and <code>ReplaceRepeated</code> on a large
+ * held list with the given value of <code>Config.INCREMENTAL_REPLACE</code>.
+ * The setup defines the list <code>$model</code> with 2000 terms and the rules
+ * <code>$chain</code>, which rewrite a chain of 50 symbols, which occurs in
+ * only one element of the list.
+ */
+public class ReplaceBenchmark extends ConfigEvaluationBenchmark {
+	private final static int TERMS = 2000;
+
+	private final static int CHAIN = 50;
+
+	public ReplaceBenchmark(final String name, final String corpus, final boolean incremental) {
+		super(name, corpus, "INCREMENTAL_REPLACE", incremental);
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		final StringBuilder model = new StringBuilder("$model=Hold[{");
+		for (int i = 0; i < TERMS; i++) {
+			model.append("c" + i + "*f[t" + i + ",g[u" + i + "]],");
+		}
+		model.append("h[s0]}]");
+		engine.evaluate(model.toString());
+
+		final StringBuilder chain = new StringBuilder("$chain={");
+		for (int i = 0; i < CHAIN; i++) {
+			if (i > 0) {
+				chain.append(",");
+			}
+			chain.append("s" + i + "->s" + (i + 1));
+		}
+		chain.append("}");
+		engine.evaluate(chain.toString());
+		super.setUp(engine);
+	}
+
+	@Override
+	public void tearDown(final EvalEngine engine) {
+		super.tearDown(engine);
+		engine.evaluate("Clear[$model,$chain]");
+	}
+}
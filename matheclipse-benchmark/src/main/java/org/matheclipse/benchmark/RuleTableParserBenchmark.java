@@ -0,0 +1,117 @@
+package org.matheclipse.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.matheclipse.core.convert.AST2Expr;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.form.output.OutputFormFactory;
+import org.matheclipse.core.form.output.StringBufferWriter;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.parser.ExprParser;
+import org.matheclipse.parser.client.Parser;
+import org.matheclipse.parser.client.ast.ASTNode;
+
+/**
+ * Measure the parsing of the Rubi rules, which are written as a rule table
+ * with one rule per line in the setup. Every input is the name of the rule
+ * classes <code>org.matheclipse.core.integrate.rubi.&lt;name&gt;0, 1, ...</code>.
+ * The rule table is parsed in package mode by the <code>Parser</code> with the
+ * conversion of the <code>ASTNode</code>s by <code>AST2Expr</code>, by the
+ * <code>ExprParser</code> or by the streaming <code>ExprParser</code>. The
+ * result is the number of the parsed rules.
+ */
+public class RuleTableParserBenchmark extends Benchmark {
+	public final static int AST2EXPR = 0;
+
+	public final static int EXPR_PARSER = 1;
+
+	public final static int STREAMING = 2;
+
+	private final int fMethod;
+
+	private String[] fRuleTables;
+
+	/**
+	 * 
+	 * @param name
+	 * @param corpus
+	 * @param method
+	 *          one of <code>AST2EXPR, EXPR_PARSER, STREAMING</code>
+	 */
+	public RuleTableParserBenchmark(final String name, final String corpus, final int method) {
+		super(name, corpus);
+		fMethod = method;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fRuleTables = new String[size()];
+		for (int i = 0; i < fRuleTables.length; i++) {
+			fRuleTables[i] = ruleTable(fInputs.get(i));
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		final String input = fRuleTables[index];
+		int count = 0;
+		if (fMethod == AST2EXPR) {
+			final List<ASTNode> nodes = new Parser(false, true).parseList(input);
+			for (ASTNode node : nodes) {
+				AST2Expr.CONST.convert(node);
+			}
+			count = nodes.size();
+		} else if (fMethod == EXPR_PARSER) {
+			count = new ExprParser(false, true).parseList(input).size();
+		} else {
+			final ExprParser parser = new ExprParser(false, true);
+			parser.setInput(input);
+			while (parser.hasNext()) {
+				parser.next();
+				count++;
+			}
+		}
+		return F.integer(count);
+	}
+
+	/**
+	 * Write the rules of the given Rubi rule classes in <code>OutputForm</code>
+	 * with one rule per line.
+	 *
+	 * @param name
+	 * @return
+	 */
+	private static String ruleTable(final String name) {
+		final StringBuilder builder = new StringBuilder(1024 * 1024);
+		for (int j = 0;; j++) {
+			final Class<?> rulesClass;
+			try {
+				rulesClass = Class.forName("org.matheclipse.core.integrate.rubi." + name + j);
+			} catch (final ClassNotFoundException e) {
+				break;
+			}
+			final IAST rules;
+			try {
+				rules = (IAST) rulesClass.getField("RULES").get(null);
+			} catch (final Exception e) {
+				throw new IllegalStateException(e);
+			}
+			for (int k = 1; k < rules.size(); k++) {
+				final StringBufferWriter buf = new StringBufferWriter();
+				buf.setIgnoreNewLine(true);
+				try {
+					OutputFormFactory.get().convert(buf, rules.get(k));
+				} catch (final IOException e) {
+					throw new IllegalStateException(e);
+				}
+				// the rule table doesn't use contexts
+				builder.append(buf.toString().replace("Integrate::", ""));
+				builder.append('\n');
+			}
+		}
+		return builder.toString();
+	}
+}
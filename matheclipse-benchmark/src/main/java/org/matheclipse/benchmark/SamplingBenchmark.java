@@ -0,0 +1,72 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.basic.Alloc;
+import org.matheclipse.core.eval.EvalDouble;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.Num;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Measure the sampling of the input functions of <code>x</code>, like they are
+ * sampled by <code>Plot[]</code> or <code>NIntegrate[]</code>. The functions
+ * are either interpreted by <code>EvalDouble</code> or compiled by the
+ * <code>ExprCompiler</code>. The result is the sum of the samples.
+ */
+public class SamplingBenchmark extends Benchmark {
+	private final static int SAMPLES = 10000;
+
+	private final boolean fCompiled;
+
+	private ISymbol fVariable;
+
+	private IExpr[] fFunctions;
+
+	private ICompiledFunction[] fCompiledFunctions;
+
+	public SamplingBenchmark(final String name, final String corpus, final boolean compiled) {
+		super(name, corpus);
+		fCompiled = compiled;
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		fVariable = F.$s("x");
+		fFunctions = new IExpr[size()];
+		fCompiledFunctions = new ICompiledFunction[size()];
+		for (int i = 0; i < fFunctions.length; i++) {
+			fFunctions[i] = engine.parse(fInputs.get(i));
+			if (fCompiled) {
+				fCompiledFunctions[i] = ExprCompiler.compile(fFunctions[i], fVariable);
+			}
+		}
+	}
+
+	@Override
+	public IExpr run(final EvalEngine engine, final int index) {
+		double sum = 0.0;
+		if (fCompiled) {
+			final ICompiledFunction function = fCompiledFunctions[index];
+			for (int i = 0; i < SAMPLES; i++) {
+				sum += function.apply(i * 1.0e-4);
+			}
+		} else {
+			final IExpr function = fFunctions[index];
+			for (int i = 0; i < SAMPLES; i++) {
+				final Alloc alloc = Alloc.get();
+				final double[] stack = alloc.vector(10);
+				try {
+					fVariable.pushLocalVariable(Num.valueOf(i * 1.0e-4));
+					sum += EvalDouble.eval(stack, 0, function);
+				} finally {
+					fVariable.popLocalVariable();
+					alloc.freeVector(10);
+				}
+			}
+		}
+		return F.num(sum);
+	}
+}
@@ -0,0 +1,33 @@
+package org.matheclipse.benchmark;
+
+import org.matheclipse.core.eval.EvalEngine;
+
+/**
+ * Measure pattern searches in a large list with the given value of
+ * <code>Config.SYMBOL_MASK_PRUNING</code>. The setup defines the list
+ * <code>$list</code> with 2000 terms of distinct symbols.
+ */
+public class SymbolMaskBenchmark extends ConfigEvaluationBenchmark {
+	private final static int TERMS = 2000;
+
+	public SymbolMaskBenchmark(final String name, final String corpus, final boolean pruning) {
+		super(name, corpus, "SYMBOL_MASK_PRUNING", pruning);
+	}
+
+	@Override
+	public void setUp(final EvalEngine engine) {
+		final StringBuilder list = new StringBuilder("$list={");
+		for (int i = 0; i < TERMS; i++) {
+			list.append("c" + i + "*f[t" + i + ",g[u" + i + ",{v" + i + ",w" + i + "^2}]],");
+		}
+		list.append("h[s0]}");
+		engine.evaluate(list.toString());
+		super.setUp(engine);
+	}
+
+	@Override
+	public void tearDown(final EvalEngine engine) {
+		super.tearDown(engine);
+		engine.evaluate("Clear[$list]");
+	}
+}
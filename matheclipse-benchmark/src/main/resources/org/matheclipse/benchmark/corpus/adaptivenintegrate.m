@@ -0,0 +1,5 @@
+# singular, infinite and two-dimensional integrals, which only the GaussKronrod method evaluates
+NIntegrate[1/Sqrt[x],{x,0,1}]
+NIntegrate[Exp[-x^2],{x,-Infinity,Infinity}]
+NIntegrate[Exp[-x^2-y^2],{x,-Infinity,Infinity},{y,-Infinity,Infinity}]
+NIntegrate[Sin[x*y],{x,0,3},{y,0,3}]
@@ -0,0 +1,5 @@
+# the plots of uniformplot.m with the adaptive refinement of a coarse grid
+Plot[Sin[x]+Sin[7*x]/7,{x,0,20},PlotPoints->100,MaxRecursion->4]
+Plot[Tan[x],{x,0,10},PlotPoints->100,MaxRecursion->6]
+Plot3D[x^2-y^2,{x,-3,3},{y,-3,3},PlotPoints->21,MaxRecursion->3]
+Plot3D[Sin[x*y],{x,-3,3},{y,-3,3},PlotPoints->21,MaxRecursion->3]
@@ -0,0 +1,2 @@
+# the first evaluation in a new JVM
+Integrate[x^2*Sin[x],x]
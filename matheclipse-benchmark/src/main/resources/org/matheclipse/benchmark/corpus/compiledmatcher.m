@@ -0,0 +1,15 @@
+# rule heavy evaluations of Integrate, Simplify and the trigonometric rewriting
+Integrate[x^(-1),x]
+Integrate[x^a,x]
+Integrate[x^10,x]
+Integrate[Sin[x],x]
+Integrate[(-1+x)*(1+x)*(1+x^2)*(1+x^4)*(1+x^8),x]
+Integrate[-x^(-2),x]
+Integrate[x*E^x,x]
+Integrate[x^2*E^(a*x),x]
+Simplify[1/2*(2*x+2)]
+Simplify[D[(x+2)*(3*x^2+2*x+2)*x^(-1)*(x^2+2)^(-2)+Log[x],x]]
+TrigReduce[Cos[x]*Cos[y]*Sin[x]]
+TrigReduce[Sin[x]^3]
+TrigToExp[ArcTan[x]]
+TrigExpand[Sin[x+y]]
@@ -0,0 +1,6 @@
+D[Sin[x]^10,x]
+D[x^x,x]
+D[Exp[x^2]*Log[x],x,x,x]
+D[ArcTan[x/y],y]
+D[(x^2+1)^10,x]
+D[Sin[Cos[Tan[x]]],x]
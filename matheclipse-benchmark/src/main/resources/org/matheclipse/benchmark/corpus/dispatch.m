@@ -0,0 +1,2 @@
+# substitute the parameter table $table into the held model $model
+LeafCount[$model /. $table]
@@ -0,0 +1,4 @@
+# formulas of the columns x, y, a, b, which are evaluated for 100000 rows
+a*x+b*y
+If[x>y, Sqrt[x]*Log[y+1], ArcTan[x,y]]-Exp[-x*y]
+a*x^2+b*y^2+Max[x,y]/(1+a^2*b^2)
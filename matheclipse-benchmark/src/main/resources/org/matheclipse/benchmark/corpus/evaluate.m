@@ -0,0 +1,13 @@
+# representative inputs of EvalEngine.evaluate
+1+2*3^4-5/6
+Table[i^2,{i,1,100}]
+Sum[1/k^2,{k,1,50}]
+Fibonacci[200]
+N[Sin[1/3]*Exp[2]]
+Sort[{5,3,9,1,7,2,8,6,4}]
+Apply[Plus,Range[1000]]
+Map[#^2&,{a,b,c,d}]
+Nest[(#+2/#)/2&,1,6]
+Module[{s=0},Do[s=s+i,{i,1,1000}];s]
+Select[Range[200],PrimeQ]
+Total[Table[x^i,{i,0,20}]]
@@ -0,0 +1,5 @@
+Expand[(a+b+c)^6]
+Expand[(x+1)^20]
+ExpandAll[(x+y)^5*(x-y)^5]
+Expand[Expand[(a+b)^3]*Expand[(c+d)^3]]
+ExpandAll[(x+1)^3/(y+1)^2+(a+b)^4]
@@ -0,0 +1,6 @@
+Factor[x^4-1]
+Factor[x^10-1]
+Factor[x^2+2*x+1]
+Factor[x^6-x^5-x+1]
+Factor[2*x^3+4*x^2-6*x]
+Factor[x^8+x^7-x-1]
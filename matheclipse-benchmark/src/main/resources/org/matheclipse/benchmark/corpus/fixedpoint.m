@@ -0,0 +1,4 @@
+# large evaluated lists, matrices and sums, which are evaluated again
+Table[i*j+x,{i,300},{j,300}]
+Table[f[i,x^i],{i,50000}]
+Expand[(a+b+c+d)^12]
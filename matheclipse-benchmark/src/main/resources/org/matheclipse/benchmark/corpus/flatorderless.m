@@ -0,0 +1,21 @@
+# MatchQ with sums and products in the style of the Rubi rules and the Rubi integrals, which match Flat and Orderless functions
+MatchQ[a*Sin[x]^2+b*Cos[x]^2+c+d*x+e*x^2, u_+a_*Sin[v_]^2+b_*Cos[v_]^2]
+MatchQ[a+b*x+c*x^2+d*x^3+e*x^4+f*x^5, u_+c_*x^2+d_*x^3]
+MatchQ[2*a*b*c*d*e*f*g*h*x^3, n_Integer*u_*x_^m_]
+MatchQ[a+b*x+c*y+d*z+e*x*y+f*x*z+g*y*z, u_+e_*x*y+f_*x*z+g_*y*z]
+MatchQ[a*x+b*y+c*z+d*w+e*v, u_+v_+w_+a*x]
+MatchQ[a*b*c*d*e*f*Sin[x]*Cos[x], u_*Sin[x_]*Cos[x_]]
+# the following patterns don't match
+MatchQ[a+b*x+c*x^2+d*x^3+e*x^4+f*x^5, u_+c_*x^2+d_*x^6]
+MatchQ[a*b*c*d*e*Sin[x]*Cos[x], u_*Sin[x_]*Cos[x_]*Tan[x_]]
+MatchQ[a*b*c*d*e*f*Sin[x]*Cos[y], u_*Sin[x_]*Cos[x_]]
+Integrate[x^(-1),x]
+Integrate[x^a,x]
+Integrate[x^10,x]
+Integrate[x,x]
+Integrate[2x,x]
+Integrate[Sin[x],x]
+Integrate[(-1+x)*(1+x)*(1+x^2)*(1+x^4)*(1+x^8),x]
+Integrate[-x^(-2),x]
+Integrate[(a+b*x)*(c+d*x),x]
+Integrate[x*(a+b*x+c*x^2),x]
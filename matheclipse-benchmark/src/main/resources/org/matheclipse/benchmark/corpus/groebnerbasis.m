@@ -0,0 +1,4 @@
+GroebnerBasis[{x^2-y,y^2-x},{x,y}]
+GroebnerBasis[{x^2+y^2+z^2-1,x-y,y-z},{x,y,z}]
+GroebnerBasis[{x*y-1,x^2+y^2-4},{x,y}]
+GroebnerBasis[{a+b+c,a*b+b*c+a*c,a*b*c-1},{a,b,c}]
@@ -0,0 +1,9 @@
+# large results of Expand and Integrate, which share many subexpressions
+Expand[(a+b+c)^10]
+Expand[(a+b)^20*(a-b)^10]
+Expand[(x+1)^30]
+Table[Expand[(x+i)^5],{i,20}]
+Integrate[Sin[x]*Cos[x],x]
+Integrate[1/(x^2+1),x]
+Integrate[(2*x+5)/(x^2-2*x+5),x]
+Integrate[1/(x^3+1),x]
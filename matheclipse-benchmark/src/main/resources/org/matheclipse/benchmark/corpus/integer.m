@@ -0,0 +1,7 @@
+# small integer arithmetic in loops, tables and sums
+Do[i^2,{i,10000}]
+Length[Table[i*(i+1),{i,10000}]]
+Total[Range[10000]]
+Length[Table[x^i,{i,1000}]]
+Do[{1,2,3,4,5}[[Mod[i,5]+1]],{i,10000}]
+Sum[Mod[i,7],{i,10000}]
@@ -0,0 +1,7 @@
+Integrate[x^2*Sin[x],x]
+Integrate[1/(x^2+1),x]
+Integrate[E^x*(2-x^2),x]
+Integrate[(x^2+1)*Log[x],x]
+Integrate[1/(x^3+1),x]
+Integrate[(8*x+1)/(x^2+x+1)^2,x]
+Integrate[Sin[x]*Cos[x],x]
@@ -0,0 +1,6 @@
+# numeric Det and LinearSolve
+Det[{{1.0,2.0,3.0},{4.0,5.0,6.5},{7.0,8.0,10.0}}]
+Det[Table[1.0/(i+j-1),{i,1,8},{j,1,8}]]
+LinearSolve[{{2.0,1.0,1.0},{1.0,3.0,2.0},{1.0,0.0,0.0}},{4.0,5.0,6.0}]
+LinearSolve[Table[1.0/(i+j-1)+If[i==j,1.0,0.0],{i,1,8},{j,1,8}],Table[1.0*i,{i,1,8}]]
+Inverse[{{4.0,7.0},{2.0,6.0}}]
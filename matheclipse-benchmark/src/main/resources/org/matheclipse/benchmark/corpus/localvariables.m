@@ -0,0 +1,5 @@
+# loops, which bind their iteration variables and Block variables
+Do[i^2,{i,20000}]
+Length[Table[Sin[i*0.001],{i,20000}]]
+Sum[i^2,{i,20000}]
+Block[{x=2},Do[x*i,{i,20000}]]
@@ -0,0 +1,13 @@
+# integrals of the IntegrateTestCase, whose rules use FreeQ in most of the conditions
+Integrate[Sin[x]*Cos[x],x]
+Integrate[x^a,x]
+Integrate[(x^2+2*x+3)^(-1),x]
+Integrate[(2*x+5)/(x^2-2*x+5),x]
+Integrate[(8*x+1)/(x^2+2*x+1),x]
+Integrate[1/(x^3+1),x]
+Integrate[E^x*(2-x^2),x]
+Integrate[(x^2+1)Log[x],x]
+Integrate[2*x^2/(x^3+1),x]
+Integrate[Sin[x]^3,x]
+Integrate[Cos[2x]^3,x]
+Integrate[x^3*E^(a*x),x]
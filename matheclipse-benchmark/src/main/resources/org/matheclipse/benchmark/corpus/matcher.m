@@ -0,0 +1,9 @@
+# the PatternMatcher in the Rubi, Simplify, D and Expand rules
+Integrate[x^(-1),x]
+Integrate[x^a,x]
+Integrate[Sin[x],x]
+Integrate[(-1+x)*(1+x)*(1+x^2)*(1+x^4)*(1+x^8),x]
+Simplify[1/2*(2*x+2)]
+Simplify[D[(x+2)*(3*x^2+2*x+2)*x^(-1)*(x^2+2)^(-2)+Log[x],x]]
+D[Sin[x]^Cos[x],x]
+Expand[(a+b+c)^5]
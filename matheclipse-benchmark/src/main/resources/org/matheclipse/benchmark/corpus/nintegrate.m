@@ -0,0 +1,5 @@
+# integrals, which are measured with every NIntegrate method
+NIntegrate[(x-1)*(x-0.5)*x*(x+0.5)*(x+1),{x,0,1}]
+NIntegrate[Exp[x]*Sin[10*x],{x,0,3}]
+NIntegrate[Sqrt[x],{x,0,1}]
+NIntegrate[1/(1+25*x^2),{x,-1,1}]
@@ -0,0 +1,6 @@
+# formatting of evaluated results
+Expand[(a+b+c)^8]
+Table[i*x^i,{i,1,200}]
+N[Table[Sin[i],{i,1,100}]]
+Integrate[(x^2+1)*Log[x],x]
+Table[1/(i+j-1),{i,1,10},{j,1,10}]
@@ -0,0 +1,9 @@
+# list and matrix functions of the 1000x1000 matrix m, its first row v and the 60x60 matrix s
+Total[v]
+v+v
+2.5*v
+v.v
+Transpose[m]
+s.s
+Det[s]
+Inverse[s]
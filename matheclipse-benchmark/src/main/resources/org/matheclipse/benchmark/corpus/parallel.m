@@ -0,0 +1,5 @@
+# large lists, Map, Table and ParallelMap, which are evaluated in parallel
+Length[Table[Expand[(x+i)^10],{i,2000}]]
+Map[Factor,Table[x^i-1,{i,2,30}]]
+Total[Sin[Range[100000]*0.00001]]
+Count[ParallelMap[PrimeQ,Range[10^12,10^12+20000]],True]
@@ -0,0 +1,11 @@
+# parser and AST2Expr conversion without evaluation
+1+2*3^4-5/6
+a*x^2+b*x+c==0
+Integrate[(x^2+1)*Log[x],{x,0,1}]
+f[x_Integer, y_:1] := x^y /; x > 0
+{{1,2,3},{4,5,6},{7,8,9}} . {x,y,z}
+Module[{s=0}, Do[s=s+i^2, {i,1,100}]; s]
+Map[#^2+1&, Range[10]] /. x_Integer :> x+1
+If[a && b || !c, Sin[x]^2+Cos[x]^2, Sqrt[x]*Exp[-x^2]]
+(a+b+c+d+e+f+g+h)^10*(x1+x2+x3+x4+x5+x6+x7+x8+x9+x10)/(y1*y2*y3*y4*y5*y6*y7*y8*y9*y10)
+Table[Sum[1/(i+j-1),{j,1,n}],{i,1,n}]
@@ -0,0 +1,8 @@
+# rules with patterns, MatchQ, Cases and ReplaceAll
+$bf[x_Integer]:=x^2; Map[$bf,Range[200]]
+$bg[{a_,b_},c_]:=a*b+c; Table[$bg[{i,i+1},i],{i,1,100}]
+MatchQ[$f[a,b,c],$f[__]]
+Cases[Table[If[OddQ[i],$f[i],$g[i]],{i,1,200}],$f[_]]
+Table[x^i,{i,1,50}]/.x^n_:>n
+{a+b+c+d,a+c,b+d}/.a+c->z
+$fib[0]=0; $fib[1]=1; $fib[n_Integer]:=$fib[n-1]+$fib[n-2]; $fib[15]
@@ -0,0 +1,8 @@
+# Plus n: the sum 1*$x0+2*$x1+...+1*$x0+2*$x1+... of n terms with n/2 symbols
+# Times n: the product $x0^1*$x1^2*...*$x0^1*$x1^2*... of n factors with n/2 symbols
+Plus 100
+Times 100
+Plus 1000
+Times 1000
+Plus 10000
+Times 10000
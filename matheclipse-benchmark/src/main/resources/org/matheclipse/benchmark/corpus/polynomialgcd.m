@@ -0,0 +1,4 @@
+PolynomialGCD[x^4-1,x^3-1]
+PolynomialGCD[(x+1)^3*(x-2),(x+1)^2*(x+3)]
+PolynomialGCD[x^10-1,x^15-1]
+PolynomialGCD[x^6+6*x^5+15*x^4+20*x^3+15*x^2+6*x+1,x^4+4*x^3+6*x^2+4*x+1]
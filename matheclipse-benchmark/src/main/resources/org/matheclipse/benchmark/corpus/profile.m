@@ -0,0 +1,4 @@
+# evaluations, which are measured without and with the profiler of Profile[]
+Expand[(a+b+c)^8]
+Integrate[x^2*Sin[x],x]
+N[Sum[Sin[k]^2,{k,1,300}]]
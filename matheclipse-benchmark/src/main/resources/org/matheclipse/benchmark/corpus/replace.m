@@ -0,0 +1,4 @@
+# ReplaceRepeated and ReplaceAll on the held list $model with 2000 terms
+Part[$model //. $chain,1,-1]
+Part[$model /. {h[x_]->x, z->0},1,-1]
+Part[$model /. u7->0,1,8]
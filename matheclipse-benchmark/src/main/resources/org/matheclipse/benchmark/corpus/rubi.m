@@ -0,0 +1,9 @@
+# Integrate[] with the Rubi rules, which are selected by the pattern rules index
+Integrate[x^(-1),x]
+Integrate[x^a,x]
+Integrate[x^10,x]
+Integrate[x,x]
+Integrate[2x,x]
+Integrate[Sin[x],x]
+Integrate[(-1+x)*(1+x)*(1+x^2)*(1+x^4)*(1+x^8),x]
+Integrate[-x^(-2),x]
@@ -0,0 +1,3 @@
+# the Rubi rule classes, which are written as rule table with one rule per line
+IndefiniteIntegrationRules
+UtilityFunctions
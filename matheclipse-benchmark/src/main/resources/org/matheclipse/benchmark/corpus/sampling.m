@@ -0,0 +1,5 @@
+# functions of x, which are sampled 10000 times in [0,1)
+x^2+Sin[x]
+Sin[x]*Cos[x]^2+Exp[-x^2]/(1+x^2)
+If[x<0,Sqrt[Abs[x]],x^3-2*x+1]
+Sin[x]+Sin[2*x]/2+Sin[3*x]/3+Sin[4*x]/4+Sin[5*x]/5
@@ -0,0 +1,5 @@
+Simplify[1/2*(2*x+2)]
+Simplify[(x^2-1)/(x-1)]
+Simplify[Integrate[(8*x+1)/(x^2+x+1)^2,x]]
+Simplify[a*b+a*c+a*d]
+Simplify[(x+1)^2-x^2-2*x]
@@ -0,0 +1,7 @@
+# FreeQ, MemberQ, Count, Cases and Position in the list $list with 2000 terms
+FreeQ[$list,s0]
+FreeQ[$list,k[_]]
+MemberQ[$list,k[_]]
+Count[$list,h[_],Infinity]
+Cases[$list,h[x_]->x,Infinity]
+Position[$list,k[_]]
@@ -0,0 +1,5 @@
+# plots with a uniform fine grid
+Plot[Sin[x]+Sin[7*x]/7,{x,0,20},PlotPoints->1000,MaxRecursion->0]
+Plot[Tan[x],{x,0,10},PlotPoints->1000,MaxRecursion->0]
+Plot3D[x^2-y^2,{x,-3,3},{y,-3,3},PlotPoints->161,MaxRecursion->0]
+Plot3D[Sin[x*y],{x,-3,3},{y,-3,3},PlotPoints->161,MaxRecursion->0]
@@ -30,12 +30,20 @@ public class Config {
 	public final static long FOREVER = 0L;
 
 	/**
-	 * The time in milliseconds an evaluation thread should sleep until
-	 * <code>Thread#stop()</code> will be called.
+	 * The time in milliseconds a cancelled evaluation thread could need to stop
+	 * by itself, before the evaluation is abandoned.
 	 * 
 	 */
 	public final static long TIME_CONSTRAINED_SLEEP_MILLISECONDS = 500;
 
+	/**
+	 * The maximum number of threads in the pool of the
+	 * <code>TimeConstrainedEvaluator</code>. Further evaluations wait for a free
+	 * thread.
+	 * 
+	 */
+	public static int TIME_CONSTRAINED_THREADS = 64;
+
 	/**
 	 * Switch debug mode on/off
 	 * 
@@ -72,6 +80,16 @@ public class Config {
 	 */
 	public static boolean SERVER_MODE = false;
 
+	/**
+	 * The classpath resource of the precompiled symbol image, which is loaded by
+	 * <code>F.initSymbols()</code> instead of <code>System.mep</code> and the
+	 * rules of the built-in functions, if it exists. <code>null</code> disables
+	 * the image.
+	 * 
+	 * @see org.matheclipse.core.eval.SymbolImage
+	 */
+	public static String SYMBOL_IMAGE = "/System.image";
+
 	/**
 	 * See <a href="http://en.wikipedia.org/wiki/Machine_epsilon">Wikipedia:
 	 * Machine epsilon</a>
@@ -169,4 +187,61 @@ public class Config {
 	 * @see org.matheclipse.core.basic.Alloc
 	 */
 	public static int MAX_DOUBLE_MATRIX_SIZE = 65536;
+
+	/**
+	 * Maximum number of sample points of one curve or surface of the
+	 * <code>Plot[]</code>, <code>ParametricPlot[]</code> and
+	 * <code>Plot3D[]</code> functions. The adaptive refinement stops, if this
+	 * number would be exceeded.
+	 * 
+	 * @see org.matheclipse.core.eval.util.AdaptiveSampler
+	 */
+	public static int MAX_PLOT_POINTS = 65536;
+
+	/**
+	 * Match the arguments of <code>Flat</code>, <code>Orderless</code> and
+	 * <code>OneIdentity</code> functions (i.e. <code>Plus[], Times[]</code>)
+	 * with the pruned matcher, which assigns literal and head restricted pattern
+	 * arguments before the remaining arguments are enumerated. If
+	 * <code>false</code> all permutations and partitions of the arguments are
+	 * enumerated.
+	 * 
+	 * @see org.matheclipse.core.patternmatching.PatternMatcher.PrunedFlatOrderlessMatcher
+	 */
+	public static boolean PRUNED_FLAT_ORDERLESS_MATCHING = true;
+
+	/**
+	 * Compile the left-hand-sides of pattern matching rules, which could be
+	 * matched without backtracking, when the rule is added to the
+	 * <code>RulesData</code> of a symbol. If <code>false</code> the compiled
+	 * matchers aren't used and all rules are matched by the
+	 * <code>PatternMatcher</code>.
+	 * 
+	 * @see org.matheclipse.core.patternmatching.CompiledMatcher
+	 */
+	public static boolean COMPILE_PATTERN_MATCHERS = true;
+
+	/**
+	 * Skip the subexpressions in <code>ReplaceAll</code> and
+	 * <code>ReplaceRepeated</code>, which can't be changed by the rules: the
+	 * subexpressions which don't contain the symbols required by the
+	 * left-hand-sides and, in the passes of <code>ReplaceRepeated</code>, the
+	 * subexpressions which were left unchanged by the previous pass. If
+	 * <code>false</code> all subexpressions are visited in every pass.
+	 * 
+	 * @see org.matheclipse.core.visit.VisitorReplaceAll
+	 */
+	public static boolean INCREMENTAL_REPLACE = true;
+
+	/**
+	 * Use the cached <code>IExpr#symbolMask()</code> summaries of the
+	 * expressions in <code>FreeQ, MemberQ, Cases, Count</code> and
+	 * <code>Position</code> to return early, if the expression can't contain a
+	 * match of the pattern, and to skip the subexpressions, which don't contain
+	 * the symbols required by the pattern. If <code>false</code> all
+	 * subexpressions are matched.
+	 * 
+	 * @see org.matheclipse.core.patternmatching.PatternMatcher#requiredSymbolMask(org.matheclipse.core.interfaces.IExpr)
+	 */
+	public static boolean SYMBOL_MASK_PRUNING = true;
 }
@@ -35,10 +35,10 @@ public class AST2Expr {
 			"Apart", "Append", "AppendTo", "Apply", "ArcCos", "ArcSin", "ArcTan", "Arg", "Array", "AtomQ", "Binomial", "Blank", "Block",
 			"Boole", "Break", "Cancel", "CartesianProduct", "Cases", "Catalan", "CatalanNumber", "Catch", "Ceiling",
 			"CharacteristicPolynomial", "ChessboardDistance", "Chop", "Clear", "ClearAll", "Coefficient", "CoefficientList",
-			"Complement", "Complex", "ComplexInfinity", "ComposeList", "CompoundExpression", "Condition", "Conjugate", "ConstantArray",
+			"Compile", "CompiledFunction", "Complement", "Complex", "ComplexInfinity", "ComposeList", "CompoundExpression", "Condition", "Conjugate", "ConstantArray",
 			"Continue", "ContinuedFraction", "CoprimeQ", "Cos", "Cosh", "Cot", "Count", "Cross", "Csc", "Curl", "D", "Decrement",
 			"Default", "Definition", "Degree", "Delete", "Denominator", "Depth", "Derivative", "Det", "DiagonalMatrix", "DigitQ",
-			"Dimensions", "Discriminant", "Distribute", "Divergence", "DivideBy", "Do", "Dot", "Drop", "E", "Eigenvalues",
+			"Dimensions", "Discriminant", "Dispatch", "Distribute", "Divergence", "DivideBy", "Do", "Dot", "Drop", "E", "Eigenvalues",
 			"Eigenvectors", "Equal", "Erf", "EuclidianDistance", "EulerGamma", "EulerPhi", "EvenQ", "Exp", "Expand", "ExpandAll",
 			"Exponent", "ExtendedGCD", "Extract", "Factor", "Factorial", "Factorial2", "FactorInteger", "FactorSquareFree",
 			"FactorSquareFreeList", "FactorTerms", "Fibonacci", "FindRoot", "First", "Fit", "FixedPoint", "Floor", "Fold", "FoldList",
@@ -51,11 +51,12 @@ public class AST2Expr {
 			"MapAll", "MapThread", "MatchQ", "MatrixPower", "MatrixQ", "Max", "Mean", "Median", "MemberQ", "Min", "Mod", "Module",
 			"MoebiusMu", "Most", "Multinomial", "N", "Negative", "Nest", "NestList", "NextPrime", "NFourierTransform", "NIntegrate",
 			"NonCommutativeMultiply", "NonNegative", "Norm", "Not", "NRoots", "NumberQ", "Numerator", "NumericQ", "OddQ", "Or", "Order",
-			"OrderedQ", "Out", "Outer", "Package", "PadLeft", "PadRight", "ParametricPlot", "Part", "Partition", "Pattern",
+			"OrderedQ", "Out", "Outer", "Package", "PadLeft", "PadRight", "ParallelMap", "ParallelTable",
+			"ParametricPlot", "Part", "Partition", "Pattern",
 			"Permutations", "Pi", "Plot", "Plot3D", "Plus", "PolynomialExtendedGCD", "PolynomialGCD", "PolynomialLCM", "PolynomialQ",
 			"PolynomialQuotient", "PolynomialQuotientRemainder", "PolynomialRemainder", "Position", "Positive", "PossibleZeroQ", "Power",
 			"PowerExpand", "PowerMod", "PreDecrement", "PreIncrement", "Prepend", "PrependTo", "PrimeQ", "PrimitiveRoots", "Print",
-			"Product", "Quotient", "RandomInteger", "RandomReal", "Range", "Rational", "Rationalize", "Re", "Reap", "ReplaceAll",
+			"Product", "Profile", "Quotient", "RandomInteger", "RandomReal", "Range", "Rational", "Rationalize", "Re", "Reap", "ReplaceAll",
 			"ReplacePart", "ReplaceRepeated", "Rest", "Resultant", "Return", "Reverse", "Riffle", "RootIntervals", "Roots", "RotateLeft",
 			"RotateRight", "Round", "Rule", "RuleDelayed", "SameQ", "Scan", "Sec", "Select", "Set", "SetAttributes", "SetDelayed",
 			"Sign", "SignCmp", "Simplify", "Sin", "SingularValueDecomposition", "Sinh", "Solve", "Sort", "Sow", "Sqrt",
@@ -132,60 +133,10 @@ public class AST2Expr {
 			for (int i = 1; i < functionNode.size(); i++) {
 				ast.add(convert(functionNode.get(i)));
 			}
-			IExpr head = ast.head();
-			if (ast.isASTSizeGE(F.GreaterEqual, 3)) {
-				ISymbol compareHead = F.Greater;
-				return rewriteLessGreaterAST(ast, compareHead);
-			} else if (ast.isASTSizeGE(F.Greater, 3)) {
-				ISymbol compareHead = F.GreaterEqual;
-				return rewriteLessGreaterAST(ast, compareHead);
-			} else if (ast.isASTSizeGE(F.LessEqual, 3)) {
-				ISymbol compareHead = F.Less;
-				return rewriteLessGreaterAST(ast, compareHead);
-			} else if (ast.isASTSizeGE(F.Less, 3)) {
-				ISymbol compareHead = F.LessEqual;
-				return rewriteLessGreaterAST(ast, compareHead);
-			} else if (head.equals(F.PatternHead)) {
-				final IExpr expr = Pattern.CONST.evaluate(ast);
-				if (expr != null) {
-					return expr;
-				}
-			} else if (head.equals(F.BlankHead)) {
-				final IExpr expr = Blank.CONST.evaluate(ast);
-				if (expr != null) {
-					return expr;
-				}
-			} else if (head.equals(F.ComplexHead)) {
-				final IExpr expr = Complex.CONST.evaluate(ast);
-				if (expr != null) {
-					return expr;
-				}
-			} else if (head.equals(F.RationalHead)) {
-				final IExpr expr = Rational.CONST.evaluate(ast);
-				if (expr != null) {
-					return expr;
-				}
-			}
-			return ast;
+			return convertFunction(ast);
 		}
 		if (node instanceof SymbolNode) {
-			String nodeStr = node.getString();
-			if (fLowercaseEnabled) {
-				nodeStr = nodeStr.toLowerCase();
-				String temp = PREDEFINED_SYMBOLS_MAP.get(nodeStr);
-				if (temp != null) {
-					nodeStr = temp;
-				}
-			}
-
-			if (nodeStr.equals("I")) {
-				// special - convert on input
-				return F.CI;
-			} else if (nodeStr.equals("Infinity")) {
-				// special - convert on input
-				return F.CInfinity;
-			}
-			return F.$s(nodeStr);
+			return convertSymbol(node.getString());
 		}
 		// because of inheritance check Pattern2Node before PatternNode
 		if (node instanceof Pattern2Node) {
@@ -223,6 +174,80 @@ public class AST2Expr {
 		return F.$s(node.toString());
 	}
 
+	/**
+	 * Converts a parsed function, whose head and arguments are already converted.
+	 * Relations like <code>a<b<=c</code> are rewritten and the
+	 * <code>Pattern, Blank, Complex, Rational</code> functions are evaluated on
+	 * input.
+	 * 
+	 * @param ast
+	 *          the function with the converted head and arguments
+	 * @return
+	 */
+	public IExpr convertFunction(final IAST ast) {
+		IExpr head = ast.head();
+		if (ast.isASTSizeGE(F.GreaterEqual, 3)) {
+			ISymbol compareHead = F.Greater;
+			return rewriteLessGreaterAST(ast, compareHead);
+		} else if (ast.isASTSizeGE(F.Greater, 3)) {
+			ISymbol compareHead = F.GreaterEqual;
+			return rewriteLessGreaterAST(ast, compareHead);
+		} else if (ast.isASTSizeGE(F.LessEqual, 3)) {
+			ISymbol compareHead = F.Less;
+			return rewriteLessGreaterAST(ast, compareHead);
+		} else if (ast.isASTSizeGE(F.Less, 3)) {
+			ISymbol compareHead = F.LessEqual;
+			return rewriteLessGreaterAST(ast, compareHead);
+		} else if (head.equals(F.PatternHead)) {
+			final IExpr expr = Pattern.CONST.evaluate(ast);
+			if (expr != null) {
+				return expr;
+			}
+		} else if (head.equals(F.BlankHead)) {
+			final IExpr expr = Blank.CONST.evaluate(ast);
+			if (expr != null) {
+				return expr;
+			}
+		} else if (head.equals(F.ComplexHead)) {
+			final IExpr expr = Complex.CONST.evaluate(ast);
+			if (expr != null) {
+				return expr;
+			}
+		} else if (head.equals(F.RationalHead)) {
+			final IExpr expr = Rational.CONST.evaluate(ast);
+			if (expr != null) {
+				return expr;
+			}
+		}
+		return ast;
+	}
+
+	/**
+	 * Converts the name of a parsed symbol into an IExpr expression
+	 * 
+	 * @param nodeStr
+	 *          the name of the symbol
+	 * @return
+	 */
+	public IExpr convertSymbol(String nodeStr) {
+		if (fLowercaseEnabled) {
+			nodeStr = nodeStr.toLowerCase();
+			String temp = PREDEFINED_SYMBOLS_MAP.get(nodeStr);
+			if (temp != null) {
+				nodeStr = temp;
+			}
+		}
+
+		if (nodeStr.equals("I")) {
+			// special - convert on input
+			return F.CI;
+		} else if (nodeStr.equals("Infinity")) {
+			// special - convert on input
+			return F.CInfinity;
+		}
+		return F.$s(nodeStr);
+	}
+
 	/**
 	 * Convert less or greter relations on input. Example: convert expressions
 	 * like <code>a<b<=c</code> to <code>Less[a,b]&&LessEqual[b,c]</code>.
@@ -13,6 +13,7 @@ import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 import org.matheclipse.core.expression.ExprFieldElement;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.INumber;
@@ -129,6 +130,10 @@ public class Convert {
 		if (listMatrix == null) {
 			return null;
 		}
+		final double[][] packed = PackedArray.toDoubleMatrix(listMatrix);
+		if (packed != null) {
+			return new Array2DRowRealMatrix(packed, false);
+		}
 		final Object header = listMatrix.head();
 		if (header != F.List) {
 			return null;
@@ -166,20 +171,7 @@ public class Convert {
 		if (matrix == null) {
 			return null;
 		}
-		final int rowSize = matrix.getRowDimension();
-		final int colSize = matrix.getColumnDimension();
-
-		final IAST out = F.List();
-		IAST currOutRow;
-		for (int i = 0; i < rowSize; i++) {
-			currOutRow = F.List();
-			out.add(currOutRow);
-			for (int j = 0; j < colSize; j++) {
-				currOutRow.add(F.num(matrix.getEntry(i, j)));
-			}
-		}
-		out.addEvalFlags(IAST.IS_MATRIX);
-		return out;
+		return PackedArray.newMatrix(matrix.getData());
 	}
 
 	public static FieldVector<ExprFieldElement> list2Vector(final IAST listVector) throws ClassCastException,
@@ -205,6 +197,10 @@ public class Convert {
 		if (listVector == null) {
 			return null;
 		}
+		final double[] packed = PackedArray.toDoubleVector(listVector);
+		if (packed != null) {
+			return new ArrayRealVector(packed, false);
+		}
 		final Object header = listVector.head();
 		if (header != F.List) {
 			return null;
@@ -249,14 +245,7 @@ public class Convert {
 		if (vector == null) {
 			return null;
 		}
-		final int rowSize = vector.getDimension();
-
-		final IAST out = F.function(F.List);
-		for (int i = 0; i < rowSize; i++) {
-			out.add(F.num(vector.getEntry(i)));
-		}
-		out.addEvalFlags(IAST.IS_VECTOR);
-		return out;
+		return PackedArray.newInstance(vector.toArray());
 	}
 
 	/**
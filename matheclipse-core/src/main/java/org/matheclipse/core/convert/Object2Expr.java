@@ -4,8 +4,8 @@ import static org.matheclipse.core.expression.F.List;
 
 import java.math.BigDecimal;
 
-import org.matheclipse.core.expression.AST;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
@@ -110,25 +110,24 @@ public class Object2Expr { // extends Converter<Object, IExpr> {
 			return list;
 		}
 		if (obj instanceof int[]) {
-			return AST.newInstance(F.List, (int[]) obj);
+			return PackedArray.newInstance((int[]) obj);
+		}
+		if (obj instanceof long[]) {
+			return PackedArray.newInstance(((long[]) obj).clone());
 		}
 		if (obj instanceof double[]) {
-			return AST.newInstance(F.List, (double[]) obj);
+			return PackedArray.newInstance(((double[]) obj).clone());
 		}
 		if (obj instanceof double[][]) {
 			final double[][] dd = (double[][]) obj;
 			final IAST list = List();
 			for (int i = 0; i < dd.length; i++) {
-				final IAST row = List();
-				for (int j = 0; j < dd[i].length; j++) {
-					row.add(F.num(dd[i][j]));
-				}
-				list.add(row);
+				list.add(PackedArray.newInstance(dd[i].clone()));
 			}
 			return list;
 		}
 		if (obj instanceof org.apache.commons.math3.complex.Complex[]) {
-			return AST.newInstance(F.List, (org.apache.commons.math3.complex.Complex[]) obj);
+			return PackedArray.newInstance((org.apache.commons.math3.complex.Complex[]) obj);
 		}
 		if (obj instanceof boolean[]) {
 			final IAST list = List();
@@ -146,6 +145,6 @@ public class Object2Expr { // extends Converter<Object, IExpr> {
 	}
 
 	public static IExpr convertComplex(org.apache.commons.math3.complex.Complex[] array) throws ConversionException {
-		return AST.newInstance(F.List, array);
+		return PackedArray.newInstance(array);
 	}
 }
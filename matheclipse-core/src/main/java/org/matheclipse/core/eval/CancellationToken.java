@@ -0,0 +1,117 @@
+package org.matheclipse.core.eval;
+
+import org.matheclipse.core.eval.exception.TimeExceeded;
+
+/**
+ * The cancellation state of a single evaluation. A token is cancelled
+ * explicitly with {@link #cancel()} or implicitly, if its deadline has passed.
+ *
+ * The evaluation polls the token with {@link #check()}, which reads the system
+ * clock only every <code>CHECK_INTERVAL</code> calls, so that it could be
+ * called in the inner loops of the evaluation.
+ *
+ * @see EvalEngine#checkCanceled()
+ * @see TimeConstrainedEvaluator
+ */
+public class CancellationToken {
+	/**
+	 * The number of calls of <code>check()</code> between two reads of the
+	 * system clock
+	 */
+	private final static int CHECK_INTERVAL = 256;
+
+	/**
+	 * The deadline in nanoseconds of <code>System.nanoTime()</code>
+	 */
+	private final long fDeadline;
+
+	private final boolean fHasDeadline;
+
+	private volatile boolean fCancelled;
+
+	/**
+	 * Counts down the calls of <code>check()</code>; not synchronized, because a
+	 * lost update only delays the next read of the system clock.
+	 */
+	private int fCountdown;
+
+	/**
+	 * Create a token without a deadline.
+	 */
+	public CancellationToken() {
+		this(0L);
+	}
+
+	/**
+	 * Create a token, which is cancelled after the given time.
+	 *
+	 * @param milliSeconds
+	 *          the time from now until the deadline. If
+	 *          <code>milliSeconds&lt;=0</code> the token has no deadline.
+	 */
+	public CancellationToken(final long milliSeconds) {
+		fHasDeadline = milliSeconds > 0L && milliSeconds < Long.MAX_VALUE / 1000000L;
+		fDeadline = fHasDeadline ? System.nanoTime() + milliSeconds * 1000000L : 0L;
+		fCancelled = false;
+		fCountdown = CHECK_INTERVAL;
+	}
+
+	/**
+	 * Cancel the evaluation, which uses this token.
+	 */
+	public void cancel() {
+		fCancelled = true;
+	}
+
+	/**
+	 * Test if the token was cancelled or if its deadline has passed.
+	 *
+	 * @return
+	 */
+	public boolean isCancelled() {
+		if (fCancelled) {
+			return true;
+		}
+		if (fHasDeadline && System.nanoTime() - fDeadline >= 0L) {
+			fCancelled = true;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Throw a <code>TimeExceeded</code> exception, if the token was cancelled or
+	 * if its deadline has passed.
+	 *
+	 * @throws TimeExceeded
+	 */
+	public void check() {
+		if (fCancelled) {
+			throw new TimeExceeded();
+		}
+		if (fHasDeadline && --fCountdown <= 0) {
+			fCountdown = CHECK_INTERVAL;
+			if (isCancelled()) {
+				throw new TimeExceeded();
+			}
+		}
+	}
+
+	/**
+	 * The remaining time until the deadline.
+	 *
+	 * @return the remaining time in milliseconds, <code>0</code> if the token is
+	 *         cancelled or <code>Long.MAX_VALUE</code> if the token has no
+	 *         deadline.
+	 */
+	public long getRemainingMilliSeconds() {
+		if (fCancelled) {
+			return 0L;
+		}
+		if (!fHasDeadline) {
+			return Long.MAX_VALUE;
+		}
+		final long remaining = (fDeadline - System.nanoTime()) / 1000000L;
+		return remaining > 0L ? remaining : 0L;
+	}
+}
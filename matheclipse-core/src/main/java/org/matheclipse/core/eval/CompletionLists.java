@@ -7,13 +7,13 @@ public class CompletionLists {
       "AddTo[]", "And[]", "Apart[]", "Append[]", "Apply[]", "ArcCos[]",
       "ArcSin[]", "ArcTan[]", "Arg[]", "Array[]", "AtomQ[]", "Binomial[]",
       "Blank[]", "Block[]", "Break[]", "Cases[]", "Catalan", "CatalanNumber[]",
-      "Ceiling[]", "ChessboardDistance[]", "Clear[]", "ClearAll[]",
+      "Ceiling[]", "ChessboardDistance[]", "Clear[]", "ClearAll[]", "Compile[]",
       "Complement[]", "Complex[]", "ComplexInfinity", "ComposeList[]",
       "CompoundExpression[]", "Condition[]", "Conjugate[]", "Continue[]",
       "ContinuedFraction[]", "CoprimeQ[]", "Cos[]", "Cosh[]", "Cross[]",
       "Curl[]", "D[]", "Decrement[]", "Definition[]", "Degree",
       "Denominator[]", "Depth[]", "Det[]", "DiagonalMatrix[]", "DigitQ[]",
-      "Dimensions[]", "Divergence[]", "DivideBy[]", "Dot[]", "Drop[]", "E",
+      "Dimensions[]", "Dispatch[]", "Divergence[]", "DivideBy[]", "Dot[]", "Drop[]", "E",
       "Eigenvalues[]", "Eigenvectors[]", "Equal[]", "Erf[]",
       "EuclidianDistance[]", "EulerGamma", "EulerPhi[]", "EvenQ[]", "Exp[]",
       "Expand[]", "ExpandAll[]", "ExtendedGCD[]", "Extract[]", "Factor[]",
@@ -37,13 +37,13 @@ public class CompletionLists {
       "NonCommutativeMultiply[]", "NonNegative[]", "Norm[]", "Not[]",
       "NRoots[]", "NumberPartitions[]", "NumberQ[]", "Numerator[]", "OddQ[]",
       "Or[]", "Order[]", "OrderedQ[]", "Out[]", "Outer[]", "Package[]",
-      "ParametricPlot[]", "Part[]", "Partition[]", "Pattern[]",
+      "ParallelMap[]", "ParallelTable[]", "ParametricPlot[]", "Part[]", "Partition[]", "Pattern[]",
       "Permutations[]", "Pi", "Plot[]", "Plot3D[]", "Plus[]",
       "PolynomialGCD[]", "PolynomialQ[]", "PolynomialQuotient[]",
       "PolynomialQuotientRemainder[]", "PolynomialRemainder[]", "Position[]",
       "Positive[]", "Power[]", "PowerMod[]", "PreDecrement[]",
       "PreIncrement[]", "Prepend[]", "PrimeQ[]", "PrimitiveRoots[]", "Print[]",
-      "Product[]", "Quotient[]", "Range[]", "Rational[]", "Rationalize[]",
+      "Product[]", "Profile[]", "Quotient[]", "Range[]", "Rational[]", "Rationalize[]",
       "Re[]", "ReplaceAll[]", "Rest[]", "Return[]", "Reverse[]", "Roots[]",
       "RotateLeft[]", "RotateRight[]", "Rule[]", "SameQ[]", "Select[]",
       "Set[]", "SetAttributes[]", "SetDelayed[]", "Sign[]", "SignCmp[]",
@@ -6,29 +6,30 @@ import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.matheclipse.core.basic.Config;
-import org.matheclipse.core.convert.AST2Expr;
+import org.matheclipse.core.basic.Util;
 import org.matheclipse.core.eval.exception.IterationLimitExceeded;
 import org.matheclipse.core.eval.exception.RecursionLimitExceeded;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.expression.ExprInterner;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.expression.MethodSymbol;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IEvaluationEngine;
 import org.matheclipse.core.interfaces.IEvaluator;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
 import org.matheclipse.core.list.algorithms.EvaluationSupport;
+import org.matheclipse.core.parser.ExprParser;
 import org.matheclipse.core.sql.SerializeVariables2DB;
-import org.matheclipse.parser.client.Parser;
-import org.matheclipse.parser.client.ast.ASTNode;
 import org.matheclipse.parser.client.math.MathException;
 
 import com.google.common.base.Predicate;
@@ -44,23 +45,29 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 
 	/**
 	 * Associate a symbol name in this ThreadLocal with the symbol created in this
-	 * thread
+	 * thread. The map is shared with the worker engines of a parallel evaluation.
 	 * 
 	 * @see ExprFactory.fSymbolMap for global symbol names
 	 */
-	private Map<String, ISymbol> fVariableMap;
+	private ConcurrentMap<String, ISymbol> fVariableMap;
 
 	/**
-	 * Associate a symbol name with a local variable stack in this thread
+	 * The values of the local variables bound in this thread
 	 * 
 	 */
-	transient private Map<String, Stack<IExpr>> fLocalVariableStackMap = null;
+	transient private LocalVariableFrames fLocalVariableFrames = null;
 
 	/**
 	 * if set the current thread should stop evaluation;
 	 */
 	transient volatile boolean fStopRequested;
 
+	/**
+	 * The cancellation token of the current time constrained evaluation or
+	 * <code>null</code>
+	 */
+	transient volatile CancellationToken fCancellationToken = null;
+
 	transient int fRecursionCounter;
 
 	transient boolean fNumericMode;
@@ -73,6 +80,12 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 
 	transient TraceStack fTraceStack = null;
 
+	/**
+	 * The profiler of the evaluation or <code>null</code>, if the evaluation
+	 * isn't profiled
+	 */
+	transient EvalProfiler fProfiler = null;
+
 	transient PrintStream fOutPrintStream = null;
 
 	protected int fRecursionLimit;
@@ -81,6 +94,38 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 
 	static int fAnonymousCounter = 0;
 
+	/**
+	 * Global counter, which is incremented whenever the rules, attributes or
+	 * values of any symbol change. Starts with <code>1</code>, because
+	 * <code>0</code> marks an unknown evaluated generation of an AST.
+	 */
+	private static final AtomicLong RULE_GENERATION = new AtomicLong(1L);
+
+	/**
+	 * The cache for the results of functions with the flag
+	 * <code>ISymbol.PURE_FUNCTION</code>. <code>null</code> if memoization is
+	 * disabled. Nothing is cached, while local variables are bound.
+	 */
+	transient EvalMemoCache fMemoCache = null;
+
+	/**
+	 * If <code>true</code> the results of the top-level evaluations are interned
+	 * in the global <code>ExprInterner</code>
+	 */
+	transient boolean fInternResults = false;
+
+	/**
+	 * The minimum number of arguments of an AST, which are evaluated in parallel.
+	 * <code>0</code> if the parallel evaluation is disabled.
+	 */
+	transient int fParallelThreshold = 0;
+
+	/**
+	 * The engine, which started this worker engine of a parallel evaluation.
+	 * <code>null</code> if this engine isn't a worker engine.
+	 */
+	transient EvalEngine fParentEngine = null;
+
 	protected boolean fPackageMode = false;
 
 	transient int fModuleCounter = 0;
@@ -116,6 +161,24 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		return ++fModuleCounter;
 	}
 
+	/**
+	 * Get the global rule generation, which is incremented whenever the rules or
+	 * attributes of any symbol change.
+	 * 
+	 * @return
+	 */
+	public static long getRuleGeneration() {
+		return RULE_GENERATION.get();
+	}
+
+	/**
+	 * Increment the global rule generation, because the rules or attributes of a
+	 * symbol have changed.
+	 */
+	public static void incRuleGeneration() {
+		RULE_GENERATION.incrementAndGet();
+	}
+
 	synchronized public static int getNextAnonymousCounter() {
 		return ++fAnonymousCounter;
 	}
@@ -284,7 +347,11 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		boolean numericMode = fNumericMode;
 		// StackContext.enter();
 		try {
-			return evalWithoutNumericReset(expr);
+			final IExpr result = evalWithoutNumericReset(expr);
+			if (fInternResults && fRecursionCounter == 0) {
+				return ExprInterner.INSTANCE.intern(result);
+			}
+			return result;
 			// if (fTraceMode) {
 			// fTraceList = StackContext.outerCopy(fTraceList);
 			// }
@@ -448,7 +515,21 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 	 * @return
 	 */
 	public IExpr evalAST(IAST ast) {
+		if (ast.isShared()) {
+			// the evaluation may modify the ast in place, so evaluate a copy of the
+			// shared canonical instance
+			final IAST copy = ast.clone();
+			copy.setEvalFlags(ast.getEvalFlags());
+			final IExpr result = evalASTModifiable(copy);
+			if (result == null && !copy.equals(ast)) {
+				return copy;
+			}
+			return result;
+		}
+		return evalASTModifiable(ast);
+	}
 
+	private IExpr evalASTModifiable(final IAST ast) {
 		final int astSize = ast.size();
 		if (astSize == 2) {
 			return evalASTArg1(ast);
@@ -527,6 +608,10 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 
 	public static IAST threadASTListArgs(final IAST ast) {
 		IAST result;
+		if ((result = PackedArray.evalPlusTimes(ast)) != null) {
+			// element-wise arithmetic on the primitive arrays
+			return result;
+		}
 		int listLength = 0;
 		final int astSize = ast.size();
 		for (int i = 1; i < astSize; i++) {
@@ -555,7 +640,33 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 	 * @return
 	 */
 	private IExpr evalASTBuiltinFunction(final ISymbol symbol, final IAST ast) {
+		// the cache key doesn't contain the values of the local variables
+		if (fMemoCache != null && isFixedPointMode()
+				&& (ISymbol.PURE_FUNCTION & symbol.getAttributes()) == ISymbol.PURE_FUNCTION) {
+			IExpr result = fMemoCache.get(ast);
+			if (result != null) {
+				// the caller may modify the returned ast
+				return result.isAST() ? ((IAST) result).clone() : result;
+			}
+			final long generation = getRuleGeneration();
+			final IAST key = ast.clone();
+			result = evalASTRulesAndFunction(symbol, ast);
+			if (result != null) {
+				fMemoCache.put(key, result.isAST() ? ((IAST) result).clone() : result, generation);
+			}
+			return result;
+		}
+		return evalASTRulesAndFunction(symbol, ast);
+	}
 
+	/**
+	 * Evaluate the rules and the built-in function of the ast's head symbol.
+	 * 
+	 * @param symbol
+	 * @param ast
+	 * @return
+	 */
+	private IExpr evalASTRulesAndFunction(final ISymbol symbol, final IAST ast) {
 		if (fEvalLHSMode) {
 			final int attr = symbol.getAttributes();
 			if ((ISymbol.HOLDALL & attr) == ISymbol.HOLDALL) {
@@ -572,6 +683,19 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 			}
 		}
 
+		final EvalProfiler profiler = fProfiler;
+		if (profiler != null) {
+			profiler.begin();
+			try {
+				return evalRulesAndFunction(symbol, ast);
+			} finally {
+				profiler.end(symbol);
+			}
+		}
+		return evalRulesAndFunction(symbol, ast);
+	}
+
+	private IExpr evalRulesAndFunction(final ISymbol symbol, final IAST ast) {
 		if (!symbol.equals(F.Integrate)) {
 			IExpr result;
 			if ((result = symbol.evalDownRule(this, ast)) != null) {
@@ -616,6 +740,11 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 				}
 			}
 
+			if (fParallelThreshold > 0 && astSize > fParallelThreshold && (ISymbol.HOLDREST & attr) == ISymbol.NOATTRIBUTE) {
+				fNumericMode = localNumericMode;
+				return evalArgsParallel(ast, attr);
+			}
+
 			IAST resultList = null;
 			IExpr evaledExpr;
 			if ((ISymbol.HOLDFIRST & attr) == ISymbol.NOATTRIBUTE) {
@@ -671,6 +800,62 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		return null;
 	}
 
+	/**
+	 * Evaluate the arguments of the <code>ast</code> in parallel. The attributes
+	 * of the head aren't considered.
+	 * 
+	 * @param ast
+	 * @return a new AST with the evaluated arguments or <code>null</code>, if no
+	 *         argument could be evaluated
+	 * @see ParallelEvaluator
+	 */
+	public IAST evalArgsParallel(final IAST ast) {
+		return evalArgsParallel(ast, ISymbol.NOATTRIBUTE);
+	}
+
+	/**
+	 * Evaluate the arguments of the <code>ast</code> in parallel, taking the
+	 * attributes HoldFirst, HoldRest, NHoldFirst and NHoldRest into account.
+	 * 
+	 * @param ast
+	 * @param attr
+	 *          the attributes of the head
+	 * @return a new AST with the evaluated arguments or <code>null</code>, if no
+	 *         argument could be evaluated
+	 */
+	private IAST evalArgsParallel(final IAST ast, final int attr) {
+		final IExpr[] results = ParallelEvaluator.evaluate(this, ast.size() - 1, new ParallelEvaluator.IndexFunction() {
+			public IExpr evaluate(final EvalEngine engine, final int index) {
+				final int hold = index == 0 ? ISymbol.HOLDFIRST : ISymbol.HOLDREST;
+				if ((hold & attr) != ISymbol.NOATTRIBUTE) {
+					return null;
+				}
+				final int nHold = index == 0 ? ISymbol.NHOLDFIRST : ISymbol.NHOLDREST;
+				if ((nHold & attr) == ISymbol.NOATTRIBUTE) {
+					return engine.evalLoop(ast.get(index + 1));
+				}
+				final boolean numericMode = engine.isNumericMode();
+				try {
+					engine.setNumericMode(false);
+					return engine.evalLoop(ast.get(index + 1));
+				} finally {
+					engine.setNumericMode(numericMode);
+				}
+			}
+		});
+		IAST resultList = null;
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != null) {
+				if (resultList == null) {
+					resultList = ast.clone();
+					resultList.setEvalFlags(ast.getEvalFlags() & IAST.IS_MATRIX_OR_VECTOR);
+				}
+				resultList.set(i + 1, results[i]);
+			}
+		}
+		return resultList;
+	}
+
 	/**
 	 * Transform the ast recursively, according to the attributes Flat, HoldAll,
 	 * HoldFirst, HoldRest, Orderless for the left-hand-side of a Set[] or
@@ -748,6 +933,19 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 			}
 			RecursionLimitExceeded.throwIt(fRecursionLimit, expr);
 		}
+		final CancellationToken token = fCancellationToken;
+		if (token != null) {
+			token.check();
+		}
+
+		long generation = 0L;
+		if (expr instanceof IAST && isFixedPointMode()) {
+			generation = RULE_GENERATION.get();
+			if (isEvaluatedFixedPoint((IAST) expr, generation)) {
+				// nothing has changed since the last evaluation to a fixed point
+				return null;
+			}
+		}
 
 		try {
 			fRecursionCounter++;
@@ -755,7 +953,11 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 				fTraceStack.pushList();
 			}
 			IExpr temp = expr.evaluate(this);
-			if (temp != null) {
+			if (temp == null) {
+				if (generation != 0L) {
+					setEvaluatedGeneration((IAST) expr, generation);
+				}
+			} else {
 				if (fTraceMode) {
 					fTraceStack.addIfEmpty(expr);
 					fTraceStack.add(temp);
@@ -763,6 +965,7 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 				IExpr result = temp;
 				int iterationCounter = 1;
 				do {
+					generation = RULE_GENERATION.get();
 					temp = result.evaluate(this);
 					if (temp != null) {
 						if (fTraceMode) {
@@ -774,6 +977,9 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 						}
 					}
 				} while (temp != null);
+				if (result instanceof IAST) {
+					setEvaluatedGeneration((IAST) result, generation);
+				}
 				return result;
 			}
 			return null;
@@ -785,6 +991,60 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		}
 	}
 
+	/**
+	 * Test if the evaluated generation of an AST could be used in the current
+	 * evaluation mode. The results in numeric, left-hand-side or trace mode and
+	 * the results with bound local variables aren't fixed points in general and
+	 * aren't stored in the memo cache.
+	 * 
+	 * @return
+	 */
+	private boolean isFixedPointMode() {
+		return !fNumericMode && !fEvalLHSMode && !fTraceMode
+				&& (fLocalVariableFrames == null || fLocalVariableFrames.isEmpty());
+	}
+
+	/**
+	 * Test if the <code>ast</code> and all its AST elements are marked as
+	 * evaluated to a fixed point in the given rule generation. An element could
+	 * be modified in place after the <code>ast</code> was marked, which resets
+	 * only the evaluated generation of the element itself.
+	 * 
+	 * @param ast
+	 * @param generation
+	 * @return
+	 */
+	private static boolean isEvaluatedFixedPoint(final IAST ast, final long generation) {
+		if (ast.getEvaluatedGeneration() != generation) {
+			return false;
+		}
+		if (ast.isShared()) {
+			// the elements of a shared AST couldn't be modified
+			return true;
+		}
+		for (int i = 0; i < ast.size(); i++) {
+			final IExpr expr = ast.get(i);
+			if (expr instanceof IAST && !isEvaluatedFixedPoint((IAST) expr, generation)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Mark the <code>ast</code> as evaluated to a fixed point in the given rule
+	 * generation, if nothing has changed during the evaluation.
+	 * 
+	 * @param ast
+	 * @param generation
+	 *          the rule generation at the start of the last evaluation step
+	 */
+	private void setEvaluatedGeneration(final IAST ast, final long generation) {
+		if (generation == RULE_GENERATION.get() && isFixedPointMode()) {
+			ast.setEvaluatedGeneration(generation);
+		}
+	}
+
 	/**
 	 * @return
 	 */
@@ -840,6 +1100,110 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		fIterationLimit = i;
 	}
 
+	/**
+	 * Enable the memoization of the results of functions with the flag
+	 * <code>ISymbol.PURE_FUNCTION</code>.
+	 * 
+	 * @param maximumSize
+	 *          the maximum number of cached results. <code>0</code> disables the
+	 *          memoization.
+	 */
+	public void setMemoCacheSize(final int maximumSize) {
+		if (maximumSize > 0) {
+			fMemoCache = new EvalMemoCache(maximumSize);
+		} else {
+			fMemoCache = null;
+		}
+	}
+
+	/**
+	 * Intern the results of the top-level evaluations in the global
+	 * <code>ExprInterner</code>, so that structural equal results share their
+	 * memory. The interned results mustn't be modified.
+	 * 
+	 * @param internResults
+	 * @see ExprInterner
+	 */
+	public void setInternResults(final boolean internResults) {
+		fInternResults = internResults;
+	}
+
+	public boolean isInternResults() {
+		return fInternResults;
+	}
+
+	/**
+	 * Evaluate the arguments of ASTs (i.e. the elements of large lists) and the
+	 * iterations of <code>Table</code> in parallel, if there are at least
+	 * <code>threshold</code> of them. The arguments must be independent of each
+	 * other, because they are evaluated in different worker engines.
+	 * 
+	 * @param threshold
+	 *          the minimum number of arguments, which are evaluated in parallel.
+	 *          <code>0</code> disables the parallel evaluation.
+	 * @see ParallelEvaluator
+	 */
+	public void setParallelThreshold(final int threshold) {
+		fParallelThreshold = threshold;
+	}
+
+	public int getParallelThreshold() {
+		return fParallelThreshold;
+	}
+
+	/**
+	 * Test if this engine is a worker engine of a parallel evaluation.
+	 * 
+	 * @return
+	 */
+	public boolean isParallelWorker() {
+		return fParentEngine != null;
+	}
+
+	/**
+	 * Create a worker engine for a parallel evaluation, which is bound to the
+	 * current thread. The worker engine starts with the evaluation modes, limits
+	 * and local variable bindings of this engine and shares the user symbols of
+	 * this engines session.
+	 * 
+	 * @return
+	 */
+	EvalEngine createWorkerEngine() {
+		final EvalEngine worker = new EvalEngine(fSessionID, fRecursionLimit, fIterationLimit, fOutPrintStream, fRelaxedSyntax);
+		worker.fParentEngine = this;
+		worker.fVariableMap = fVariableMap;
+		worker.fNumericMode = fNumericMode;
+		worker.fRecursionCounter = fRecursionCounter;
+		worker.fPackageMode = fPackageMode;
+		worker.fCancellationToken = fCancellationToken;
+		if (fProfiler != null) {
+			worker.fProfiler = fProfiler.createWorkerProfiler();
+		}
+		if (fLocalVariableFrames != null) {
+			worker.fLocalVariableFrames = new LocalVariableFrames(fLocalVariableFrames);
+		}
+		return worker;
+	}
+
+	/**
+	 * The number of results, which were found in the memo cache.
+	 * 
+	 * @return
+	 */
+	public long getMemoCacheHits() {
+		return fMemoCache == null ? 0L : fMemoCache.getHits();
+	}
+
+	/**
+	 * The number of evaluations of functions with the flag
+	 * <code>ISymbol.PURE_FUNCTION</code>, which weren't found in the memo cache.
+	 * 
+	 * @return
+	 */
+	public long getMemoCacheMisses() {
+		return fMemoCache == null ? 0L : fMemoCache.getMisses();
+	}
+
 	/**
 	 * @param string
 	 */
@@ -862,6 +1226,51 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		return ast;
 	}
 
+	/**
+	 * Start to profile the evaluations of this engine.
+	 * 
+	 * @return the previous profiler or <code>null</code>
+	 * @see #endProfile(EvalProfiler)
+	 */
+	public EvalProfiler beginProfile() {
+		return beginProfile(new EvalProfiler());
+	}
+
+	/**
+	 * Start to profile the evaluations of this engine with the given profiler.
+	 * 
+	 * @param profiler
+	 * @return the previous profiler or <code>null</code>
+	 * @see #endProfile(EvalProfiler)
+	 */
+	public EvalProfiler beginProfile(final EvalProfiler profiler) {
+		final EvalProfiler previous = fProfiler;
+		fProfiler = profiler;
+		return previous;
+	}
+
+	/**
+	 * Stop to profile the evaluations of this engine.
+	 * 
+	 * @param previous
+	 *          the profiler, which was returned by {@link #beginProfile()}
+	 * @return the profiler of the evaluations since {@link #beginProfile()}
+	 */
+	public EvalProfiler endProfile(final EvalProfiler previous) {
+		final EvalProfiler profiler = fProfiler;
+		fProfiler = previous;
+		return profiler;
+	}
+
+	/**
+	 * Get the current profiler.
+	 * 
+	 * @return <code>null</code> if the evaluations aren't profiled
+	 */
+	public EvalProfiler getProfiler() {
+		return fProfiler;
+	}
+
 	/**
 	 * @param b
 	 */
@@ -870,9 +1279,13 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 	}
 
 	/**
-	 * @return Returns the stopRequested.
+	 * @return Returns the stopRequested. A worker engine of a parallel evaluation
+	 *         returns also the stopRequested of it's parent engine.
 	 */
 	public boolean isStopRequested() {
+		if (fParentEngine != null) {
+			return fStopRequested || fParentEngine.isStopRequested();
+		}
 		return fStopRequested;
 	}
 
@@ -886,6 +1299,47 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 
 	public void stopRequest() {
 		fStopRequested = true;
+		final CancellationToken token = fCancellationToken;
+		if (token != null) {
+			token.cancel();
+		}
+	}
+
+	/**
+	 * Get the cancellation token of the current time constrained evaluation.
+	 * 
+	 * @return the token or <code>null</code>
+	 */
+	public CancellationToken getCancellationToken() {
+		return fCancellationToken;
+	}
+
+	/**
+	 * Set the cancellation token, which is checked by the evaluation in this
+	 * engine.
+	 * 
+	 * @param token
+	 *          the token or <code>null</code>, if the evaluation shouldn't be
+	 *          cancelled
+	 */
+	public void setCancellationToken(final CancellationToken token) {
+		fCancellationToken = token;
+	}
+
+	/**
+	 * Check if the current evaluation was cancelled, i.e. the cancellation token
+	 * was cancelled or it's deadline has passed, or the current thread was
+	 * interrupted.
+	 * 
+	 * @throws org.matheclipse.core.eval.exception.TimeExceeded
+	 *           if the cancellation token was cancelled
+	 */
+	public final void checkCanceled() {
+		final CancellationToken token = fCancellationToken;
+		if (token != null) {
+			token.check();
+		}
+		Util.checkCanceled();
 	}
 
 	public PrintStream getOutPrintStream() {
@@ -965,15 +1419,8 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 	 *           if a parsing error occurs
 	 */
 	final public IExpr parse(String expression) {
-		if (fRelaxedSyntax) {
-			final Parser parser = new Parser(fRelaxedSyntax);
-			final ASTNode node = parser.parse(expression);
-			return AST2Expr.CONST_LC.convert(node);
-		} else {
-			final Parser parser = new Parser();
-			final ASTNode node = parser.parse(expression);
-			return AST2Expr.CONST.convert(node);
-		}
+		final ExprParser parser = new ExprParser(fRelaxedSyntax);
+		return parser.parse(expression);
 	}
 
 	/**
@@ -990,40 +1437,16 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		return evaluate(parse(expression));
 	}
 
-	final public Map<String, Stack<IExpr>> getLocalVariableStackMap() {
-		if (fLocalVariableStackMap == null) {
-			fLocalVariableStackMap = new HashMap<String, Stack<IExpr>>();
-		}
-		return fLocalVariableStackMap;
-	}
-
-	/**
-	 * Get the local variable stack for a given symbol name. If the local variable
-	 * stack doesn't exist, return <code>null</code>
-	 * 
-	 * @param symbolName
-	 * @return <code>null</code> if the stack doesn't exist
-	 */
-	final public static Stack<IExpr> localStack(final String symbolName) {
-		return get().getLocalVariableStackMap().get(symbolName);
-	}
-
 	/**
-	 * Get the local variable stack for a given symbol name. If the local variable
-	 * stack doesn't exist, create a new one for the symbol.
+	 * Get the binding frames of the local variables of this engine.
 	 * 
-	 * @param symbolName
 	 * @return
 	 */
-	public static Stack<IExpr> localStackCreate(final String symbolName) {
-		Map<String, Stack<IExpr>> localVariableStackMap = get().getLocalVariableStackMap();
-		Stack<IExpr> temp = localVariableStackMap.get(symbolName);
-		if (temp != null) {
-			return temp;
+	final public LocalVariableFrames getLocalVariableFrames() {
+		if (fLocalVariableFrames == null) {
+			fLocalVariableFrames = new LocalVariableFrames();
 		}
-		temp = new Stack<IExpr>();
-		localVariableStackMap.put(symbolName, temp);
-		return temp;
+		return fLocalVariableFrames;
 	}
 
 	/**
@@ -1032,9 +1455,9 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 	 * 
 	 * @see ExprFactory.fSymbolMap for global symbol names
 	 */
-	final public Map<String, ISymbol> getVariableMap() {
+	final public ConcurrentMap<String, ISymbol> getVariableMap() {
 		if (fVariableMap == null) {
-			fVariableMap = new HashMap<String, ISymbol>();
+			fVariableMap = new ConcurrentHashMap<String, ISymbol>();
 		}
 		return fVariableMap;
 	}
@@ -1045,8 +1468,8 @@ public class EvalEngine implements Serializable, IEvaluationEngine {
 		if (fVariableMap != null) {
 			buf.append(fVariableMap.toString());
 		}
-		if (fLocalVariableStackMap != null) {
-			buf.append(fLocalVariableStackMap.toString());
+		if (fLocalVariableFrames != null) {
+			buf.append(fLocalVariableFrames.toString());
 		}
 		if (SystemNamespace.DEFAULT != null) {
 			buf.append(SystemNamespace.DEFAULT.toString());
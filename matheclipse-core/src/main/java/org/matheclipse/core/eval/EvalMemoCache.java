@@ -0,0 +1,110 @@
+package org.matheclipse.core.eval;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * A size bounded memo cache for the results of functions with the flag
+ * <code>ISymbol.PURE_FUNCTION</code>. The least recently used entry is evicted
+ * if the cache is full.
+ *
+ * The cache is cleared if the rules or attributes of any symbol have changed.
+ *
+ * @see EvalEngine#getRuleGeneration()
+ */
+public class EvalMemoCache {
+
+	private final Map<IAST, IExpr> fMap;
+
+	/**
+	 * The rule generation of the cached results
+	 */
+	private long fGeneration;
+
+	private long fHits;
+
+	private long fMisses;
+
+	/**
+	 *
+	 * @param maximumSize
+	 *          the maximum number of cached results
+	 */
+	public EvalMemoCache(final int maximumSize) {
+		fMap = new LinkedHashMap<IAST, IExpr>(16, 0.75f, true) {
+			private static final long serialVersionUID = -1457153400765006548L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<IAST, IExpr> eldest) {
+				return size() > maximumSize;
+			}
+		};
+		fGeneration = EvalEngine.getRuleGeneration();
+	}
+
+	/**
+	 * Get the cached result for the evaluated <code>ast</code>.
+	 *
+	 * @param ast
+	 * @return <code>null</code> if no result is cached
+	 */
+	public IExpr get(final IAST ast) {
+		validate();
+		final IExpr result = fMap.get(ast);
+		if (result == null) {
+			fMisses++;
+		} else {
+			fHits++;
+		}
+		return result;
+	}
+
+	/**
+	 * Cache the result for the evaluated <code>ast</code>, if no rules have
+	 * changed since the evaluation started.
+	 *
+	 * @param ast
+	 *          the key, which mustn't be modified afterwards
+	 * @param result
+	 * @param generation
+	 *          the rule generation at the start of the evaluation
+	 */
+	public void put(final IAST ast, final IExpr result, final long generation) {
+		validate();
+		if (generation == fGeneration) {
+			fMap.put(ast, result);
+		}
+	}
+
+	/**
+	 * Clear the cache, if the rules or attributes of any symbol have changed.
+	 */
+	private void validate() {
+		final long generation = EvalEngine.getRuleGeneration();
+		if (generation != fGeneration) {
+			fMap.clear();
+			fGeneration = generation;
+		}
+	}
+
+	public void clear() {
+		fMap.clear();
+		fHits = 0;
+		fMisses = 0;
+	}
+
+	public long getHits() {
+		return fHits;
+	}
+
+	public long getMisses() {
+		return fMisses;
+	}
+
+	public int size() {
+		return fMap.size();
+	}
+}
@@ -0,0 +1,337 @@
+package org.matheclipse.core.eval;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IEvaluationEngine;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Records the evaluations of the head symbols in an <code>EvalEngine</code>:
+ * the number of calls, the inclusive and exclusive time, the number of tried
+ * and matching down rules and the number of allocated bytes.
+ *
+ * The profiler measures the evaluation of the rules and the built-in function
+ * of a head symbol, i.e. the time of the argument evaluation belongs to the
+ * calling head symbol. The exclusive time, the rules and the allocated bytes
+ * don't include the nested evaluations of other head symbols. Results which
+ * are found in the memo cache aren't recorded.
+ *
+ * A profiler is used by one engine only. The worker engines of a parallel
+ * evaluation record into their own profilers, which are merged in
+ * {@link #getEntries()}.
+ *
+ * @see EvalEngine#beginProfile()
+ * @see org.matheclipse.core.reflection.system.Profile
+ */
+public class EvalProfiler {
+	/**
+	 * The recorded evaluations of one head symbol
+	 */
+	public static class Entry {
+		private final ISymbol fSymbol;
+
+		private long fCalls;
+
+		private long fInclusiveTime;
+
+		private long fExclusiveTime;
+
+		private long fRuleAttempts;
+
+		private long fRuleMatches;
+
+		private long fAllocatedBytes;
+
+		Entry(final ISymbol symbol) {
+			fSymbol = symbol;
+		}
+
+		private void add(final Entry entry) {
+			fCalls += entry.fCalls;
+			fInclusiveTime += entry.fInclusiveTime;
+			fExclusiveTime += entry.fExclusiveTime;
+			fRuleAttempts += entry.fRuleAttempts;
+			fRuleMatches += entry.fRuleMatches;
+			fAllocatedBytes += entry.fAllocatedBytes;
+		}
+
+		public ISymbol getSymbol() {
+			return fSymbol;
+		}
+
+		public long getCalls() {
+			return fCalls;
+		}
+
+		/**
+		 * The time in nanoseconds including the nested evaluations
+		 *
+		 * @return
+		 */
+		public long getInclusiveTime() {
+			return fInclusiveTime;
+		}
+
+		/**
+		 * The time in nanoseconds without the nested evaluations of other head
+		 * symbols
+		 *
+		 * @return
+		 */
+		public long getExclusiveTime() {
+			return fExclusiveTime;
+		}
+
+		/**
+		 * The number of down rules, which were tried to match
+		 *
+		 * @return
+		 */
+		public long getRuleAttempts() {
+			return fRuleAttempts;
+		}
+
+		/**
+		 * The number of down rules, which matched
+		 *
+		 * @return
+		 */
+		public long getRuleMatches() {
+			return fRuleMatches;
+		}
+
+		/**
+		 * The number of allocated bytes; <code>0</code> if the JVM doesn't
+		 * measure the allocations of a thread
+		 *
+		 * @return
+		 */
+		public long getAllocatedBytes() {
+			return fAllocatedBytes;
+		}
+
+		@Override
+		public String toString() {
+			return fSymbol + ": " + fCalls + " calls, " + fInclusiveTime + " ns inclusive, " + fExclusiveTime + " ns exclusive, "
+					+ fRuleMatches + "/" + fRuleAttempts + " rules, " + fAllocatedBytes + " bytes";
+		}
+	}
+
+	private final static ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final boolean fAllocations;
+
+	private final Map<ISymbol, Entry> fEntries = new HashMap<ISymbol, Entry>();
+
+	/**
+	 * The profilers of the worker engines
+	 */
+	private final List<EvalProfiler> fWorkers = new ArrayList<EvalProfiler>();
+
+	/**
+	 * The depth of the current evaluation. The arrays store the values of the
+	 * evaluations, which are currently running, at their depth.
+	 */
+	private int fDepth = 0;
+
+	private long[] fStartTimes = new long[32];
+
+	private long[] fStartBytes = new long[32];
+
+	/**
+	 * The inclusive time of the nested evaluations
+	 */
+	private long[] fNestedTimes = new long[32];
+
+	/**
+	 * The allocated bytes of the nested evaluations
+	 */
+	private long[] fNestedBytes = new long[32];
+
+	private long[] fRuleAttempts = new long[32];
+
+	private long[] fRuleMatches = new long[32];
+
+	public EvalProfiler() {
+		this(isAllocationSupported());
+	}
+
+	/**
+	 *
+	 * @param allocations
+	 *          if <code>true</code> the allocated bytes are measured, if the JVM
+	 *          supports this
+	 */
+	public EvalProfiler(final boolean allocations) {
+		fAllocations = allocations && isAllocationSupported();
+	}
+
+	/**
+	 * Test if the JVM measures the allocated bytes of a thread.
+	 *
+	 * @return
+	 */
+	public static boolean isAllocationSupported() {
+		try {
+			return THREADS instanceof com.sun.management.ThreadMXBean
+					&& ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()
+					&& ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+		} catch (final LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Count the down rules, which were tried for the current evaluation of the
+	 * given engine.
+	 *
+	 * @param engine
+	 * @param attempts
+	 *          the number of tried rules
+	 * @param matched
+	 *          <code>true</code> if the last tried rule matched
+	 */
+	public static void countRules(final IEvaluationEngine engine, final int attempts, final boolean matched) {
+		if (engine instanceof EvalEngine) {
+			final EvalProfiler profiler = ((EvalEngine) engine).fProfiler;
+			if (profiler != null) {
+				profiler.fRuleAttempts[profiler.fDepth] += attempts;
+				if (matched) {
+					profiler.fRuleMatches[profiler.fDepth]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create the profiler of a worker engine.
+	 *
+	 * @return
+	 */
+	synchronized EvalProfiler createWorkerProfiler() {
+		final EvalProfiler profiler = new EvalProfiler(fAllocations);
+		fWorkers.add(profiler);
+		return profiler;
+	}
+
+	/**
+	 * Start the evaluation of a head symbol.
+	 */
+	void begin() {
+		final int depth = ++fDepth;
+		if (depth == fStartTimes.length) {
+			fStartTimes = grow(fStartTimes);
+			fStartBytes = grow(fStartBytes);
+			fNestedTimes = grow(fNestedTimes);
+			fNestedBytes = grow(fNestedBytes);
+			fRuleAttempts = grow(fRuleAttempts);
+			fRuleMatches = grow(fRuleMatches);
+		}
+		fNestedTimes[depth] = 0L;
+		fNestedBytes[depth] = 0L;
+		fRuleAttempts[depth] = 0L;
+		fRuleMatches[depth] = 0L;
+		fStartBytes[depth] = allocatedBytes();
+		fStartTimes[depth] = System.nanoTime();
+	}
+
+	/**
+	 * End the evaluation of the head symbol, which was started by the last
+	 * {@link #begin()}.
+	 *
+	 * @param symbol
+	 */
+	void end(final ISymbol symbol) {
+		final long time = System.nanoTime() - fStartTimes[fDepth];
+		final long bytes = allocatedBytes() - fStartBytes[fDepth];
+		final int depth = fDepth--;
+		Entry entry = fEntries.get(symbol);
+		if (entry == null) {
+			entry = new Entry(symbol);
+			fEntries.put(symbol, entry);
+		}
+		entry.fCalls++;
+		entry.fInclusiveTime += time;
+		entry.fExclusiveTime += time - fNestedTimes[depth];
+		entry.fAllocatedBytes += bytes - fNestedBytes[depth];
+		entry.fRuleAttempts += fRuleAttempts[depth];
+		entry.fRuleMatches += fRuleMatches[depth];
+		fNestedTimes[fDepth] += time;
+		fNestedBytes[fDepth] += bytes;
+	}
+
+	private long allocatedBytes() {
+		if (fAllocations) {
+			return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0L;
+	}
+
+	private static long[] grow(final long[] array) {
+		final long[] result = new long[array.length * 2];
+		System.arraycopy(array, 0, result, 0, array.length);
+		return result;
+	}
+
+	/**
+	 * Get the recorded entries of this profiler and its worker profilers.
+	 *
+	 * @return the entries sorted by descending exclusive time
+	 */
+	public synchronized List<Entry> getEntries() {
+		final Map<ISymbol, Entry> merged = new HashMap<ISymbol, Entry>();
+		merge(merged);
+		final List<Entry> result = new ArrayList<Entry>(merged.values());
+		Collections.sort(result, new Comparator<Entry>() {
+			public int compare(final Entry e1, final Entry e2) {
+				if (e1.fExclusiveTime != e2.fExclusiveTime) {
+					return e1.fExclusiveTime > e2.fExclusiveTime ? -1 : 1;
+				}
+				return e1.fSymbol.toString().compareTo(e2.fSymbol.toString());
+			}
+		});
+		return result;
+	}
+
+	private synchronized void merge(final Map<ISymbol, Entry> merged) {
+		for (Entry entry : fEntries.values()) {
+			Entry mergedEntry = merged.get(entry.fSymbol);
+			if (mergedEntry == null) {
+				mergedEntry = new Entry(entry.fSymbol);
+				merged.put(entry.fSymbol, mergedEntry);
+			}
+			mergedEntry.add(entry);
+		}
+		for (EvalProfiler worker : fWorkers) {
+			worker.merge(merged);
+		}
+	}
+
+	/**
+	 * Get the entries as a table
+	 * <code>{{"Head", "Calls", ...}, {symbol, calls, ...}, ...}</code>. The
+	 * times are given as integer nanoseconds, because a real number would
+	 * convert all numbers of the table to real numbers.
+	 *
+	 * @return
+	 */
+	public IAST getTable() {
+		final IAST table = F.List(F.List(F.stringx("Head"), F.stringx("Calls"), F.stringx("InclusiveNanoseconds"),
+				F.stringx("ExclusiveNanoseconds"), F.stringx("RuleAttempts"), F.stringx("RuleMatches"), F.stringx("AllocatedBytes")));
+		for (Entry entry : getEntries()) {
+			table.add(F.List(entry.fSymbol, F.integer(entry.fCalls), F.integer(entry.fInclusiveTime),
+					F.integer(entry.fExclusiveTime), F.integer(entry.fRuleAttempts), F.integer(entry.fRuleMatches),
+					F.integer(entry.fAllocatedBytes)));
+		}
+		return table;
+	}
+}
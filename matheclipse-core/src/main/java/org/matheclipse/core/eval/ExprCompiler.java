@@ -0,0 +1,777 @@
+package org.matheclipse.core.eval;
+
+import org.matheclipse.core.basic.Alloc;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.eval.interfaces.INumeric;
+import org.matheclipse.core.eval.interfaces.INumericConstant;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.Num;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IEvaluator;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISignedNumber;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Compile a numeric expression into a tree of specialized nodes, which evaluate
+ * the expression with <code>double</code> arithmetic and <code>Math.*</code>
+ * calls, without looking up the evaluators of the symbols and without binding
+ * the variables to local variable stacks.
+ *
+ * <code>If[]</code> and <code>Piecewise[]</code> are compiled into branches.
+ * Built-in functions, which implement <code>INumeric</code>, are called
+ * directly. All other sub-expressions are evaluated by the interpreter (see
+ * {@link EvalDouble}). Constant sub-expressions are evaluated at compile time.
+ *
+ * The compiled functions don't have a state and could be used concurrently in
+ * different threads.
+ */
+public class ExprCompiler {
+	private final static double[] NO_ARGS = new double[0];
+
+	private final static int SIN = 1;
+
+	private final static int COS = 2;
+
+	private final static int TAN = 3;
+
+	private final static int LOG = 4;
+
+	private final static int SQRT = 5;
+
+	private final static int ABS = 6;
+
+	private final static int ARCSIN = 7;
+
+	private final static int ARCCOS = 8;
+
+	private final static int ARCTAN = 9;
+
+	private final static int SINH = 10;
+
+	private final static int COSH = 11;
+
+	private final static int TANH = 12;
+
+	private final static int FLOOR = 13;
+
+	private final static int CEILING = 14;
+
+	private final static int SEC = 15;
+
+	private final static int CSC = 16;
+
+	private final static int COT = 17;
+
+	/**
+	 * A node of the compiled expression
+	 */
+	private static abstract class Node {
+		abstract double value(double[] args);
+
+		boolean isConstant() {
+			return false;
+		}
+	}
+
+	private static class Constant extends Node {
+		private final double fValue;
+
+		Constant(final double value) {
+			fValue = value;
+		}
+
+		@Override
+		double value(final double[] args) {
+			return fValue;
+		}
+
+		@Override
+		boolean isConstant() {
+			return true;
+		}
+	}
+
+	private static class Variable extends Node {
+		private final int fIndex;
+
+		Variable(final int index) {
+			fIndex = index;
+		}
+
+		@Override
+		double value(final double[] args) {
+			return args[fIndex];
+		}
+	}
+
+	private static class Plus2 extends Node {
+		private final Node fArg1;
+
+		private final Node fArg2;
+
+		Plus2(final Node arg1, final Node arg2) {
+			fArg1 = arg1;
+			fArg2 = arg2;
+		}
+
+		@Override
+		double value(final double[] args) {
+			return fArg1.value(args) + fArg2.value(args);
+		}
+	}
+
+	private static class Plus extends Node {
+		private final Node[] fArgs;
+
+		Plus(final Node[] args) {
+			fArgs = args;
+		}
+
+		@Override
+		double value(final double[] args) {
+			double result = 0.0;
+			for (int i = 0; i < fArgs.length; i++) {
+				result += fArgs[i].value(args);
+			}
+			return result;
+		}
+	}
+
+	private static class Times2 extends Node {
+		private final Node fArg1;
+
+		private final Node fArg2;
+
+		Times2(final Node arg1, final Node arg2) {
+			fArg1 = arg1;
+			fArg2 = arg2;
+		}
+
+		@Override
+		double value(final double[] args) {
+			return fArg1.value(args) * fArg2.value(args);
+		}
+	}
+
+	private static class Times extends Node {
+		private final Node[] fArgs;
+
+		Times(final Node[] args) {
+			fArgs = args;
+		}
+
+		@Override
+		double value(final double[] args) {
+			double result = 1.0;
+			for (int i = 0; i < fArgs.length; i++) {
+				result *= fArgs[i].value(args);
+			}
+			return result;
+		}
+	}
+
+	private static class Power extends Node {
+		private final Node fBase;
+
+		private final Node fExponent;
+
+		Power(final Node base, final Node exponent) {
+			fBase = base;
+			fExponent = exponent;
+		}
+
+		@Override
+		double value(final double[] args) {
+			return Math.pow(fBase.value(args), fExponent.value(args));
+		}
+	}
+
+	/**
+	 * A function of one argument, which is computed by the methods of
+	 * <code>java.lang.Math</code> in the same way as in the
+	 * <code>INumeric#evalReal()</code> method of the built-in function.
+	 */
+	private static class Function1 extends Node {
+		private final int fFunction;
+
+		private final Node fArg;
+
+		Function1(final int function, final Node arg) {
+			fFunction = function;
+			fArg = arg;
+		}
+
+		@Override
+		double value(final double[] args) {
+			final double x = fArg.value(args);
+			switch (fFunction) {
+			case SIN:
+				return Math.sin(x);
+			case COS:
+				return Math.cos(x);
+			case TAN:
+				return Math.tan(x);
+			case LOG:
+				return Math.log(x);
+			case SQRT:
+				return Math.sqrt(x);
+			case ABS:
+				return Math.abs(x);
+			case ARCSIN:
+				return Math.asin(x);
+			case ARCCOS:
+				return Math.acos(x);
+			case ARCTAN:
+				return Math.atan(x);
+			case SINH:
+				return Math.sinh(x);
+			case COSH:
+				return Math.cosh(x);
+			case TANH:
+				return Math.tanh(x);
+			case FLOOR:
+				return Math.floor(x);
+			case CEILING:
+				return Math.ceil(x);
+			case SEC:
+				return 1.0D / Math.cos(x);
+			case CSC:
+				return 1.0D / Math.sin(x);
+			case COT:
+				return 1.0D / Math.tan(x);
+			default:
+				throw new IllegalStateException("Unknown function: " + fFunction);
+			}
+		}
+	}
+
+	/**
+	 * A built-in function, which implements <code>INumeric</code>
+	 */
+	private static class Numeric extends Node {
+		private final INumeric fFunction;
+
+		private final Node[] fArgs;
+
+		Numeric(final INumeric function, final Node[] args) {
+			fFunction = function;
+			fArgs = args;
+		}
+
+		@Override
+		double value(final double[] args) {
+			final double[] stack = new double[fArgs.length];
+			for (int i = 0; i < fArgs.length; i++) {
+				stack[i] = fArgs[i].value(args);
+			}
+			return fFunction.evalReal(stack, fArgs.length - 1, fArgs.length);
+		}
+	}
+
+	private static class If extends Node {
+		private final Condition fCondition;
+
+		private final Node fTrue;
+
+		private final Node fFalse;
+
+		If(final Condition condition, final Node trueNode, final Node falseNode) {
+			fCondition = condition;
+			fTrue = trueNode;
+			fFalse = falseNode;
+		}
+
+		@Override
+		double value(final double[] args) {
+			return fCondition.test(args) ? fTrue.value(args) : fFalse.value(args);
+		}
+	}
+
+	private static class Piecewise extends Node {
+		private final Condition[] fConditions;
+
+		private final Node[] fValues;
+
+		private final Node fDefault;
+
+		Piecewise(final Condition[] conditions, final Node[] values, final Node defaultNode) {
+			fConditions = conditions;
+			fValues = values;
+			fDefault = defaultNode;
+		}
+
+		@Override
+		double value(final double[] args) {
+			for (int i = 0; i < fConditions.length; i++) {
+				if (fConditions[i].test(args)) {
+					return fValues[i].value(args);
+				}
+			}
+			return fDefault.value(args);
+		}
+	}
+
+	/**
+	 * A sub-expression, which is evaluated by the interpreter
+	 */
+	private static class Interpreted extends Node {
+		private final IExpr fExpr;
+
+		private final ISymbol[] fVariables;
+
+		Interpreted(final IExpr expr, final ISymbol[] variables) {
+			fExpr = expr;
+			fVariables = variables;
+		}
+
+		@Override
+		double value(final double[] args) {
+			final Alloc alloc = Alloc.get();
+			final double[] stack = alloc.vector(10);
+			int pushed = 0;
+			try {
+				for (; pushed < fVariables.length; pushed++) {
+					fVariables[pushed].pushLocalVariable(Num.valueOf(args[pushed]));
+				}
+				return EvalDouble.eval(stack, 0, fExpr);
+			} finally {
+				while (pushed > 0) {
+					fVariables[--pushed].popLocalVariable();
+				}
+				alloc.freeVector(10);
+			}
+		}
+	}
+
+	/**
+	 * A compiled condition of <code>If[]</code> or <code>Piecewise[]</code>
+	 */
+	private static abstract class Condition {
+		abstract boolean test(double[] args);
+	}
+
+	private static class ConstantCondition extends Condition {
+		private final boolean fValue;
+
+		ConstantCondition(final boolean value) {
+			fValue = value;
+		}
+
+		@Override
+		boolean test(final double[] args) {
+			return fValue;
+		}
+	}
+
+	/**
+	 * A chain of comparisons like <code>a &lt; b &lt;= c</code>
+	 */
+	private static class Compare extends Condition {
+		private final static int LESS = 1;
+
+		private final static int LESS_EQUAL = 2;
+
+		private final static int GREATER = 3;
+
+		private final static int GREATER_EQUAL = 4;
+
+		private final int fComparison;
+
+		private final Node[] fArgs;
+
+		Compare(final int comparison, final Node[] args) {
+			fComparison = comparison;
+			fArgs = args;
+		}
+
+		@Override
+		boolean test(final double[] args) {
+			double left = fArgs[0].value(args);
+			for (int i = 1; i < fArgs.length; i++) {
+				final double right = fArgs[i].value(args);
+				switch (fComparison) {
+				case LESS:
+					if (!(left < right)) {
+						return false;
+					}
+					break;
+				case LESS_EQUAL:
+					if (!(left <= right)) {
+						return false;
+					}
+					break;
+				case GREATER:
+					if (!(left > right)) {
+						return false;
+					}
+					break;
+				default:
+					if (!(left >= right)) {
+						return false;
+					}
+				}
+				left = right;
+			}
+			return true;
+		}
+	}
+
+	private static class And extends Condition {
+		private final Condition[] fArgs;
+
+		And(final Condition[] args) {
+			fArgs = args;
+		}
+
+		@Override
+		boolean test(final double[] args) {
+			for (int i = 0; i < fArgs.length; i++) {
+				if (!fArgs[i].test(args)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static class Or extends Condition {
+		private final Condition[] fArgs;
+
+		Or(final Condition[] args) {
+			fArgs = args;
+		}
+
+		@Override
+		boolean test(final double[] args) {
+			for (int i = 0; i < fArgs.length; i++) {
+				if (fArgs[i].test(args)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static class Not extends Condition {
+		private final Condition fArg;
+
+		Not(final Condition arg) {
+			fArg = arg;
+		}
+
+		@Override
+		boolean test(final double[] args) {
+			return !fArg.test(args);
+		}
+	}
+
+	private static class CompiledFunction implements ICompiledFunction {
+		private final Node fRoot;
+
+		private final int fArgumentCount;
+
+		private final boolean fCompiled;
+
+		CompiledFunction(final Node root, final int argumentCount, final boolean compiled) {
+			fRoot = root;
+			fArgumentCount = argumentCount;
+			fCompiled = compiled;
+		}
+
+		public double apply(final double... args) {
+			if (args.length != fArgumentCount) {
+				throw new IllegalArgumentException("Expected " + fArgumentCount + " arguments instead of " + args.length);
+			}
+			return fRoot.value(args);
+		}
+
+		public int getArgumentCount() {
+			return fArgumentCount;
+		}
+
+		public boolean isCompiled() {
+			return fCompiled;
+		}
+	}
+
+	private final ISymbol[] fVariables;
+
+	/**
+	 * The number of sub-expressions, which are evaluated by the interpreter
+	 */
+	private int fInterpretedCount;
+
+	private ExprCompiler(final ISymbol[] variables) {
+		fVariables = variables;
+		fInterpretedCount = 0;
+	}
+
+	/**
+	 * Compile the expression into a function of the given variables.
+	 *
+	 * @param expr
+	 *          the numeric expression
+	 * @param variables
+	 *          the variables of the expression, which are the arguments of the
+	 *          compiled function
+	 * @return
+	 */
+	public static ICompiledFunction compile(final IExpr expr, final ISymbol... variables) {
+		final ExprCompiler compiler = new ExprCompiler(variables);
+		final Node root = compiler.compileNode(expr);
+		return new CompiledFunction(root, variables.length, compiler.fInterpretedCount == 0);
+	}
+
+	private Node compileNode(final IExpr expr) {
+		if (expr instanceof ISignedNumber) {
+			return new Constant(((ISignedNumber) expr).doubleValue());
+		}
+		if (expr instanceof ISymbol) {
+			for (int i = 0; i < fVariables.length; i++) {
+				if (fVariables[i].equals(expr)) {
+					return new Variable(i);
+				}
+			}
+			final IEvaluator module = ((ISymbol) expr).getEvaluator();
+			if (module instanceof INumericConstant) {
+				return new Constant(((INumericConstant) module).evalReal());
+			}
+			return interpreted(expr);
+		}
+		if (expr instanceof IAST && ((IAST) expr).head() instanceof ISymbol) {
+			final Node node = compileAST((IAST) expr);
+			if (node != null) {
+				return node;
+			}
+		}
+		return interpreted(expr);
+	}
+
+	/**
+	 * Compile the AST, if its head is supported.
+	 *
+	 * @param ast
+	 * @return <code>null</code> if the ast has to be evaluated by the
+	 *         interpreter.
+	 */
+	private Node compileAST(final IAST ast) {
+		final ISymbol head = (ISymbol) ast.head();
+		final int size = ast.size();
+		if (head.equals(F.If)) {
+			if (size != 4) {
+				return null;
+			}
+			final Condition condition = compileCondition(ast.get(1));
+			if (condition == null) {
+				return null;
+			}
+			if (condition instanceof ConstantCondition) {
+				return compileNode(condition.test(NO_ARGS) ? ast.get(2) : ast.get(3));
+			}
+			return new If(condition, compileNode(ast.get(2)), compileNode(ast.get(3)));
+		}
+		if (head.equals(F.Piecewise)) {
+			return compilePiecewise(ast);
+		}
+		if (size == 1) {
+			return null;
+		}
+
+		final Node[] args = new Node[size - 1];
+		boolean constant = true;
+		for (int i = 1; i < size; i++) {
+			args[i - 1] = compileNode(ast.get(i));
+			constant &= args[i - 1].isConstant();
+		}
+		final Node node = compileFunction(head, args);
+		if (node != null && constant) {
+			// evaluate the constant sub-expression at compile time
+			try {
+				return new Constant(node.value(NO_ARGS));
+			} catch (final RuntimeException e) {
+				// throw the exception at runtime, like the interpreter
+			}
+		}
+		return node;
+	}
+
+	private Node compileFunction(final ISymbol head, final Node[] args) {
+		if (head.equals(F.Plus)) {
+			return args.length == 2 ? new Plus2(args[0], args[1]) : new Plus(args);
+		}
+		if (head.equals(F.Times)) {
+			return args.length == 2 ? new Times2(args[0], args[1]) : new Times(args);
+		}
+		if (head.equals(F.Power)) {
+			return args.length == 2 ? new Power(args[0], args[1]) : null;
+		}
+		if (args.length == 1) {
+			final int function = getFunction1(head);
+			if (function != 0) {
+				return new Function1(function, args[0]);
+			}
+		}
+		final IEvaluator module = head.getEvaluator();
+		if (module instanceof INumeric) {
+			return new Numeric((INumeric) module, args);
+		}
+		return null;
+	}
+
+	private static int getFunction1(final ISymbol head) {
+		if (head.equals(F.Sin)) {
+			return SIN;
+		}
+		if (head.equals(F.Cos)) {
+			return COS;
+		}
+		if (head.equals(F.Tan)) {
+			return TAN;
+		}
+		if (head.equals(F.Log)) {
+			return LOG;
+		}
+		if (head.equals(F.Sqrt)) {
+			return SQRT;
+		}
+		if (head.equals(F.Abs)) {
+			return ABS;
+		}
+		if (head.equals(F.ArcSin)) {
+			return ARCSIN;
+		}
+		if (head.equals(F.ArcCos)) {
+			return ARCCOS;
+		}
+		if (head.equals(F.ArcTan)) {
+			return ARCTAN;
+		}
+		if (head.equals(F.Sinh)) {
+			return SINH;
+		}
+		if (head.equals(F.Cosh)) {
+			return COSH;
+		}
+		if (head.equals(F.Tanh)) {
+			return TANH;
+		}
+		if (head.equals(F.Floor)) {
+			return FLOOR;
+		}
+		if (head.equals(F.Ceiling)) {
+			return CEILING;
+		}
+		if (head.equals(F.Sec)) {
+			return SEC;
+		}
+		if (head.equals(F.Csc)) {
+			return CSC;
+		}
+		if (head.equals(F.Cot)) {
+			return COT;
+		}
+		return 0;
+	}
+
+	/**
+	 * Compile <code>Piecewise[{{value1, condition1}, ...}, default]</code>
+	 *
+	 * @param ast
+	 * @return <code>null</code> if a condition couldn't be compiled
+	 */
+	private Node compilePiecewise(final IAST ast) {
+		if (ast.size() < 2 || ast.size() > 3 || !ast.get(1).isList()) {
+			return null;
+		}
+		final IAST list = (IAST) ast.get(1);
+		final Condition[] conditions = new Condition[list.size() - 1];
+		final Node[] values = new Node[list.size() - 1];
+		for (int i = 1; i < list.size(); i++) {
+			if (!list.get(i).isList() || ((IAST) list.get(i)).size() != 3) {
+				return null;
+			}
+			final IAST pair = (IAST) list.get(i);
+			conditions[i - 1] = compileCondition(pair.get(2));
+			if (conditions[i - 1] == null) {
+				return null;
+			}
+			values[i - 1] = compileNode(pair.get(1));
+		}
+		final Node defaultNode = ast.size() == 3 ? compileNode(ast.get(2)) : new Constant(0.0);
+		return new Piecewise(conditions, values, defaultNode);
+	}
+
+	/**
+	 * Compile a condition
+	 *
+	 * @param expr
+	 * @return <code>null</code> if the condition couldn't be compiled
+	 */
+	private Condition compileCondition(final IExpr expr) {
+		if (expr.equals(F.True)) {
+			return new ConstantCondition(true);
+		}
+		if (expr.equals(F.False)) {
+			return new ConstantCondition(false);
+		}
+		if (!(expr instanceof IAST) || ((IAST) expr).size() < 2) {
+			return null;
+		}
+		final IAST ast = (IAST) expr;
+		final IExpr head = ast.head();
+		if (head.equals(F.Not)) {
+			if (ast.size() != 2) {
+				return null;
+			}
+			final Condition arg = compileCondition(ast.get(1));
+			return arg == null ? null : new Not(arg);
+		}
+		if (head.equals(F.And) || head.equals(F.Or)) {
+			final Condition[] args = new Condition[ast.size() - 1];
+			for (int i = 1; i < ast.size(); i++) {
+				args[i - 1] = compileCondition(ast.get(i));
+				if (args[i - 1] == null) {
+					return null;
+				}
+			}
+			return head.equals(F.And) ? new And(args) : new Or(args);
+		}
+
+		int comparison;
+		if (head.equals(F.Less)) {
+			comparison = Compare.LESS;
+		} else if (head.equals(F.LessEqual)) {
+			comparison = Compare.LESS_EQUAL;
+		} else if (head.equals(F.Greater)) {
+			comparison = Compare.GREATER;
+		} else if (head.equals(F.GreaterEqual)) {
+			comparison = Compare.GREATER_EQUAL;
+		} else {
+			return null;
+		}
+		if (ast.size() < 3) {
+			return null;
+		}
+		final Node[] args = new Node[ast.size() - 1];
+		boolean constant = true;
+		for (int i = 1; i < ast.size(); i++) {
+			args[i - 1] = compileNode(ast.get(i));
+			constant &= args[i - 1].isConstant();
+		}
+		final Compare compare = new Compare(comparison, args);
+		if (constant) {
+			try {
+				return new ConstantCondition(compare.test(NO_ARGS));
+			} catch (final RuntimeException e) {
+				// throw the exception at runtime, like the interpreter
+			}
+		}
+		return compare;
+	}
+
+	private Node interpreted(final IExpr expr) {
+		fInterpretedCount++;
+		return new Interpreted(expr, fVariables);
+	}
+}
@@ -0,0 +1,294 @@
+package org.matheclipse.core.eval;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EmptyStackException;
+import java.util.List;
+
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * The binding frames of the local variables (i.e. the variables of
+ * <code>Block</code>, <code>Do</code>, <code>Sum</code>, <code>Table</code>,
+ * ...) of an <code>EvalEngine</code>.
+ *
+ * Every symbol owns a {@link Slot}. A slot gets an index, when the first value
+ * is bound to it in any engine, and releases the index for the reuse by other
+ * slots, when the last binding is removed. The values bound to a slot in an
+ * engine are stored in an array-backed stack at the slots index, so the arrays
+ * only grow with the number of simultaneously bound slots.
+ */
+public class LocalVariableFrames {
+
+	/**
+	 * The slot of a symbol in the local variable frames.
+	 */
+	public final static class Slot {
+		private final String fName;
+
+		/**
+		 * The index in the local variable frames or <code>-1</code>, if no value
+		 * is bound to this slot.
+		 */
+		volatile int fIndex = -1;
+
+		/**
+		 * The number of values currently bound to this slot in all engines.
+		 * Guarded by the lock of the slot.
+		 */
+		private int fBindings = 0;
+
+		private Slot(final String name) {
+			fName = name;
+		}
+
+		/**
+		 * Test if a value is bound to this slot in any engine.
+		 *
+		 * @return <code>false</code> if no engine has bound a value to this slot
+		 */
+		public boolean isBound() {
+			return fIndex >= 0;
+		}
+
+		private synchronized int acquire() {
+			if (fBindings++ == 0) {
+				fIndex = allocateIndex(this);
+			}
+			return fIndex;
+		}
+
+		private synchronized void release() {
+			if (--fBindings == 0) {
+				releaseIndex(fIndex);
+				fIndex = -1;
+			}
+		}
+	}
+
+	/**
+	 * The slots with an index; the position in the list is the index of the
+	 * slot. Guarded by the lock of the list.
+	 */
+	private final static List<Slot> SLOTS = new ArrayList<Slot>();
+
+	/**
+	 * The used indexes of the <code>SLOTS</code> list.
+	 */
+	private final static BitSet USED_INDEXES = new BitSet();
+
+	private final static int INITIAL_CAPACITY = 4;
+
+	private IExpr[][] fValues;
+
+	private int[] fSizes;
+
+	/**
+	 * The number of values bound to all slots in this frames
+	 */
+	private int fBindings;
+
+	public LocalVariableFrames() {
+		fValues = new IExpr[0][];
+		fSizes = new int[0];
+	}
+
+	/**
+	 * Create a copy of the given frames (i.e. for a worker engine of a parallel
+	 * evaluation). The binding counters of the slots aren't incremented, so the
+	 * copy is only valid as long as the bindings of the given frames exist.
+	 * 
+	 * @param frames
+	 */
+	public LocalVariableFrames(final LocalVariableFrames frames) {
+		fValues = new IExpr[frames.fValues.length][];
+		for (int i = 0; i < fValues.length; i++) {
+			if (frames.fValues[i] != null) {
+				fValues[i] = frames.fValues[i].clone();
+			}
+		}
+		fSizes = frames.fSizes.clone();
+		fBindings = frames.fBindings;
+	}
+
+	/**
+	 * Create a new slot for a symbol. The slot gets an index, when the first
+	 * value is bound to it.
+	 *
+	 * @param symbolName
+	 *          the name of the symbol, which is used in <code>toString()</code>
+	 * @return
+	 */
+	public static Slot createSlot(final String symbolName) {
+		return new Slot(symbolName);
+	}
+
+	private static int allocateIndex(final Slot slot) {
+		synchronized (SLOTS) {
+			final int index = USED_INDEXES.nextClearBit(0);
+			USED_INDEXES.set(index);
+			if (index == SLOTS.size()) {
+				SLOTS.add(slot);
+			} else {
+				SLOTS.set(index, slot);
+			}
+			return index;
+		}
+	}
+
+	private static void releaseIndex(final int index) {
+		synchronized (SLOTS) {
+			USED_INDEXES.clear(index);
+			SLOTS.set(index, null);
+		}
+	}
+
+	/**
+	 * The number of indexes, which were used by the slots until now. The arrays
+	 * of the local variable frames are never longer than necessary for these
+	 * indexes.
+	 *
+	 * @return
+	 */
+	public static int getSlotCount() {
+		synchronized (SLOTS) {
+			return SLOTS.size();
+		}
+	}
+
+	/**
+	 * Test if no value is bound to any slot in this frames.
+	 * 
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return fBindings == 0;
+	}
+
+	/**
+	 * Test if a value is bound to the slot in this frames.
+	 *
+	 * @param slot
+	 * @return
+	 */
+	public boolean isBound(final Slot slot) {
+		final int index = slot.fIndex;
+		return index >= 0 && index < fSizes.length && fSizes[index] > 0;
+	}
+
+	/**
+	 * Get the top value bound to the slot.
+	 *
+	 * @param slot
+	 * @return <code>null</code> if no value is bound to the slot
+	 */
+	public IExpr get(final Slot slot) {
+		final int index = slot.fIndex;
+		if (index >= 0 && index < fSizes.length && fSizes[index] > 0) {
+			return fValues[index][fSizes[index] - 1];
+		}
+		return null;
+	}
+
+	/**
+	 * Replace the top value bound to the slot.
+	 *
+	 * @param slot
+	 * @param value
+	 * @throws EmptyStackException
+	 *           if no value is bound to the slot
+	 */
+	public void set(final Slot slot, final IExpr value) {
+		final int index = slot.fIndex;
+		if (index < 0 || index >= fSizes.length || fSizes[index] == 0) {
+			throw new EmptyStackException();
+		}
+		fValues[index][fSizes[index] - 1] = value;
+	}
+
+	/**
+	 * Bind a new value to the slot.
+	 *
+	 * @param slot
+	 * @param value
+	 *          the value, which could also be <code>null</code>
+	 */
+	public void push(final Slot slot, final IExpr value) {
+		final int index = slot.acquire();
+		if (index >= fSizes.length) {
+			int newLength = fSizes.length * 2;
+			if (newLength <= index) {
+				newLength = index + 16;
+			}
+			final IExpr[][] values = new IExpr[newLength][];
+			System.arraycopy(fValues, 0, values, 0, fValues.length);
+			final int[] sizes = new int[newLength];
+			System.arraycopy(fSizes, 0, sizes, 0, fSizes.length);
+			fValues = values;
+			fSizes = sizes;
+		}
+		IExpr[] stack = fValues[index];
+		final int size = fSizes[index];
+		if (stack == null) {
+			stack = new IExpr[INITIAL_CAPACITY];
+			fValues[index] = stack;
+		} else if (size == stack.length) {
+			final IExpr[] newStack = new IExpr[size * 2];
+			System.arraycopy(stack, 0, newStack, 0, size);
+			stack = newStack;
+			fValues[index] = stack;
+		}
+		stack[size] = value;
+		fSizes[index] = size + 1;
+		fBindings++;
+	}
+
+	/**
+	 * Remove the top value bound to the slot.
+	 *
+	 * @param slot
+	 * @throws EmptyStackException
+	 *           if no value is bound to the slot
+	 */
+	public void pop(final Slot slot) {
+		final int index = slot.fIndex;
+		if (index < 0 || index >= fSizes.length || fSizes[index] == 0) {
+			throw new EmptyStackException();
+		}
+		final int size = fSizes[index] - 1;
+		fValues[index][size] = null;
+		fSizes[index] = size;
+		fBindings--;
+		slot.release();
+	}
+
+	@Override
+	public String toString() {
+		final StringBuffer buf = new StringBuffer();
+		buf.append('{');
+		boolean first = true;
+		synchronized (SLOTS) {
+			for (int index = 0; index < SLOTS.size(); index++) {
+				final Slot slot = SLOTS.get(index);
+				if (slot != null && index < fSizes.length && fSizes[index] > 0) {
+					if (!first) {
+						buf.append(", ");
+					}
+					first = false;
+					buf.append(slot.fName);
+					buf.append('=');
+					buf.append('[');
+					for (int i = 0; i < fSizes[index]; i++) {
+						if (i > 0) {
+							buf.append(", ");
+						}
+						buf.append(fValues[index][i]);
+					}
+					buf.append(']');
+				}
+			}
+		}
+		buf.append('}');
+		return buf.toString();
+	}
+}
@@ -0,0 +1,183 @@
+package org.matheclipse.core.eval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.matheclipse.core.eval.exception.TimeExceeded;
+import org.matheclipse.core.eval.exception.WrappedException;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Evaluate independent expressions in parallel. The indices of the expressions
+ * are divided into chunks, which are evaluated by a fixed thread pool. Every
+ * chunk is evaluated in a separate worker engine, which is created from the
+ * calling engine.
+ *
+ * The results are returned in the order of the indices. A stop request of the
+ * calling engine is propagated to the worker engines.
+ *
+ * @see EvalEngine#setParallelThreshold(int)
+ */
+public class ParallelEvaluator {
+
+	/**
+	 * Evaluate the expression with the given index.
+	 */
+	public interface IndexFunction {
+		/**
+		 * Evaluate the expression with the given index.
+		 *
+		 * @param engine
+		 *          the engine of the current thread
+		 * @param index
+		 * @return the evaluated expression or <code>null</code>
+		 */
+		public IExpr evaluate(EvalEngine engine, int index);
+	}
+
+	/**
+	 * The number of chunks per thread, for a better load balancing
+	 */
+	private final static int CHUNKS_PER_THREAD = 4;
+
+	private static int fParallelism = Runtime.getRuntime().availableProcessors();
+
+	private static ExecutorService fPool = null;
+
+	private ParallelEvaluator() {
+	}
+
+	/**
+	 * Get the number of threads, which evaluate in parallel.
+	 *
+	 * @return
+	 */
+	public static synchronized int getParallelism() {
+		return fParallelism;
+	}
+
+	/**
+	 * Set the number of threads, which evaluate in parallel. The number of
+	 * available processors is used by default.
+	 *
+	 * @param parallelism
+	 *          the number of threads. <code>1</code> evaluates all expressions in
+	 *          the calling thread.
+	 */
+	public static synchronized void setParallelism(final int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		if (fPool != null) {
+			fPool.shutdown();
+			fPool = null;
+		}
+		fParallelism = parallelism;
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (fPool == null) {
+			fPool = Executors.newFixedThreadPool(fParallelism, new ThreadFactory() {
+				private int fCounter = 1;
+
+				public Thread newThread(final Runnable runnable) {
+					final Thread thread = new Thread(runnable, "ParallelEvaluator-" + (fCounter++));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return fPool;
+	}
+
+	/**
+	 * Evaluate the expressions with the indices <code>0</code> to
+	 * <code>size-1</code>. The expressions are evaluated in the calling engine,
+	 * if the engine is itself a worker engine or is in trace mode.
+	 *
+	 * @param engine
+	 *          the calling engine
+	 * @param size
+	 *          the number of expressions
+	 * @param function
+	 *          evaluates the expression with the given index
+	 * @return the evaluated expressions in the order of their indices
+	 */
+	public static IExpr[] evaluate(final EvalEngine engine, final int size, final IndexFunction function) {
+		final IExpr[] results = new IExpr[size];
+		final int parallelism = getParallelism();
+		if (size < 2 || parallelism < 2 || engine.isParallelWorker() || engine.isTraceMode()) {
+			for (int i = 0; i < size; i++) {
+				results[i] = function.evaluate(engine, i);
+			}
+			return results;
+		}
+
+		// the worker engines share the user symbols of the calling engine
+		engine.getVariableMap();
+		final int chunks = Math.min(size, parallelism * CHUNKS_PER_THREAD);
+		final ExecutorService pool = getPool();
+		final List<Future<Object>> futures = new ArrayList<Future<Object>>(chunks);
+		// set, if another chunk has failed
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		for (int c = 0; c < chunks; c++) {
+			final int start = (int) ((long) size * c / chunks);
+			final int end = (int) ((long) size * (c + 1) / chunks);
+			futures.add(pool.submit(new Callable<Object>() {
+				public Object call() {
+					final EvalEngine worker = engine.createWorkerEngine();
+					try {
+						for (int i = start; i < end; i++) {
+							if (cancelled.get()) {
+								return null;
+							}
+							if (worker.isStopRequested()) {
+								throw new TimeExceeded();
+							}
+							results[i] = function.evaluate(worker, i);
+						}
+						return null;
+					} finally {
+						EvalEngine.remove();
+					}
+				}
+			}));
+		}
+
+		try {
+			for (Future<Object> future : futures) {
+				future.get();
+			}
+		} catch (final ExecutionException e) {
+			cancelled.set(true);
+			cancel(futures);
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new WrappedException(cause);
+		} catch (final InterruptedException e) {
+			cancelled.set(true);
+			cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new TimeExceeded();
+		}
+		return results;
+	}
+
+	private static void cancel(final List<Future<Object>> futures) {
+		for (Future<Object> future : futures) {
+			future.cancel(true);
+		}
+	}
+}
@@ -0,0 +1,435 @@
+package org.matheclipse.core.eval;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.MethodSymbol;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.IFraction;
+import org.matheclipse.core.interfaces.IInteger;
+import org.matheclipse.core.interfaces.IPattern;
+import org.matheclipse.core.interfaces.IPatternMatcher;
+import org.matheclipse.core.interfaces.IPatternSequence;
+import org.matheclipse.core.interfaces.IStringX;
+import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.patternmatching.PatternMatcherAndEvaluator;
+import org.matheclipse.core.patternmatching.RulesData;
+import org.matheclipse.generic.interfaces.Pair;
+
+/**
+ * A precompiled binary image of the initialized symbol table (i.e. the
+ * attributes and the rules of the symbols after loading <code>System.mep</code>
+ * and the rules of the built-in functions).
+ *
+ * The image is created at build time with the <code>main()</code> method of
+ * this class (see the ant target <code>symbol-image</code>) and loaded by <code>F.initSymbols()</code> from the classpath
+ * resource <code>Config.SYMBOL_IMAGE</code> instead of evaluating the packages
+ * and rules again. The attributes are set when the image is loaded, the rules
+ * of a symbol are decoded lazily at the first access of the symbols rules.
+ *
+ * Only rules of type <code>PatternMatcherAndEvaluator</code> and equal rules
+ * are stored in the image; the rules defined by Java methods are created in the
+ * <code>setUp()</code> method of the evaluators as usual.
+ */
+public class SymbolImage {
+	private final static int MAGIC = 0x53594D49;
+
+	private final static int VERSION = 1;
+
+	private final static byte SYMBOL = 0;
+
+	private final static byte INTEGER = 1;
+
+	private final static byte BIG_INTEGER = 2;
+
+	private final static byte FRACTION = 3;
+
+	private final static byte STRING = 4;
+
+	private final static byte PATTERN = 5;
+
+	private final static byte PATTERN_SEQUENCE = 6;
+
+	private final static byte AST = 7;
+
+	private final static byte NULL = 8;
+
+	/**
+	 * An expression, which is stored in <code>FullForm</code>
+	 */
+	private final static byte FULL_FORM = 9;
+
+	/**
+	 * A symbol, which invokes a static Java method
+	 */
+	private final static byte METHOD_SYMBOL = 10;
+
+	/**
+	 * The names of the symbols, whose rules were loaded from an image.
+	 */
+	private final static Set<String> LOADED_SYMBOLS = new HashSet<String>();
+
+	/**
+	 * The rules of a single symbol, which are decoded at the first access.
+	 */
+	private static class Entry implements RulesData.Loader {
+		private final SymbolTable fTable;
+
+		private final byte[] fData;
+
+		private Entry(final SymbolTable table, final byte[] data) {
+			fTable = table;
+			fData = data;
+		}
+
+		public void load(final RulesData rulesData) {
+			try {
+				final DataInputStream in = new DataInputStream(new ByteArrayInputStream(fData));
+				final Map<IExpr, Pair<ISymbol, IExpr>> equalRules = rulesData.getEqualRules();
+				int size = in.readInt();
+				for (int i = 0; i < size; i++) {
+					final IExpr key = readExpr(in, fTable);
+					final ISymbol setSymbol = fTable.get(in.readInt());
+					equalRules.put(key, new Pair<ISymbol, IExpr>(setSymbol, readExpr(in, fTable)));
+				}
+				size = in.readInt();
+				for (int i = 0; i < size; i++) {
+					final ISymbol setSymbol = fTable.get(in.readInt());
+					final IExpr lhs = readExpr(in, fTable);
+					final IExpr rhs = readExpr(in, fTable);
+					final IExpr condition = readExpr(in, fTable);
+					final PatternMatcherAndEvaluator pmEvaluator = new PatternMatcherAndEvaluator(setSymbol, lhs, rhs);
+					if (condition != null) {
+						pmEvaluator.setCondition(condition);
+					}
+					rulesData.putDownRule(pmEvaluator);
+				}
+			} catch (final IOException e) {
+				throw new IllegalStateException("Corrupted symbol image", e);
+			}
+		}
+	}
+
+	/**
+	 * The symbols of an image, which are created at the first access.
+	 */
+	private static class SymbolTable {
+		private final String[] fNames;
+
+		private final ISymbol[] fSymbols;
+
+		private SymbolTable(final String[] names) {
+			fNames = names;
+			fSymbols = new ISymbol[names.length];
+		}
+
+		private synchronized ISymbol get(final int index) {
+			ISymbol symbol = fSymbols[index];
+			if (symbol == null) {
+				symbol = F.predefinedSymbol(fNames[index]);
+				fSymbols[index] = symbol;
+			}
+			return symbol;
+		}
+	}
+
+	private SymbolImage() {
+	}
+
+	/**
+	 * Test if the rules of the symbol were loaded from an image. The evaluator of
+	 * such a symbol doesn't have to define it's rules again.
+	 *
+	 * @param symbol
+	 * @return
+	 */
+	public static boolean isLoaded(final ISymbol symbol) {
+		synchronized (LOADED_SYMBOLS) {
+			return !LOADED_SYMBOLS.isEmpty() && LOADED_SYMBOLS.contains(symbol.toString());
+		}
+	}
+
+	/**
+	 * Load an image, which was created by
+	 * {@link #write(OutputStream, Iterable)}. The attributes of the symbols are
+	 * set immediately, the rules are decoded at the first access.
+	 *
+	 * @param stream
+	 * @return <code>false</code> if the stream doesn't contain an image of the
+	 *         current version.
+	 * @throws IOException
+	 */
+	public static boolean load(final InputStream stream) throws IOException {
+		final DataInputStream in = new DataInputStream(stream);
+		if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+			return false;
+		}
+		final int counter = in.readInt();
+		synchronized (EvalEngine.class) {
+			if (EvalEngine.fAnonymousCounter < counter) {
+				// the package private symbols in the image use the counter
+				EvalEngine.fAnonymousCounter = counter;
+			}
+		}
+		final String[] names = new String[in.readInt()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = in.readUTF();
+		}
+		final SymbolTable table = new SymbolTable(names);
+
+		final int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			final ISymbol symbol = table.get(in.readInt());
+			final int attributes = in.readInt();
+			final byte[] data = new byte[in.readInt()];
+			in.readFully(data);
+			if (attributes != ISymbol.NOATTRIBUTE) {
+				symbol.setAttributes(attributes);
+			}
+			symbol.getRulesData().setLoader(new Entry(table, data));
+			synchronized (LOADED_SYMBOLS) {
+				LOADED_SYMBOLS.add(symbol.toString());
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write an image of the given symbols.
+	 *
+	 * @param stream
+	 * @param symbols
+	 * @throws IOException
+	 */
+	public static void write(final OutputStream stream, final Iterable<ISymbol> symbols) throws IOException {
+		final Map<String, Integer> table = new HashMap<String, Integer>();
+		final List<String> names = new ArrayList<String>();
+		final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+		final DataOutputStream entriesOut = new DataOutputStream(entries);
+		int size = 0;
+		for (ISymbol symbol : symbols) {
+			final ByteArrayOutputStream data = new ByteArrayOutputStream();
+			final DataOutputStream out = new DataOutputStream(data);
+			final RulesData rulesData = symbol.getRulesData();
+			final Map<IExpr, Pair<ISymbol, IExpr>> equalRules = rulesData.getEqualRules();
+			out.writeInt(equalRules.size());
+			for (Map.Entry<IExpr, Pair<ISymbol, IExpr>> entry : equalRules.entrySet()) {
+				writeExpr(out, entry.getKey(), table, names);
+				out.writeInt(index(entry.getValue().getFirst(), table, names));
+				writeExpr(out, entry.getValue().getSecond(), table, names);
+			}
+			final List<PatternMatcherAndEvaluator> patternRules = new ArrayList<PatternMatcherAndEvaluator>();
+			for (IPatternMatcher<IExpr> rule : rulesData.getPatternRules()) {
+				// the rules defined by Java methods are created in setUp()
+				if (rule instanceof PatternMatcherAndEvaluator) {
+					patternRules.add((PatternMatcherAndEvaluator) rule);
+				}
+			}
+			out.writeInt(patternRules.size());
+			for (PatternMatcherAndEvaluator rule : patternRules) {
+				out.writeInt(index(rule.getSetSymbol(), table, names));
+				writeExpr(out, rule.getLHS(), table, names);
+				writeExpr(out, rule.getRHS(), table, names);
+				writeExpr(out, rule.getCondition(), table, names);
+			}
+			out.flush();
+
+			entriesOut.writeInt(index(symbol, table, names));
+			entriesOut.writeInt(symbol.getAttributes());
+			entriesOut.writeInt(data.size());
+			data.writeTo(entriesOut);
+			size++;
+		}
+		entriesOut.flush();
+
+		final DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		synchronized (EvalEngine.class) {
+			out.writeInt(EvalEngine.fAnonymousCounter);
+		}
+		out.writeInt(names.size());
+		for (String name : names) {
+			out.writeUTF(name);
+		}
+		out.writeInt(size);
+		entries.writeTo(out);
+		out.flush();
+	}
+
+	private static int index(final ISymbol symbol, final Map<String, Integer> table, final List<String> names) {
+		final String name = symbol.toString();
+		Integer index = table.get(name);
+		if (index == null) {
+			index = Integer.valueOf(names.size());
+			table.put(name, index);
+			names.add(name);
+		}
+		return index.intValue();
+	}
+
+	private static void writeExpr(final DataOutputStream out, final IExpr expr, final Map<String, Integer> table,
+			final List<String> names) throws IOException {
+		if (expr == null) {
+			out.writeByte(NULL);
+		} else if (expr instanceof IAST) {
+			final IAST ast = (IAST) expr;
+			out.writeByte(AST);
+			out.writeInt(ast.getEvalFlags());
+			out.writeInt(ast.size());
+			for (int i = 0; i < ast.size(); i++) {
+				writeExpr(out, ast.get(i), table, names);
+			}
+		} else if (expr instanceof MethodSymbol) {
+			// method symbols aren't registered by name
+			final MethodSymbol symbol = (MethodSymbol) expr;
+			out.writeByte(METHOD_SYMBOL);
+			out.writeUTF(symbol.getSymbolName());
+			out.writeUTF(symbol.getMethod().getDeclaringClass().getName());
+			out.writeUTF(symbol.getMethod().getName());
+		} else if (expr instanceof ISymbol) {
+			out.writeByte(SYMBOL);
+			out.writeInt(index((ISymbol) expr, table, names));
+		} else if (expr instanceof IInteger) {
+			final BigInteger value = ((IInteger) expr).getBigNumerator();
+			if (value.bitLength() < 32) {
+				out.writeByte(INTEGER);
+				out.writeInt(value.intValue());
+			} else {
+				out.writeByte(BIG_INTEGER);
+				writeBigInteger(out, value);
+			}
+		} else if (expr instanceof IFraction) {
+			out.writeByte(FRACTION);
+			writeBigInteger(out, ((IFraction) expr).getBigNumerator());
+			writeBigInteger(out, ((IFraction) expr).getBigDenominator());
+		} else if (expr instanceof IStringX) {
+			out.writeByte(STRING);
+			out.writeUTF(expr.toString());
+		} else if (expr instanceof IPattern) {
+			final IPattern pattern = (IPattern) expr;
+			out.writeByte(PATTERN);
+			out.writeInt(pattern.getSymbol() == null ? -1 : index(pattern.getSymbol(), table, names));
+			writeExpr(out, pattern.getCondition(), table, names);
+			out.writeBoolean(pattern.isDefault());
+		} else if (expr instanceof IPatternSequence && ((IPatternSequence) expr).getSymbol() != null) {
+			final IPatternSequence pattern = (IPatternSequence) expr;
+			out.writeByte(PATTERN_SEQUENCE);
+			out.writeInt(index(pattern.getSymbol(), table, names));
+			writeExpr(out, pattern.getCondition(), table, names);
+			out.writeBoolean(pattern.isDefault());
+		} else {
+			out.writeByte(FULL_FORM);
+			out.writeUTF(expr.fullFormString());
+		}
+	}
+
+	private static void writeBigInteger(final DataOutputStream out, final BigInteger value) throws IOException {
+		final byte[] bytes = value.toByteArray();
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static IExpr readExpr(final DataInputStream in, final SymbolTable table) throws IOException {
+		final byte tag = in.readByte();
+		switch (tag) {
+		case NULL:
+			return null;
+		case AST:
+			final int flags = in.readInt();
+			final int size = in.readInt();
+			final IAST ast = F.ast(readExpr(in, table), size - 1, false);
+			for (int i = 1; i < size; i++) {
+				ast.add(readExpr(in, table));
+			}
+			ast.setEvalFlags(flags);
+			return ast;
+		case SYMBOL:
+			return table.get(in.readInt());
+		case METHOD_SYMBOL:
+			final String symbolName = in.readUTF();
+			final String className = in.readUTF();
+			final int dot = className.lastIndexOf('.');
+			return F.method(symbolName, className.substring(0, dot), className.substring(dot + 1), in.readUTF());
+		case INTEGER:
+			return F.integer(in.readInt());
+		case BIG_INTEGER:
+			return F.integer(readBigInteger(in));
+		case FRACTION:
+			final BigInteger numerator = readBigInteger(in);
+			return F.fraction(numerator, readBigInteger(in));
+		case STRING:
+			return F.stringx(in.readUTF());
+		case PATTERN:
+			final int index = in.readInt();
+			final ISymbol symbol = index < 0 ? null : table.get(index);
+			final IExpr condition = readExpr(in, table);
+			return F.$p(symbol, condition, in.readBoolean());
+		case PATTERN_SEQUENCE:
+			final ISymbol sequenceSymbol = table.get(in.readInt());
+			final IExpr sequenceCondition = readExpr(in, table);
+			return F.$ps(sequenceSymbol, sequenceCondition, in.readBoolean());
+		case FULL_FORM:
+			return EvalEngine.get().parse(in.readUTF());
+		default:
+			throw new IOException("Unknown expression type in symbol image: " + tag);
+		}
+	}
+
+	private static BigInteger readBigInteger(final DataInputStream in) throws IOException {
+		final byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new BigInteger(bytes);
+	}
+
+	/**
+	 * Create the image of the completely initialized symbol table. The evaluators
+	 * of all symbols are set up, so that the image contains their rules.
+	 *
+	 * @param args
+	 *          the file name of the image
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length != 1) {
+			System.out.println("Usage: SymbolImage <image file>");
+			return;
+		}
+		// don't load an existing image
+		Config.SYMBOL_IMAGE = null;
+		F.initSymbols(null, null, false);
+		// set up the evaluators, until no new symbols are created
+		final Set<ISymbol> symbols = new HashSet<ISymbol>();
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (ISymbol symbol : new ArrayList<ISymbol>(F.PREDEFINED_SYMBOLS_MAP.values())) {
+				if (symbols.add(symbol)) {
+					symbol.getEvaluator();
+					changed = true;
+				}
+			}
+		}
+		final OutputStream out = new FileOutputStream(args[0]);
+		try {
+			write(out, symbols);
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -1,6 +1,15 @@
 package org.matheclipse.core.eval;
 
 import java.io.Writer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.exception.TimeExceeded;
@@ -11,9 +20,22 @@ import org.matheclipse.core.interfaces.IExpr;
 /**
  * Run the evaluation of a given math formula <code>String</code> in a time
  * limited thread
+ *
+ * The evaluations are executed by a shared pool of at most
+ * <code>Config.TIME_CONSTRAINED_THREADS</code> threads. Every evaluation gets a
+ * {@link CancellationToken}, whose deadline is the time of the request plus the
+ * time limit. The evaluation checks the token and stops by itself, if the
+ * deadline has passed; the worker thread is additionally interrupted to stop
+ * blocking operations and the JAS polynomial arithmetic.
+ *
+ * The result of an evaluation is stored in its own {@link Request}, because an
+ * abandoned evaluation could still run after its time limit and must not
+ * overwrite the result of the following request.
  */
 public class TimeConstrainedEvaluator extends EvalUtilities implements Runnable {
 
+	private static ThreadPoolExecutor fPool = null;
+
 	protected IExpr fEvaluationResult;
 
 	protected Throwable fException;
@@ -26,6 +48,82 @@ public class TimeConstrainedEvaluator extends EvalUtilities implements Runnable
 
 	private boolean fTraceEvaluation;
 
+	/**
+	 * A single evaluation request, which is executed in a pool thread.
+	 */
+	private class Request implements Runnable {
+		private final IExpr fExpression;
+
+		private final boolean fTrace;
+
+		/**
+		 * The token of this evaluation
+		 */
+		private final CancellationToken fToken;
+
+		/**
+		 * Counted down, if this evaluation has finished
+		 */
+		private final CountDownLatch fFinished = new CountDownLatch(1);
+
+		/**
+		 * Set, if this evaluation was started in a pool thread
+		 */
+		private volatile boolean fStarted = false;
+
+		private volatile IExpr fResult = null;
+
+		private volatile Throwable fThrowable = null;
+
+		private Request(final IExpr expression, final boolean trace, final CancellationToken token) {
+			fExpression = expression;
+			fTrace = trace;
+			fToken = token;
+		}
+
+		public void run() {
+			fStarted = true;
+			try {
+				evaluateRequest();
+			} finally {
+				if (fEvalEngine.getCancellationToken() == fToken) {
+					fEvalEngine.setCancellationToken(null);
+				}
+				// don't keep the engine in the pool thread
+				EvalEngine.remove();
+				fFinished.countDown();
+			}
+		}
+
+		private void evaluateRequest() {
+			try {
+				startRequest();
+				if (fTrace) {
+					fResult = evalTrace(fExpression, null, F.List());
+				} else {
+					fResult = evaluate(fExpression);
+				}
+			} catch (final Exception e) {
+				if (Config.DEBUG) {
+					e.printStackTrace();
+				}
+				fThrowable = e;
+			} catch (final OutOfMemoryError e) {
+				if (Config.DEBUG) {
+					e.printStackTrace();
+				}
+				fResult = F.stringx("OutOfMemoryError");
+				// fThrowable = e;
+			} catch (final StackOverflowError e) {
+				if (Config.DEBUG) {
+					e.printStackTrace();
+				}
+				fResult = F.stringx("StackOverflowError");
+				// fThrowable = e;
+			}
+		}
+	}
+
 	public TimeConstrainedEvaluator(final EvalEngine evalEngine, final boolean msie, final long milliSeconds) {
 		this(evalEngine, msie, milliSeconds, false);
 
@@ -38,32 +136,31 @@ public class TimeConstrainedEvaluator extends EvalUtilities implements Runnable
 		fTraceEvaluation = false;
 	}
 
-	public void run() {
-		try {
-			startRequest();
-			if (fTraceEvaluation) {
-				fEvaluationResult = evalTrace(fParsedExpression, null, F.List());
-			} else {
-				fEvaluationResult = evaluate(fParsedExpression);
-			}
-		} catch (final Exception e) {
-			if (Config.DEBUG) {
-				e.printStackTrace();
-			}
-			fException = e;
-		} catch (final OutOfMemoryError e) {
-			if (Config.DEBUG) {
-				e.printStackTrace();
-			}
-			fEvaluationResult = F.stringx("OutOfMemoryError");
-			// fException = e;
-		} catch (final StackOverflowError e) {
-			if (Config.DEBUG) {
-				e.printStackTrace();
-			}
-			fEvaluationResult = F.stringx("StackOverflowError");
-			// fException = e;
+	private static synchronized ThreadPoolExecutor getPool() {
+		if (fPool == null) {
+			fPool = new ThreadPoolExecutor(Config.TIME_CONSTRAINED_THREADS, Config.TIME_CONSTRAINED_THREADS, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+						private int fCounter = 1;
+
+						public Thread newThread(final Runnable runnable) {
+							final Thread thread = new Thread(runnable, "TimeConstrainedEvaluator-" + (fCounter++));
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			fPool.allowCoreThreadTimeOut(true);
 		}
+		return fPool;
+	}
+
+	/**
+	 * Evaluate the parsed expression in the current thread without a time limit.
+	 */
+	public void run() {
+		final Request request = new Request(fParsedExpression, fTraceEvaluation, null);
+		request.evaluateRequest();
+		fEvaluationResult = request.fResult;
+		fException = request.fThrowable;
 	}
 
 	/**
@@ -103,21 +200,38 @@ public class TimeConstrainedEvaluator extends EvalUtilities implements Runnable
 		fParsedExpression = inputExpression;
 		fEvalEngine.setStopRequested(false);
 
+		final Request request = new Request(inputExpression, fTraceEvaluation, new CancellationToken(fMilliSeconds));
+		fEvalEngine.setCancellationToken(request.fToken);
+
 		try {
-			final Thread thread = new Thread(this, "TimeConstrainedEvaluator");// EvaluationRunnable();
-			thread.start();
-			thread.join(fMilliSeconds);
-			if (thread.isAlive()) {
-				thread.interrupt();
+			final Future<?> future = getPool().submit(request);
+			try {
+				if (fMilliSeconds > 0L) {
+					future.get(fMilliSeconds, TimeUnit.MILLISECONDS);
+				} else {
+					future.get();
+				}
+			} catch (final TimeoutException e) {
 				fEvalEngine.stopRequest();
+				// interrupt the pool thread, if the evaluation has started
+				future.cancel(true);
 				// wait a bit, so the thread can stop by itself
-				Thread.sleep(Config.TIME_CONSTRAINED_SLEEP_MILLISECONDS);
-				if (thread.isAlive()) {
-					// call the deprecated method as last possible exit
-					thread.stop();
+				if (!request.fStarted
+						|| !request.fFinished.await(Config.TIME_CONSTRAINED_SLEEP_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+					// the thread stops at the next check of the cancelled token
 					throw new TimeExceeded();
 				}
+			} catch (final CancellationException e) {
+				throw new TimeExceeded();
+			} catch (final ExecutionException e) {
+				// the request catches all exceptions, but not all errors
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
 			}
+			fEvaluationResult = request.fResult;
+			fException = request.fThrowable;
 			if (fException != null) {
 				writer.write(fException.getMessage() != null ? fException.getMessage() : "Exception: " + fException.getClass().getName());
 				writer.write('\n');
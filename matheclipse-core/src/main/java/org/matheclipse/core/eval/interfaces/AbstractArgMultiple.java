@@ -1,5 +1,10 @@
 package org.matheclipse.core.eval.interfaces;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IComplex;
@@ -30,6 +35,14 @@ public abstract class AbstractArgMultiple extends AbstractArg2 {
 		}
 
 		if (ast.size() > 3) {
+			final IExpr collected = collectLikeArguments(ast);
+			if (collected != null) {
+				if (collected == ast) {
+					// no arguments could be combined
+					return null;
+				}
+				return collected;
+			}
 			final ISymbol sym = ast.topHead();
 			final IAST result = F.function(sym);
 			IExpr tres;
@@ -91,6 +104,161 @@ public abstract class AbstractArgMultiple extends AbstractArg2 {
 		return null;
 	}
 
+	/**
+	 * Collect the like arguments of the given ast in a hash map, which is keyed
+	 * by the non-numeric part of the arguments (i.e. the coefficients of the
+	 * terms in <code>Plus</code> or the exponents of the factors in
+	 * <code>Times</code> are accumulated). The numbers are combined with
+	 * <code>binaryOperator()</code>. This avoids the quadratic pairwise
+	 * combination of the arguments in <code>evaluate()</code>.
+	 * 
+	 * @param ast
+	 * @return <code>null</code> if the like arguments couldn't be collected; the
+	 *         given <code>ast</code> if no arguments could be combined
+	 */
+	public IExpr collectLikeArguments(final IAST ast) {
+		IExpr number = null;
+		IExpr neutral = null;
+		boolean evaled = false;
+		final Map<IExpr, IExpr> coefficientMap = new HashMap<IExpr, IExpr>();
+		// the keys in the order of their first occurrence and the first argument
+		// for each key
+		final List<IExpr> keys = new ArrayList<IExpr>();
+		final Map<IExpr, IExpr> firstArgMap = new HashMap<IExpr, IExpr>();
+		IExpr arg;
+		IExpr key;
+		IExpr coefficient;
+		IExpr temp;
+		for (int i = 1; i < ast.size(); i++) {
+			arg = ast.get(i);
+			if (arg.isNumber()) {
+				if (number == null) {
+					number = arg;
+				} else {
+					temp = binaryOperator(number, arg);
+					if (temp == null || !temp.isNumber()) {
+						return null;
+					}
+					number = temp;
+					evaled = true;
+				}
+				continue;
+			}
+			key = getCollectKey(arg);
+			if (key == null) {
+				return null;
+			}
+			coefficient = getCollectCoefficient(arg);
+			temp = coefficientMap.get(key);
+			if (temp == null) {
+				coefficientMap.put(key, coefficient);
+				keys.add(key);
+				firstArgMap.put(key, arg);
+			} else {
+				temp = addCoefficients(temp, coefficient);
+				if (temp == null || !temp.isNumber()) {
+					return null;
+				}
+				coefficientMap.put(key, temp);
+				firstArgMap.remove(key);
+				evaled = true;
+			}
+		}
+		if (number != null && isNeutralNumber(number)) {
+			neutral = number;
+			number = null;
+			evaled = true;
+		}
+		if (!evaled) {
+			return ast;
+		}
+
+		final IAST result = F.function(ast.topHead());
+		if (number != null) {
+			result.add(number);
+		}
+		for (int i = 0; i < keys.size(); i++) {
+			key = keys.get(i);
+			temp = firstArgMap.get(key);
+			if (temp == null) {
+				temp = createCollected(key, coefficientMap.get(key));
+				if (temp.isNumber() && isNeutralNumber(temp)) {
+					neutral = temp;
+					continue;
+				}
+			}
+			result.add(temp);
+		}
+		if (result.size() == 1) {
+			return neutral;
+		}
+		if ((result.size() == 2) && ((ast.topHead().getAttributes() & ISymbol.ONEIDENTITY) == ISymbol.ONEIDENTITY)) {
+			return result.get(1);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the non-numeric part of the argument, which is used as the key for
+	 * collecting like arguments (i.e. <code>x</code> for the term
+	 * <code>3*x</code> in <code>Plus</code>).
+	 * 
+	 * @param arg
+	 *          a non-numeric argument
+	 * @return <code>null</code> if like arguments couldn't be collected for this
+	 *         argument
+	 */
+	public IExpr getCollectKey(final IExpr arg) {
+		return null;
+	}
+
+	/**
+	 * Get the numeric part of the argument, which is accumulated for like
+	 * arguments (i.e. <code>3</code> for the term <code>3*x</code> in
+	 * <code>Plus</code>).
+	 * 
+	 * @param arg
+	 *          a non-numeric argument
+	 * @return
+	 */
+	public IExpr getCollectCoefficient(final IExpr arg) {
+		return F.C1;
+	}
+
+	/**
+	 * Accumulate the numeric parts of two like arguments.
+	 * 
+	 * @param c0
+	 * @param c1
+	 * @return <code>null</code> if the numbers couldn't be accumulated
+	 */
+	public IExpr addCoefficients(final IExpr c0, final IExpr c1) {
+		return null;
+	}
+
+	/**
+	 * Create the argument from the key and the accumulated numeric part of like
+	 * arguments.
+	 * 
+	 * @param key
+	 * @param coefficient
+	 * @return the neutral number of this operator if the argument vanishes
+	 */
+	public IExpr createCollected(final IExpr key, final IExpr coefficient) {
+		return null;
+	}
+
+	/**
+	 * Test if the number is the neutral element of this operator (i.e.
+	 * <code>0</code> for <code>Plus</code>).
+	 * 
+	 * @param number
+	 * @return
+	 */
+	public boolean isNeutralNumber(final IExpr number) {
+		return false;
+	}
+
 	public HashedOrderlessMatcher getHashRuleMap() {
 		return null;
 	}
@@ -1,16 +1,15 @@
 package org.matheclipse.core.eval.interfaces;
 
 import org.matheclipse.core.basic.Config;
-import org.matheclipse.core.convert.AST2Expr;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.SymbolImage;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.parser.ExprParser;
 import org.matheclipse.core.patternmatching.PatternMatcherAndInvoker;
-import org.matheclipse.parser.client.Parser;
 import org.matheclipse.parser.client.SyntaxError;
-import org.matheclipse.parser.client.ast.ASTNode;
 
 /**
  * 
@@ -40,6 +39,11 @@ public abstract class AbstractFunctionEvaluator implements IFunctionEvaluator {
 	 * 
 	 */
 	public void setUp(final ISymbol symbol) throws SyntaxError {
+		if (SymbolImage.isLoaded(symbol)) {
+			// the rules are already loaded from the precompiled symbol image
+			F.SYMBOL_OBSERVER.createPredefinedSymbol(symbol.toString());
+			return;
+		}
 		IAST ruleList;
 		final EvalEngine engine = EvalEngine.get();
 		if ((ruleList = getRuleAST()) != null) {
@@ -47,7 +51,7 @@ public abstract class AbstractFunctionEvaluator implements IFunctionEvaluator {
 		}
 		String[] rules;
 		if ((rules = getRules()) != null) {
-			final Parser parser = new Parser();
+			final ExprParser parser = new ExprParser();
 
 			boolean oldPackageMode = engine.isPackageMode();
 			boolean oldTraceMode = engine.isTraceMode();
@@ -74,10 +78,9 @@ public abstract class AbstractFunctionEvaluator implements IFunctionEvaluator {
 		F.SYMBOL_OBSERVER.createPredefinedSymbol(symbol.toString());
 	}
 
-	private void setUpRules(final String[] rules, final Parser parser, final EvalEngine engine) {
+	private void setUpRules(final String[] rules, final ExprParser parser, final EvalEngine engine) {
 		for (int i = 0; i < rules.length; i++) {
-			final ASTNode parsedAST = parser.parse(rules[i]);
-			final IExpr obj = AST2Expr.CONST.convert(parsedAST);
+			final IExpr obj = parser.parse(rules[i]);
 			// engine.init();
 			engine.evaluate(obj);
 		}
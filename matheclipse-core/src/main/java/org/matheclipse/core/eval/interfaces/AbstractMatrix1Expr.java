@@ -1,11 +1,13 @@
 package org.matheclipse.core.eval.interfaces;
 
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.FieldMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.convert.Convert;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.expression.ExprFieldElement;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 
@@ -21,6 +23,11 @@ public abstract class AbstractMatrix1Expr extends AbstractFunctionEvaluator {
 		FieldMatrix<ExprFieldElement> matrix;
 		try {
 
+			final double[][] packed = PackedArray.toDoubleMatrix(ast.get(1));
+			if (packed != null) {
+				// a matrix of machine numbers
+				return realMatrixEval(new Array2DRowRealMatrix(packed, false));
+			}
 			int[] dim = ast.get(1).isMatrix();
 			if (dim != null) {
 				final IAST list = (IAST) ast.get(1);
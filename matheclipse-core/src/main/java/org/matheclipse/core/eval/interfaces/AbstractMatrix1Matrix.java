@@ -1,5 +1,6 @@
 package org.matheclipse.core.eval.interfaces;
 
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.FieldMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.matheclipse.core.basic.Config;
@@ -7,6 +8,7 @@ import org.matheclipse.core.convert.Convert;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.expression.ExprFieldElement;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 
@@ -21,6 +23,11 @@ public abstract class AbstractMatrix1Matrix extends AbstractFunctionEvaluator {
 		try {
 			Validate.checkSize(function, 2);
 
+			final double[][] packed = PackedArray.toDoubleMatrix(function.get(1));
+			if (packed != null) {
+				// a matrix of machine numbers
+				return Convert.realMatrix2List(realMatrixEval(new Array2DRowRealMatrix(packed, false)));
+			}
 			final IAST list = (IAST) function.get(1);
 			matrix = Convert.list2Matrix(list);
 			matrix = matrixEval(matrix);
@@ -0,0 +1,33 @@
+package org.matheclipse.core.eval.interfaces;
+
+/**
+ * A numeric function of real arguments, which was compiled from an
+ * expression.
+ *
+ * @see org.matheclipse.core.eval.ExprCompiler
+ */
+public interface ICompiledFunction {
+	/**
+	 * Evaluate the function to a double number
+	 *
+	 * @param args
+	 *          the values of the variables in the order of their declaration
+	 * @return
+	 */
+	double apply(double... args);
+
+	/**
+	 * The number of variables of the function
+	 *
+	 * @return
+	 */
+	int getArgumentCount();
+
+	/**
+	 * Test if the complete expression was compiled, i.e. no sub-expression has to
+	 * be evaluated by the interpreter.
+	 *
+	 * @return
+	 */
+	boolean isCompiled();
+}
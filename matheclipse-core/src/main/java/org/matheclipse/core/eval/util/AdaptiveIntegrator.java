@@ -0,0 +1,603 @@
+package org.matheclipse.core.eval.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.commons.math3.exception.TooManyEvaluationsException;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ParallelEvaluator;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Globally adaptive numerical integration over rectangular regions with finite
+ * or infinite limits.
+ *
+ * One-dimensional integrals are estimated with the 15-point Gauss-Kronrod rule
+ * and its embedded 7-point Gauss rule, integrals over several variables with
+ * the degree 7 Genz-Malik cubature rule and its embedded degree 5 rule. The
+ * regions with the largest error estimates are taken from a priority queue and
+ * bisected, until the sum of the error estimates meets the requested accuracy.
+ * The integrand values of all regions, which are created in one step, are
+ * evaluated as one batch, which is split across the worker engines of the
+ * {@link ParallelEvaluator}.
+ *
+ * An infinite range is mapped to a finite range by the transformation
+ * <code>x=a+t/(1-t)</code>, <code>x=b-(1-t)/t</code> or
+ * <code>x=t/(1-t^2)</code>. The rules don't evaluate the integrand at the
+ * boundary of a region, so integrable singularities at the limits are
+ * allowed.
+ *
+ * @see org.matheclipse.core.reflection.system.NIntegrate
+ */
+public class AdaptiveIntegrator {
+	public final static double DEFAULT_RELATIVE_ACCURACY = 1.0e-10;
+
+	/**
+	 * The default relative accuracy of integrals over several variables, where
+	 * the number of evaluations grows much faster with the accuracy
+	 */
+	public final static double DEFAULT_CUBATURE_RELATIVE_ACCURACY = 1.0e-6;
+
+	public final static double DEFAULT_ABSOLUTE_ACCURACY = 1.0e-12;
+
+	public final static int DEFAULT_MAX_EVALUATIONS = 1000000;
+
+	/**
+	 * The maximum number of regions, which are bisected in one step
+	 */
+	private final static int BATCH_REGIONS = 16;
+
+	/**
+	 * A region is bisected in the same step as the region with the largest
+	 * error, if its error is at least this fraction of the largest error
+	 */
+	private final static double BATCH_ERROR_RATIO = 0.25;
+
+	/**
+	 * The minimum number of integrand values, which are evaluated in parallel, if
+	 * the integrand was completely compiled
+	 */
+	private final static int PARALLEL_COMPILED_SAMPLES = 4096;
+
+	/**
+	 * The minimum number of integrand values, which are evaluated in parallel, if
+	 * the integrand is (partially) evaluated by the interpreter
+	 */
+	private final static int PARALLEL_INTERPRETED_SAMPLES = 16;
+
+	private final static int FINITE = 0;
+
+	/**
+	 * The range <code>[a, Infinity]</code>
+	 */
+	private final static int LOWER_LIMIT = 1;
+
+	/**
+	 * The range <code>[-Infinity, b]</code>
+	 */
+	private final static int UPPER_LIMIT = 2;
+
+	/**
+	 * The range <code>[-Infinity, Infinity]</code>
+	 */
+	private final static int NO_LIMIT = 3;
+
+	private final EvalEngine fEngine;
+
+	private final ICompiledFunction fFunction;
+
+	private final double fRelativeAccuracy;
+
+	private final double fAbsoluteAccuracy;
+
+	private final int fMaxEvaluations;
+
+	private int fEvaluations;
+
+	public AdaptiveIntegrator(final EvalEngine engine, final ICompiledFunction function) {
+		this(engine, function, function.getArgumentCount() > 1 ? DEFAULT_CUBATURE_RELATIVE_ACCURACY : DEFAULT_RELATIVE_ACCURACY,
+				DEFAULT_ABSOLUTE_ACCURACY, DEFAULT_MAX_EVALUATIONS);
+	}
+
+	/**
+	 *
+	 * @param engine
+	 *          the engine, which evaluates the interpreted parts of the
+	 *          integrand
+	 * @param function
+	 *          the integrand
+	 * @param relativeAccuracy
+	 * @param absoluteAccuracy
+	 * @param maxEvaluations
+	 *          the maximum number of integrand evaluations
+	 */
+	public AdaptiveIntegrator(final EvalEngine engine, final ICompiledFunction function, final double relativeAccuracy,
+			final double absoluteAccuracy, final int maxEvaluations) {
+		fEngine = engine;
+		fFunction = function;
+		fRelativeAccuracy = relativeAccuracy;
+		fAbsoluteAccuracy = absoluteAccuracy;
+		fMaxEvaluations = maxEvaluations;
+	}
+
+	/**
+	 * The number of integrand evaluations of the last integration
+	 *
+	 * @return
+	 */
+	public int getEvaluations() {
+		return fEvaluations;
+	}
+
+	/**
+	 * Integrate the function over the given limits.
+	 *
+	 * @param min
+	 *          the lower limits of the variables; may be
+	 *          <code>Double.NEGATIVE_INFINITY</code>
+	 * @param max
+	 *          the upper limits of the variables; may be
+	 *          <code>Double.POSITIVE_INFINITY</code>
+	 * @return
+	 * @throws TooManyEvaluationsException
+	 *           if the requested accuracy isn't reached with the maximum number
+	 *           of evaluations
+	 * @throws ArithmeticException
+	 *           if the integrand isn't a finite number at a sample point
+	 */
+	public double integrate(final double[] min, final double[] max) {
+		final int dimension = min.length;
+		final double[] lower = new double[dimension];
+		final double[] upper = new double[dimension];
+		final int[] types = new int[dimension];
+		final double[] center = new double[dimension];
+		final double[] halfWidth = new double[dimension];
+		double sign = 1.0;
+		fEvaluations = 0;
+		for (int k = 0; k < dimension; k++) {
+			if (Double.isNaN(min[k]) || Double.isNaN(max[k])) {
+				throw new ArithmeticException("the limits of integration aren't numbers");
+			}
+			if (min[k] == max[k]) {
+				return 0.0;
+			}
+			lower[k] = Math.min(min[k], max[k]);
+			upper[k] = Math.max(min[k], max[k]);
+			if (min[k] > max[k]) {
+				sign = -sign;
+			}
+			if (Double.isInfinite(lower[k])) {
+				types[k] = Double.isInfinite(upper[k]) ? NO_LIMIT : UPPER_LIMIT;
+			} else {
+				types[k] = Double.isInfinite(upper[k]) ? LOWER_LIMIT : FINITE;
+			}
+			switch (types[k]) {
+			case LOWER_LIMIT:
+			case UPPER_LIMIT:
+				center[k] = 0.5;
+				halfWidth[k] = 0.5;
+				break;
+			case NO_LIMIT:
+				center[k] = 0.0;
+				halfWidth[k] = 1.0;
+				break;
+			default:
+				center[k] = 0.5 * (lower[k] + upper[k]);
+				halfWidth[k] = 0.5 * (upper[k] - lower[k]);
+			}
+		}
+
+		final Rule rule = dimension == 1 ? new GaussKronrodRule() : new GenzMalikRule(dimension);
+		final PriorityQueue<Region> queue = new PriorityQueue<Region>();
+		final List<Region> regions = new ArrayList<Region>(2 * BATCH_REGIONS);
+		regions.add(new Region(center, halfWidth));
+		while (true) {
+			evaluate(rule, regions, types, lower, upper);
+			queue.addAll(regions);
+			regions.clear();
+
+			double integral = 0.0;
+			double error = 0.0;
+			for (Region region : queue) {
+				integral += region.integral;
+				error += region.error;
+			}
+			final double excess = error - Math.max(fAbsoluteAccuracy, fRelativeAccuracy * Math.abs(integral));
+			final Region worst = queue.peek();
+			if (excess <= 0.0 || worst.error <= worst.roundoff) {
+				// the requested accuracy is reached or the error estimates are
+				// dominated by rounding errors
+				return sign * integral;
+			}
+			if (fEvaluations + 2 * BATCH_REGIONS * rule.fPoints > fMaxEvaluations) {
+				throw new TooManyEvaluationsException(fMaxEvaluations);
+			}
+
+			// bisect the regions with the largest errors
+			double bisectedError = 0.0;
+			while (regions.size() < 2 * BATCH_REGIONS && !queue.isEmpty() && bisectedError < excess
+					&& queue.peek().error >= BATCH_ERROR_RATIO * worst.error) {
+				final Region region = queue.poll();
+				bisectedError += region.error;
+				region.bisect(regions);
+			}
+		}
+	}
+
+	/**
+	 * Evaluate the integrand at the points of the rule in all regions and
+	 * estimate the integrals and errors of the regions.
+	 */
+	private void evaluate(final Rule rule, final List<Region> regions, final int[] types, final double[] lower,
+			final double[] upper) {
+		final int dimension = types.length;
+		final int points = rule.fPoints;
+		final int size = regions.size() * points;
+		final double[][] args = new double[dimension][size];
+		final double[] jacobian = new double[size];
+		for (int i = 0; i < regions.size(); i++) {
+			rule.points(regions.get(i), args, i * points);
+		}
+		for (int j = 0; j < size; j++) {
+			jacobian[j] = 1.0;
+			for (int k = 0; k < dimension; k++) {
+				final double t = args[k][j];
+				switch (types[k]) {
+				case LOWER_LIMIT:
+					args[k][j] = lower[k] + t / (1.0 - t);
+					jacobian[j] /= (1.0 - t) * (1.0 - t);
+					break;
+				case UPPER_LIMIT:
+					args[k][j] = upper[k] - (1.0 - t) / t;
+					jacobian[j] /= t * t;
+					break;
+				case NO_LIMIT:
+					final double s = 1.0 - t * t;
+					args[k][j] = t / s;
+					jacobian[j] *= (1.0 + t * t) / (s * s);
+					break;
+				default:
+				}
+			}
+		}
+
+		final double[] values = evaluate(args);
+		fEvaluations += size;
+		for (int j = 0; j < size; j++) {
+			values[j] *= jacobian[j];
+			if (Double.isNaN(values[j]) || Double.isInfinite(values[j])) {
+				final StringBuilder buf = new StringBuilder("the integrand isn't a finite number at {");
+				for (int k = 0; k < dimension; k++) {
+					if (k > 0) {
+						buf.append(',');
+					}
+					buf.append(args[k][j]);
+				}
+				buf.append('}');
+				throw new ArithmeticException(buf.toString());
+			}
+		}
+		for (int i = 0; i < regions.size(); i++) {
+			rule.estimate(regions.get(i), values, i * points);
+		}
+	}
+
+	/**
+	 * Evaluate the integrand for a batch of arguments. Large batches are
+	 * evaluated in parallel.
+	 *
+	 * @param args
+	 *          <code>args[k][i]</code> is the value of the <code>k</code>-th
+	 *          variable of the <code>i</code>-th point
+	 * @return
+	 */
+	private double[] evaluate(final double[][] args) {
+		final int size = args[0].length;
+		final double[] result = new double[size];
+		if (size < (fFunction.isCompiled() ? PARALLEL_COMPILED_SAMPLES : PARALLEL_INTERPRETED_SAMPLES)) {
+			for (int i = 0; i < size; i++) {
+				result[i] = value(args, i);
+			}
+		} else {
+			ParallelEvaluator.evaluate(fEngine, size, new ParallelEvaluator.IndexFunction() {
+				public IExpr evaluate(final EvalEngine engine, final int index) {
+					result[index] = value(args, index);
+					return null;
+				}
+			});
+		}
+		return result;
+	}
+
+	private double value(final double[][] args, final int index) {
+		final double[] point = new double[args.length];
+		for (int k = 0; k < args.length; k++) {
+			point[k] = args[k][index];
+		}
+		return fFunction.apply(point);
+	}
+
+	/**
+	 * A rectangular region of the (transformed) integration range
+	 */
+	private final static class Region implements Comparable<Region> {
+		final double[] fCenter;
+
+		final double[] fHalfWidth;
+
+		double integral;
+
+		double error;
+
+		/**
+		 * The part of the error, which is caused by rounding
+		 */
+		double roundoff;
+
+		/**
+		 * The axis, along which the region is bisected
+		 */
+		int splitAxis;
+
+		Region(final double[] center, final double[] halfWidth) {
+			fCenter = center;
+			fHalfWidth = halfWidth;
+		}
+
+		void bisect(final List<Region> regions) {
+			final double[] halfWidth = fHalfWidth.clone();
+			halfWidth[splitAxis] *= 0.5;
+			final double[] center1 = fCenter.clone();
+			final double[] center2 = fCenter.clone();
+			center1[splitAxis] -= halfWidth[splitAxis];
+			center2[splitAxis] += halfWidth[splitAxis];
+			regions.add(new Region(center1, halfWidth));
+			regions.add(new Region(center2, halfWidth));
+		}
+
+		/**
+		 * The region with the largest error comes first.
+		 */
+		public int compareTo(final Region region) {
+			return Double.compare(region.error, error);
+		}
+	}
+
+	/**
+	 * An integration rule with an embedded rule of lower degree for the error
+	 * estimate.
+	 */
+	private abstract static class Rule {
+		/**
+		 * The number of points of the rule
+		 */
+		final int fPoints;
+
+		/**
+		 * <code>fNodes[p][k]</code> is the <code>k</code>-th coordinate of the
+		 * <code>p</code>-th point in the region <code>[-1,1]^n</code>
+		 */
+		final double[][] fNodes;
+
+		Rule(final double[][] nodes) {
+			fPoints = nodes.length;
+			fNodes = nodes;
+		}
+
+		/**
+		 * Store the points of the rule in the region into
+		 * <code>args[k][offset+p]</code>
+		 */
+		void points(final Region region, final double[][] args, final int offset) {
+			for (int p = 0; p < fPoints; p++) {
+				for (int k = 0; k < args.length; k++) {
+					args[k][offset + p] = region.fCenter[k] + region.fHalfWidth[k] * fNodes[p][k];
+				}
+			}
+		}
+
+		/**
+		 * Set the integral, the error estimate and the split axis of the region
+		 * from the integrand values <code>values[offset+p]</code> at the points of
+		 * the rule.
+		 */
+		abstract void estimate(Region region, double[] values, int offset);
+	}
+
+	/**
+	 * The 15-point Gauss-Kronrod rule with the error estimate of QUADPACK's
+	 * <code>QK15</code>
+	 */
+	private final static class GaussKronrodRule extends Rule {
+		private final static double[] XGK = { 0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+				0.864864423359769072789712788640926, 0.741531185599394439863864773280788, 0.586087235467691130294144845693013,
+				0.405845151377397166906606412076961, 0.207784955007898467600689403773245, 0.0 };
+
+		private final static double[] WGK = { 0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+				0.104790010322250183839876322541518, 0.140653259715525918745189590510238, 0.169004726639267902826583426598550,
+				0.190350578064785409913256402421014, 0.204432940075298892414161999234649, 0.209482141084727828012999174891714 };
+
+		private final static double[] WG = { 0.129484966168869693270611432679082, 0.279705391489276667901467771423780,
+				0.381830050505118944950369775488975, 0.417959183673469387755102040816327 };
+
+		private final static double[][] NODES = new double[15][1];
+
+		/**
+		 * The Kronrod weights of the nodes
+		 */
+		private final static double[] KRONROD_WEIGHTS = new double[15];
+
+		/**
+		 * The Gauss weights of the nodes; <code>0.0</code> for the Kronrod nodes
+		 */
+		private final static double[] GAUSS_WEIGHTS = new double[15];
+
+		static {
+			for (int j = 0; j < 7; j++) {
+				NODES[2 * j][0] = -XGK[j];
+				NODES[2 * j + 1][0] = XGK[j];
+				KRONROD_WEIGHTS[2 * j] = WGK[j];
+				KRONROD_WEIGHTS[2 * j + 1] = WGK[j];
+				if (j % 2 == 1) {
+					GAUSS_WEIGHTS[2 * j] = WG[j / 2];
+					GAUSS_WEIGHTS[2 * j + 1] = WG[j / 2];
+				}
+			}
+			KRONROD_WEIGHTS[14] = WGK[7];
+			GAUSS_WEIGHTS[14] = WG[3];
+		}
+
+		GaussKronrodRule() {
+			super(NODES);
+		}
+
+		@Override
+		void estimate(final Region region, final double[] values, final int offset) {
+			double kronrod = 0.0;
+			double gauss = 0.0;
+			double absolute = 0.0;
+			for (int p = 0; p < fPoints; p++) {
+				final double value = values[offset + p];
+				kronrod += KRONROD_WEIGHTS[p] * value;
+				gauss += GAUSS_WEIGHTS[p] * value;
+				absolute += KRONROD_WEIGHTS[p] * Math.abs(value);
+			}
+			final double mean = 0.5 * kronrod;
+			double deviation = 0.0;
+			for (int p = 0; p < fPoints; p++) {
+				deviation += KRONROD_WEIGHTS[p] * Math.abs(values[offset + p] - mean);
+			}
+			final double halfWidth = region.fHalfWidth[0];
+			region.integral = kronrod * halfWidth;
+			double error = Math.abs((kronrod - gauss) * halfWidth);
+			deviation *= halfWidth;
+			if (deviation != 0.0 && error != 0.0) {
+				error = deviation * Math.min(1.0, Math.pow(200.0 * error / deviation, 1.5));
+			}
+			region.roundoff = 50.0 * Math.ulp(1.0) * absolute * halfWidth;
+			region.error = Math.max(error, region.roundoff);
+			region.splitAxis = 0;
+		}
+	}
+
+	/**
+	 * The degree 7 Genz-Malik cubature rule with the embedded degree 5 rule. The
+	 * region is bisected along the axis with the largest fourth difference of
+	 * the integrand.
+	 */
+	private final static class GenzMalikRule extends Rule {
+		private final static double LAMBDA2 = Math.sqrt(9.0 / 70.0);
+
+		private final static double LAMBDA4 = Math.sqrt(9.0 / 10.0);
+
+		private final static double LAMBDA5 = Math.sqrt(9.0 / 19.0);
+
+		private final int fDimension;
+
+		/**
+		 * The weights of the degree 7 rule
+		 */
+		private final double[] fWeights7;
+
+		/**
+		 * The weights of the degree 5 rule
+		 */
+		private final double[] fWeights5;
+
+		GenzMalikRule(final int dimension) {
+			super(nodes(dimension));
+			fDimension = dimension;
+			final double n = dimension;
+			fWeights7 = new double[fPoints];
+			fWeights5 = new double[fPoints];
+			fWeights7[0] = (12824.0 - 9120.0 * n + 400.0 * n * n) / 19683.0;
+			fWeights5[0] = (729.0 - 950.0 * n + 50.0 * n * n) / 729.0;
+			int p = 1;
+			for (int k = 0; k < dimension; k++) {
+				for (int s = 0; s < 2; s++) {
+					fWeights7[p] = 980.0 / 6561.0;
+					fWeights5[p++] = 245.0 / 486.0;
+				}
+				for (int s = 0; s < 2; s++) {
+					fWeights7[p] = (1820.0 - 400.0 * n) / 19683.0;
+					fWeights5[p++] = (265.0 - 100.0 * n) / 1458.0;
+				}
+			}
+			for (int pairs = 2 * dimension * (dimension - 1); pairs > 0; pairs--) {
+				fWeights7[p] = 200.0 / 19683.0;
+				fWeights5[p++] = 25.0 / 729.0;
+			}
+			while (p < fPoints) {
+				fWeights7[p++] = 6859.0 / 19683.0 / (1 << dimension);
+			}
+		}
+
+		/**
+		 * The center, the points <code>+-LAMBDA2</code> and <code>+-LAMBDA4</code>
+		 * on each axis, the points <code>+-LAMBDA4</code> on each pair of axes and
+		 * the corners <code>+-LAMBDA5</code>.
+		 */
+		private static double[][] nodes(final int dimension) {
+			final int corners = 1 << dimension;
+			final double[][] nodes = new double[1 + 4 * dimension + 2 * dimension * (dimension - 1) + corners][dimension];
+			int p = 1;
+			for (int k = 0; k < dimension; k++) {
+				nodes[p++][k] = LAMBDA2;
+				nodes[p++][k] = -LAMBDA2;
+				nodes[p++][k] = LAMBDA4;
+				nodes[p++][k] = -LAMBDA4;
+			}
+			for (int i = 0; i < dimension; i++) {
+				for (int j = i + 1; j < dimension; j++) {
+					for (int s = 0; s < 4; s++) {
+						nodes[p][i] = (s & 1) == 0 ? LAMBDA4 : -LAMBDA4;
+						nodes[p++][j] = (s & 2) == 0 ? LAMBDA4 : -LAMBDA4;
+					}
+				}
+			}
+			for (int c = 0; c < corners; c++) {
+				for (int k = 0; k < dimension; k++) {
+					nodes[p][k] = (c & (1 << k)) == 0 ? LAMBDA5 : -LAMBDA5;
+				}
+				p++;
+			}
+			return nodes;
+		}
+
+		@Override
+		void estimate(final Region region, final double[] values, final int offset) {
+			double volume = 1.0;
+			for (int k = 0; k < fDimension; k++) {
+				volume *= 2.0 * region.fHalfWidth[k];
+			}
+			double result7 = 0.0;
+			double result5 = 0.0;
+			double absolute = 0.0;
+			for (int p = 0; p < fPoints; p++) {
+				final double value = values[offset + p];
+				result7 += fWeights7[p] * value;
+				result5 += fWeights5[p] * value;
+				absolute += Math.abs(fWeights7[p] * value);
+			}
+			region.integral = volume * result7;
+			region.roundoff = 50.0 * Math.ulp(1.0) * volume * absolute;
+			region.error = Math.max(volume * Math.abs(result7 - result5), region.roundoff);
+
+			final double center = values[offset];
+			final double ratio = (LAMBDA2 * LAMBDA2) / (LAMBDA4 * LAMBDA4);
+			double maxDifference = -1.0;
+			for (int k = 0; k < fDimension; k++) {
+				final int p = offset + 1 + 4 * k;
+				final double difference = Math.abs(values[p] + values[p + 1] - 2.0 * center - ratio
+						* (values[p + 2] + values[p + 3] - 2.0 * center));
+				if (difference > maxDifference
+						|| (difference == maxDifference && region.fHalfWidth[k] > region.fHalfWidth[region.splitAxis])) {
+					maxDifference = difference;
+					region.splitAxis = k;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,495 @@
+package org.matheclipse.core.eval.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ParallelEvaluator;
+import org.matheclipse.core.eval.exception.TimeExceeded;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.IInteger;
+
+/**
+ * Sample the functions of <code>Plot[]</code>, <code>ParametricPlot[]</code>
+ * and <code>Plot3D[]</code>.
+ *
+ * The functions are sampled on a uniform grid of <code>PlotPoints</code>
+ * points first and refined at most <code>MaxRecursion</code> times. A curve is
+ * refined by bisecting the intervals, where the curve bends or where the
+ * function is undefined at only one end point. A curve is split at the
+ * undefined points and at the jumps, which are confirmed by bisecting the
+ * interval. A surface is refined by
+ * doubling the resolution of the grid, because
+ * <code>SurfaceGraphics[]</code> needs a uniform grid. The new samples of a
+ * refinement step are evaluated as one batch, which is split across the worker
+ * engines of the {@link ParallelEvaluator}.
+ *
+ * @see org.matheclipse.core.reflection.system.Plot
+ * @see org.matheclipse.core.reflection.system.ParametricPlot
+ * @see org.matheclipse.core.reflection.system.Plot3D
+ */
+public class AdaptiveSampler {
+	/**
+	 * The cosine of the maximal angle between two consecutive segments of a
+	 * curve, which isn't refined
+	 */
+	private final static double COS_MAX_BEND = Math.cos(Math.toRadians(10.0));
+
+	/**
+	 * Segments of a curve, which are shorter than this fraction of the plot
+	 * range, aren't refined
+	 */
+	private final static double MIN_SEGMENT_LENGTH = 1.0e-3;
+
+	/**
+	 * A segment of a curve, which is longer than this fraction of the plot range
+	 * after the last refinement, is tested for a discontinuity
+	 */
+	private final static double MAX_SEGMENT_LENGTH = 0.25;
+
+	/**
+	 * The number of bisections of an interval to confirm a discontinuity
+	 */
+	private final static int DISCONTINUITY_BISECTIONS = 16;
+
+	/**
+	 * The maximal second difference (as fraction of the plot range) of a
+	 * surface, which isn't refined
+	 */
+	private final static double MAX_SURFACE_BEND = 0.05;
+
+	/**
+	 * The minimal batch size for a parallel evaluation of a compiled function
+	 */
+	private final static int PARALLEL_COMPILED_SAMPLES = 4096;
+
+	/**
+	 * The minimal batch size for a parallel evaluation of a function, which is
+	 * (partially) evaluated by the interpreter
+	 */
+	private final static int PARALLEL_INTERPRETED_SAMPLES = 16;
+
+	private final EvalEngine fEngine;
+
+	private final int fPlotPoints;
+
+	private final int fMaxRecursion;
+
+	/**
+	 *
+	 * @param engine
+	 *          the calling engine
+	 * @param plotPoints
+	 *          the number of initial sample points in each direction
+	 * @param maxRecursion
+	 *          the maximal number of refinement steps
+	 */
+	public AdaptiveSampler(final EvalEngine engine, final int plotPoints, final int maxRecursion) {
+		fEngine = engine;
+		fPlotPoints = Math.max(plotPoints, 2);
+		fMaxRecursion = Math.max(maxRecursion, 0);
+	}
+
+	/**
+	 * Create a sampler from the <code>PlotPoints</code> and
+	 * <code>MaxRecursion</code> options. Missing or invalid option values are
+	 * replaced by the given defaults.
+	 *
+	 * @param engine
+	 *          the calling engine
+	 * @param options
+	 * @param defaultPlotPoints
+	 * @param defaultMaxRecursion
+	 * @return
+	 */
+	public static AdaptiveSampler create(final EvalEngine engine, final Options options, final int defaultPlotPoints,
+			final int defaultMaxRecursion) {
+		final int plotPoints = getIntOption(options, "PlotPoints", defaultPlotPoints, 2);
+		final int maxRecursion = getIntOption(options, "MaxRecursion", defaultMaxRecursion, 0);
+		return new AdaptiveSampler(engine, plotPoints, maxRecursion);
+	}
+
+	private static int getIntOption(final Options options, final String optionString, final int defaultValue,
+			final int minValue) {
+		final IExpr option = options.getOption(optionString);
+		if (option instanceof IInteger) {
+			try {
+				final int value = ((IInteger) option).toInt();
+				if (value >= minValue) {
+					return value;
+				}
+			} catch (final ArithmeticException e) {
+				// use the default value
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Sample the curve <code>{x(t), y(t)}</code> for <code>a &lt;= t &lt;= b</code>.
+	 *
+	 * @param xFunction
+	 *          the compiled function <code>x(t)</code> or <code>null</code> for
+	 *          <code>x(t) = t</code>
+	 * @param yFunction
+	 *          the compiled function <code>y(t)</code>
+	 * @param a
+	 * @param b
+	 * @return the segments of the curve, which is split at the undefined points
+	 *         and at the discontinuities. Every segment is an array of
+	 *         <code>{x, y}</code> points.
+	 */
+	public List<double[][]> sampleCurve(final ICompiledFunction xFunction, final ICompiledFunction yFunction, final double a,
+			final double b) {
+		final int n = Math.min(fPlotPoints, Config.MAX_PLOT_POINTS);
+		double[] t = new double[n];
+		for (int i = 0; i < n; i++) {
+			t[i] = a + (b - a) * i / (n - 1);
+		}
+		t[n - 1] = b;
+		double[] x = xFunction == null ? t.clone() : evaluate(xFunction, new double[][] { t });
+		double[] y = evaluate(yFunction, new double[][] { t });
+		final double xScale = scale(x);
+		final double yScale = scale(y);
+		// the refinement level of each interval
+		int[] level = new int[n - 1];
+
+		for (int l = 1; l <= fMaxRecursion; l++) {
+			final boolean[] refine = new boolean[t.length - 1];
+			final int count = markCurve(x, y, xScale, yScale, refine);
+			if (count == 0 || t.length + count > Config.MAX_PLOT_POINTS) {
+				break;
+			}
+			final double[] tm = new double[count];
+			int c = 0;
+			for (int i = 0; i < refine.length; i++) {
+				if (refine[i]) {
+					tm[c++] = (t[i] + t[i + 1]) * 0.5;
+				}
+			}
+			final double[] xm = xFunction == null ? tm.clone() : evaluate(xFunction, new double[][] { tm });
+			final double[] ym = evaluate(yFunction, new double[][] { tm });
+
+			// merge the new points into the sorted points
+			final int size = t.length + count;
+			final double[] t2 = new double[size];
+			final double[] x2 = new double[size];
+			final double[] y2 = new double[size];
+			final int[] level2 = new int[size - 1];
+			int k = 0;
+			c = 0;
+			for (int i = 0; i < t.length; i++) {
+				t2[k] = t[i];
+				x2[k] = x[i];
+				y2[k] = y[i];
+				if (i < refine.length) {
+					if (refine[i]) {
+						level2[k++] = l;
+						t2[k] = tm[c];
+						x2[k] = xm[c];
+						y2[k] = ym[c++];
+						level2[k] = l;
+					} else {
+						level2[k] = level[i];
+					}
+				}
+				k++;
+			}
+			t = t2;
+			x = x2;
+			y = y2;
+			level = level2;
+		}
+		return splitCurve(xFunction, yFunction, t, x, y, xScale, yScale, level);
+	}
+
+	/**
+	 * Mark the intervals of the curve, which should be bisected.
+	 *
+	 * @return the number of marked intervals
+	 */
+	private static int markCurve(final double[] x, final double[] y, final double xScale, final double yScale,
+			final boolean[] refine) {
+		for (int i = 0; i < refine.length; i++) {
+			if (isFinite(x[i], y[i]) != isFinite(x[i + 1], y[i + 1])) {
+				// the curve starts or ends in this interval
+				refine[i] = true;
+			}
+		}
+		for (int i = 1; i < x.length - 1; i++) {
+			if (isFinite(x[i - 1], y[i - 1]) && isFinite(x[i], y[i]) && isFinite(x[i + 1], y[i + 1])) {
+				final double ux = (x[i] - x[i - 1]) / xScale;
+				final double uy = (y[i] - y[i - 1]) / yScale;
+				final double vx = (x[i + 1] - x[i]) / xScale;
+				final double vy = (y[i + 1] - y[i]) / yScale;
+				final double uLength = Math.sqrt(ux * ux + uy * uy);
+				final double vLength = Math.sqrt(vx * vx + vy * vy);
+				if (uLength > 0.0 && vLength > 0.0 && (ux * vx + uy * vy) < COS_MAX_BEND * uLength * vLength) {
+					if (uLength > MIN_SEGMENT_LENGTH) {
+						refine[i - 1] = true;
+					}
+					if (vLength > MIN_SEGMENT_LENGTH) {
+						refine[i] = true;
+					}
+				}
+			}
+		}
+		int count = 0;
+		for (int i = 0; i < refine.length; i++) {
+			if (refine[i]) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Split the curve at the undefined points and at the intervals, which are
+	 * still too long after the last refinement and contain a discontinuity.
+	 */
+	private List<double[][]> splitCurve(final ICompiledFunction xFunction, final ICompiledFunction yFunction,
+			final double[] t, final double[] x, final double[] y, final double xScale, final double yScale, final int[] level) {
+		final List<double[][]> segments = new ArrayList<double[][]>();
+		int start = -1;
+		for (int i = 0; i < x.length; i++) {
+			if (!isFinite(x[i], y[i])) {
+				addSegment(segments, x, y, start, i);
+				start = -1;
+			} else if (start < 0) {
+				start = i;
+			} else if (fMaxRecursion > 0 && level[i - 1] == fMaxRecursion
+					&& length(x[i] - x[i - 1], y[i] - y[i - 1], xScale, yScale) > MAX_SEGMENT_LENGTH
+					&& isDiscontinuity(xFunction, yFunction, t[i - 1], x[i - 1], y[i - 1], t[i], x[i], y[i], xScale, yScale)) {
+				addSegment(segments, x, y, start, i);
+				start = i;
+			}
+		}
+		addSegment(segments, x, y, start, x.length);
+		return segments;
+	}
+
+	/**
+	 * Test if the curve jumps in the interval <code>t0 &lt; t &lt; t1</code>.
+	 * The interval is bisected repeatedly and the half with the longer segment is
+	 * kept. A continuous curve becomes shorter with every bisection; the curve
+	 * jumps, if it is undefined at a bisection point or if the segment stays
+	 * longer than half of its initial length (i.e. at a step or at a pole, where
+	 * the values change their sign or grow without bound).
+	 */
+	private static boolean isDiscontinuity(final ICompiledFunction xFunction, final ICompiledFunction yFunction, double t0,
+			double x0, double y0, double t1, double x1, double y1, final double xScale, final double yScale) {
+		final double length = length(x1 - x0, y1 - y0, xScale, yScale);
+		for (int k = 0; k < DISCONTINUITY_BISECTIONS; k++) {
+			final double tm = (t0 + t1) * 0.5;
+			final double xm = xFunction == null ? tm : value(xFunction, tm);
+			final double ym = value(yFunction, tm);
+			if (!isFinite(xm, ym)) {
+				return true;
+			}
+			if (length(xm - x0, ym - y0, xScale, yScale) >= length(x1 - xm, y1 - ym, xScale, yScale)) {
+				t1 = tm;
+				x1 = xm;
+				y1 = ym;
+			} else {
+				t0 = tm;
+				x0 = xm;
+				y0 = ym;
+			}
+		}
+		return length(x1 - x0, y1 - y0, xScale, yScale) > 0.5 * length;
+	}
+
+	/**
+	 * The length of the segment <code>{dx, dy}</code> relative to the plot range.
+	 */
+	private static double length(final double dx, final double dy, final double xScale, final double yScale) {
+		final double ux = dx / xScale;
+		final double uy = dy / yScale;
+		return Math.sqrt(ux * ux + uy * uy);
+	}
+
+	/**
+	 * Add the points <code>start &lt;= i &lt; end</code> as segment. An isolated
+	 * point is a segment of its own.
+	 */
+	private static void addSegment(final List<double[][]> segments, final double[] x, final double[] y, final int start,
+			final int end) {
+		if (start >= 0 && end > start) {
+			final double[][] points = new double[end - start][];
+			for (int i = start; i < end; i++) {
+				points[i - start] = new double[] { x[i], y[i] };
+			}
+			segments.add(points);
+		}
+	}
+
+	/**
+	 * Sample the surface <code>z(x, y)</code> on a uniform grid.
+	 *
+	 * @param function
+	 *          the compiled function <code>z(x, y)</code>
+	 * @param ax
+	 * @param bx
+	 * @param ay
+	 * @param by
+	 * @return the matrix <code>z[i][j]</code> of the values at the grid points
+	 *         <code>x[i], y[j]</code>. Undefined values are
+	 *         <code>Double.NaN</code>.
+	 */
+	public double[][] sampleSurface(final ICompiledFunction function, final double ax, final double bx, final double ay,
+			final double by) {
+		int n = Math.min(fPlotPoints, (int) Math.sqrt(Config.MAX_PLOT_POINTS));
+		final double[][] args = new double[2][n * n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				args[0][i * n + j] = ax + (bx - ax) * i / (n - 1);
+				args[1][i * n + j] = ay + (by - ay) * j / (n - 1);
+			}
+		}
+		final double[] values = evaluate(function, args);
+		double[][] z = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(values, i * n, z[i], 0, n);
+		}
+
+		for (int l = 1; l <= fMaxRecursion; l++) {
+			final int m = 2 * n - 1;
+			if (m * m > Config.MAX_PLOT_POINTS || !isRefinable(z)) {
+				break;
+			}
+			// evaluate the new grid points between the old grid points
+			final int count = m * m - n * n;
+			final double[][] newArgs = new double[2][count];
+			int c = 0;
+			for (int i = 0; i < m; i++) {
+				for (int j = 0; j < m; j++) {
+					if ((i & 1) == 1 || (j & 1) == 1) {
+						newArgs[0][c] = ax + (bx - ax) * i / (m - 1);
+						newArgs[1][c++] = ay + (by - ay) * j / (m - 1);
+					}
+				}
+			}
+			final double[] newValues = evaluate(function, newArgs);
+			final double[][] z2 = new double[m][m];
+			c = 0;
+			for (int i = 0; i < m; i++) {
+				for (int j = 0; j < m; j++) {
+					if ((i & 1) == 1 || (j & 1) == 1) {
+						z2[i][j] = newValues[c++];
+					} else {
+						z2[i][j] = z[i >> 1][j >> 1];
+					}
+				}
+			}
+			z = z2;
+			n = m;
+		}
+		return z;
+	}
+
+	/**
+	 * Test if the surface bends too much or has undefined values next to defined
+	 * values.
+	 */
+	private static boolean isRefinable(final double[][] z) {
+		final int n = z.length;
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (isFinite(z[i][j])) {
+					min = Math.min(min, z[i][j]);
+					max = Math.max(max, z[i][j]);
+				}
+			}
+		}
+		final double maxDifference = (max > min ? max - min : 1.0) * MAX_SURFACE_BEND;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if ((i + 1 < n && isFinite(z[i][j]) != isFinite(z[i + 1][j]))
+						|| (j + 1 < n && isFinite(z[i][j]) != isFinite(z[i][j + 1]))) {
+					return true;
+				}
+				if (i > 0 && i + 1 < n && Math.abs(z[i - 1][j] - 2.0 * z[i][j] + z[i + 1][j]) > maxDifference) {
+					return true;
+				}
+				if (j > 0 && j + 1 < n && Math.abs(z[i][j - 1] - 2.0 * z[i][j] + z[i][j + 1]) > maxDifference) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Evaluate the function for a batch of arguments. Large batches are evaluated
+	 * in parallel.
+	 *
+	 * @param function
+	 * @param args
+	 *          <code>args[k][i]</code> is the value of the <code>k</code>-th
+	 *          variable of the <code>i</code>-th sample
+	 * @return the values of the samples; <code>Double.NaN</code> if the function
+	 *         couldn't be evaluated
+	 */
+	private double[] evaluate(final ICompiledFunction function, final double[][] args) {
+		final int size = args[0].length;
+		final double[] result = new double[size];
+		if (size < (function.isCompiled() ? PARALLEL_COMPILED_SAMPLES : PARALLEL_INTERPRETED_SAMPLES)) {
+			for (int i = 0; i < size; i++) {
+				result[i] = value(function, args, i);
+			}
+		} else {
+			ParallelEvaluator.evaluate(fEngine, size, new ParallelEvaluator.IndexFunction() {
+				public IExpr evaluate(final EvalEngine engine, final int index) {
+					result[index] = value(function, args, index);
+					return null;
+				}
+			});
+		}
+		return result;
+	}
+
+	private static double value(final ICompiledFunction function, final double t) {
+		return value(function, new double[][] { { t } }, 0);
+	}
+
+	private static double value(final ICompiledFunction function, final double[][] args, final int index) {
+		final double[] point = new double[args.length];
+		for (int k = 0; k < args.length; k++) {
+			point[k] = args[k][index];
+		}
+		try {
+			return function.apply(point);
+		} catch (final TimeExceeded e) {
+			throw e;
+		} catch (final RuntimeException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * The range of the finite values or <code>1.0</code>, if the range is empty.
+	 */
+	private static double scale(final double[] values) {
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < values.length; i++) {
+			if (isFinite(values[i])) {
+				min = Math.min(min, values[i]);
+				max = Math.max(max, values[i]);
+			}
+		}
+		return max > min ? max - min : 1.0;
+	}
+
+	private static boolean isFinite(final double value) {
+		return !Double.isNaN(value) && !Double.isInfinite(value);
+	}
+
+	private static boolean isFinite(final double x, final double y) {
+		return isFinite(x) && isFinite(y);
+	}
+}
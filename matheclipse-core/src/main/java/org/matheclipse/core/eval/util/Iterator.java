@@ -221,6 +221,15 @@ public class Iterator implements IIterator<IExpr> {
 		return true;
 	}
 
+	/**
+	 * Get the iteration variable.
+	 * 
+	 * @return <code>null</code> if the iterator has no variable
+	 */
+	public Symbol getVariable() {
+		return variable;
+	}
+
 	/**
 	 * Method Declaration.
 	 * 
@@ -5,7 +5,6 @@ import java.util.Map;
 import java.util.StringTokenizer;
 
 import org.matheclipse.core.basic.Config;
-import org.matheclipse.core.basic.Util;
 import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.eval.exception.WrongArgumentType;
 import org.matheclipse.core.generic.IsUnaryVariableOrPattern;
@@ -85,6 +84,33 @@ public class AST extends NestedFastTable<IExpr> implements IAST {
 
 	transient protected int fPatternMatchingHashValue = 0;
 
+	/**
+	 * The cached <code>symbolMask()</code>. <code>0</code> if unknown.
+	 */
+	transient private long fSymbolMask = 0L;
+
+	/**
+	 * The cached <code>leafCount()</code>. <code>0</code> if unknown.
+	 */
+	transient private int fLeafCount = 0;
+
+	/**
+	 * The cached <code>depth()</code>. <code>0</code> if unknown.
+	 */
+	transient private int fDepth = 0;
+
+	/**
+	 * The rule generation, in which this AST was evaluated to a fixed point.
+	 * <code>0</code> if unknown.
+	 */
+	transient private long fEvaluatedGeneration;
+
+	/**
+	 * <code>true</code> if this AST is a shared canonical instance of the
+	 * <code>ExprInterner</code>.
+	 */
+	transient private boolean fShared = false;
+
 	/**
 	 * Holds the factory for this AST.
 	 */
@@ -243,7 +269,7 @@ public class AST extends NestedFastTable<IExpr> implements IAST {
 	 * @param setLength
 	 *          if <code>true</code>, sets the array's size to initialCapacity.
 	 */
-	private AST(final int initialCapacity, final boolean setLength) {
+	protected AST(final int initialCapacity, final boolean setLength) {
 		super(initialCapacity + 1, setLength ? initialCapacity + 1 : 0);
 	}
 
@@ -322,7 +348,13 @@ public class AST extends NestedFastTable<IExpr> implements IAST {
 	public IAST clone() {
 		AST ast = (AST) super.clone();
 		ast.fEvalFlags = 0;
+		ast.fHashValue = 0;
 		ast.fPatternMatchingHashValue = 0;
+		ast.fSymbolMask = 0L;
+		ast.fLeafCount = 0;
+		ast.fDepth = 0;
+		ast.fEvaluatedGeneration = 0L;
+		ast.fShared = false;
 		return ast;
 	}
 
@@ -441,6 +473,103 @@ public class AST extends NestedFastTable<IExpr> implements IAST {
 		fEvalFlags |= i;
 	}
 
+	public long getEvaluatedGeneration() {
+		return fEvaluatedGeneration;
+	}
+
+	public void setEvaluatedGeneration(final long generation) {
+		fEvaluatedGeneration = generation;
+	}
+
+	public boolean isShared() {
+		return fShared;
+	}
+
+	/**
+	 * Mark this AST as shared canonical instance of the
+	 * <code>ExprInterner</code>. All further modifications throw an
+	 * <code>UnsupportedOperationException</code>.
+	 */
+	void setShared() {
+		fShared = true;
+	}
+
+	/**
+	 * Reset the cached hash value, the symbol mask, the leaf count, the depth and
+	 * the evaluated generation.
+	 * 
+	 * @throws UnsupportedOperationException
+	 *           if this AST is shared
+	 */
+	@Override
+	protected void modified() {
+		if (fShared) {
+			throw new UnsupportedOperationException("A shared AST mustn't be modified");
+		}
+		super.modified();
+		fSymbolMask = 0L;
+		fLeafCount = 0;
+		fDepth = 0;
+		fEvaluatedGeneration = 0L;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The mask is cached until the next modification of this AST.
+	 */
+	public long symbolMask() {
+		if (fSymbolMask == 0L) {
+			long mask = 0L;
+			final int sz = size();
+			for (int i = 0; i < sz; i++) {
+				mask |= get(i).symbolMask();
+			}
+			fSymbolMask = mask;
+		}
+		return fSymbolMask;
+	}
+
+	/** {@inheritDoc} */
+	public int leafCount() {
+		if (fLeafCount == 0) {
+			int sum = 0;
+			final int sz = size();
+			IExpr temp;
+			for (int i = 0; i < sz; i++) {
+				temp = get(i);
+				if (temp instanceof IAST) {
+					sum += ((IAST) temp).leafCount();
+				} else if (temp instanceof IFraction || temp instanceof IComplex || temp instanceof IComplexNum) {
+					sum += 3;
+				} else {
+					sum++;
+				}
+			}
+			fLeafCount = sum;
+		}
+		return fLeafCount;
+	}
+
+	/** {@inheritDoc} */
+	public int depth() {
+		if (fDepth == 0) {
+			int maxDepth = 1;
+			int d;
+			final int sz = size();
+			for (int i = 1; i < sz; i++) {
+				if (get(i) instanceof IAST) {
+					d = ((IAST) get(i)).depth();
+					if (d > maxDepth) {
+						maxDepth = d;
+					}
+				}
+			}
+			fDepth = maxDepth + 1;
+		}
+		return fDepth;
+	}
+
 	/**
 	 * @return
 	 */
@@ -914,10 +1043,54 @@ public class AST extends NestedFastTable<IExpr> implements IAST {
 		return size() == 3 && (head().equals(F.Rule) || head().equals(F.RuleDelayed));
 	}
 
-	/** {@inheritDoc} */
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * If the expression doesn't contain all the symbols required by the pattern
+	 * (see <code>PatternMatcher#requiredSymbolMask()</code>), it's free of the
+	 * pattern and no matching is necessary. Subexpressions which don't contain
+	 * the required symbols are skipped.
+	 */
 	public boolean isFree(final IExpr pattern, boolean heads) {
+		final long requiredMask = Config.SYMBOL_MASK_PRUNING ? PatternMatcher.requiredSymbolMask(pattern) : 0L;
+		if ((symbolMask() & requiredMask) != requiredMask) {
+			return true;
+		}
 		final PatternMatcher matcher = new PatternMatcher(pattern);
-		return !isMember(matcher, heads);
+		if (requiredMask == 0L) {
+			return !isMember(matcher, heads);
+		}
+		return !isMember(matcher, heads, requiredMask);
+	}
+
+	/**
+	 * Test if at least one of the subexpressions, which contain all the symbols
+	 * of the <code>requiredMask</code>, satisfies the predicate.
+	 * 
+	 * @param predicate
+	 * @param heads
+	 * @param requiredMask
+	 * @return
+	 */
+	private boolean isMember(final Predicate<IExpr> predicate, final boolean heads, final long requiredMask) {
+		if (predicate.apply(this)) {
+			return true;
+		}
+		IExpr temp;
+		for (int i = heads ? 0 : 1; i < size(); i++) {
+			temp = get(i);
+			if ((temp.symbolMask() & requiredMask) != requiredMask) {
+				continue;
+			}
+			if (temp instanceof AST) {
+				if (((AST) temp).isMember(predicate, heads, requiredMask)) {
+					return true;
+				}
+			} else if (temp.isMember(predicate, heads)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/** {@inheritDoc} */
@@ -1073,7 +1246,7 @@ public class AST extends NestedFastTable<IExpr> implements IAST {
 		if (Config.DEBUG) {
 			System.out.println(toString());
 		}
-		Util.checkCanceled();
+		engine.checkCanceled();
 		if (Config.SHOW_CONSOLE) {
 			IExpr temp = engine.evalAST(this);
 			if ((topHead().getAttributes() & ISymbol.CONSOLE_OUTPUT) == ISymbol.CONSOLE_OUTPUT) {
@@ -1089,21 +1262,23 @@ public class AST extends NestedFastTable<IExpr> implements IAST {
 
 	}
 
+	/**
+	 * The structural hash value of the head and all arguments. The hash value is
+	 * cached until the next modification of this AST.
+	 */
 	@Override
 	public int hashCode() {
 		if (fHashValue == 0) {
 			final int sz = size();
-			if (sz > 2) {
-				fHashValue = (31 * get(0).hashCode() + 31) * get(1).hashCode() + get(2).hashCode() + sz;
-			} else if (sz == 2) {
-				fHashValue = 31 * get(0).hashCode() + get(1).hashCode();
+			if (sz == 0) {
+				// this case shouldn't happen
+				fHashValue = 41;
 			} else {
-				if (sz == 1) {
-					fHashValue = (17 * get(0).hashCode());
-				} else {
-					// this case shouldn't happen
-					fHashValue = 41;
+				int hash = 17 * get(0).hashCode() + sz;
+				for (int i = 1; i < sz; i++) {
+					hash = 31 * hash + get(i).hashCode();
 				}
+				fHashValue = (hash == 0) ? 41 : hash;
 			}
 		}
 		return fHashValue;
@@ -498,6 +498,13 @@ public abstract class ExprImpl implements IExpr {
 		return ast;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public long symbolMask() {
+		return 0L;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -542,11 +549,13 @@ public abstract class ExprImpl implements IExpr {
 
 	public static IExpr replaceRepeated(final IExpr expr, VisitorReplaceAll visitor) {
 		IExpr result = expr;
+		visitor.nextPass();
 		IExpr temp = expr.accept(visitor);
 		final int iterationLimit = EvalEngine.get().getIterationLimit();
 		int iterationCounter = 1;
 		while (temp != null) {
 			result = temp;
+			visitor.nextPass();
 			temp = result.accept(visitor);
 			if (iterationLimit >= 0 && iterationLimit <= ++iterationCounter) {
 				IterationLimitExceeded.throwIt(iterationCounter, result);
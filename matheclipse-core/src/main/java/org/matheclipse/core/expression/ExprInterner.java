@@ -0,0 +1,139 @@
+package org.matheclipse.core.expression;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * A table for the <i>hash-consing</i> of evaluated expressions. Structural
+ * equal ASTs are replaced by a single canonical instance, so that equal
+ * (sub-)expressions share their memory and are mostly compared by reference.
+ *
+ * The canonical instances are only weakly referenced by the table. The table is
+ * divided into segments with separate locks, so that it could be used
+ * concurrently by different threads.
+ *
+ * <b>Note:</b> the canonical instances are shared and mustn't be modified. They
+ * are marked as shared (see {@link IAST#isShared()}), so that every
+ * modification throws an <code>UnsupportedOperationException</code>. Use
+ * <code>clone()</code> to get a modifiable copy.
+ */
+public class ExprInterner {
+
+	private final static int SEGMENTS = 16;
+
+	/**
+	 * The global table, which could be shared between different
+	 * <code>EvalEngine</code>s
+	 */
+	public final static ExprInterner INSTANCE = new ExprInterner();
+
+	private final List<Map<IAST, WeakReference<IAST>>> fSegments;
+
+	public ExprInterner() {
+		fSegments = new ArrayList<Map<IAST, WeakReference<IAST>>>(SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++) {
+			fSegments.add(new WeakHashMap<IAST, WeakReference<IAST>>());
+		}
+	}
+
+	/**
+	 * Get the canonical instance of the expression. Only ASTs are interned, all
+	 * other expressions are returned unchanged.
+	 *
+	 * @param expr
+	 * @return the canonical instance, which mustn't be modified
+	 */
+	public IExpr intern(final IExpr expr) {
+		if (expr instanceof AST) {
+			return intern((AST) expr);
+		}
+		return expr;
+	}
+
+	/**
+	 * Get the canonical instance of the <code>ast</code>. The arguments are
+	 * interned recursively. The given <code>ast</code> isn't modified and doesn't
+	 * become shared itself.
+	 *
+	 * @param ast
+	 * @return the canonical instance, which mustn't be modified
+	 */
+	public AST intern(final AST ast) {
+		if (ast.isShared()) {
+			return ast;
+		}
+		AST result = ast;
+		final int size = ast.size();
+		for (int i = 0; i < size; i++) {
+			final IExpr arg = ast.get(i);
+			if (arg instanceof AST) {
+				final AST internedArg = intern((AST) arg);
+				if (internedArg != arg) {
+					if (result == ast) {
+						result = copy(ast);
+					}
+					result.set(i, internedArg);
+				}
+			}
+		}
+
+		final Map<IAST, WeakReference<IAST>> segment = fSegments.get((result.hashCode() & 0x7fffffff) % SEGMENTS);
+		synchronized (segment) {
+			final WeakReference<IAST> reference = segment.get(result);
+			if (reference != null) {
+				final IAST canonical = reference.get();
+				if (canonical != null) {
+					return (AST) canonical;
+				}
+			}
+			if (result == ast) {
+				// don't share the caller's instance
+				result = copy(ast);
+			}
+			result.setShared();
+			segment.put(result, new WeakReference<IAST>(result));
+			return result;
+		}
+	}
+
+	private static AST copy(final AST ast) {
+		final AST result = (AST) ast.clone();
+		result.setEvalFlags(ast.getEvalFlags());
+		result.setEvaluatedGeneration(ast.getEvaluatedGeneration());
+		return result;
+	}
+
+	/**
+	 * Remove all canonical instances from the table.
+	 */
+	public void clear() {
+		for (int i = 0; i < SEGMENTS; i++) {
+			final Map<IAST, WeakReference<IAST>> segment = fSegments.get(i);
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * The number of canonical instances, which are currently in the table.
+	 *
+	 * @return
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < SEGMENTS; i++) {
+			final Map<IAST, WeakReference<IAST>> segment = fSegments.get(i);
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+}
@@ -1,19 +1,24 @@
 package org.matheclipse.core.expression;
 
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.math3.fraction.BigFraction;
 import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.convert.Object2Expr;
 import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.eval.Namespace;
+import org.matheclipse.core.eval.SymbolImage;
 import org.matheclipse.core.eval.SystemNamespace;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IComplex;
@@ -49,9 +54,10 @@ public class F {
 	public final static Map<String, IPattern> PREDEFINED_PATTERN_MAP = new HashMap<String, IPattern>(61);
 
 	/**
-	 * The map for predefined symbols
+	 * The map for predefined symbols. The map could be accessed concurrently by
+	 * different threads.
 	 */
-	public final static Map<String, ISymbol> PREDEFINED_SYMBOLS_MAP = new HashMap<String, ISymbol>(557);
+	public final static ConcurrentMap<String, ISymbol> PREDEFINED_SYMBOLS_MAP = new ConcurrentHashMap<String, ISymbol>(557);
 
 	public static ISymbolObserver SYMBOL_OBSERVER = new ISymbolObserver() {
 		@Override
@@ -102,6 +108,8 @@ public class F {
 
 	public static ISymbol Complex;
 
+	public static ISymbol CompiledFunction;
+
 	public static ISymbol CompoundExpression;
 
 	public static ISymbol Condition;
@@ -132,6 +140,8 @@ public class F {
 
 	public static ISymbol Det;
 
+	public static ISymbol Dispatch;
+
 	public static ISymbol Dot;
 
 	public static ISymbol Equal;
@@ -248,6 +258,8 @@ public class F {
 	//
 	// public static ISymbol Permutations;
 
+	public static ISymbol Piecewise;
+
 	public static ISymbol Plot;
 
 	public static ISymbol Plot3D;
@@ -782,6 +794,11 @@ public class F {
 		return unary(Det, a0);
 	}
 
+	public static IAST Dispatch(final IExpr a0) {
+
+		return unary(Dispatch, a0);
+	}
+
 	public static IAST Divide(final IExpr a0, final IExpr a1) {
 		return binary(Times, a0, binary(Power, a1, CN1));
 	}
@@ -1161,6 +1178,7 @@ public class F {
 				Cancel = predefinedSymbol("Cancel");
 				Csc = predefinedSymbol("Csc");
 				Ceiling = predefinedSymbol("Ceiling");
+				CompiledFunction = predefinedSymbol("CompiledFunction");
 				CompoundExpression = predefinedSymbol("CompoundExpression");
 				Condition = predefinedSymbol("Condition");
 				Conjugate = predefinedSymbol("Conjugate");
@@ -1174,6 +1192,7 @@ public class F {
 				Denominator = predefinedSymbol("Denominator");
 				Derivative = predefinedSymbol("Derivative");
 				Det = predefinedSymbol("Det");
+				Dispatch = predefinedSymbol("Dispatch");
 				Dot = predefinedSymbol("Dot");
 				Equal = predefinedSymbol("Equal");
 				EvenQ = predefinedSymbol("EvenQ");
@@ -1239,6 +1258,7 @@ public class F {
 				// Partition = predefinedSymbol("Partition", new Partition());
 				// Permutations = predefinedSymbol("Permutations", new
 				// Permutations());
+				Piecewise = predefinedSymbol("Piecewise");
 				Plot = predefinedSymbol("Plot");
 				Plot3D = predefinedSymbol("Plot3D");
 
@@ -1291,7 +1311,7 @@ public class F {
 					SYMBOL_OBSERVER = symbolObserver;
 				}
 
-				if (!noPackageLoading) {
+				if (!noPackageLoading && !loadSymbolImage(fileName)) {
 					Reader reader = null;
 					if (fileName != null) {
 						try {
@@ -1331,6 +1351,34 @@ public class F {
 		}
 	}
 
+	/**
+	 * Load the precompiled symbol image <code>Config.SYMBOL_IMAGE</code>, if no
+	 * package file is given.
+	 * 
+	 * @param fileName
+	 *          <code>null</code> or the text filename of the system rules
+	 * @return <code>true</code> if the image was loaded
+	 */
+	private static boolean loadSymbolImage(String fileName) {
+		if (fileName != null || Config.SYMBOL_IMAGE == null) {
+			return false;
+		}
+		InputStream image = F.class.getResourceAsStream(Config.SYMBOL_IMAGE);
+		if (image == null) {
+			return false;
+		}
+		try {
+			try {
+				return SymbolImage.load(new BufferedInputStream(image));
+			} finally {
+				image.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
 	public static IAST Integrate(final IExpr a0, final IExpr a1) {
 
 		return binary(Integrate, a0, a1);
@@ -2618,7 +2666,11 @@ public class F {
 			return temp;
 		}
 		temp = new Symbol(symbolName);
-		PREDEFINED_SYMBOLS_MAP.put(symbolName, temp);
+		final ISymbol previous = PREDEFINED_SYMBOLS_MAP.putIfAbsent(symbolName, temp);
+		if (previous != null) {
+			// created concurrently by another thread
+			return previous;
+		}
 		// if (!skipEvaluatorSettings &&
 		// Character.isUpperCase(symbolName.charAt(0))) {
 		// // probably a predefined function use reflection to setUp this
@@ -2678,7 +2730,7 @@ public class F {
 			return symbol;
 		}
 		EvalEngine engine = EvalEngine.get();
-		Map<String, ISymbol> variableMap = engine.getVariableMap();
+		ConcurrentMap<String, ISymbol> variableMap = engine.getVariableMap();
 		symbol = variableMap.get(symbolName);
 		if (symbol != null) {
 			return symbol;
@@ -2695,17 +2747,26 @@ public class F {
 				}
 			}
 			symbol = new Symbol(symbolName);
-			variableMap.put(symbolName, symbol);
+			final ISymbol previous = variableMap.putIfAbsent(symbolName, symbol);
+			if (previous != null) {
+				// created concurrently by a worker engine of the same session
+				return previous;
+			}
 			if (symbolName.charAt(0) == '$') {
 				SYMBOL_OBSERVER.createUserSymbol(symbol);
 			}
 		} else {
 			symbol = new Symbol(symbolName);
-			PREDEFINED_SYMBOLS_MAP.put(symbolName, symbol);
+			final ISymbol previous = PREDEFINED_SYMBOLS_MAP.putIfAbsent(symbolName, symbol);
+			if (previous != null) {
+				// created concurrently by another thread
+				return previous;
+			}
 			if (Character.isUpperCase(symbolName.charAt(0))) {
 				// probably a predefined function
-				// use reflection to setUp this symbol
-				SystemNamespace.DEFAULT.setEvaluator(symbol);
+				// use reflection to setUp this symbol (only once, if the symbol is
+				// already used by another thread)
+				symbol.getEvaluator();
 			}
 		}
 
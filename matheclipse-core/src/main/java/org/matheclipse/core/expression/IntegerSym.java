@@ -31,6 +31,29 @@ public class IntegerSym extends ExprImpl implements IInteger {
 	 */
 	public static final BigInteger BI_MINUS_ONE = BigInteger.valueOf(-1l);
 
+	/**
+	 * The smallest integer value in the cache of immutable small integers.
+	 */
+	private static final int CACHE_LOW = -128;
+
+	/**
+	 * The largest integer value in the cache of immutable small integers.
+	 */
+	private static final int CACHE_HIGH = 1024;
+
+	/**
+	 * The cache of immutable small integers (i.e. the counters of
+	 * <code>Do</code> or <code>Table</code> and the indices of <code>Part</code>)
+	 */
+	private static final IntegerSym[] CACHE = new IntegerSym[CACHE_HIGH - CACHE_LOW + 1];
+
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = new IntegerSym();
+			CACHE[i].fInteger = BigInteger.valueOf(i + CACHE_LOW);
+		}
+	}
+
 	/**
 	 * Be cautious with this method, no new internal BigInteger is created
 	 * 
@@ -44,6 +67,12 @@ public class IntegerSym extends ExprImpl implements IInteger {
 		// } else {
 		// z = new IntegerSym();
 		// }
+		if (value.bitLength() < 32) {
+			final int intValue = value.intValue();
+			if (intValue >= CACHE_LOW && intValue <= CACHE_HIGH) {
+				return CACHE[intValue - CACHE_LOW];
+			}
+		}
 		IntegerSym z = new IntegerSym();
 		z.fInteger = value;
 		return z;
@@ -56,6 +85,9 @@ public class IntegerSym extends ExprImpl implements IInteger {
 		// } else {
 		// z = new IntegerSym();
 		// }
+		if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+			return CACHE[(int) value - CACHE_LOW];
+		}
 		IntegerSym z = new IntegerSym();
 		z.fInteger = BigInteger.valueOf(value);
 		return z;
@@ -83,9 +115,7 @@ public class IntegerSym extends ExprImpl implements IInteger {
 		// } else {
 		// z = new IntegerSym();
 		// }
-		IntegerSym z = new IntegerSym();
-		z.fInteger = new BigInteger(integerString, radix);
-		return z;
+		return newInstance(new BigInteger(integerString, radix));
 	}
 
 	// protected static IntegerImpl valueOf(final BigInteger value) {
@@ -111,7 +141,7 @@ public class IntegerSym extends ExprImpl implements IInteger {
 	}
 
 	public boolean equalsInt(final int i) {
-		return fInteger.equals(BigInteger.valueOf(i));
+		return fInteger.bitLength() < 32 && fInteger.intValue() == i;
 	}
 
 	/** {@inheritDoc} */
@@ -132,6 +162,9 @@ public class IntegerSym extends ExprImpl implements IInteger {
 	 * @return
 	 */
 	public IInteger add(final IInteger val) {
+		if (val instanceof IntegerSym) {
+			return add((IntegerSym) val);
+		}
 		return newInstance(fInteger.add(val.getBigNumerator()));
 	}
 
@@ -140,6 +173,9 @@ public class IntegerSym extends ExprImpl implements IInteger {
 	 * @return
 	 */
 	public IInteger multiply(final IInteger val) {
+		if (val instanceof IntegerSym) {
+			return multiply((IntegerSym) val);
+		}
 		return newInstance(fInteger.multiply(val.getBigNumerator()));
 	}
 
@@ -174,6 +210,10 @@ public class IntegerSym extends ExprImpl implements IInteger {
 	 * @return
 	 */
 	public IntegerSym add(final IntegerSym that) {
+		if (fInteger.bitLength() < 32 && that.fInteger.bitLength() < 32) {
+			// the sum of two int values can't overflow a long value
+			return valueOf((long) fInteger.intValue() + (long) that.fInteger.intValue());
+		}
 		return newInstance(fInteger.add(that.fInteger));
 	}
 
@@ -369,6 +409,10 @@ public class IntegerSym extends ExprImpl implements IInteger {
 	 * @return
 	 */
 	public IntegerSym multiply(final IntegerSym that) {
+		if (fInteger.bitLength() < 32 && that.fInteger.bitLength() < 32) {
+			// the product of two int values can't overflow a long value
+			return valueOf((long) fInteger.intValue() * (long) that.fInteger.intValue());
+		}
 		return newInstance(fInteger.multiply(that.fInteger));
 	}
 
@@ -480,6 +524,9 @@ public class IntegerSym extends ExprImpl implements IInteger {
 	}
 
 	public IInteger subtract(final IInteger that) {
+		if (that instanceof IntegerSym && fInteger.bitLength() < 32 && ((IntegerSym) that).fInteger.bitLength() < 32) {
+			return valueOf((long) fInteger.intValue() - (long) ((IntegerSym) that).fInteger.intValue());
+		}
 		return newInstance(fInteger.subtract(that.getBigNumerator()));
 	}
 
@@ -82,6 +82,24 @@ public class MethodSymbol extends Symbol {
 		return fMethod.hashCode();
 	}
 
+	/**
+	 * Get the static method represented by this object
+	 * 
+	 * @return
+	 */
+	public Method getMethod() {
+		return fMethod;
+	}
+
+	/**
+	 * Get the name of this symbol
+	 * 
+	 * @return
+	 */
+	public String getSymbolName() {
+		return fSymbolName;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public int hierarchy() {
@@ -0,0 +1,881 @@
+package org.matheclipse.core.expression;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.apache.commons.math3.complex.Complex;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISignedNumber;
+
+/**
+ * A <code>List</code> of machine numbers, which stores its elements in a
+ * primitive <code>double[]</code> (real numbers), <code>long[]</code> (integer
+ * numbers) or <code>double[]</code> of real and imaginary parts (complex
+ * numbers) instead of boxed <code>IExpr</code> objects. The elements are boxed
+ * on access, so a packed array could be used everywhere an <code>AST</code> is
+ * expected.
+ *
+ * Setting an element to a machine number of the same type keeps the array
+ * packed. All other modifications convert the array to the ordinary
+ * <code>AST</code> storage (i.e. &quot;unpack&quot; it) before they are
+ * applied.
+ *
+ * Matrices are represented as <code>List</code>s of packed rows with the same
+ * length and type.
+ */
+public class PackedArray extends AST {
+
+	private static final long serialVersionUID = -3391412695377218533L;
+
+	/**
+	 * The type of an unpacked array, which uses the <code>AST</code> storage
+	 */
+	public final static int UNPACKED = 0;
+
+	/**
+	 * The type of an array of <code>Num</code> values
+	 */
+	public final static int REAL = 1;
+
+	/**
+	 * The type of an array of <code>IntegerSym</code> values, which fit into a
+	 * <code>long</code>
+	 */
+	public final static int INTEGER = 2;
+
+	/**
+	 * The type of an array of <code>ComplexNum</code> values
+	 */
+	public final static int COMPLEX = 3;
+
+	private int fType;
+
+	/**
+	 * The <code>REAL</code> values or the pairs of real and imaginary parts of the
+	 * <code>COMPLEX</code> values
+	 */
+	private double[] fDoubles;
+
+	/**
+	 * The <code>INTEGER</code> values
+	 */
+	private long[] fLongs;
+
+	private int fLength;
+
+	private PackedArray(final int type, final double[] doubles, final long[] longs, final int length) {
+		super(0, false);
+		super.add(F.List);
+		fType = type;
+		fDoubles = doubles;
+		fLongs = longs;
+		fLength = length;
+	}
+
+	/**
+	 * Create a packed array of <code>Num</code> values. The given array isn't
+	 * copied.
+	 *
+	 * @param values
+	 * @return
+	 */
+	public static PackedArray newInstance(final double[] values) {
+		return new PackedArray(REAL, values, null, values.length);
+	}
+
+	/**
+	 * Create a packed array of <code>IntegerSym</code> values. The given array
+	 * isn't copied.
+	 *
+	 * @param values
+	 * @return
+	 */
+	public static PackedArray newInstance(final long[] values) {
+		return new PackedArray(INTEGER, null, values, values.length);
+	}
+
+	/**
+	 * Create a packed array of <code>IntegerSym</code> values.
+	 *
+	 * @param values
+	 * @return
+	 */
+	public static PackedArray newInstance(final int[] values) {
+		final long[] longs = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			longs[i] = values[i];
+		}
+		return new PackedArray(INTEGER, null, longs, longs.length);
+	}
+
+	/**
+	 * Create a packed array of <code>ComplexNum</code> values.
+	 *
+	 * @param values
+	 * @return
+	 */
+	public static PackedArray newInstance(final Complex[] values) {
+		final double[] doubles = new double[2 * values.length];
+		for (int i = 0; i < values.length; i++) {
+			doubles[2 * i] = values[i].getReal();
+			doubles[2 * i + 1] = values[i].getImaginary();
+		}
+		return new PackedArray(COMPLEX, doubles, null, values.length);
+	}
+
+	/**
+	 * Create a matrix (i.e. <code>List</code> of packed rows) of
+	 * <code>Num</code> values. The rows of the given matrix aren't copied.
+	 *
+	 * @param matrix
+	 * @return
+	 */
+	public static IAST newMatrix(final double[][] matrix) {
+		final IAST list = F.ast(F.List, matrix.length, false);
+		for (int i = 0; i < matrix.length; i++) {
+			list.add(newInstance(matrix[i]));
+		}
+		if (matrix.length > 0) {
+			list.addEvalFlags(IAST.IS_MATRIX);
+		}
+		return list;
+	}
+
+	/**
+	 * Pack the given <code>List</code>, if all its elements are machine numbers
+	 * of the same type. Nested <code>List</code>s are packed recursively.
+	 *
+	 * @param list
+	 * @return a packed array or <code>List</code> of packed arrays. Returns the
+	 *         given <code>list</code>, if it couldn't be packed.
+	 */
+	public static IAST pack(final IAST list) {
+		if (list instanceof PackedArray && ((PackedArray) list).isPacked()) {
+			return list;
+		}
+		final int size = list.size();
+		if (size < 2 || !list.isList()) {
+			return list;
+		}
+		final IExpr first = list.get(1);
+		if (first instanceof Num) {
+			final double[] values = new double[size - 1];
+			for (int i = 1; i < size; i++) {
+				final IExpr temp = list.get(i);
+				if (!(temp instanceof Num)) {
+					return list;
+				}
+				values[i - 1] = ((Num) temp).fDouble;
+			}
+			return newInstance(values);
+		}
+		if (first instanceof IntegerSym) {
+			final long[] values = new long[size - 1];
+			for (int i = 1; i < size; i++) {
+				final IExpr temp = list.get(i);
+				if (!(temp instanceof IntegerSym) || ((IntegerSym) temp).fInteger.bitLength() >= 64) {
+					return list;
+				}
+				values[i - 1] = ((IntegerSym) temp).fInteger.longValue();
+			}
+			return newInstance(values);
+		}
+		if (first instanceof ComplexNum) {
+			final double[] values = new double[2 * (size - 1)];
+			for (int i = 1; i < size; i++) {
+				final IExpr temp = list.get(i);
+				if (!(temp instanceof ComplexNum)) {
+					return list;
+				}
+				values[2 * i - 2] = ((ComplexNum) temp).fComplex.getReal();
+				values[2 * i - 1] = ((ComplexNum) temp).fComplex.getImaginary();
+			}
+			return new PackedArray(COMPLEX, values, null, size - 1);
+		}
+		if (first.isList()) {
+			IAST result = null;
+			for (int i = 1; i < size; i++) {
+				final IExpr temp = list.get(i);
+				if (!temp.isList()) {
+					return list;
+				}
+				final IAST packed = pack((IAST) temp);
+				if (packed != temp) {
+					if (result == null) {
+						result = list.clone();
+					}
+					result.set(i, packed);
+				}
+			}
+			return result == null ? list : result;
+		}
+		return list;
+	}
+
+	/**
+	 * Get the values of a packed array of type <code>REAL</code>.
+	 *
+	 * @param expr
+	 * @return a copy of the values or <code>null</code>, if the expression isn't
+	 *         a packed array of type <code>REAL</code>
+	 */
+	public static double[] toDoubleVector(final IExpr expr) {
+		if (expr instanceof PackedArray) {
+			final PackedArray packed = (PackedArray) expr;
+			if (packed.fType == REAL && packed.isList()) {
+				return packed.toDoubleArray();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the values of a matrix, whose rows are packed arrays of type
+	 * <code>REAL</code> with the same length.
+	 *
+	 * @param expr
+	 * @return a copy of the values or <code>null</code>, if the expression isn't
+	 *         such a matrix
+	 */
+	public static double[][] toDoubleMatrix(final IExpr expr) {
+		if (!expr.isList() || !(expr instanceof IAST) || expr instanceof PackedArray && ((PackedArray) expr).isPacked()) {
+			return null;
+		}
+		final IAST list = (IAST) expr;
+		final int rows = list.size() - 1;
+		if (rows < 1) {
+			return null;
+		}
+		final double[][] matrix = new double[rows][];
+		for (int i = 0; i < rows; i++) {
+			matrix[i] = toDoubleVector(list.get(i + 1));
+			if (matrix[i] == null || matrix[i].length != matrix[0].length) {
+				return null;
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * Evaluate <code>Plus[]</code> or <code>Times[]</code> element-wise, if the
+	 * arguments are packed arrays of the same length and machine number scalars.
+	 * The elements are combined in the same order as in the evaluation of the
+	 * boxed elements, so the results are the same.
+	 *
+	 * @param ast
+	 * @return <code>null</code> if the arguments couldn't be evaluated
+	 *         element-wise
+	 */
+	public static IAST evalPlusTimes(final IAST ast) {
+		final IExpr head = ast.head();
+		final boolean plus = head == F.Plus;
+		if (!plus && head != F.Times) {
+			return null;
+		}
+		final int size = ast.size();
+		if (size < 3) {
+			return null;
+		}
+		int length = -1;
+		boolean real = false;
+		boolean scalars = false;
+		for (int i = 1; i < size; i++) {
+			final IExpr arg = ast.get(i);
+			if (arg instanceof PackedArray) {
+				final PackedArray packed = (PackedArray) arg;
+				if ((packed.fType != REAL && packed.fType != INTEGER) || !packed.isList()) {
+					return null;
+				}
+				if (length >= 0 && length != packed.fLength) {
+					return null;
+				}
+				length = packed.fLength;
+				real |= packed.fType == REAL;
+			} else if (arg instanceof Num) {
+				scalars = true;
+				real = true;
+			} else if (arg instanceof IntegerSym && ((IntegerSym) arg).fInteger.bitLength() < 64) {
+				scalars = true;
+			} else {
+				return null;
+			}
+		}
+		if (length < 0) {
+			return null;
+		}
+		if (real) {
+			if (size == 3) {
+				return evalReal2(plus, ast.get(1), ast.get(2), length);
+			}
+			// the boxed elements are sorted before they are combined
+			for (int i = 1; i < size; i++) {
+				if (scalars || ((PackedArray) ast.get(i)).fType != REAL) {
+					return null;
+				}
+			}
+			return evalRealN(plus, ast, length);
+		}
+		return evalInteger(plus, ast, length);
+	}
+
+	private static IAST evalReal2(final boolean plus, final IExpr arg1, final IExpr arg2, final int length) {
+		final double[] result = new double[length];
+		final double[] a1 = arg1 instanceof PackedArray ? ((PackedArray) arg1).toDoubleArray() : null;
+		final double[] a2 = arg2 instanceof PackedArray ? ((PackedArray) arg2).toDoubleArray() : null;
+		final double s1 = a1 == null ? ((ISignedNumber) arg1).doubleValue() : 0.0;
+		final double s2 = a2 == null ? ((ISignedNumber) arg2).doubleValue() : 0.0;
+		for (int i = 0; i < length; i++) {
+			final double d1 = a1 == null ? s1 : a1[i];
+			final double d2 = a2 == null ? s2 : a2[i];
+			result[i] = plus ? d1 + d2 : d1 * d2;
+		}
+		return newInstance(result);
+	}
+
+	private static IAST evalRealN(final boolean plus, final IAST ast, final int length) {
+		final int count = ast.size() - 1;
+		final double[][] args = new double[count][];
+		for (int i = 0; i < count; i++) {
+			args[i] = ((PackedArray) ast.get(i + 1)).fDoubles;
+		}
+		final double[] result = new double[length];
+		final double[] column = new double[count];
+		for (int j = 0; j < length; j++) {
+			for (int i = 0; i < count; i++) {
+				column[i] = args[i][j];
+			}
+			Arrays.sort(column);
+			double value = column[0];
+			for (int i = 1; i < count; i++) {
+				value = plus ? value + column[i] : value * column[i];
+			}
+			result[j] = value;
+		}
+		return newInstance(result);
+	}
+
+	private static IAST evalInteger(final boolean plus, final IAST ast, final int length) {
+		final long[] result = new long[length];
+		for (int i = 1; i < ast.size(); i++) {
+			final IExpr arg = ast.get(i);
+			final long[] values = arg instanceof PackedArray ? ((PackedArray) arg).fLongs : null;
+			final long scalar = values == null ? ((IntegerSym) arg).fInteger.longValue() : 0L;
+			for (int j = 0; j < length; j++) {
+				final long value = values == null ? scalar : values[j];
+				if (i == 1) {
+					result[j] = value;
+				} else if (plus) {
+					final long sum = result[j] + value;
+					if (((result[j] ^ sum) & (value ^ sum)) < 0) {
+						// overflow
+						return null;
+					}
+					result[j] = sum;
+				} else {
+					final long product = result[j] * value;
+					if (result[j] != 0L
+							&& (product / result[j] != value || (result[j] == -1L && value == Long.MIN_VALUE))) {
+						// overflow
+						return null;
+					}
+					result[j] = product;
+				}
+			}
+		}
+		return newInstance(result);
+	}
+
+	/**
+	 * The dot product of packed vectors and matrices of type <code>REAL</code>.
+	 * The products are summed up in the same order as in the dot product of the
+	 * boxed elements.
+	 *
+	 * @param o0
+	 * @param o1
+	 * @return <code>null</code> if the arguments aren't packed vectors or
+	 *         matrices of type <code>REAL</code> with matching dimensions
+	 */
+	public static IExpr dot(final IExpr o0, final IExpr o1) {
+		final double[] v0 = toDoubleVector(o0);
+		final double[][] m0 = v0 == null ? toDoubleMatrix(o0) : null;
+		if (v0 == null && m0 == null) {
+			return null;
+		}
+		final double[] v1 = toDoubleVector(o1);
+		final double[][] m1 = v1 == null ? toDoubleMatrix(o1) : null;
+		if (v1 == null && m1 == null) {
+			return null;
+		}
+		if ((v0 != null ? v0.length : m0[0].length) == 0 || (v1 != null ? v1.length : m1[0].length) == 0) {
+			return null;
+		}
+		if (v0 != null) {
+			if (v1 != null) {
+				if (v0.length != v1.length) {
+					return null;
+				}
+				double sum = v0[0] * v1[0];
+				for (int k = 1; k < v0.length; k++) {
+					sum += v0[k] * v1[k];
+				}
+				return F.num(sum);
+			}
+			if (v0.length != m1.length) {
+				return null;
+			}
+			return newInstance(multiply(v0, m1));
+		}
+		if (v1 != null) {
+			if (m0[0].length != v1.length) {
+				return null;
+			}
+			final double[] result = new double[m0.length];
+			for (int i = 0; i < m0.length; i++) {
+				double sum = m0[i][0] * v1[0];
+				for (int k = 1; k < v1.length; k++) {
+					sum += m0[i][k] * v1[k];
+				}
+				result[i] = sum;
+			}
+			return newInstance(result);
+		}
+		if (m0[0].length != m1.length) {
+			return null;
+		}
+		final double[][] result = new double[m0.length][];
+		for (int i = 0; i < m0.length; i++) {
+			result[i] = multiply(m0[i], m1);
+		}
+		return newMatrix(result);
+	}
+
+	/**
+	 * Multiply the row vector with the matrix, by adding the multiplied rows of
+	 * the matrix.
+	 */
+	private static double[] multiply(final double[] vector, final double[][] matrix) {
+		final int columns = matrix[0].length;
+		final double[] result = new double[columns];
+		for (int j = 0; j < columns; j++) {
+			result[j] = vector[0] * matrix[0][j];
+		}
+		for (int k = 1; k < vector.length; k++) {
+			final double factor = vector[k];
+			final double[] row = matrix[k];
+			for (int j = 0; j < columns; j++) {
+				result[j] += factor * row[j];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Transpose a matrix, whose rows are packed arrays of the same type and
+	 * length.
+	 *
+	 * @param matrix
+	 * @return <code>null</code> if the rows aren't packed arrays of type
+	 *         <code>REAL</code> or <code>INTEGER</code> with the same length
+	 */
+	public static IAST transpose(final IAST matrix) {
+		final int rows = matrix.size() - 1;
+		if (rows < 1 || !matrix.isList() || !(matrix.get(1) instanceof PackedArray)) {
+			return null;
+		}
+		final int type = ((PackedArray) matrix.get(1)).fType;
+		final int columns = ((PackedArray) matrix.get(1)).fLength;
+		if (type != REAL && type != INTEGER || columns < 1) {
+			return null;
+		}
+		for (int i = 1; i <= rows; i++) {
+			if (!(matrix.get(i) instanceof PackedArray)) {
+				return null;
+			}
+			final PackedArray row = (PackedArray) matrix.get(i);
+			if (row.fType != type || row.fLength != columns || !row.isList()) {
+				return null;
+			}
+		}
+		final IAST result = F.ast(F.List, columns, false);
+		for (int j = 0; j < columns; j++) {
+			if (type == REAL) {
+				final double[] column = new double[rows];
+				for (int i = 0; i < rows; i++) {
+					column[i] = ((PackedArray) matrix.get(i + 1)).fDoubles[j];
+				}
+				result.add(newInstance(column));
+			} else {
+				final long[] column = new long[rows];
+				for (int i = 0; i < rows; i++) {
+					column[i] = ((PackedArray) matrix.get(i + 1)).fLongs[j];
+				}
+				result.add(newInstance(column));
+			}
+		}
+		result.addEvalFlags(IAST.IS_MATRIX);
+		return result;
+	}
+
+	/**
+	 * Get the type of this array.
+	 *
+	 * @return <code>REAL, INTEGER, COMPLEX</code> or <code>UNPACKED</code>
+	 */
+	public int getType() {
+		return fType;
+	}
+
+	/**
+	 * Test if the elements are stored in a primitive array.
+	 *
+	 * @return
+	 */
+	public boolean isPacked() {
+		return fType != UNPACKED;
+	}
+
+	/**
+	 * Get the values of an array of type <code>REAL</code> or
+	 * <code>INTEGER</code>.
+	 *
+	 * @return a copy of the values or <code>null</code>
+	 */
+	public double[] toDoubleArray() {
+		if (fType == REAL) {
+			return Arrays.copyOf(fDoubles, fLength);
+		}
+		if (fType == INTEGER) {
+			final double[] result = new double[fLength];
+			for (int i = 0; i < fLength; i++) {
+				result[i] = fLongs[i];
+			}
+			return result;
+		}
+		return null;
+	}
+
+	/**
+	 * Sum up the elements of an array of type <code>REAL</code> or
+	 * <code>INTEGER</code>. The real elements are summed up in ascending order
+	 * like in the evaluation of <code>Plus[]</code> with the boxed elements.
+	 *
+	 * @return <code>null</code> if the array isn't packed or of type
+	 *         <code>COMPLEX</code>
+	 */
+	public IExpr total() {
+		if (fLength == 0) {
+			return null;
+		}
+		if (fType == REAL) {
+			final double[] values = Arrays.copyOf(fDoubles, fLength);
+			Arrays.sort(values);
+			double sum = values[0];
+			for (int i = 1; i < fLength; i++) {
+				sum += values[i];
+			}
+			return F.num(sum);
+		}
+		if (fType == INTEGER) {
+			long sum = 0L;
+			for (int i = 0; i < fLength; i++) {
+				final long value = fLongs[i];
+				final long temp = sum + value;
+				if (((sum ^ temp) & (value ^ temp)) < 0) {
+					// overflow
+					BigInteger bigSum = BigInteger.valueOf(sum);
+					for (int j = i; j < fLength; j++) {
+						bigSum = bigSum.add(BigInteger.valueOf(fLongs[j]));
+					}
+					return F.integer(bigSum);
+				}
+				sum = temp;
+			}
+			return F.integer(sum);
+		}
+		return null;
+	}
+
+	private IExpr box(final int index) {
+		switch (fType) {
+		case REAL:
+			return Num.valueOf(fDoubles[index]);
+		case INTEGER:
+			return IntegerSym.valueOf(fLongs[index]);
+		default:
+			return ComplexNum.valueOf(fDoubles[2 * index], fDoubles[2 * index + 1]);
+		}
+	}
+
+	/**
+	 * Store the element in the primitive array, if it has the type of this array.
+	 *
+	 * @return <code>false</code> if the element couldn't be stored
+	 */
+	private boolean store(final int index, final IExpr element) {
+		switch (fType) {
+		case REAL:
+			if (element instanceof Num) {
+				fDoubles[index] = ((Num) element).fDouble;
+				return true;
+			}
+			return false;
+		case INTEGER:
+			if (element instanceof IntegerSym && ((IntegerSym) element).fInteger.bitLength() < 64) {
+				fLongs[index] = ((IntegerSym) element).fInteger.longValue();
+				return true;
+			}
+			return false;
+		default:
+			if (element instanceof ComplexNum) {
+				fDoubles[2 * index] = ((ComplexNum) element).fComplex.getReal();
+				fDoubles[2 * index + 1] = ((ComplexNum) element).fComplex.getImaginary();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Convert this array to the ordinary <code>AST</code> storage of boxed
+	 * elements.
+	 */
+	public void unpack() {
+		if (fType != UNPACKED) {
+			final int length = fLength;
+			super.ensureCapacity(length + 1);
+			for (int i = 0; i < length; i++) {
+				super.add(box(i));
+			}
+			fType = UNPACKED;
+			fDoubles = null;
+			fLongs = null;
+			fLength = 0;
+		}
+	}
+
+	/**
+	 * A packed <code>List</code> evaluates to itself. Integer elements are
+	 * converted to real elements in numeric mode.
+	 */
+	@Override
+	public IExpr evaluate(EvalEngine engine) {
+		if (fType != UNPACKED && head() == F.List) {
+			if (fType == INTEGER && engine.isNumericMode()) {
+				return newInstance(toDoubleArray());
+			}
+			return null;
+		}
+		return super.evaluate(engine);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The elements of a packed array are numbers, so only the head
+	 * <code>List</code> is contained.
+	 */
+	@Override
+	public long symbolMask() {
+		if (fType == UNPACKED) {
+			return super.symbolMask();
+		}
+		return F.List.symbolMask();
+	}
+
+	@Override
+	public IAST clone() {
+		final PackedArray ast = (PackedArray) super.clone();
+		if (fDoubles != null) {
+			ast.fDoubles = fDoubles.clone();
+		}
+		if (fLongs != null) {
+			ast.fLongs = fLongs.clone();
+		}
+		return ast;
+	}
+
+	@Override
+	public int isVector() {
+		if (fType != UNPACKED) {
+			return isList() ? fLength : -1;
+		}
+		return super.isVector();
+	}
+
+	@Override
+	public int[] isMatrix() {
+		if (fType != UNPACKED) {
+			return null;
+		}
+		return super.isMatrix();
+	}
+
+	@Override
+	public int size() {
+		if (fType != UNPACKED) {
+			return fLength + 1;
+		}
+		return super.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public IExpr get(final int index) {
+		if (fType != UNPACKED && index != 0) {
+			if (index < 0 || index > fLength) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (fLength + 1));
+			}
+			return box(index - 1);
+		}
+		return super.get(index);
+	}
+
+	@Override
+	public IExpr set(final int index, final IExpr element) {
+		if (fType != UNPACKED && index != 0) {
+			final IExpr old = get(index);
+			if (store(index - 1, element)) {
+				modified();
+				return old;
+			}
+			unpack();
+		}
+		return super.set(index, element);
+	}
+
+	@Override
+	public boolean add(final IExpr e) {
+		unpack();
+		return super.add(e);
+	}
+
+	@Override
+	public void add(final int index, final IExpr element) {
+		unpack();
+		super.add(index, element);
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends IExpr> c) {
+		unpack();
+		return super.addAll(c);
+	}
+
+	@Override
+	public boolean addAll(final int index, final Collection<? extends IExpr> c) {
+		unpack();
+		return super.addAll(index, c);
+	}
+
+	@Override
+	public void clear() {
+		unpack();
+		super.clear();
+	}
+
+	@Override
+	public IExpr remove(final int index) {
+		unpack();
+		return super.remove(index);
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		unpack();
+		return super.remove(o);
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		unpack();
+		return super.removeAll(c);
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		unpack();
+		return super.retainAll(c);
+	}
+
+	@Override
+	protected void removeRange(final int fromIndex, final int toIndex) {
+		unpack();
+		super.removeRange(fromIndex, toIndex);
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public int indexOf(final Object o) {
+		final int size = size();
+		for (int i = 0; i < size; i++) {
+			if (get(i).equals(o)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(final Object o) {
+		for (int i = size() - 1; i >= 0; i--) {
+			if (get(i).equals(o)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public Object[] toArray() {
+		final int size = size();
+		final Object[] result = new Object[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = get(i);
+		}
+		return result;
+	}
+
+	@Override
+	public <T> T[] toArray(final T[] a) {
+		unpack();
+		return super.toArray(a);
+	}
+
+	@Override
+	public Iterator<IExpr> iterator0() {
+		unpack();
+		return super.iterator0();
+	}
+
+	@Override
+	public ListIterator<IExpr> listIterator() {
+		unpack();
+		return super.listIterator();
+	}
+
+	@Override
+	public ListIterator<IExpr> listIterator(final int index) {
+		unpack();
+		return super.listIterator(index);
+	}
+
+	@Override
+	public List<IExpr> subList(final int fromIndex, final int toIndex) {
+		unpack();
+		return super.subList(fromIndex, toIndex);
+	}
+}
@@ -182,6 +182,12 @@ public class Pattern extends ExprImpl implements IPattern {
 		return PATTERNID;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public long symbolMask() {
+		return -1L;
+	}
+
 	// public boolean isString(final String str) {
 	// if (fSymbol == null) {
 	// return str == null;
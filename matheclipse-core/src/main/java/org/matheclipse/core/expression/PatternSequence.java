@@ -128,6 +128,12 @@ public class PatternSequence extends ExprImpl implements IPatternSequence {
 		return PATTERNID;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public long symbolMask() {
+		return -1L;
+	}
+
 	@Override
 	public String internalFormString(boolean symbolsAsFactoryMethod, int depth) {
 		if (symbolsAsFactoryMethod) {
@@ -4,10 +4,10 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 
 import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.LocalVariableFrames;
 import org.matheclipse.core.eval.SystemNamespace;
 import org.matheclipse.core.eval.exception.RuleCreationError;
 import org.matheclipse.core.eval.interfaces.INumericConstant;
@@ -70,13 +70,31 @@ public class Symbol extends ExprImpl implements ISymbol {
 	 */
 	private int fAttributes = NOATTRIBUTE;
 
-	private transient IEvaluator fEvaluator;
+	private transient volatile IEvaluator fEvaluator;
+
+	/**
+	 * <code>true</code>, if the evaluator of this symbol is completely set up.
+	 */
+	private transient volatile boolean fEvaluatorReady = false;
 
 	/**
 	 * The pattern matching rules associated with this symbol.
 	 */
 	private transient RulesData fRulesData = new RulesData();
 
+	/**
+	 * The slot of this symbol in the local variable frames. Created lazily.
+	 */
+	private transient volatile LocalVariableFrames.Slot fLocalVariableSlot = null;
+
+	/**
+	 * The value of a <code>Module</code> variable, which remains after the
+	 * evaluation of the <code>Module</code>.
+	 * 
+	 * @see #popModuleVariable()
+	 */
+	private transient volatile IExpr fModuleValue = null;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -102,6 +120,7 @@ public class Symbol extends ExprImpl implements ISymbol {
 					IExpr calculatedResult = function.apply(symbolValue);
 					if (calculatedResult != null) {
 						pair.setSecond(calculatedResult);
+						EvalEngine.incRuleGeneration();
 						result[1] = calculatedResult;
 						return result;
 					}
@@ -121,6 +140,14 @@ public class Symbol extends ExprImpl implements ISymbol {
 
 	private static final DummyEvaluator DUMMY_EVALUATOR = new DummyEvaluator();
 
+	/**
+	 * The lock for the set up of the evaluators. A single lock is used, because
+	 * the set up of an evaluator could set up the evaluators of other symbols;
+	 * locks per symbol would be taken in the order of these calls and could
+	 * deadlock.
+	 */
+	private static final Object EVALUATOR_LOCK = new Object();
+
 	/* package private */String fSymbolName;
 
 	/**
@@ -146,6 +173,7 @@ public class Symbol extends ExprImpl implements ISymbol {
 		fHashValue = (symbolName == null) ? 197 : 7 * symbolName.hashCode();
 		fSymbolName = symbolName;
 		fEvaluator = evaluator;
+		fEvaluatorReady = evaluator != null;
 	}
 
 	/** {@inheritDoc} */
@@ -161,14 +189,37 @@ public class Symbol extends ExprImpl implements ISymbol {
 
 	/** {@inheritDoc} */
 	public void pushLocalVariable(final IExpr expression) {
-		final Stack<IExpr> localVariableStack = EvalEngine.localStackCreate(fSymbolName);
-		localVariableStack.push(expression);
+		EvalEngine.get().getLocalVariableFrames().push(getLocalVariableSlot(), expression);
 	}
 
 	/** {@inheritDoc} */
 	public void popLocalVariable() {
-		final Stack<IExpr> fLocalVariableStack = EvalEngine.localStack(fSymbolName);
-		fLocalVariableStack.pop();
+		EvalEngine.get().getLocalVariableFrames().pop(getLocalVariableSlot());
+	}
+
+	/** {@inheritDoc} */
+	public void popModuleVariable() {
+		final LocalVariableFrames frames = EvalEngine.get().getLocalVariableFrames();
+		final LocalVariableFrames.Slot slot = getLocalVariableSlot();
+		final IExpr value = frames.get(slot);
+		frames.pop(slot);
+		if (value != null && !frames.isBound(slot)) {
+			fModuleValue = value;
+		}
+	}
+
+	private LocalVariableFrames.Slot getLocalVariableSlot() {
+		LocalVariableFrames.Slot slot = fLocalVariableSlot;
+		if (slot == null) {
+			synchronized (this) {
+				slot = fLocalVariableSlot;
+				if (slot == null) {
+					slot = LocalVariableFrames.createSlot(fSymbolName);
+					fLocalVariableSlot = slot;
+				}
+			}
+		}
+		return slot;
 	}
 
 	/** {@inheritDoc} */
@@ -185,6 +236,7 @@ public class Symbol extends ExprImpl implements ISymbol {
 	public void clearAll(EvalEngine engine) {
 		clear(engine);
 		fAttributes = NOATTRIBUTE;
+		EvalEngine.incRuleGeneration();
 	}
 
 	/** {@inheritDoc} */
@@ -211,10 +263,17 @@ public class Symbol extends ExprImpl implements ISymbol {
 	/** {@inheritDoc} */
 	@Override
 	public IExpr evaluate(EvalEngine engine) {
-		if (hasLocalVariableStack()) {
-			return get();
+		final LocalVariableFrames.Slot slot = getLocalVariableSlot();
+		if (slot.isBound()) {
+			final LocalVariableFrames frames = engine.getLocalVariableFrames();
+			if (frames.isBound(slot)) {
+				return frames.get(slot);
+			}
+		}
+		IExpr result = fModuleValue;
+		if (result != null) {
+			return result;
 		}
-		IExpr result;
 		if ((result = evalDownRule(engine, this)) != null) {
 			return result;
 		}
@@ -240,10 +299,19 @@ public class Symbol extends ExprImpl implements ISymbol {
 
 	/** {@inheritDoc} */
 	public IEvaluator getEvaluator() {
-		if (fEvaluator == null) {
-			fEvaluator = DUMMY_EVALUATOR;
-			if (Character.isUpperCase(fSymbolName.charAt(0))) {
-				SystemNamespace.DEFAULT.setEvaluator(this);
+		if (!fEvaluatorReady) {
+			synchronized (EVALUATOR_LOCK) {
+				// in the set up of the evaluator the dummy evaluator is returned
+				if (fEvaluator == null) {
+					fEvaluator = DUMMY_EVALUATOR;
+					try {
+						if (Character.isUpperCase(fSymbolName.charAt(0))) {
+							SystemNamespace.DEFAULT.setEvaluator(this);
+						}
+					} finally {
+						fEvaluatorReady = true;
+					}
+				}
 			}
 		}
 		return fEvaluator;
@@ -251,24 +319,36 @@ public class Symbol extends ExprImpl implements ISymbol {
 
 	/** {@inheritDoc} */
 	public boolean hasLocalVariableStack() {
-		final Stack<IExpr> localVariableStack = EvalEngine.localStack(fSymbolName);
-		return (localVariableStack != null) && !(localVariableStack.isEmpty());
+		final LocalVariableFrames.Slot slot = getLocalVariableSlot();
+		if (!slot.isBound()) {
+			// fast path: no engine has bound a value to this symbol
+			return fModuleValue != null;
+		}
+		return EvalEngine.get().getLocalVariableFrames().isBound(slot) || fModuleValue != null;
 	}
 
 	/** {@inheritDoc} */
 	public IExpr get() {
-		final Stack<IExpr> localVariableStack = EvalEngine.localStack(fSymbolName);
-		if (localVariableStack == null) {
-			return null;
+		final LocalVariableFrames.Slot slot = getLocalVariableSlot();
+		if (slot.isBound()) {
+			final LocalVariableFrames frames = EvalEngine.get().getLocalVariableFrames();
+			if (frames.isBound(slot)) {
+				return frames.get(slot);
+			}
 		}
-		return localVariableStack.peek();
+		return fModuleValue;
 	}
 
 	/** {@inheritDoc} */
 	public void set(final IExpr value) {
-		final Stack<IExpr> localVariableStack = EvalEngine.localStack(fSymbolName);
-
-		localVariableStack.set(localVariableStack.size() - 1, value);
+		final LocalVariableFrames frames = EvalEngine.get().getLocalVariableFrames();
+		final LocalVariableFrames.Slot slot = getLocalVariableSlot();
+		if (!frames.isBound(slot) && fModuleValue != null && value != null) {
+			fModuleValue = value;
+			EvalEngine.incRuleGeneration();
+			return;
+		}
+		frames.set(slot, value);
 	}
 
 	/** {@inheritDoc} */
@@ -282,6 +362,17 @@ public class Symbol extends ExprImpl implements ISymbol {
 		return SYMBOLID;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The bit is selected by the upper 6 bits of the multiplicative hash of the
+	 * symbols hash value.
+	 */
+	@Override
+	public long symbolMask() {
+		return 1L << ((fHashValue * 0x9E3779B9) >>> 26);
+	}
+
 	/** {@inheritDoc} */
 	public boolean isString(final String str) {
 		return fSymbolName.equals(str);
@@ -315,6 +406,7 @@ public class Symbol extends ExprImpl implements ISymbol {
 	/** {@inheritDoc} */
 	public void setAttributes(final int attributes) {
 		fAttributes = attributes;
+		EvalEngine.incRuleGeneration();
 		if (fSymbolName.charAt(0) == '$' && Config.SERVER_MODE) {
 			EvalEngine engine = EvalEngine.get();
 			engine.addModifiedVariable(this);
@@ -323,8 +415,14 @@ public class Symbol extends ExprImpl implements ISymbol {
 
 	/** {@inheritDoc} */
 	public void setEvaluator(final IEvaluator evaluator) {
-		fEvaluator = evaluator;
-		evaluator.setUp(this);
+		synchronized (EVALUATOR_LOCK) {
+			fEvaluator = evaluator;
+			try {
+				evaluator.setUp(this);
+			} finally {
+				fEvaluatorReady = true;
+			}
+		}
 	}
 
 	/**
@@ -470,6 +568,13 @@ public class Symbol extends ExprImpl implements ISymbol {
 		return fRulesData.definition();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public RulesData getRulesData() {
+		return fRulesData;
+	}
+
 	/** {@inheritDoc} */
 	public IExpr getDefaultValue() {
 		// special case for a general default value
@@ -1,7 +1,7 @@
 package org.matheclipse.core.generic;
 
-import org.matheclipse.core.basic.Alloc;
-import org.matheclipse.core.eval.EvalDouble;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
 import org.matheclipse.core.expression.ComplexNum;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.expression.Num;
@@ -9,7 +9,9 @@ import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
 
 /**
- * Binary numerical function for functions like Plot3D
+ * Binary numerical function for functions like Plot3D. The function is
+ * compiled by the <code>ExprCompiler</code> for the evaluation of double
+ * values.
  * 
  * @see org.matheclipse.core.reflection.system.Plot3D
  */
@@ -20,10 +22,13 @@ public class BinaryNumerical extends BinaryFunctorImpl<IExpr> {
 
 	ISymbol variable2;
 
+	ICompiledFunction compiledFunction;
+
 	public BinaryNumerical(final IExpr fn, final ISymbol v1, final ISymbol v2) {
 		variable1 = v1;
 		variable2 = v2;
 		fun = fn;
+		compiledFunction = ExprCompiler.compile(fn, v1, v2);
 	}
 
 	public IExpr apply(final IExpr firstArg, final IExpr secondArg) {
@@ -31,20 +36,7 @@ public class BinaryNumerical extends BinaryFunctorImpl<IExpr> {
 	}
 
 	public double value(double x, double y) {
-		double result = 0.0;
-		try {
-			variable1.pushLocalVariable(Num.valueOf(x));
-			variable2.pushLocalVariable(Num.valueOf(y));
-			Alloc alloc = Alloc.get();
-			final double[] stack = alloc.vector(10);
-			result = EvalDouble.eval(stack, 0, fun);
-			alloc.freeVector(10);
-		} finally {
-			variable2.popLocalVariable();
-			variable1.popLocalVariable();
-		}
-		return result;
-
+		return compiledFunction.apply(x, y);
 	}
 
 	public ComplexNum value(final ComplexNum z1, final ComplexNum z2) {
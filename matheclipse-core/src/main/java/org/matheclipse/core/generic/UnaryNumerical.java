@@ -2,12 +2,11 @@ package org.matheclipse.core.generic;
 
 import org.apache.commons.math3.analysis.DifferentiableUnivariateFunction;
 import org.apache.commons.math3.analysis.UnivariateFunction;
-import org.matheclipse.core.basic.Alloc;
-import org.matheclipse.core.eval.EvalDouble;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
 import org.matheclipse.core.expression.ComplexNum;
 import org.matheclipse.core.expression.F;
-import org.matheclipse.core.expression.Num;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.INum;
 import org.matheclipse.core.interfaces.ISymbol;
@@ -15,7 +14,8 @@ import org.matheclipse.core.interfaces.ISymbol;
 import com.google.common.base.Function;
 
 /**
- * Unary numerical function for functions like Plot
+ * Unary numerical function for functions like Plot. The function is compiled
+ * by the <code>ExprCompiler</code> for the evaluation of double values.
  * 
  * @see org.matheclipse.core.reflection.system.Plot
  */
@@ -26,10 +26,13 @@ public class UnaryNumerical implements Function<IExpr, IExpr>, DifferentiableUni
 
 	EvalEngine fEngine;
 
+	ICompiledFunction fCompiledFunction;
+
 	public UnaryNumerical(final IExpr fn, final ISymbol v, final EvalEngine engine) {
 		fVariable = v;
 		fFunction = fn;
 		fEngine = engine;
+		fCompiledFunction = ExprCompiler.compile(fn, v);
 	}
 
 	public IExpr apply(final IExpr firstArg) {
@@ -37,17 +40,7 @@ public class UnaryNumerical implements Function<IExpr, IExpr>, DifferentiableUni
 	}
 
 	public double value(double x) {
-		double result = 0.0;
-		Alloc alloc = Alloc.get();
-		final double[] stack = alloc.vector(10);
-		try {
-			fVariable.pushLocalVariable(Num.valueOf(x));
-			result = EvalDouble.eval(stack, 0, fFunction);
-		} finally {
-			fVariable.popLocalVariable();
-			alloc.freeVector(10);
-		}
-		return result;
+		return fCompiledFunction.apply(x);
 	}
 
 	/**
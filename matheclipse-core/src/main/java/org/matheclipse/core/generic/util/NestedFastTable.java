@@ -123,19 +123,18 @@ public class NestedFastTable<E extends INestedListElement> extends ArrayList<E>
 			if (hashCode() != obj.hashCode()) {
 				return false;
 			}
-			if (size() != ((NestedFastTable) obj).size()) {
+			final NestedFastTable<?> list = (NestedFastTable<?>) obj;
+			if (size() != list.size()) {
 				return false;
 			}
-			return super.equals(obj);
-			// if (!head().equals(list.head())) {
-			// return false;
-			// }
-			// for (int i = 1; i < size(); i++) {
-			// if (!get(i).equals(list.get(i))) {
-			// return false;
-			// }
-			// }
-			// return true;
+			// don't use ArrayList#equals(), which may compare with the iterator()
+			// starting at offset 1
+			for (int i = 0; i < size(); i++) {
+				if (!get(i).equals(list.get(i))) {
+					return false;
+				}
+			}
+			return true;
 		}
 		return false;
 	}
@@ -205,6 +204,80 @@ public class NestedFastTable<E extends INestedListElement> extends ArrayList<E>
 		return v;
 	}
 
+	/**
+	 * Called before every modification of the list. Resets the cached hash
+	 * value.
+	 */
+	protected void modified() {
+		fHashValue = 0;
+	}
+
+	@Override
+	public boolean add(final E e) {
+		modified();
+		return super.add(e);
+	}
+
+	@Override
+	public void add(final int index, final E element) {
+		modified();
+		super.add(index, element);
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends E> c) {
+		modified();
+		return super.addAll(c);
+	}
+
+	@Override
+	public boolean addAll(final int index, final Collection<? extends E> c) {
+		modified();
+		return super.addAll(index, c);
+	}
+
+	@Override
+	public void clear() {
+		modified();
+		super.clear();
+	}
+
+	@Override
+	public E remove(final int index) {
+		modified();
+		return super.remove(index);
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		modified();
+		return super.remove(o);
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		modified();
+		return super.removeAll(c);
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		modified();
+		return super.retainAll(c);
+	}
+
+	@Override
+	protected void removeRange(final int fromIndex, final int toIndex) {
+		modified();
+		super.removeRange(fromIndex, toIndex);
+	}
+
+	@Override
+	public E set(final int index, final E element) {
+		modified();
+		return super.set(index, element);
+	}
+
 	// @Override
 	// public boolean move(final ObjectSpace os) {
 	// if (super.move(os)) {
@@ -115,6 +115,34 @@ public interface IAST extends IExpr, INestedList<IExpr> {
 	 */
 	public int getEvalFlags();
 
+	/**
+	 * Get the rule generation, in which this expression was evaluated to a fixed
+	 * point (i.e. a further evaluation returns <code>null</code>).
+	 * 
+	 * @return <code>0</code> if the evaluated generation is unknown
+	 * @see org.matheclipse.core.eval.EvalEngine#getRuleGeneration()
+	 */
+	public long getEvaluatedGeneration();
+
+	/**
+	 * Set the rule generation, in which this expression was evaluated to a fixed
+	 * point. Every modification of this expression resets the evaluated
+	 * generation to <code>0</code>.
+	 * 
+	 * @param generation
+	 */
+	public void setEvaluatedGeneration(long generation);
+
+	/**
+	 * Test if this list is a shared canonical instance of the
+	 * <code>ExprInterner</code>. A shared list mustn't be modified, use
+	 * <code>clone()</code> to get a modifiable copy.
+	 * 
+	 * @return
+	 * @see org.matheclipse.core.expression.ExprInterner
+	 */
+	public boolean isShared();
+
 	/**
 	 * Returns the header. If the header itself is an ISymbol it will return the
 	 * symbol object. If the header itself is an IAST it will recursively call
@@ -352,6 +380,28 @@ public interface IAST extends IExpr, INestedList<IExpr> {
 	 */
 	public int patternHashCode();
 
+	/**
+	 * Calculate the number of leaves (i.e. the atomic subexpressions including
+	 * the heads) of this <code>IAST</code>. Fractions and complex numbers count
+	 * as <code>3</code> leaves.
+	 * 
+	 * The value is cached until the next modification of this <code>IAST</code>.
+	 * 
+	 * @return
+	 */
+	public int leafCount();
+
+	/**
+	 * Calculate the depth of this <code>IAST</code> without considering the
+	 * heads. Atomic expressions have depth <code>1</code>. Example: the nested
+	 * list <code>{x,{y}}</code> has depth <code>3</code>.
+	 * 
+	 * The value is cached until the next modification of this <code>IAST</code>.
+	 * 
+	 * @return
+	 */
+	public int depth();
+
 	/**
 	 * Get the range of elements [1..ast.size()[. These range elements are the
 	 * arguments of a function (represented as an AST).
@@ -659,6 +659,18 @@ public interface IExpr extends Comparable<IExpr>, RingElem<IExpr>, INestedListEl
 
 	public IExpr power(final Integer n);
 
+	/**
+	 * A Bloom-style summary of the symbols (including the heads) contained in
+	 * this expression. Every symbol sets one of the 64 bits, so if
+	 * <code>(expr.symbolMask() &amp; symbol.symbolMask()) == 0</code> the
+	 * symbol doesn't occur in <code>expr</code>.
+	 * 
+	 * Patterns set all bits, because they could stand for any expression.
+	 * 
+	 * @return <code>0</code> if the expression contains no symbols
+	 */
+	public long symbolMask();
+
 	/**
 	 * Replace all (sub-) expressions with the given unary function. If no
 	 * substitution matches, the method returns <code>null</code>.
@@ -6,6 +6,7 @@ import java.util.List;
 import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.patternmatching.PatternMatcher;
 import org.matheclipse.core.patternmatching.PatternMatcherAndInvoker;
+import org.matheclipse.core.patternmatching.RulesData;
 import org.matheclipse.generic.interfaces.INumericFunction;
 
 import com.google.common.base.Function;
@@ -95,6 +96,13 @@ public interface ISymbol extends IExpr { // Variable<IExpr>
 	 */
 	public final static int PACKAGE_LOADED = 0x0800;
 
+	/**
+	 * ISymbol flag for a function, whose result depends only on it's evaluated
+	 * arguments and the rules of the symbols. The results of such a function
+	 * could be cached in the memo cache of the <code>EvalEngine</code>.
+	 */
+	public final static int PURE_FUNCTION = 0x8000;
+
 	/**
 	 * ISymbol attribute for a function transformation: f(x) ==> x
 	 */
@@ -202,6 +210,16 @@ public interface ISymbol extends IExpr { // Variable<IExpr>
 	 */
 	public void popLocalVariable();
 
+	/**
+	 * Delete the topmost placeholder from the local variable stack of a
+	 * <code>Module</code> variable. The value of the last placeholder remains the
+	 * value of this symbol, because the unique symbol could still be referenced
+	 * after the evaluation of the <code>Module</code> (i.e. in a returned
+	 * <code>Function</code>).
+	 * 
+	 */
+	public void popModuleVariable();
+
 	/**
 	 * Is a local variable stack created for this symbol ?
 	 * 
@@ -352,6 +370,13 @@ public interface ISymbol extends IExpr { // Variable<IExpr>
 	 */
 	public List<IAST> definition();
 
+	/**
+	 * Get the pattern matching rules associated to this symbol
+	 * 
+	 * @return
+	 */
+	public RulesData getRulesData();
+
 	/**
 	 * Return the rules associated to this symbol in String representation
 	 * 
@@ -0,0 +1,780 @@
+package org.matheclipse.core.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matheclipse.core.convert.AST2Expr;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.IFraction;
+import org.matheclipse.core.interfaces.IInteger;
+import org.matheclipse.core.interfaces.INum;
+import org.matheclipse.core.interfaces.ISignedNumber;
+import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.parser.client.Scanner;
+import org.matheclipse.parser.client.SyntaxError;
+import org.matheclipse.parser.client.ast.IConstantOperators;
+import org.matheclipse.parser.client.ast.IParserFactory;
+import org.matheclipse.parser.client.operator.ASTNodeFactory;
+import org.matheclipse.parser.client.operator.DivideOperator;
+import org.matheclipse.parser.client.operator.InfixOperator;
+import org.matheclipse.parser.client.operator.Operator;
+import org.matheclipse.parser.client.operator.PostfixOperator;
+import org.matheclipse.parser.client.operator.PreMinusOperator;
+import org.matheclipse.parser.client.operator.PrePlusOperator;
+import org.matheclipse.parser.client.operator.PrefixOperator;
+import org.matheclipse.parser.client.operator.SubtractOperator;
+
+/**
+ * Create an <code>IExpr</code> expression directly from a math formulas string
+ * representation.
+ *
+ * The grammar is the same as in {@link org.matheclipse.parser.client.Parser},
+ * but the expression is created without the intermediate <code>ASTNode</code>
+ * tree, i.e. the result is the same as
+ * <code>AST2Expr.CONST.convert(new Parser().parse(expression))</code>. The
+ * operators are read from the <code>IParserFactory</code>. Each identifier is
+ * converted only once into a symbol for one input string.
+ *
+ * In package mode the statements of a large input (i.e. a package file or a
+ * generated rule table) can be parsed one after the other with
+ * {@link #setInput(String)}, {@link #hasNext()} and {@link #next()}, so that
+ * the already parsed statements needn't be kept in memory.
+ *
+ * @see AST2Expr
+ */
+public class ExprParser extends Scanner {
+	/**
+	 * Use '('...')' as brackets for arguments
+	 */
+	private final boolean fRelaxedSyntax;
+
+	private final boolean fPackageMode;
+
+	/**
+	 * The token which opens the arguments of a function
+	 */
+	private final int fArgumentsOpen;
+
+	/**
+	 * The token which closes the arguments of a function
+	 */
+	private final int fArgumentsClose;
+
+	private final InfixOperator fTimesOperator;
+
+	private final AST2Expr fConverter;
+
+	/**
+	 * The already converted identifiers of the current input string
+	 */
+	private final Map<String, IExpr> fSymbols = new HashMap<String, IExpr>();
+
+	public ExprParser() {
+		this(ASTNodeFactory.MMA_STYLE_FACTORY, false, false);
+	}
+
+	/**
+	 *
+	 * @param relaxedSyntax
+	 *          if <code>true</code>, use '('...')' as brackets for arguments and
+	 *          ignore the case of the predefined symbols
+	 */
+	public ExprParser(final boolean relaxedSyntax) {
+		this(ASTNodeFactory.MMA_STYLE_FACTORY, relaxedSyntax, false);
+	}
+
+	/**
+	 *
+	 * @param relaxedSyntax
+	 *          if <code>true</code>, use '('...')' as brackets for arguments and
+	 *          ignore the case of the predefined symbols
+	 * @param packageMode
+	 *          if <code>true</code>, an identifier at the start of a new line
+	 *          starts a new statement
+	 */
+	public ExprParser(final boolean relaxedSyntax, final boolean packageMode) {
+		this(ASTNodeFactory.MMA_STYLE_FACTORY, relaxedSyntax, packageMode);
+	}
+
+	/**
+	 *
+	 * @param factory
+	 *          the factory which defines the operators
+	 * @param relaxedSyntax
+	 *          if <code>true</code>, use '('...')' as brackets for arguments and
+	 *          ignore the case of the predefined symbols
+	 * @param packageMode
+	 *          if <code>true</code>, an identifier at the start of a new line
+	 *          starts a new statement
+	 */
+	public ExprParser(final IParserFactory factory, final boolean relaxedSyntax, final boolean packageMode) {
+		super();
+		fFactory = factory;
+		fRelaxedSyntax = relaxedSyntax;
+		fPackageMode = packageMode;
+		fArgumentsOpen = relaxedSyntax ? TT_PRECEDENCE_OPEN : TT_ARGUMENTS_OPEN;
+		fArgumentsClose = relaxedSyntax ? TT_PRECEDENCE_CLOSE : TT_ARGUMENTS_CLOSE;
+		fTimesOperator = (InfixOperator) factory.get("Times");
+		fConverter = relaxedSyntax ? AST2Expr.CONST_LC : AST2Expr.CONST;
+	}
+
+	public IParserFactory getFactory() {
+		return fFactory;
+	}
+
+	public boolean isRelaxedSyntax() {
+		return fRelaxedSyntax;
+	}
+
+	@Override
+	protected void initialize(final String s) throws SyntaxError {
+		// the symbols depend on the variables of the current eval engine
+		fSymbols.clear();
+		super.initialize(s);
+	}
+
+	/**
+	 * Parse the given <code>expression</code> String into an IExpr.
+	 *
+	 * @param expression
+	 *          a formula string which should be parsed.
+	 * @return the parsed IExpr representation of the given formula string
+	 * @throws SyntaxError
+	 */
+	public IExpr parse(final String expression) throws SyntaxError {
+		initialize(expression);
+		final IExpr temp = parseOperators(parsePrimary(), 0);
+		if (fToken != TT_EOF) {
+			checkClosingBrackets();
+			throwSyntaxError("End-of-file not reached.");
+		}
+		return temp;
+	}
+
+	/**
+	 * Parse all statements of the given input into a list.
+	 *
+	 * @param input
+	 * @return the parsed statements
+	 * @throws SyntaxError
+	 * @see #setInput(String)
+	 */
+	public List<IExpr> parseList(final String input) throws SyntaxError {
+		final List<IExpr> list = new ArrayList<IExpr>(256);
+		setInput(input);
+		while (hasNext()) {
+			list.add(next());
+		}
+		return list;
+	}
+
+	/**
+	 * Set the input, whose statements are parsed one after the other by
+	 * {@link #next()}. Without package mode the statements must be separated by
+	 * <code>;</code> or the input contains only one statement.
+	 *
+	 * @param input
+	 * @throws SyntaxError
+	 */
+	public void setInput(final String input) throws SyntaxError {
+		initialize(input);
+	}
+
+	/**
+	 * Test if the input contains another statement.
+	 *
+	 * @return
+	 */
+	public boolean hasNext() {
+		return fToken != TT_EOF;
+	}
+
+	/**
+	 * Parse the next statement of the input.
+	 *
+	 * @return
+	 * @throws SyntaxError
+	 * @see #setInput(String)
+	 */
+	public IExpr next() throws SyntaxError {
+		checkClosingBrackets();
+		return parseOperators(parsePrimary(), 0);
+	}
+
+	private void checkClosingBrackets() throws SyntaxError {
+		if (fToken == TT_PRECEDENCE_CLOSE) {
+			throwSyntaxError("Too many closing ')'; End-of-file not reached.");
+		}
+		if (fToken == TT_LIST_CLOSE) {
+			throwSyntaxError("Too many closing '}'; End-of-file not reached.");
+		}
+		if (fToken == TT_ARGUMENTS_CLOSE) {
+			throwSyntaxError("Too many closing ']'; End-of-file not reached.");
+		}
+	}
+
+	/**
+	 * Get the symbol (or the special constant like <code>I</code>) for the given
+	 * identifier.
+	 *
+	 * @param identifier
+	 * @return
+	 */
+	private IExpr convertSymbol(final String identifier) {
+		IExpr symbol = fSymbols.get(identifier);
+		if (symbol == null) {
+			symbol = fConverter.convertSymbol(identifier);
+			fSymbols.put(identifier, symbol);
+		}
+		return symbol;
+	}
+
+	/**
+	 * Test if the expression is a number literal, which gets the sign of a
+	 * prefix minus operator.
+	 *
+	 * @param expr
+	 * @return
+	 */
+	private static boolean isNumberLiteral(final IExpr expr) {
+		return expr instanceof IInteger || expr instanceof IFraction || expr instanceof INum;
+	}
+
+	private IExpr createFunction(final IExpr head, final IExpr arg0) {
+		return fConverter.convertFunction(F.unary(head, arg0));
+	}
+
+	private IExpr createFunction(final IExpr head, final IExpr arg0, final IExpr arg1) {
+		return fConverter.convertFunction(F.binary(head, arg0, arg1));
+	}
+
+	private IExpr createPrefix(final PrefixOperator operator, final IExpr argument) {
+		if (operator instanceof PreMinusOperator) {
+			return F.Times(F.CN1, argument);
+		}
+		if (operator instanceof PrePlusOperator) {
+			return argument;
+		}
+		return createFunction(convertSymbol(operator.getFunctionName()), argument);
+	}
+
+	private IExpr createPostfix(final PostfixOperator operator, final IExpr argument) {
+		return createFunction(convertSymbol(operator.getFunctionName()), argument);
+	}
+
+	private IExpr createInfix(final InfixOperator operator, final IExpr lhs, final IExpr rhs) {
+		if (operator instanceof DivideOperator) {
+			if (rhs instanceof IInteger) {
+				if (lhs instanceof IInteger) {
+					return F.fraction((IInteger) lhs, (IInteger) rhs);
+				}
+				return F.Times(lhs, F.fraction(F.C1, (IInteger) rhs));
+			}
+			return F.Times(lhs, F.Power(rhs, F.CN1));
+		}
+		if (operator instanceof SubtractOperator) {
+			return F.Plus(lhs, F.Times(F.CN1, rhs));
+		}
+		return createFunction(convertSymbol(operator.getFunctionName()), lhs, rhs);
+	}
+
+	/**
+	 * construct the arguments for an expression
+	 *
+	 */
+	private void getArguments(final IAST function) throws SyntaxError {
+		do {
+			function.add(parseOperators(parsePrimary(), 0));
+
+			if (fToken != TT_COMMA) {
+				break;
+			}
+
+			getNextToken();
+		} while (true);
+	}
+
+	/**
+	 * Determine the current PrefixOperator
+	 *
+	 * @return <code>null</code> if no prefix operator could be determined
+	 */
+	private PrefixOperator determinePrefixOperator() {
+		Operator oper = null;
+		for (int i = 0; i < fOperList.size(); i++) {
+			oper = fOperList.get(i);
+			if (oper instanceof PrefixOperator) {
+				return (PrefixOperator) oper;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Determine the current PostfixOperator
+	 *
+	 * @return <code>null</code> if no postfix operator could be determined
+	 */
+	private PostfixOperator determinePostfixOperator() {
+		Operator oper = null;
+		for (int i = 0; i < fOperList.size(); i++) {
+			oper = fOperList.get(i);
+			if (oper instanceof PostfixOperator) {
+				return (PostfixOperator) oper;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Determine the current BinaryOperator
+	 *
+	 * @return <code>null</code> if no binary operator could be determined
+	 */
+	private InfixOperator determineBinaryOperator() {
+		Operator oper = null;
+		for (int i = 0; i < fOperList.size(); i++) {
+			oper = fOperList.get(i);
+			if (oper instanceof InfixOperator) {
+				return (InfixOperator) oper;
+			}
+		}
+		return null;
+	}
+
+	private IExpr parseArguments(IExpr lhs) throws SyntaxError {
+		if (fToken == fArgumentsOpen) {
+			lhs = getFunction(lhs);
+		}
+		return lhs;
+	}
+
+	private IExpr parsePrimary() throws SyntaxError {
+		if (fToken == TT_OPERATOR) {
+			if (fOperatorString.equals(".")) {
+				fCurrentChar = '.';
+				return getNumber();
+			}
+			final PrefixOperator prefixOperator = determinePrefixOperator();
+			if (prefixOperator != null) {
+				getNextToken();
+				final IExpr temp = parseLookaheadOperator(prefixOperator.getPrecedence());
+				if (prefixOperator.getFunctionName().equals("PreMinus")) {
+					// special cases for negative numbers
+					if (isNumberLiteral(temp)) {
+						return ((ISignedNumber) temp).negate();
+					}
+				}
+				return createPrefix(prefixOperator, temp);
+			}
+			throwSyntaxError("Operator: " + fOperatorString + " is no prefix operator.");
+
+		}
+		return getPart();
+	}
+
+	/**
+	 * Test if the current token starts an implicit multiplication.
+	 *
+	 * @return
+	 */
+	private boolean isImplicitTimes() {
+		return (fToken == TT_LIST_OPEN) || (fToken == TT_PRECEDENCE_OPEN) || (fToken == TT_IDENTIFIER) || (fToken == TT_STRING)
+				|| (fToken == TT_DIGIT);
+	}
+
+	private IExpr parseLookaheadOperator(final int min_precedence) throws SyntaxError {
+		IExpr rhs = parsePrimary();
+		while (true) {
+			final int lookahead = fToken;
+			if (isImplicitTimes()) {
+				if (fPackageMode && fToken == TT_IDENTIFIER && fLastChar == '\n') {
+					return rhs;
+				}
+				// lazy evaluation of multiplication
+				if (fTimesOperator.getPrecedence() > min_precedence) {
+					rhs = parseOperators(rhs, fTimesOperator.getPrecedence());
+					continue;
+				} else if ((fTimesOperator.getPrecedence() == min_precedence)
+						&& (fTimesOperator.getGrouping() == InfixOperator.RIGHT_ASSOCIATIVE)) {
+					rhs = parseOperators(rhs, fTimesOperator.getPrecedence());
+					continue;
+				}
+			} else {
+				if (lookahead != TT_OPERATOR) {
+					break;
+				}
+				InfixOperator infixOperator = determineBinaryOperator();
+				if (infixOperator != null) {
+					if (infixOperator.getPrecedence() > min_precedence) {
+						rhs = parseOperators(rhs, infixOperator.getPrecedence());
+						continue;
+					} else if ((infixOperator.getPrecedence() == min_precedence)
+							&& (infixOperator.getGrouping() == InfixOperator.RIGHT_ASSOCIATIVE)) {
+						rhs = parseOperators(rhs, infixOperator.getPrecedence());
+						continue;
+					}
+				} else {
+					PostfixOperator postfixOperator = determinePostfixOperator();
+					if (postfixOperator != null) {
+						if (postfixOperator.getPrecedence() > min_precedence) {
+							getNextToken();
+							rhs = createPostfix(postfixOperator, rhs);
+							continue;
+						}
+					}
+				}
+			}
+			break;
+		}
+		return rhs;
+	}
+
+	/**
+	 * See <a
+	 * href="http://en.wikipedia.org/wiki/Operator-precedence_parser">Operator
+	 * -precedence parser</a> for the idea, how to parse the operators depending
+	 * on their precedence.
+	 *
+	 * @param lhs
+	 *          the already parsed left-hand-side of the operator
+	 * @param min_precedence
+	 * @return
+	 */
+	private IExpr parseOperators(IExpr lhs, final int min_precedence) throws SyntaxError {
+		IExpr rhs = null;
+		InfixOperator infixOperator;
+		PostfixOperator postfixOperator;
+		while (true) {
+			if (isImplicitTimes()) {
+				if (fPackageMode && fToken == TT_IDENTIFIER && fLastChar == '\n') {
+					return lhs;
+				}
+				// lazy evaluation of multiplication
+				if (fTimesOperator.getPrecedence() >= min_precedence) {
+					rhs = parseLookaheadOperator(fTimesOperator.getPrecedence());
+					lhs = createFunction(convertSymbol(fTimesOperator.getFunctionName()), lhs, rhs);
+					lhs = parseArguments(lhs);
+					continue;
+				}
+			} else {
+				if (fToken != TT_OPERATOR) {
+					if (fToken == TT_DERIVATIVE) {
+						getNextToken();
+						lhs = createFunction(F.Derivative, lhs);
+						lhs = parseArguments(lhs);
+						continue;
+					}
+					break;
+				}
+				infixOperator = determineBinaryOperator();
+
+				if (infixOperator != null) {
+					if (infixOperator.getPrecedence() >= min_precedence) {
+						getNextToken();
+						rhs = parseLookaheadOperator(infixOperator.getPrecedence());
+						lhs = createInfix(infixOperator, lhs, rhs);
+						lhs = parseArguments(lhs);
+						continue;
+					}
+				} else {
+					postfixOperator = determinePostfixOperator();
+
+					if (postfixOperator != null) {
+						if (postfixOperator.getPrecedence() >= min_precedence) {
+							getNextToken();
+							lhs = createPostfix(postfixOperator, lhs);
+							lhs = parseArguments(lhs);
+							continue;
+						}
+					} else {
+						throwSyntaxError("Operator: " + fOperatorString + " is no infix or postfix operator.");
+					}
+				}
+			}
+			break;
+		}
+		return lhs;
+	}
+
+	/**
+	 * Create an integer or a double number from the current number token
+	 *
+	 * @return
+	 */
+	private IExpr getNumber() throws SyntaxError {
+		IExpr temp = null;
+		final Object[] result = getNumberString();
+		final String number = (String) result[0];
+		final int numFormat = ((Integer) result[1]).intValue();
+		try {
+			if (numFormat < 0) {
+				temp = F.num(number);
+			} else {
+				temp = F.integer(number, numFormat);
+			}
+		} catch (final RuntimeException e) {
+			throwSyntaxError("Number format error: " + number, number.length());
+		}
+		getNextToken();
+		return temp;
+	}
+
+	private int getIntegerNumber() throws SyntaxError {
+		final Object[] result = getNumberString();
+		final String number = (String) result[0];
+		final int numFormat = ((Integer) result[1]).intValue();
+		int intValue = 0;
+		try {
+			intValue = Integer.parseInt(number, numFormat);
+		} catch (final NumberFormatException e) {
+			throwSyntaxError("Number format error (not an int type): " + number, number.length());
+		}
+		getNextToken();
+		return intValue;
+	}
+
+	/**
+	 * Read the current identifier and convert it into a symbol
+	 *
+	 * @return
+	 */
+	private IExpr getSymbol() throws SyntaxError {
+		String identifier = getIdentifier();
+		if (!fFactory.isValidIdentifier(identifier)) {
+			throwSyntaxError("Invalid identifier: " + identifier + " detected.");
+		}
+
+		final IExpr symbol = convertSymbol(identifier);
+		getNextToken();
+		return symbol;
+	}
+
+	private IExpr getString() throws SyntaxError {
+		final StringBuffer ident = getStringBuffer();
+
+		getNextToken();
+
+		return F.stringx(ident.toString());
+	}
+
+	/**
+	 * Get a list {...}
+	 *
+	 */
+	private IExpr getList() throws SyntaxError {
+		final IAST function = F.List();
+
+		getNextToken();
+
+		if (fToken == TT_LIST_CLOSE) {
+			getNextToken();
+
+			return function;
+		}
+
+		getArguments(function);
+
+		if (fToken == TT_LIST_CLOSE) {
+			getNextToken();
+
+			return function;
+		}
+
+		throwSyntaxError("')' expected.");
+		return null;
+	}
+
+	/**
+	 * Get a function f[...][...]
+	 *
+	 */
+	private IExpr getFunction(final IExpr head) throws SyntaxError {
+		final IAST function = F.ast(head);
+
+		getNextToken();
+
+		if (fToken != fArgumentsClose) {
+			getArguments(function);
+			if (fToken != fArgumentsClose) {
+				throwSyntaxError("']' expected.");
+			}
+		}
+
+		getNextToken();
+		final IExpr result = fConverter.convertFunction(function);
+		if (fToken == fArgumentsOpen) {
+			return getFunction(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Create a pattern from the current blank token
+	 *
+	 * @param symbol
+	 *          the name of the pattern or <code>null</code>
+	 * @return
+	 */
+	private IExpr getPattern(final ISymbol symbol) throws SyntaxError {
+		final int blank = fToken;
+		getNextToken();
+		IExpr check = null;
+		if (fToken == TT_IDENTIFIER) {
+			check = getSymbol();
+		}
+		switch (blank) {
+		case TT_BLANK_BLANK:
+			return F.$ps(symbol, check, false);
+		case TT_BLANK_BLANK_BLANK:
+			throw new UnsupportedOperationException("'___' pattern-matching expression not implemented");
+		case TT_BLANK_OPTIONAL:
+			return F.$p(symbol, check, true);
+		default:
+			return F.$p(symbol, check, false);
+		}
+	}
+
+	private static boolean isBlank(final int token) {
+		return token == TT_BLANK || token == TT_BLANK_BLANK || token == TT_BLANK_BLANK_BLANK || token == TT_BLANK_OPTIONAL;
+	}
+
+	private IExpr getFactor() throws SyntaxError {
+		IExpr temp;
+
+		if (fToken == TT_IDENTIFIER) {
+			final IExpr symbol = getSymbol();
+
+			if (isBlank(fToken)) {
+				return getPattern((ISymbol) symbol);
+			}
+			return symbol;
+		}
+		if (isBlank(fToken)) {
+			return getPattern(null);
+		}
+
+		if (fToken == TT_DIGIT) {
+			return getNumber();
+		}
+		if (fToken == TT_PRECEDENCE_OPEN) {
+			getNextToken();
+
+			temp = parseOperators(parsePrimary(), 0);
+
+			if (fToken != TT_PRECEDENCE_CLOSE) {
+				throwSyntaxError("\')\' expected.");
+			}
+
+			getNextToken();
+
+			return temp;
+		}
+		if (fToken == TT_LIST_OPEN) {
+			return getList();
+		}
+		if (fToken == TT_STRING) {
+			return getString();
+		}
+		if (fToken == TT_PERCENT) {
+
+			final IAST out = F.ast(convertSymbol(IConstantOperators.Out));
+
+			int countPercent = 1;
+			getNextToken();
+			if (fToken == TT_DIGIT) {
+				countPercent = getIntegerNumber();
+				out.add(F.integer(countPercent));
+				return out;
+			}
+
+			while (fToken == TT_PERCENT) {
+				countPercent++;
+				getNextToken();
+			}
+
+			out.add(F.integer(-countPercent));
+			return out;
+		}
+		if (fToken == TT_SLOT || fToken == TT_SLOTSEQUENCE) {
+			final IAST slot = F.ast(fToken == TT_SLOT ? F.Slot : F.SlotSequence);
+			getNextToken();
+			if (fToken == TT_DIGIT) {
+				slot.add(getNumber());
+			} else {
+				slot.add(F.C1);
+			}
+			return slot;
+		}
+		switch (fToken) {
+
+		case TT_PRECEDENCE_CLOSE:
+			throwSyntaxError("Too much open ) in factor.");
+			break;
+		case TT_LIST_CLOSE:
+			throwSyntaxError("Too much open } in factor.");
+			break;
+		case TT_ARGUMENTS_CLOSE:
+			throwSyntaxError("Too much open ] in factor.");
+			break;
+		}
+
+		throwSyntaxError("Error in factor at character: '" + fCurrentChar + "' (" + fToken + ")");
+		return null;
+	}
+
+	/**
+	 * Get a <i>part [[..]]</i> of an expression <code>{a,b,c}[[2]]</code> &rarr;
+	 * <code>b</code>
+	 *
+	 */
+	private IExpr getPart() throws SyntaxError {
+		IExpr temp = getFactor();
+		temp = parseArguments(temp);
+
+		if (fToken != TT_PARTOPEN) {
+			return temp;
+		}
+
+		IAST function = null;
+
+		do {
+			if (function == null) {
+				function = F.ast(F.Part);
+				function.add(temp);
+			} else {
+				function = F.unary(F.Part, function);
+			}
+			do {
+				getNextToken();
+				if (fToken == TT_PARTCLOSE) {
+					throwSyntaxError("Statement (i.e. index) expected in [[ ]].");
+				}
+
+				function.add(parseOperators(parsePrimary(), 0));
+			} while (fToken == TT_COMMA);
+
+			if (fToken == TT_ARGUMENTS_CLOSE) {
+				// scanner-step begin: (instead of getNextToken() call):
+				if (fInputString.length() > fCurrentPosition) {
+					if (fInputString.charAt(fCurrentPosition) == ']') {
+						fCurrentPosition++;
+						fToken = TT_PARTCLOSE;
+					}
+				}
+				// scanner-step end
+			}
+			if (fToken != TT_PARTCLOSE) {
+				throwSyntaxError("']]' expected.");
+			}
+			getNextToken();
+		} while (fToken == TT_PARTOPEN);
+
+		return function;
+	}
+
+}
@@ -0,0 +1,542 @@
+package org.matheclipse.core.patternmatching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.IntegerSym;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.IPattern;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * The left-hand-side of a pattern matching rule compiled into a tree of
+ * checks, which assign the matched values directly to the slots of the
+ * <code>PatternMap</code>.
+ *
+ * Only left-hand-sides, which could be matched without backtracking, are
+ * compiled, i.e. the functions of the left-hand-side don't have the attributes
+ * <code>Flat</code> or <code>Orderless</code> and don't contain pattern
+ * sequences or patterns with default values.
+ *
+ * The arguments of a <code>Condition[]</code> on the right-hand-side, which
+ * combine the type tests
+ * <code>FreeQ[], IntegerQ[], NumberQ[], AtomQ[], EvenQ[], OddQ[]</code> of
+ * the patterns with <code>And[], Or[], Not[]</code>, are compiled into a
+ * guard. The guard is tested without substituting and evaluating the
+ * condition.
+ *
+ * @see PatternMatcherAndEvaluator#compile()
+ */
+public class CompiledMatcher {
+	/**
+	 * A check for an expression of the left-hand-side.
+	 */
+	abstract static class Node {
+		/**
+		 * Match the expression and assign the values of the patterns.
+		 *
+		 * @param expr
+		 * @param values
+		 *          the values of the <code>PatternMap</code>
+		 * @return
+		 */
+		abstract boolean match(IExpr expr, IExpr[] values);
+	}
+
+	/**
+	 * Matches a function with a fixed head and number of arguments.
+	 */
+	final static class FunctionNode extends Node {
+		private final IExpr fHead;
+
+		private final Node[] fArgs;
+
+		FunctionNode(final IExpr head, final Node[] args) {
+			fHead = head;
+			fArgs = args;
+		}
+
+		@Override
+		boolean match(final IExpr expr, final IExpr[] values) {
+			if (!expr.isAST()) {
+				return false;
+			}
+			final IAST ast = (IAST) expr;
+			if (ast.size() != fArgs.length + 1 || !ast.head().equals(fHead)) {
+				return false;
+			}
+			for (int i = 0; i < fArgs.length; i++) {
+				if (!fArgs[i].match(ast.get(i + 1), values)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Matches an expression without patterns.
+	 */
+	final static class LiteralNode extends Node {
+		private final IExpr fLiteral;
+
+		LiteralNode(final IExpr literal) {
+			fLiteral = literal;
+		}
+
+		@Override
+		boolean match(final IExpr expr, final IExpr[] values) {
+			return fLiteral.equals(expr);
+		}
+	}
+
+	/**
+	 * Matches a pattern and assigns its value to the slot. If the slot has
+	 * already a value the expression must be equal to this value.
+	 */
+	final static class PatternNode extends Node {
+		private final IPattern fPattern;
+
+		private final int fSlot;
+
+		PatternNode(final IPattern pattern, final int slot) {
+			fPattern = pattern;
+			fSlot = slot;
+		}
+
+		@Override
+		boolean match(final IExpr expr, final IExpr[] values) {
+			if (!fPattern.isConditionMatched(expr)) {
+				return false;
+			}
+			final IExpr value = values[fSlot];
+			if (value != null) {
+				return expr.equals(value);
+			}
+			values[fSlot] = expr;
+			return true;
+		}
+	}
+
+	/**
+	 * A compiled test, which returns <code>true</code> if the condition would
+	 * evaluate to <code>True</code>.
+	 */
+	abstract static class Guard {
+		abstract boolean test(IExpr[] values);
+	}
+
+	/**
+	 * <code>And[], Or[]</code>
+	 */
+	final static class JunctionGuard extends Guard {
+		private final boolean fAnd;
+
+		private final Guard[] fGuards;
+
+		JunctionGuard(final boolean and, final Guard[] guards) {
+			fAnd = and;
+			fGuards = guards;
+		}
+
+		@Override
+		boolean test(final IExpr[] values) {
+			for (int i = 0; i < fGuards.length; i++) {
+				if (fGuards[i].test(values) != fAnd) {
+					return !fAnd;
+				}
+			}
+			return fAnd;
+		}
+	}
+
+	/**
+	 * <code>Not[]</code>
+	 */
+	final static class NotGuard extends Guard {
+		private final Guard fGuard;
+
+		NotGuard(final Guard guard) {
+			fGuard = guard;
+		}
+
+		@Override
+		boolean test(final IExpr[] values) {
+			return !fGuard.test(values);
+		}
+	}
+
+	/**
+	 * <code>FreeQ[expr, form]</code>
+	 */
+	final static class FreeQGuard extends Guard {
+		private final Operand fExpr;
+
+		private final Operand fForm;
+
+		FreeQGuard(final Operand expr, final Operand form) {
+			fExpr = expr;
+			fForm = form;
+		}
+
+		@Override
+		boolean test(final IExpr[] values) {
+			return fExpr.value(values).isFree(fForm.value(values), true);
+		}
+	}
+
+	/**
+	 * The type tests <code>IntegerQ[], NumberQ[], AtomQ[], EvenQ[], OddQ[]</code>
+	 */
+	final static class TypeGuard extends Guard {
+		private final ISymbol fTest;
+
+		private final Operand fExpr;
+
+		TypeGuard(final ISymbol test, final Operand expr) {
+			fTest = test;
+			fExpr = expr;
+		}
+
+		@Override
+		boolean test(final IExpr[] values) {
+			final IExpr expr = fExpr.value(values);
+			if (fTest == F.IntegerQ) {
+				return expr.isInteger();
+			}
+			if (fTest == F.NumberQ) {
+				return expr.isNumber();
+			}
+			if (fTest == F.AtomQ) {
+				return expr.isAtom();
+			}
+			if (fTest == F.EvenQ) {
+				return expr.isInteger() && ((IntegerSym) expr).isEven();
+			}
+			// OddQ
+			return expr.isInteger() && ((IntegerSym) expr).isOdd();
+		}
+	}
+
+	/**
+	 * An argument of a guard.
+	 */
+	abstract static class Operand {
+		abstract IExpr value(IExpr[] values);
+	}
+
+	/**
+	 * The value of a pattern.
+	 */
+	final static class SlotOperand extends Operand {
+		private final int fSlot;
+
+		SlotOperand(final int slot) {
+			fSlot = slot;
+		}
+
+		@Override
+		IExpr value(final IExpr[] values) {
+			return values[fSlot];
+		}
+	}
+
+	/**
+	 * A number, which evaluates to itself.
+	 */
+	final static class ConstantOperand extends Operand {
+		private final IExpr fConstant;
+
+		ConstantOperand(final IExpr constant) {
+			fConstant = constant;
+		}
+
+		@Override
+		IExpr value(final IExpr[] values) {
+			return fConstant;
+		}
+	}
+
+	/**
+	 * A list of operands.
+	 */
+	final static class ListOperand extends Operand {
+		private final Operand[] fElements;
+
+		ListOperand(final Operand[] elements) {
+			fElements = elements;
+		}
+
+		@Override
+		IExpr value(final IExpr[] values) {
+			final IAST list = F.List();
+			for (int i = 0; i < fElements.length; i++) {
+				list.add(fElements[i].value(values));
+			}
+			return list;
+		}
+	}
+
+	/**
+	 * The compiled left-hand-side or <code>null</code>.
+	 */
+	private final Node fNode;
+
+	/**
+	 * The compiled type tests of the right-hand-sides <code>Condition[]</code>
+	 * or <code>null</code>.
+	 */
+	private final Guard fGuard;
+
+	/**
+	 * <code>true</code> if the guard contains all tests of the condition.
+	 */
+	private final boolean fCompleteGuard;
+
+	private CompiledMatcher(final Node node, final Guard guard, final boolean completeGuard) {
+		fNode = node;
+		fGuard = guard;
+		fCompleteGuard = completeGuard;
+	}
+
+	/**
+	 * Compile the left-hand-side and the condition of the right-hand-side of a
+	 * rule.
+	 *
+	 * If only some arguments of an <code>And[]</code> condition could be
+	 * compiled, the guard tests these arguments before the condition is
+	 * evaluated.
+	 *
+	 * @param leftHandSide
+	 * @param rightHandSide
+	 * @param patternMap
+	 *          the pattern map, which determines the slots of the patterns
+	 * @return <code>null</code> if neither the left-hand-side nor the condition
+	 *         could be compiled
+	 */
+	public static CompiledMatcher compile(final IExpr leftHandSide, final IExpr rightHandSide, final PatternMap patternMap) {
+		if (patternMap.isRuleWithoutPatterns()) {
+			return null;
+		}
+		Node node = null;
+		if (leftHandSide.isAST()) {
+			node = compileNode(leftHandSide, patternMap);
+		}
+		Guard guard = null;
+		boolean completeGuard = false;
+		if (rightHandSide.isCondition() && !rightHandSide.getAt(1).isCondition()) {
+			final Map<ISymbol, Integer> slots = new HashMap<ISymbol, Integer>();
+			determineSlots(leftHandSide, patternMap, slots);
+			final List<IExpr> conditions = new ArrayList<IExpr>();
+			flattenAnd(rightHandSide.getAt(2), conditions);
+			final List<Guard> guards = new ArrayList<Guard>();
+			for (IExpr condition : conditions) {
+				final Guard conditionGuard = compileGuard(condition, slots);
+				if (conditionGuard != null) {
+					guards.add(conditionGuard);
+				}
+			}
+			if (guards.size() == 1) {
+				guard = guards.get(0);
+			} else if (guards.size() > 1) {
+				guard = new JunctionGuard(true, guards.toArray(new Guard[guards.size()]));
+			}
+			completeGuard = guards.size() == conditions.size();
+		}
+		if (node == null && guard == null) {
+			return null;
+		}
+		return new CompiledMatcher(node, guard, completeGuard);
+	}
+
+	/**
+	 * Map the symbols of the patterns to their slots. Pattern sequences aren't
+	 * mapped, because their values are spliced into the arguments of the
+	 * condition.
+	 */
+	private static void determineSlots(final IExpr expr, final PatternMap patternMap, final Map<ISymbol, Integer> slots) {
+		if (expr.isAST()) {
+			final IAST ast = (IAST) expr;
+			for (int i = 0; i < ast.size(); i++) {
+				determineSlots(ast.get(i), patternMap, slots);
+			}
+		} else if (expr.isPattern()) {
+			final ISymbol symbol = ((IPattern) expr).getSymbol();
+			if (symbol != null) {
+				slots.put(symbol, Integer.valueOf(patternMap.getIndex((IPattern) expr)));
+			}
+		}
+	}
+
+	/**
+	 * Add the arguments of nested <code>And[]</code> conditions to the list.
+	 */
+	private static void flattenAnd(final IExpr condition, final List<IExpr> conditions) {
+		if (condition.isAST() && condition.head() == F.And) {
+			final IAST and = (IAST) condition;
+			for (int i = 1; i < and.size(); i++) {
+				flattenAnd(and.get(i), conditions);
+			}
+		} else {
+			conditions.add(condition);
+		}
+	}
+
+	private static Node compileNode(final IExpr expr, final PatternMap patternMap) {
+		if (expr.isPattern()) {
+			final IPattern pattern = (IPattern) expr;
+			if (pattern.isDefault()) {
+				return null;
+			}
+			return new PatternNode(pattern, patternMap.getIndex(pattern));
+		}
+		if (expr.isPatternSequence()) {
+			return null;
+		}
+		if (expr.isAST()) {
+			final IAST ast = (IAST) expr;
+			if (!ast.isEvalFlagOn(IAST.CONTAINS_PATTERN) && !ast.isEvalFlagOn(IAST.CONTAINS_PATTERN_SEQUENCE)
+					&& !ast.isEvalFlagOn(IAST.CONTAINS_DEFAULT_PATTERN)) {
+				return new LiteralNode(ast);
+			}
+			if (!ast.head().isSymbol() || ast.isCondition() || ast.isEvalFlagOn(IAST.CONTAINS_PATTERN_SEQUENCE)
+					|| ast.isEvalFlagOn(IAST.CONTAINS_DEFAULT_PATTERN)) {
+				return null;
+			}
+			if ((((ISymbol) ast.head()).getAttributes() & (ISymbol.FLAT | ISymbol.ORDERLESS)) != 0) {
+				return null;
+			}
+			final Node[] args = new Node[ast.size() - 1];
+			for (int i = 1; i < ast.size(); i++) {
+				args[i - 1] = compileNode(ast.get(i), patternMap);
+				if (args[i - 1] == null) {
+					return null;
+				}
+			}
+			return new FunctionNode(ast.head(), args);
+		}
+		return new LiteralNode(expr);
+	}
+
+	/**
+	 * Compile the condition.
+	 *
+	 * @return <code>null</code> if the condition contains other functions than
+	 *         the type tests or other symbols than the pattern symbols
+	 */
+	private static Guard compileGuard(final IExpr condition, final Map<ISymbol, Integer> slots) {
+		if (!condition.isAST() || !condition.head().isSymbol()) {
+			return null;
+		}
+		final IAST ast = (IAST) condition;
+		final ISymbol head = (ISymbol) ast.head();
+		if (head == F.And || head == F.Or) {
+			final Guard[] guards = new Guard[ast.size() - 1];
+			for (int i = 1; i < ast.size(); i++) {
+				guards[i - 1] = compileGuard(ast.get(i), slots);
+				if (guards[i - 1] == null) {
+					return null;
+				}
+			}
+			return new JunctionGuard(head == F.And, guards);
+		}
+		if (head == F.Not && ast.size() == 2) {
+			final Guard guard = compileGuard(ast.get(1), slots);
+			return guard == null ? null : new NotGuard(guard);
+		}
+		if (head == F.FreeQ && ast.size() == 3) {
+			final Operand expr = compileOperand(ast.get(1), slots);
+			final Operand form = compileOperand(ast.get(2), slots);
+			if (expr == null || form == null) {
+				return null;
+			}
+			return new FreeQGuard(expr, form);
+		}
+		if ((head == F.IntegerQ || head == F.NumberQ || head == F.AtomQ || head == F.EvenQ || head == F.OddQ) && ast.size() == 2) {
+			final Operand expr = compileOperand(ast.get(1), slots);
+			return expr == null ? null : new TypeGuard(head, expr);
+		}
+		return null;
+	}
+
+	private static Operand compileOperand(final IExpr expr, final Map<ISymbol, Integer> slots) {
+		if (expr.isSymbol()) {
+			final Integer slot = slots.get(expr);
+			return slot == null ? null : new SlotOperand(slot.intValue());
+		}
+		if (expr.isNumber()) {
+			return new ConstantOperand(expr);
+		}
+		if (expr.isList()) {
+			final IAST list = (IAST) expr;
+			final Operand[] elements = new Operand[list.size() - 1];
+			for (int i = 1; i < list.size(); i++) {
+				elements[i - 1] = compileOperand(list.get(i), slots);
+				if (elements[i - 1] == null) {
+					return null;
+				}
+			}
+			return new ListOperand(elements);
+		}
+		return null;
+	}
+
+	/**
+	 * Test if the left-hand-side is compiled.
+	 *
+	 * @return
+	 */
+	public boolean hasMatcher() {
+		return fNode != null;
+	}
+
+	/**
+	 * Match the expression with the compiled left-hand-side and assign the
+	 * values of the patterns in the <code>patternMap</code>.
+	 *
+	 * @param expr
+	 * @param patternMap
+	 *          the pattern map, whose values are initialized
+	 * @return
+	 */
+	public boolean match(final IExpr expr, final PatternMap patternMap) {
+		return fNode.match(expr, patternMap.getValuesArray());
+	}
+
+	/**
+	 * Test if type tests of the right-hand-sides <code>Condition[]</code> are
+	 * compiled.
+	 *
+	 * @return
+	 */
+	public boolean hasGuard() {
+		return fGuard != null;
+	}
+
+	/**
+	 * Test if the guard contains all tests of the right-hand-sides
+	 * <code>Condition[]</code>, so that the condition needn't be evaluated.
+	 *
+	 * @return
+	 */
+	public boolean isCompleteGuard() {
+		return fCompleteGuard;
+	}
+
+	/**
+	 * Test the compiled tests of the right-hand-sides condition for the
+	 * assigned values in the <code>patternMap</code>.
+	 *
+	 * @param patternMap
+	 *          the pattern map, whose patterns are all assigned
+	 * @return <code>false</code> if the condition doesn't evaluate to
+	 *         <code>True</code>
+	 */
+	public boolean testGuard(final PatternMap patternMap) {
+		return fGuard.test(patternMap.getValuesArray());
+	}
+}
@@ -0,0 +1,281 @@
+package org.matheclipse.core.patternmatching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.eval.exception.WrongArgumentType;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ArrayListMultimap;
+
+/**
+ * A precompiled list of rules, which is created for <code>Dispatch[rules]</code>
+ * and used by <code>ReplaceAll</code>, <code>ReplaceRepeated</code> and
+ * <code>ReplacePart</code>.
+ *
+ * The rules whose left-hand-side contains no patterns are stored in a hash
+ * map. The pattern rules are indexed by the head and the number of arguments
+ * of their left-hand-side, so that for a visited subexpression only the
+ * candidate rules are tried instead of all rules. Rules with a
+ * <code>Flat</code> or <code>Orderless</code> head or with pattern sequences
+ * could match any number of arguments and are indexed only by their head.
+ * Rules which couldn't be classified are always tried.
+ *
+ * The rules are resolved like an ordinary rule list (see
+ * <code>Functors#rules()</code>): a literal rule has priority over the pattern
+ * rules and for equal left-hand-sides the last literal rule wins. The pattern
+ * candidates are tried in the order of the rule list, so the first matching
+ * pattern rule wins. Only a left-hand-side with a pattern sequence (i.e.
+ * <code>h[x__]</code>) is treated differently: the ordinary rule list takes it
+ * as literal rule, the dispatch table as pattern rule.
+ *
+ * The tables are cached for the <code>Dispatch[rules]</code> expressions, so
+ * the rules are compiled only once, if the same dispatch table is used in
+ * different calls.
+ */
+public class DispatchTable implements Function<IExpr, IExpr> {
+
+	/**
+	 * The head and the number of arguments of a left-hand-side.
+	 */
+	private final static class HeadArity {
+		private final IExpr fHead;
+
+		private final int fSize;
+
+		private HeadArity(final IExpr head, final int size) {
+			fHead = head;
+			fSize = size;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj instanceof HeadArity) {
+				final HeadArity other = (HeadArity) obj;
+				return fSize == other.fSize && fHead.equals(other.fHead);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * fHead.hashCode() + fSize;
+		}
+	}
+
+	private final static int MAXIMUM_CACHE_SIZE = 64;
+
+	private final static Map<IAST, DispatchTable> CACHE = Collections.synchronizedMap(new LinkedHashMap<IAST, DispatchTable>(16,
+			0.75f, true) {
+		private static final long serialVersionUID = 2207445426512290758L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IAST, DispatchTable> eldest) {
+			return size() > MAXIMUM_CACHE_SIZE;
+		}
+	});
+
+	private final static int[] EMPTY = new int[0];
+
+	private final static Predicate<IExpr> PATTERNQ_PREDICATE = new Predicate<IExpr>() {
+		@Override
+		public boolean apply(IExpr input) {
+			return input.isPattern() || input.isPatternSequence();
+		}
+	};
+
+	/**
+	 * Get the table for the expression <code>Dispatch[rules]</code> from the
+	 * cache or compile the rules.
+	 *
+	 * @param dispatch
+	 *          an expression <code>Dispatch[rules]</code>
+	 * @return
+	 * @throws WrongArgumentType
+	 *           if <code>rules</code> isn't a rule or a list of rules
+	 */
+	public static DispatchTable get(final IAST dispatch) throws WrongArgumentType {
+		DispatchTable table = CACHE.get(dispatch);
+		if (table == null) {
+			table = new DispatchTable(dispatch.get(1));
+			CACHE.put(dispatch, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Test if the expression is of the form <code>Dispatch[rules]</code>.
+	 *
+	 * @param expr
+	 * @return
+	 */
+	public static boolean isDispatch(final IExpr expr) {
+		return expr.isAST(F.Dispatch, 2);
+	}
+
+	private final IAST fRules;
+
+	private final Map<IExpr, IExpr> fLiteralRules;
+
+	private final PatternMatcherAndEvaluator[] fMatchers;
+
+	private final Map<HeadArity, int[]> fHeadArityIndex;
+
+	private final Map<IExpr, int[]> fHeadIndex;
+
+	private final int[] fUnclassified;
+
+	/**
+	 * Compile the rules.
+	 *
+	 * @param rules
+	 *          a rule or a list of rules
+	 * @throws WrongArgumentType
+	 *           if <code>rules</code> isn't a rule or a list of rules
+	 */
+	public DispatchTable(final IExpr rules) throws WrongArgumentType {
+		if (rules.isRuleAST()) {
+			fRules = F.List(rules);
+		} else if (rules.isList()) {
+			fRules = (IAST) rules;
+		} else {
+			throw new WrongArgumentType(F.Dispatch(rules), rules, 1, "Rule expression (x->y) expected: ");
+		}
+		fLiteralRules = new HashMap<IExpr, IExpr>();
+		final List<PatternMatcherAndEvaluator> matchers = new ArrayList<PatternMatcherAndEvaluator>();
+		final ArrayListMultimap<HeadArity, Integer> headArityIndex = ArrayListMultimap.create();
+		final ArrayListMultimap<IExpr, Integer> headIndex = ArrayListMultimap.create();
+		final List<Integer> unclassified = new ArrayList<Integer>();
+
+		for (int i = 1; i < fRules.size(); i++) {
+			final IExpr expr = fRules.get(i);
+			if (!expr.isRuleAST()) {
+				throw new WrongArgumentType(fRules, expr, i, "Rule expression (x->y) expected: ");
+			}
+			final IAST rule = (IAST) expr;
+			final IExpr lhs = rule.get(1);
+			final boolean literal = lhs.isFree(PATTERNQ_PREDICATE, true);
+			if (literal && !lhs.isOrderlessAST() && !lhs.isFlatAST()) {
+				// the last rule for the left-hand-side wins
+				fLiteralRules.put(lhs, rule.get(2));
+				continue;
+			}
+			final PatternMatcherAndEvaluator matcher = new PatternMatcherAndEvaluator(F.SetDelayed, lhs, rule.get(2));
+			if (Config.COMPILE_PATTERN_MATCHERS) {
+				matcher.compile();
+			}
+			final Integer position = Integer.valueOf(matchers.size());
+			matchers.add(matcher);
+			if (lhs.isAST() && lhs.head().isSymbol() && !PatternMatcher.isPatternConstruct(lhs.head())) {
+				final IAST lhsAST = (IAST) lhs;
+				if (lhsAST.isEvalFlagOn(IAST.CONTAINS_DEFAULT_PATTERN)) {
+					// a default value could match an expression with another head
+					unclassified.add(position);
+				} else if (literal || lhsAST.isFlatAST() || lhsAST.isOrderlessAST()
+						|| lhsAST.isEvalFlagOn(IAST.CONTAINS_PATTERN_SEQUENCE)) {
+					headIndex.put(lhsAST.head(), position);
+				} else {
+					headArityIndex.put(new HeadArity(lhsAST.head(), lhsAST.size()), position);
+				}
+			} else {
+				unclassified.add(position);
+			}
+		}
+
+		fMatchers = matchers.toArray(new PatternMatcherAndEvaluator[matchers.size()]);
+		fHeadArityIndex = new HashMap<HeadArity, int[]>();
+		for (HeadArity key : headArityIndex.keySet()) {
+			fHeadArityIndex.put(key, toArray(headArityIndex.get(key)));
+		}
+		fHeadIndex = new HashMap<IExpr, int[]>();
+		for (IExpr key : headIndex.keySet()) {
+			fHeadIndex.put(key, toArray(headIndex.get(key)));
+		}
+		fUnclassified = toArray(unclassified);
+	}
+
+	private static int[] toArray(final List<Integer> positions) {
+		final int[] result = new int[positions.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = positions.get(i).intValue();
+		}
+		return result;
+	}
+
+	/**
+	 * Replace the expression with the right-hand-side of the literal rule for
+	 * the expression or of the first matching pattern rule.
+	 *
+	 * @return <code>null</code> if no rule matches
+	 */
+	@Override
+	public IExpr apply(final IExpr expr) {
+		final IExpr literalRightHandSide = fLiteralRules.get(expr);
+		if (literalRightHandSide != null) {
+			return literalRightHandSide;
+		}
+		int[] byHeadArity = EMPTY;
+		int[] byHead = EMPTY;
+		if (expr.isAST()) {
+			final IAST ast = (IAST) expr;
+			int[] candidates = fHeadArityIndex.get(new HeadArity(ast.head(), ast.size()));
+			if (candidates != null) {
+				byHeadArity = candidates;
+			}
+			candidates = fHeadIndex.get(ast.head());
+			if (candidates != null) {
+				byHead = candidates;
+			}
+		}
+
+		// merge the sorted candidate lists to keep the order of the rules
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (true) {
+			int next = Integer.MAX_VALUE;
+			if (i < byHeadArity.length) {
+				next = byHeadArity[i];
+			}
+			if (j < byHead.length && byHead[j] < next) {
+				next = byHead[j];
+			}
+			if (k < fUnclassified.length && fUnclassified[k] < next) {
+				next = fUnclassified[k];
+			}
+			if (next == Integer.MAX_VALUE) {
+				break;
+			}
+			if (i < byHeadArity.length && byHeadArity[i] == next) {
+				i++;
+			} else if (j < byHead.length && byHead[j] == next) {
+				j++;
+			} else {
+				k++;
+			}
+			final IExpr result = ((PatternMatcherAndEvaluator) fMatchers[next].clone()).eval(expr);
+			if (result != null) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the list of rules of this table.
+	 *
+	 * @return
+	 */
+	public IAST getRules() {
+		return fRules;
+	}
+}
@@ -108,7 +108,9 @@ public class HashedOrderlessMatcher {
 			final List<HashedPatternRules> hashRuleList = hashRuleMap.get(hashValues[i]);
 			if (hashRuleList != null) {
 				evaled: for (HashedPatternRules hashRule : hashRuleList) {
-
+					if (!hashRule.isMatch1(orderlessAST.get(i + 1))) {
+						continue;
+					}
 					for (int j = 0; j < hashValues.length; j++) {
 						if (!hashRule.isPattern2()) {
 							if (hashValues[j] != hashRule.getHash2() || j == i) {
@@ -116,6 +118,9 @@ public class HashedOrderlessMatcher {
 								continue;
 							}
 						}
+						if (!hashRule.isMatch2(orderlessAST.get(j + 1))) {
+							continue;
+						}
 						RulesData rulesData = hashRule.getRulesData();
 						if ((temp = rulesData.evalDownRule(F.List(orderlessAST.get(i + 1), orderlessAST.get(j + 1)))) != null) {
 							hashValues[i] = 0;
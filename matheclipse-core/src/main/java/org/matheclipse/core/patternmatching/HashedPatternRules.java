@@ -17,6 +17,8 @@ public class HashedPatternRules {
 	private int hash1;
 	private int hash2;
 	private RulesData fRulesData = null;
+	private final PatternMatcher fPatternMatcher1;
+	private final PatternMatcher fPatternMatcher2;
 	private final IExpr fLHSPattern1;
 	private final IExpr fLHSPattern2;
 	// private final IExpr fCondition;
@@ -40,6 +42,8 @@ public class HashedPatternRules {
 		fLHSPattern2 = lhsPattern2;
 		// fCondition = condition;
 		fRHS = rhsResult;
+		fPatternMatcher1 = new PatternMatcher(lhsPattern1);
+		fPatternMatcher2 = new PatternMatcher(lhsPattern2);
 		if (defaultHashCode) {
 			hash1 = lhsPattern1.head().hashCode();
 			hash2 = lhsPattern2.head().hashCode();
@@ -122,6 +126,46 @@ public class HashedPatternRules {
 		return hash2;
 	}
 
+	/**
+	 * Test if the expression matches the first left-hand-side pattern on it's
+	 * own. This is a necessary condition for matching the rule, which is much
+	 * cheaper to test than the rule for every pair of arguments.
+	 * 
+	 * @param expr
+	 * @return
+	 */
+	public boolean isMatch1(final IExpr expr) {
+		return isMatch(fPatternMatcher1, expr);
+	}
+
+	/**
+	 * Test if the expression matches the second left-hand-side pattern on it's
+	 * own.
+	 * 
+	 * @param expr
+	 * @return
+	 * @see #isMatch1(IExpr)
+	 */
+	public boolean isMatch2(final IExpr expr) {
+		return isMatch(fPatternMatcher2, expr);
+	}
+
+	/**
+	 * A matcher for a left-hand-side without patterns only compares the
+	 * expressions and is used directly. Otherwise the shared matcher is cloned,
+	 * because it stores the pattern values of the current match.
+	 * 
+	 * @param matcher
+	 * @param expr
+	 * @return
+	 */
+	private static boolean isMatch(final PatternMatcher matcher, final IExpr expr) {
+		if (matcher.isRuleWithoutPatterns()) {
+			return matcher.apply(expr);
+		}
+		return ((PatternMatcher) matcher.clone()).apply(expr);
+	}
+
 	public boolean isPattern2() {
 		return fLHSPattern2.isPattern();
 	}
@@ -26,6 +26,8 @@ public class PatternMap implements Cloneable, Serializable {
 
 	/**
 	 * Map a pattern-object to an index in the <code>fPatternValuesArray</code>.
+	 * The map isn't modified after <code>allocValuesArray()</code> was called,
+	 * so it's shared between all clones of this pattern map.
 	 */
 	private TreeMap<IPatternObject, Integer> fPatternIndexMap;
 
@@ -35,6 +37,23 @@ public class PatternMap implements Cloneable, Serializable {
 	 */
 	private IExpr[] fPatternValuesArray;
 
+	/**
+	 * The indexes of the values in <code>fPatternValuesArray</code>, which were
+	 * assigned since the last <code>initPattern()</code>.
+	 */
+	private transient int[] fTrailIndexes;
+
+	/**
+	 * The previous values of the assignments stored in
+	 * <code>fTrailIndexes</code>.
+	 */
+	private transient IExpr[] fTrailValues;
+
+	/**
+	 * The number of assignments stored in the trail.
+	 */
+	private transient int fTrailSize;
+
 	public PatternMap() {
 		this.fPatternIndexMap = new TreeMap<IPatternObject, Integer>(PatternComparator.CONST);
 		this.fPatternCounter = 0;
@@ -75,23 +94,16 @@ public class PatternMap implements Cloneable, Serializable {
 		// avoid Arrays.copyOf because of Android version
 		result.fPatternValuesArray = new IExpr[fPatternValuesArray.length];
 		System.arraycopy(fPatternValuesArray, 0, result.fPatternValuesArray, 0, fPatternValuesArray.length);
-		result.fPatternIndexMap = (TreeMap<IPatternObject, Integer>) fPatternIndexMap.clone();
+		// the index map is immutable after allocValuesArray(), only the values
+		// are local to a single matching attempt
+		result.fPatternIndexMap = fPatternIndexMap;
 		result.fPatternCounter = fPatternCounter;
+		result.fTrailIndexes = null;
+		result.fTrailValues = null;
+		result.fTrailSize = 0;
 		return result;
 	}
 
-	/**
-	 * Copy the current values into a new array.
-	 * 
-	 * @return
-	 * @see PatternMap#resetPattern(IExpr[])
-	 */
-	public IExpr[] copyPattern() {
-		IExpr[] patternValuesArray = new IExpr[fPatternValuesArray.length];
-		System.arraycopy(fPatternValuesArray, 0, patternValuesArray, 0, fPatternValuesArray.length);
-		return patternValuesArray;
-	}
-
 	/**
 	 * Copy the found pattern matches from the given <code>patternMap</code> back
 	 * to this maps pattern values.
@@ -103,12 +115,23 @@ public class PatternMap implements Cloneable, Serializable {
 			if (pattern.getSymbol() != null) {
 				Integer indx = getIndex(pattern);
 				if (indx != null) {
-					fPatternValuesArray[indx.intValue()] = patternMap.getValue(pattern);
+					assign(indx.intValue(), patternMap.getValue(pattern));
 				}
 			}
 		}
 	}
 
+	/**
+	 * Get the array of the current values. The compiled matchers assign the
+	 * values directly without the trail.
+	 * 
+	 * @return
+	 * @see CompiledMatcher
+	 */
+	IExpr[] getValuesArray() {
+		return fPatternValuesArray;
+	}
+
 	public int getIndex(IPatternObject pattern) {
 		return fPatternIndexMap.get(pattern);
 	}
@@ -148,6 +171,10 @@ public class PatternMap implements Cloneable, Serializable {
 	 */
 	public void initPattern() {
 		Arrays.fill(fPatternValuesArray, null);
+		if (fTrailSize > 0) {
+			Arrays.fill(fTrailValues, 0, fTrailSize, null);
+			fTrailSize = 0;
+		}
 	}
 
 	/**
@@ -177,18 +204,60 @@ public class PatternMap implements Cloneable, Serializable {
 		return fPatternCounter == 0;
 	}
 
+	public void setValue(IPatternObject pattern, IExpr expr) {
+		assign(getIndex(pattern), expr);
+	}
+
 	/**
-	 * Reset the values to the values in the given array
+	 * Assign the value at the given index and remember the previous value in the
+	 * trail.
 	 * 
-	 * @param patternValuesArray
-	 * @see PatternMap#copyPattern()
+	 * @param index
+	 * @param expr
+	 * @see PatternMap#rollback(int)
 	 */
-	public void resetPattern(IExpr[] patternValuesArray) {
-		System.arraycopy(patternValuesArray, 0, fPatternValuesArray, 0, fPatternValuesArray.length);
+	private void assign(int index, IExpr expr) {
+		if (fTrailIndexes == null) {
+			int capacity = fPatternValuesArray.length < 4 ? 4 : fPatternValuesArray.length;
+			fTrailIndexes = new int[capacity];
+			fTrailValues = new IExpr[capacity];
+		} else if (fTrailSize == fTrailIndexes.length) {
+			int capacity = fTrailSize * 2;
+			int[] trailIndexes = new int[capacity];
+			IExpr[] trailValues = new IExpr[capacity];
+			System.arraycopy(fTrailIndexes, 0, trailIndexes, 0, fTrailSize);
+			System.arraycopy(fTrailValues, 0, trailValues, 0, fTrailSize);
+			fTrailIndexes = trailIndexes;
+			fTrailValues = trailValues;
+		}
+		fTrailIndexes[fTrailSize] = index;
+		fTrailValues[fTrailSize++] = fPatternValuesArray[index];
+		fPatternValuesArray[index] = expr;
 	}
 
-	public void setValue(IPatternObject pattern, IExpr expr) {
-		fPatternValuesArray[getIndex(pattern)] = expr;
+	/**
+	 * Mark the current state of the pattern values. No array is allocated, only
+	 * the current size of the trail is returned.
+	 * 
+	 * @return the mark which could be used in <code>rollback()</code>
+	 * @see PatternMap#rollback(int)
+	 */
+	public int mark() {
+		return fTrailSize;
+	}
+
+	/**
+	 * Undo all assignments since the given <code>mark</code> was created.
+	 * 
+	 * @param mark
+	 * @see PatternMap#mark()
+	 */
+	public void rollback(int mark) {
+		while (fTrailSize > mark) {
+			fTrailSize--;
+			fPatternValuesArray[fTrailIndexes[fTrailSize]] = fTrailValues[fTrailSize];
+			fTrailValues[fTrailSize] = null;
+		}
 	}
 
 	public int size() {
@@ -2,11 +2,18 @@ package org.matheclipse.core.patternmatching;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.eval.exception.ConditionException;
 import org.matheclipse.core.eval.exception.ReturnException;
+import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
@@ -163,15 +170,17 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 			final int n = fLhsEvalAST.size() - 1;
 			final int k = fLhsPatternAST.size() - 1;
 			final KPartitionsIterable partitionIterator = new KPartitionsIterable(n, k);
-			// copy pattern values to local variable
-			IExpr[] patternValues = fPatternMap.copyPattern();
+			// mark the current pattern values
+			final int patternValuesMark = fPatternMap.mark();
+			final EvalEngine engine = EvalEngine.get();
 			for (int partitionsIndex[] : partitionIterator) {
+				engine.checkCanceled();
 				fPartitionsIndex = partitionsIndex;
 				if (matchSingleFlatPartition(stackMatcher)) {
 					return true;
 				}
 				// reset pattern values:
-				fPatternMap.resetPattern(patternValues);
+				fPatternMap.rollback(patternValuesMark);
 			}
 
 			return false;
@@ -309,20 +318,22 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 			final KPermutationsIterable permutationIterator = new KPermutationsIterable(fLhsEvalAST, n, 1);
 			final KPartitionsIterable partitionIterator = new KPartitionsIterable(n, k);
 
-			// copy pattern values to local variable
-			IExpr[] patternValues = fPatternMap.copyPattern();
+			// mark the current pattern values
+			final int patternValuesMark = fPatternMap.mark();
+			final EvalEngine engine = EvalEngine.get();
 
 			// first generate all permutations:
 			for (int permutationsIndex[] : permutationIterator) {
 				fPermutationsIndex = permutationsIndex;
 				// second generate all partitions:
 				for (int partitionsIndex[] : partitionIterator) {
+					engine.checkCanceled();
 					fPartitionsIndex = partitionsIndex;
 					if (matchSingleFlatOrderlessPartition(stackMatcher)) {
 						return true;
 					}
 					// reset pattern values:
-					fPatternMap.resetPattern(patternValues);
+					fPatternMap.rollback(patternValuesMark);
 				}
 				partitionIterator.reset();
 			}
@@ -439,6 +450,334 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 		}
 	}
 
+	/**
+	 * Matches a flat orderless expression, whose head has also the attribute
+	 * <code>OneIdentity</code> (i.e. <code>Plus[], Times[]</code>). Instead of
+	 * enumerating all permutations and partitions of the evaluated arguments, the
+	 * pattern arguments are classified first:
+	 * <ul>
+	 * <li>literal arguments are removed from the evaluated arguments,</li>
+	 * <li>arguments which can only match one evaluated argument with a given head
+	 * (i.e. <code>f[x_]</code> or <code>x_Symbol</code>) are assigned to the
+	 * evaluated arguments with this head,</li>
+	 * <li>the remaining free arguments are assigned to non-empty subsets of the
+	 * remaining evaluated arguments.</li>
+	 * </ul>
+	 * Patterns, which aren't delayed on the stack, are matched as soon as they
+	 * are assigned, so that a mismatch prunes the search.
+	 */
+	public class PrunedFlatOrderlessMatcher {
+
+		private final ISymbol fSymbol;
+
+		private final IAST fLhsPatternAST;
+
+		private final IAST fLhsEvalAST;
+
+		/**
+		 * <code>true</code> if the pattern argument at this position is delayed
+		 * for the <code>StackMatcher#matchRest()</code> method
+		 */
+		private final boolean[] fDelayed;
+
+		/**
+		 * The assigned values of the pattern arguments
+		 */
+		private final IExpr[] fValues;
+
+		/**
+		 * <code>true</code> if the evaluated argument at this position is
+		 * already assigned
+		 */
+		private final boolean[] fUsed;
+
+		/**
+		 * The positions of the head restricted pattern arguments
+		 */
+		private int[] fHeadPositions;
+
+		/**
+		 * The positions of the evaluated arguments, which are candidates for the
+		 * head restricted pattern arguments
+		 */
+		private int[][] fCandidates;
+
+		/**
+		 * The positions of the free pattern arguments
+		 */
+		private int[] fFreePositions;
+
+		private EvalEngine fEngine;
+
+		public PrunedFlatOrderlessMatcher(final ISymbol sym, final IAST lhsPatternAST, final IAST lhsEvalAST) {
+			fSymbol = sym;
+			fLhsPatternAST = lhsPatternAST;
+			fLhsEvalAST = lhsEvalAST;
+			fDelayed = new boolean[lhsPatternAST.size()];
+			fValues = new IExpr[lhsPatternAST.size()];
+			fUsed = new boolean[lhsEvalAST.size()];
+		}
+
+		public boolean matchFlatOrderlessList(StackMatcher stackMatcher) {
+			final int n = fLhsEvalAST.size() - 1;
+			final int k = fLhsPatternAST.size() - 1;
+			// group the evaluated arguments by their heads
+			final Map<IExpr, List<Integer>> heads = new HashMap<IExpr, List<Integer>>();
+			for (int i = 1; i <= n; i++) {
+				final IExpr head = fLhsEvalAST.get(i).head();
+				List<Integer> list = heads.get(head);
+				if (list == null) {
+					list = new ArrayList<Integer>(2);
+					heads.put(head, list);
+				}
+				list.add(Integer.valueOf(i));
+			}
+
+			int remaining = n;
+			final int[] headPositions = new int[k];
+			final IExpr[] restrictedHeads = new IExpr[k];
+			int headCounter = 0;
+			final int[] freePositions = new int[k];
+			int freeCounter = 0;
+			for (int pos = 1; pos <= k; pos++) {
+				final IExpr patternArg = fLhsPatternAST.get(pos);
+				fDelayed[pos] = isDelayed(patternArg);
+				if (isLiteral(patternArg)) {
+					// remove the literal from the evaluated arguments
+					if (!removeLiteral(patternArg, heads.get(patternArg.head()))) {
+						return false;
+					}
+					remaining--;
+					continue;
+				}
+				final IExpr head = restrictedHead(patternArg);
+				if (head != null) {
+					headPositions[headCounter] = pos;
+					restrictedHeads[headCounter++] = head;
+				} else {
+					freePositions[freeCounter++] = pos;
+				}
+			}
+			// each free pattern argument needs at least one evaluated argument
+			if (freeCounter == 0 || freeCounter > remaining - headCounter) {
+				return false;
+			}
+
+			fHeadPositions = new int[headCounter];
+			fCandidates = new int[headCounter][];
+			for (int i = 0; i < headCounter; i++) {
+				fHeadPositions[i] = headPositions[i];
+				final List<Integer> list = heads.get(restrictedHeads[i]);
+				if (list == null) {
+					return false;
+				}
+				int demand = 0;
+				for (int j = 0; j < headCounter; j++) {
+					if (restrictedHeads[j].equals(restrictedHeads[i])) {
+						demand++;
+					}
+				}
+				final int[] candidates = new int[list.size()];
+				int candidateCounter = 0;
+				for (Integer index : list) {
+					if (!fUsed[index.intValue()]) {
+						candidates[candidateCounter++] = index.intValue();
+					}
+				}
+				if (candidateCounter < demand) {
+					return false;
+				}
+				fCandidates[i] = new int[candidateCounter];
+				System.arraycopy(candidates, 0, fCandidates[i], 0, candidateCounter);
+			}
+			fFreePositions = new int[freeCounter];
+			System.arraycopy(freePositions, 0, fFreePositions, 0, freeCounter);
+
+			fEngine = EvalEngine.get();
+			return matchHeadRestricted(0, remaining - headCounter, stackMatcher);
+		}
+
+		private boolean isDelayed(final IExpr patternArg) {
+			return patternArg.isAST()
+					&& (((IAST) patternArg).isEvalFlagOn(IAST.CONTAINS_PATTERN) || ((IAST) patternArg)
+							.isEvalFlagOn(IAST.CONTAINS_PATTERN_SEQUENCE));
+		}
+
+		/**
+		 * Test if the pattern argument matches only one equal evaluated argument.
+		 * An argument with the same head as the flat function could also match a
+		 * partition of the evaluated arguments.
+		 */
+		private boolean isLiteral(final IExpr patternArg) {
+			if (patternArg.isPattern() || patternArg.isPatternSequence() || isDelayed(patternArg)) {
+				return false;
+			}
+			return !patternArg.head().equals(fSymbol);
+		}
+
+		private boolean removeLiteral(final IExpr literal, final List<Integer> list) {
+			if (list != null) {
+				for (Integer index : list) {
+					final int i = index.intValue();
+					if (!fUsed[i] && literal.equals(fLhsEvalAST.get(i))) {
+						fUsed[i] = true;
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Get the head of the evaluated argument, which the pattern argument must
+		 * match.
+		 * 
+		 * @return <code>null</code> if the pattern argument could match
+		 *         evaluated arguments with different heads or a partition of the
+		 *         evaluated arguments
+		 */
+		private IExpr restrictedHead(final IExpr patternArg) {
+			if (patternArg.isAST()) {
+				final IAST ast = (IAST) patternArg;
+				final IExpr head = ast.head();
+				// a pattern with default values could match another head
+				if (head.isSymbol() && !head.equals(fSymbol) && !ast.isCondition()
+						&& !ast.isEvalFlagOn(IAST.CONTAINS_DEFAULT_PATTERN)) {
+					return head;
+				}
+			} else if (patternArg.isPattern()) {
+				final IExpr condition = ((IPattern) patternArg).getCondition();
+				if (condition != null && condition.isSymbol() && !condition.equals(fSymbol)) {
+					final ISymbol symbol = (ISymbol) condition;
+					// condition[arg] evaluates to True for other heads, if
+					// condition is defined as a predicate
+					if (symbol.getRulesData() == null && !(symbol.getEvaluator() instanceof IFunctionEvaluator)) {
+						return symbol;
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Assign the value to the pattern argument at the given position.
+		 * 
+		 * @return <code>false</code> if the pattern argument doesn't match
+		 */
+		private boolean assign(final int position, final IExpr value, StackMatcher stackMatcher) {
+			fValues[position] = value;
+			if (fDelayed[position]) {
+				return true;
+			}
+			return stackMatcher.push(fLhsPatternAST.get(position), value);
+		}
+
+		private boolean matchHeadRestricted(final int i, final int remaining, StackMatcher stackMatcher) {
+			if (i == fHeadPositions.length) {
+				return matchFree(0, remaining, stackMatcher);
+			}
+			final int position = fHeadPositions[i];
+			final int[] candidates = fCandidates[i];
+			for (int j = 0; j < candidates.length; j++) {
+				final int index = candidates[j];
+				if (!fUsed[index]) {
+					final int patternValuesMark = fPatternMap.mark();
+					fUsed[index] = true;
+					if (assign(position, fLhsEvalAST.get(index), stackMatcher)
+							&& matchHeadRestricted(i + 1, remaining, stackMatcher)) {
+						return true;
+					}
+					fUsed[index] = false;
+					fPatternMap.rollback(patternValuesMark);
+				}
+			}
+			return false;
+		}
+
+		private boolean matchFree(final int i, final int remaining, StackMatcher stackMatcher) {
+			if (i == fFreePositions.length - 1) {
+				// the last free pattern argument gets all remaining evaluated
+				// arguments
+				final int[] block = new int[remaining];
+				int blockSize = 0;
+				for (int j = 1; j < fUsed.length; j++) {
+					if (!fUsed[j]) {
+						block[blockSize++] = j;
+					}
+				}
+				final int patternValuesMark = fPatternMap.mark();
+				if (assign(fFreePositions[i], blockValue(block, blockSize), stackMatcher) && matchRest(stackMatcher)) {
+					return true;
+				}
+				fPatternMap.rollback(patternValuesMark);
+				return false;
+			}
+			// keep one evaluated argument for each of the following free pattern
+			// arguments
+			final int maxBlockSize = remaining - (fFreePositions.length - i - 1);
+			return matchBlock(i, new int[maxBlockSize], 0, 1, remaining, stackMatcher);
+		}
+
+		/**
+		 * Extend the block of evaluated arguments for the free pattern argument
+		 * <code>i</code> by one of the unused evaluated arguments starting at
+		 * position <code>start</code>.
+		 */
+		private boolean matchBlock(final int i, final int[] block, final int blockSize, final int start, final int remaining,
+				StackMatcher stackMatcher) {
+			if (blockSize == block.length) {
+				return false;
+			}
+			for (int j = start; j < fUsed.length; j++) {
+				if (!fUsed[j]) {
+					fUsed[j] = true;
+					block[blockSize] = j;
+					final int patternValuesMark = fPatternMap.mark();
+					if (assign(fFreePositions[i], blockValue(block, blockSize + 1), stackMatcher)
+							&& matchFree(i + 1, remaining - blockSize - 1, stackMatcher)) {
+						return true;
+					}
+					fPatternMap.rollback(patternValuesMark);
+					if (matchBlock(i, block, blockSize + 1, j + 1, remaining, stackMatcher)) {
+						return true;
+					}
+					fUsed[j] = false;
+				}
+			}
+			return false;
+		}
+
+		private IExpr blockValue(final int[] block, final int blockSize) {
+			if (blockSize == 1) {
+				return fLhsEvalAST.get(block[0]);
+			}
+			final IAST partitionElement = F.function(fSymbol);
+			for (int j = 0; j < blockSize; j++) {
+				partitionElement.add(fLhsEvalAST.get(block[j]));
+			}
+			return partitionElement;
+		}
+
+		/**
+		 * Push the delayed pattern arguments with their assigned values and match
+		 * the stack.
+		 */
+		private boolean matchRest(StackMatcher stackMatcher) {
+			fEngine.checkCanceled();
+			final int lastStackSize = stackMatcher.size();
+			for (int position = 1; position < fDelayed.length; position++) {
+				if (fDelayed[position]) {
+					stackMatcher.push(fLhsPatternAST.get(position), fValues[position]);
+				}
+			}
+			if (stackMatcher.matchRest()) {
+				return true;
+			}
+			stackMatcher.removeFrom(lastStackSize);
+			return false;
+		}
+	}
+
 	/**
 	 * Matches an <code>IAST</code> with header attribute <code>Orderless</code> .
 	 * 
@@ -490,7 +829,7 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 			}
 			boolean isNotInUse;
 			IExpr subPattern = fLHSPatternAST.get(lhsPosition);
-			IExpr[] patternValues = fPatternMap.copyPattern();
+			final int patternValuesMark = fPatternMap.mark();
 			for (int j = 1; j < fLHSEvalAST.size(); j++) {
 				isNotInUse = true;
 				for (int k = 0; k < fLHSPatternAST.size() - 1; k++) {
@@ -513,7 +852,7 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 						}
 					} finally {
 						if (!matched) {
-							fPatternMap.resetPattern(patternValues);
+							fPatternMap.rollback(patternValuesMark);
 							stackMatcher.removeFrom(lastStackSize);
 							fUsedIndex[lhsPosition - 1] = -1;
 						}
@@ -614,6 +953,68 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 		return true;
 	}
 
+	/**
+	 * The heads of pattern constructs, which aren't the head of a matching
+	 * expression.
+	 */
+	private final static Set<String> PATTERN_CONSTRUCTS = new HashSet<String>(Arrays.asList("Alternatives", "Blank",
+			"BlankNullSequence", "BlankSequence", "Condition", "Except", "HoldPattern", "Optional", "Pattern", "PatternTest",
+			"Verbatim"));
+
+	/**
+	 * Test if the head of a pattern expression is a pattern construct like
+	 * <code>Alternatives</code> or <code>Condition</code>.
+	 * 
+	 * @param head
+	 * @return
+	 */
+	static boolean isPatternConstruct(final IExpr head) {
+		return head.isSymbol() && PATTERN_CONSTRUCTS.contains(head.toString());
+	}
+
+	/**
+	 * Determine the symbols, which every expression matched by the pattern
+	 * expression must contain, as a combination of the
+	 * <code>IExpr#symbolMask()</code> bits. Alternatives, default values and
+	 * the other pattern constructs don't require any symbols.
+	 * 
+	 * @param patternExpr
+	 * @return <code>0</code> if the pattern could match expressions without any
+	 *         particular symbol
+	 */
+	public static long requiredSymbolMask(final IExpr patternExpr) {
+		if (patternExpr.isSymbol()) {
+			return patternExpr.symbolMask();
+		}
+		if (patternExpr.isAST()) {
+			final IAST ast = (IAST) patternExpr;
+			final IExpr head = ast.head();
+			if (isPatternConstruct(head)) {
+				if (ast.size() == 3 && head.toString().equals("Pattern")) {
+					// x:f[...]
+					return requiredSymbolMask(ast.get(2));
+				}
+				if (ast.size() >= 2
+						&& (ast.isCondition() || head.toString().equals("PatternTest") || head.toString().equals("HoldPattern"))) {
+					return requiredSymbolMask(ast.get(1));
+				}
+				return 0L;
+			}
+			long mask = requiredSymbolMask(head);
+			for (int i = 1; i < ast.size(); i++) {
+				final IExpr arg = ast.get(i);
+				if (arg.isPattern() && ((IPattern) arg).isDefault()) {
+					// the expression could match only one argument (i.e. x_^n_.
+					// matches x)
+					return 0L;
+				}
+				mask |= requiredSymbolMask(arg);
+			}
+			return mask;
+		}
+		return 0L;
+	}
+
 	/**
 	 * Check if the two left-hand-side pattern expressions are equivalent. (i.e.
 	 * <code>f[x_,y_]</code> is equivalent to <code>f[a_,b_]</code> )
@@ -819,7 +1220,7 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 			}
 		} else if (lhsPatternExpr instanceof IAST) {
 			IAST lhsPatternAST = (IAST) lhsPatternExpr;
-			IExpr[] patternValues = fPatternMap.copyPattern();
+			final int patternValuesMark = fPatternMap.mark();
 			try {
 				matched = matchAST(lhsPatternAST, lhsEvalExpr, stackMatcher);
 				if ((lhsPatternAST.getEvalFlags() & IAST.CONTAINS_DEFAULT_PATTERN) == IAST.CONTAINS_DEFAULT_PATTERN) {
@@ -827,7 +1228,7 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 						IExpr temp = null;
 						ISymbol symbol = lhsPatternAST.topHead();
 						int attr = symbol.getAttributes();
-						fPatternMap.resetPattern(patternValues);
+						fPatternMap.rollback(patternValuesMark);
 						temp = matchDefaultAST(symbol, attr, lhsPatternAST);
 						if (temp != null) {
 							matched = matchExpr(temp, lhsEvalExpr, stackMatcher);
@@ -836,7 +1237,7 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 				}
 			} finally {
 				if (!matched) {
-					fPatternMap.resetPattern(patternValues);
+					fPatternMap.rollback(patternValuesMark);
 				}
 			}
 
@@ -893,6 +1294,10 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 
 	private boolean matchFlatAST(final ISymbol sym, final IAST lhsPatternAST, final IAST lhsEvalAST, StackMatcher stackMatcher) {
 		if ((sym.getAttributes() & ISymbol.ORDERLESS) == ISymbol.ORDERLESS) {
+			if (Config.PRUNED_FLAT_ORDERLESS_MATCHING && (sym.getAttributes() & ISymbol.ONEIDENTITY) == ISymbol.ONEIDENTITY) {
+				final PrunedFlatOrderlessMatcher pfoMatcher = new PrunedFlatOrderlessMatcher(sym, lhsPatternAST, lhsEvalAST);
+				return pfoMatcher.matchFlatOrderlessList(stackMatcher);
+			}
 			final FlatOrderlessMatcher foMatcher = new FlatOrderlessMatcher(sym, lhsPatternAST, lhsEvalAST);
 			return foMatcher.matchFlatOrderlessList(stackMatcher);
 		} else {
@@ -969,7 +1374,7 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 			StackMatcher stackMatcher) {
 		// distinguish between "equally" matched list-expressions and
 		// AST expressions with "CONTAINS_PATTERN" flag
-		IExpr[] patternValues = fPatternMap.copyPattern();
+		final int patternValuesMark = fPatternMap.mark();
 		int lastStackSize = stackMatcher.size();
 		boolean matched = true;
 		try {
@@ -988,7 +1393,7 @@ public class PatternMatcher extends IPatternMatcher<IExpr> implements Serializab
 		} finally {
 			if (!matched) {
 				stackMatcher.removeFrom(lastStackSize);
-				fPatternMap.resetPattern(patternValues);
+				fPatternMap.rollback(patternValuesMark);
 			}
 		}
 	}
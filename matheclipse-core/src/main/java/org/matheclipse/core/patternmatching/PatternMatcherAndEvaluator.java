@@ -2,6 +2,7 @@ package org.matheclipse.core.patternmatching;
 
 import java.io.Serializable;
 
+import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.eval.exception.ConditionException;
 import org.matheclipse.core.eval.exception.ReturnException;
@@ -22,6 +23,18 @@ public class PatternMatcherAndEvaluator extends PatternMatcher implements Serial
 	private IExpr fRightHandSide;
 	private ISymbol fSetSymbol;
 
+	/**
+	 * The compiled left-hand-side or <code>null</code>, if the rule isn't
+	 * compiled.
+	 */
+	private transient CompiledMatcher fCompiledMatcher;
+
+	/**
+	 * <code>true</code> if the complete guard of the compiled matcher was
+	 * tested successfully in the current match.
+	 */
+	private transient boolean fGuardTested;
+
 	/**
 	 * 
 	 * @param setSymbol
@@ -131,6 +144,15 @@ public class PatternMatcherAndEvaluator extends PatternMatcher implements Serial
 		if (!fPatternMap.isAllPatternsAssigned()) {
 			return true;
 		}
+		if (fCompiledMatcher != null && fCompiledMatcher.hasGuard() && Config.COMPILE_PATTERN_MATCHERS) {
+			if (!fCompiledMatcher.testGuard(fPatternMap)) {
+				return false;
+			}
+			if (fCompiledMatcher.isCompleteGuard()) {
+				fGuardTested = true;
+				return true;
+			}
+		}
 		IExpr substConditon = fPatternMap.substitutePatternSymbols(fRightHandSide);
 		if (substConditon.isCondition()) {
 			return Condition.checkCondition(substConditon.getAt(1), substConditon.getAt(2), engine);
@@ -140,6 +162,56 @@ public class PatternMatcherAndEvaluator extends PatternMatcher implements Serial
 		return true;
 	}
 
+	/**
+	 * Compile the left-hand-side and the right-hand-sides condition of this
+	 * rule.
+	 * 
+	 * @return <code>true</code> if the left-hand-side could be compiled
+	 * @see CompiledMatcher
+	 */
+	public boolean compile() {
+		fCompiledMatcher = CompiledMatcher.compile(fLhsPatternExpr, fRightHandSide, fPatternMap);
+		return fCompiledMatcher != null && fCompiledMatcher.hasMatcher();
+	}
+
+	/**
+	 * Get the right-hand-side, which is evaluated after a successful match. If
+	 * the guard contains all tests of the right-hand-sides
+	 * <code>Condition[]</code>, the condition was already tested by
+	 * <code>checkRHSCondition()</code> and only its body is evaluated.
+	 * 
+	 * @return
+	 */
+	private IExpr getEvaluatedRHS() {
+		if (fGuardTested) {
+			return fRightHandSide.getAt(1);
+		}
+		return fRightHandSide;
+	}
+
+	/**
+	 * Match the left-hand-side with the compiled matcher and evaluate the
+	 * right-hand-side.
+	 * 
+	 * @param lhsEvalExpr
+	 * @return <code>null</code> if the rule doesn't match
+	 */
+	private IExpr evalCompiled(final IExpr lhsEvalExpr) {
+		fPatternMap.initPattern();
+		fGuardTested = false;
+		if (!fCompiledMatcher.match(lhsEvalExpr, fPatternMap) || !checkCondition()) {
+			return null;
+		}
+		final IExpr result = fPatternMap.substitutePatternSymbols(getEvaluatedRHS());
+		try {
+			return F.eval(result);
+		} catch (final ConditionException e) {
+			return null;
+		} catch (final ReturnException e) {
+			return e.getValue();
+		}
+	}
+
 	/**
 	 * Match the (left-hand-side) pattern with the given expression. If true
 	 * evaluate the right-hand-side for the determined values of the patterns
@@ -150,6 +222,10 @@ public class PatternMatcherAndEvaluator extends PatternMatcher implements Serial
 	 */
 	@Override
 	public IExpr eval(final IExpr lhsEvalExpr) {
+		if (fCompiledMatcher != null && fCompiledMatcher.hasMatcher() && Config.COMPILE_PATTERN_MATCHERS) {
+			return evalCompiled(lhsEvalExpr);
+		}
+		fGuardTested = false;
 		// if(fRightHandSide.isAST("Condition")) {
 		// System.out.println("2:"+fRightHandSide);
 		// }
@@ -185,6 +261,7 @@ public class PatternMatcherAndEvaluator extends PatternMatcher implements Serial
 				return result;
 			}
 		}
+		fGuardTested = false;
 
 		fPatternMap.initPattern();
 		if (matchExpr(fLhsPatternExpr, lhsEvalExpr)) {
@@ -192,7 +269,7 @@ public class PatternMatcherAndEvaluator extends PatternMatcher implements Serial
 			// System.out.println(fLeftHandSide.toString());
 			// System.out.println("  :> " + fRightHandSide.toString());
 			// }
-			IExpr result = fPatternMap.substitutePatternSymbols(fRightHandSide);
+			IExpr result = fPatternMap.substitutePatternSymbols(getEvaluatedRHS());
 			try {
 				return F.eval(result);
 			} catch (final ConditionException e) {
@@ -0,0 +1,315 @@
+package org.matheclipse.core.patternmatching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.matheclipse.core.eval.EvalProfiler;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IEvaluationEngine;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.IPattern;
+import org.matheclipse.core.interfaces.IPatternMatcher;
+import org.matheclipse.core.interfaces.ISymbol;
+
+import com.google.common.collect.ArrayListMultimap;
+
+/**
+ * A discrimination index for the &quot;complicated&quot; pattern rules of a
+ * symbol (i.e. the rules which couldn't be stored by their
+ * <code>patternHashCode()</code> in {@link RulesData}).
+ *
+ * A rule <code>f[arg1, arg2, ...]</code> is classified by the set of heads,
+ * which the first argument of a matching expression could possibly have. For
+ * example the rule <code>Int[u_.*(a_+b_.*x_)^m_, x_Symbol]</code> can only
+ * match expressions whose first argument has the head <code>Times</code> or
+ * <code>Power</code>. Rules which couldn't be classified are stored in a
+ * fallback bucket, which is always tried.
+ *
+ * The rules are stored in the order they were added, and the candidate rules
+ * for an expression are tried in this order, so the index doesn't change the
+ * priority of the rules.
+ *
+ * The index could be read concurrently by different threads without locking.
+ * The rules are added under the lock of the index and the readers use an
+ * immutable snapshot, which is rebuilt after the rules have changed.
+ */
+public class PatternRulesIndex {
+
+	/**
+	 * An immutable copy of the rules and the head index.
+	 */
+	private final static class Snapshot {
+		private final PatternMatcher[] fRules;
+
+		private final Map<IExpr, int[]> fHeadIndex;
+
+		private final int[] fUnclassified;
+
+		private Snapshot(final List<PatternMatcher> rules, final ArrayListMultimap<IExpr, Integer> headIndex,
+				final List<Integer> unclassified) {
+			fRules = rules.toArray(new PatternMatcher[rules.size()]);
+			fHeadIndex = new HashMap<IExpr, int[]>();
+			for (IExpr head : headIndex.keySet()) {
+				fHeadIndex.put(head, toArray(headIndex.get(head)));
+			}
+			fUnclassified = toArray(unclassified);
+		}
+
+		private static int[] toArray(final List<Integer> positions) {
+			final int[] result = new int[positions.size()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = positions.get(i).intValue();
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * All rules in the order they were added.
+	 */
+	private final List<PatternMatcher> fRules;
+
+	/**
+	 * Map a possible head of the first argument to the positions of the
+	 * candidate rules in <code>fRules</code>.
+	 */
+	private final ArrayListMultimap<IExpr, Integer> fHeadIndex;
+
+	/**
+	 * The positions of the rules in <code>fRules</code>, which couldn't be
+	 * classified.
+	 */
+	private final List<Integer> fUnclassified;
+
+	/**
+	 * The snapshot for the readers or <code>null</code>, if the rules have
+	 * changed since the last snapshot.
+	 */
+	private volatile Snapshot fSnapshot;
+
+	private final static int[] EMPTY_POSITIONS = new int[0];
+
+	public PatternRulesIndex() {
+		fRules = new ArrayList<PatternMatcher>();
+		fHeadIndex = ArrayListMultimap.create();
+		fUnclassified = new ArrayList<Integer>();
+	}
+
+	/**
+	 * Add a rule to the index. If an equivalent rule already exists, it will be
+	 * replaced at it's current position.
+	 *
+	 * @param pmEvaluator
+	 * @return the added rule
+	 */
+	public synchronized PatternMatcher add(final PatternMatcher pmEvaluator) {
+		fSnapshot = null;
+		for (int i = 0; i < fRules.size(); i++) {
+			if (pmEvaluator.equals(fRules.get(i))) {
+				// equivalent left-hand-sides are classified with the same heads
+				fRules.set(i, pmEvaluator);
+				return pmEvaluator;
+			}
+		}
+		final Integer position = Integer.valueOf(fRules.size());
+		fRules.add(pmEvaluator);
+		final Set<IExpr> heads = new HashSet<IExpr>();
+		if (determineHeads(pmEvaluator.getLHS(), heads)) {
+			for (IExpr head : heads) {
+				fHeadIndex.put(head, position);
+			}
+		} else {
+			fUnclassified.add(position);
+		}
+		return pmEvaluator;
+	}
+
+	/**
+	 * Evaluate the first candidate rule which matches the given expression.
+	 *
+	 * @param ee
+	 *          the engine, whose profiler counts the tried rules
+	 * @param expression
+	 * @return <code>null</code> if no rule matches the expression
+	 */
+	public IExpr evalDownRule(final IEvaluationEngine ee, final IExpr expression) {
+		IExpr result;
+		PatternMatcher pmEvaluator;
+		final Snapshot snapshot = getSnapshot();
+		final PatternMatcher[] rules = snapshot.fRules;
+		final int[] unclassified = snapshot.fUnclassified;
+		final int[] indexed = getIndexedCandidates(snapshot, expression);
+		if (indexed == null) {
+			for (int i = 0; i < rules.length; i++) {
+				pmEvaluator = (PatternMatcher) rules[i].clone();
+				result = pmEvaluator.eval(expression);
+				if (result != null) {
+					EvalProfiler.countRules(ee, i + 1, true);
+					return result;
+				}
+			}
+			EvalProfiler.countRules(ee, rules.length, false);
+			return null;
+		}
+
+		// merge the indexed and the unclassified positions in ascending order
+		int i = 0;
+		int j = 0;
+		int position;
+		int attempts = 0;
+		while (true) {
+			if (i < indexed.length) {
+				if (j < unclassified.length && unclassified[j] < indexed[i]) {
+					position = unclassified[j++];
+				} else {
+					position = indexed[i++];
+				}
+			} else if (j < unclassified.length) {
+				position = unclassified[j++];
+			} else {
+				EvalProfiler.countRules(ee, attempts, false);
+				return null;
+			}
+			pmEvaluator = (PatternMatcher) rules[position].clone();
+			attempts++;
+			result = pmEvaluator.eval(expression);
+			if (result != null) {
+				EvalProfiler.countRules(ee, attempts, true);
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * The number of rules, which are tried for the given expression in
+	 * <code>evalDownRule()</code> at most.
+	 *
+	 * @param expression
+	 * @return
+	 */
+	public int countCandidates(final IExpr expression) {
+		final Snapshot snapshot = getSnapshot();
+		final int[] indexed = getIndexedCandidates(snapshot, expression);
+		if (indexed == null) {
+			return snapshot.fRules.length;
+		}
+		return indexed.length + snapshot.fUnclassified.length;
+	}
+
+	/**
+	 * Get the positions of the classified rules, which could match the given
+	 * expression.
+	 *
+	 * @param snapshot
+	 * @param expression
+	 * @return <code>null</code> if all rules have to be tried.
+	 */
+	private static int[] getIndexedCandidates(final Snapshot snapshot, final IExpr expression) {
+		if (expression.isAST()) {
+			final IAST ast = (IAST) expression;
+			if (ast.size() > 1) {
+				final int attr = ast.topHead().getAttributes();
+				if ((attr & (ISymbol.FLAT | ISymbol.ORDERLESS)) == ISymbol.NOATTRIBUTE) {
+					final int[] indexed = snapshot.fHeadIndex.get(ast.get(1).head());
+					return indexed == null ? EMPTY_POSITIONS : indexed;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the current snapshot of the rules. The snapshot is rebuilt, if the
+	 * rules have changed since the last call.
+	 *
+	 * @return
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot snapshot = fSnapshot;
+		if (snapshot == null) {
+			synchronized (this) {
+				snapshot = fSnapshot;
+				if (snapshot == null) {
+					snapshot = new Snapshot(fRules, fHeadIndex, fUnclassified);
+					fSnapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	public IPatternMatcher<IExpr> get(final int index) {
+		return getSnapshot().fRules[index];
+	}
+
+	public int size() {
+		return getSnapshot().fRules.length;
+	}
+
+	/**
+	 * Determine the possible heads of the first argument of expressions, which
+	 * could match the given left-hand-side.
+	 *
+	 * @param lhs
+	 *          the left-hand-side of a rule
+	 * @param heads
+	 *          the set, which collects the possible heads
+	 * @return <code>false</code> if the left-hand-side couldn't be classified
+	 */
+	private static boolean determineHeads(final IExpr lhs, final Set<IExpr> heads) {
+		if (!lhs.isAST()) {
+			return false;
+		}
+		final IAST lhsAST = (IAST) lhs;
+		if (lhsAST.size() < 2 || !lhsAST.head().isSymbol()) {
+			return false;
+		}
+		final int attr = ((ISymbol) lhsAST.head()).getAttributes();
+		if ((attr & (ISymbol.FLAT | ISymbol.ORDERLESS)) != ISymbol.NOATTRIBUTE) {
+			return false;
+		}
+		for (int i = 1; i < lhsAST.size(); i++) {
+			if (lhsAST.get(i).isPattern() && ((IPattern) lhsAST.get(i)).isDefault()) {
+				// the default values could shift the arguments
+				return false;
+			}
+		}
+		return determineArgumentHeads(lhsAST.get(1), heads);
+	}
+
+	private static boolean determineArgumentHeads(final IExpr patternArg, final Set<IExpr> heads) {
+		if (patternArg.isAST()) {
+			final IAST ast = (IAST) patternArg;
+			if (!ast.head().isSymbol() || ast.isCondition()) {
+				return false;
+			}
+			heads.add(ast.head());
+			boolean hasDefault = false;
+			int count = 0;
+			IExpr nonDefaultArg = null;
+			for (int i = 1; i < ast.size(); i++) {
+				if (ast.get(i).isPattern() && ((IPattern) ast.get(i)).isDefault()) {
+					hasDefault = true;
+				} else {
+					count++;
+					nonDefaultArg = ast.get(i);
+				}
+			}
+			if (hasDefault && count == 1) {
+				// i.e. a_.*x_^n_. could match x_^n_. if the default value for a_. is
+				// used
+				return determineArgumentHeads(nonDefaultArg, heads);
+			}
+			return true;
+		}
+		if (patternArg.isPattern() || patternArg.isPatternSequence()) {
+			return false;
+		}
+		heads.add(patternArg.head());
+		return true;
+	}
+}
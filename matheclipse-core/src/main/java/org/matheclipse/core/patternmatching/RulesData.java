@@ -3,13 +3,15 @@ package org.matheclipse.core.patternmatching;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.EvalProfiler;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IEvaluationEngine;
@@ -19,20 +21,50 @@ import org.matheclipse.core.interfaces.IPatternMatcher;
 import org.matheclipse.core.interfaces.ISymbol;
 import org.matheclipse.generic.interfaces.Pair;
 
-import com.google.common.collect.ArrayListMultimap;
-
 /**
  * The pattern matching rules associated with a symbol.
+ *
+ * The rules could be evaluated concurrently by different threads without
+ * locking. New rules are added under the lock of this object.
  */
 public class RulesData implements Serializable {
+	/**
+	 * Load the rules of a symbol lazily at the first access of the rules.
+	 * 
+	 * @see org.matheclipse.core.eval.SymbolImage
+	 */
+	public interface Loader {
+		/**
+		 * Add the rules to the given <code>rulesData</code>.
+		 * 
+		 * @param rulesData
+		 */
+		public void load(RulesData rulesData);
+	}
+
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 8843909916823779295L;
+
+	/**
+	 * The loader for the rules, which aren't loaded yet or <code>null</code>.
+	 */
+	private transient volatile Loader fLoader;
+
+	/**
+	 * <code>true</code> while the loader adds the rules. Guarded by the lock of
+	 * this object.
+	 */
+	private transient boolean fLoading;
 	
-	private transient Map<IExpr, Pair<ISymbol, IExpr>> fEqualRules;
-	private transient ArrayListMultimap<Integer, IPatternMatcher<IExpr>> fSimplePatternRules;
-	private transient List<IPatternMatcher<IExpr>> fPatternRules;
+	private transient volatile Map<IExpr, Pair<ISymbol, IExpr>> fEqualRules;
+	/**
+	 * Map the <code>patternHashCode()</code> of the left-hand-sides to the
+	 * rules. The lists are copied on write.
+	 */
+	private transient volatile Map<Integer, List<IPatternMatcher<IExpr>>> fSimplePatternRules;
+	private transient volatile PatternRulesIndex fPatternRules;
 
 	public RulesData() {
 		this.fEqualRules = null; 
@@ -40,7 +72,9 @@ public class RulesData implements Serializable {
 		this.fPatternRules = null;
 	}
 
-	public void clear() {
+	public synchronized void clear() {
+		EvalEngine.incRuleGeneration();
+		fLoader = null;
 		fEqualRules = null;
 		fSimplePatternRules = null;
 		fPatternRules = null;
@@ -51,108 +85,147 @@ public class RulesData implements Serializable {
 	}
 
 	public IExpr evalDownRule(final IEvaluationEngine ee, final IExpr expression) {
+		ensureLoaded();
 		Pair<ISymbol, IExpr> res;
-		if (fEqualRules != null) {
-			res = fEqualRules.get(expression);
+		final Map<IExpr, Pair<ISymbol, IExpr>> equalRules = fEqualRules;
+		if (equalRules != null) {
+			res = equalRules.get(expression);
 			if (res != null) {
+				EvalProfiler.countRules(ee, 1, true);
 				return res.getSecond();
 			}
 		}
 
 		IExpr result;
 		IPatternMatcher<IExpr> pmEvaluator;
-		if ((fSimplePatternRules != null) && (expression instanceof IAST)) {
+		final Map<Integer, List<IPatternMatcher<IExpr>>> simplePatternRules = fSimplePatternRules;
+		if ((simplePatternRules != null) && (expression instanceof IAST)) {
 			final Integer hash = Integer.valueOf(((IAST) expression).patternHashCode());
-			final List<IPatternMatcher<IExpr>> list = fSimplePatternRules.get(hash);
+			final List<IPatternMatcher<IExpr>> list = simplePatternRules.get(hash);
 			if (list != null) {
-				for (int i = 0; i < list.size(); i++) {
-					pmEvaluator = (IPatternMatcher<IExpr>) list.get(i).clone();
+				int attempts = 0;
+				for (IPatternMatcher<IExpr> rule : list) {
+					pmEvaluator = (IPatternMatcher<IExpr>) rule.clone();
+					attempts++;
 					result = pmEvaluator.eval(expression);
 					if (result != null) {
+						EvalProfiler.countRules(ee, attempts, true);
 						return result;
 					}
 				}
+				EvalProfiler.countRules(ee, attempts, false);
 			}
 		}
 
-		if (fPatternRules != null) {
-			for (int i = 0; i < fPatternRules.size(); i++) {
-				pmEvaluator = (IPatternMatcher<IExpr>) fPatternRules.get(i).clone();
-				result = pmEvaluator.eval(expression);
-				if (result != null) {
-					return result;
-				}
-			}
+		final PatternRulesIndex patternRules = fPatternRules;
+		if (patternRules != null) {
+			return patternRules.evalDownRule(ee, expression);
 		}
 		return null;
 	}
 
-	public PatternMatcher putDownRule(ISymbol setSymbol, final boolean equalRule, final IExpr leftHandSide,
+	public synchronized PatternMatcher putDownRule(ISymbol setSymbol, final boolean equalRule, final IExpr leftHandSide,
 			final IExpr rightHandSide, final int priority) {
+		ensureLoaded();
+		EvalEngine.incRuleGeneration();
 		if (equalRule) {
-			fEqualRules = getEqualRules();
-			fEqualRules.put(leftHandSide, new Pair<ISymbol, IExpr>(setSymbol, rightHandSide));
+			getEqualRules().put(leftHandSide, new Pair<ISymbol, IExpr>(setSymbol, rightHandSide));
 			return null;
 		}
 
 		final PatternMatcherAndEvaluator pmEvaluator = new PatternMatcherAndEvaluator(setSymbol, leftHandSide, rightHandSide);
 
 		if (pmEvaluator.isRuleWithoutPatterns()) {
-			fEqualRules = getEqualRules();
-			fEqualRules.put(leftHandSide, new Pair<ISymbol, IExpr>(setSymbol, rightHandSide));
+			getEqualRules().put(leftHandSide, new Pair<ISymbol, IExpr>(setSymbol, rightHandSide));
 			return null;
 		}
 
 //		pmEvaluator.setCondition(condition); 
 		if (!isComplicatedPatternRule(leftHandSide)) {
 
-			fSimplePatternRules = getSimplePatternRules();
 			return addSimplePatternRule(leftHandSide, pmEvaluator);
 
 		} else {
 
-			fPatternRules = getPatternRules();
-			for (int i = 0; i < fPatternRules.size(); i++) {
-				if (pmEvaluator.equals(fPatternRules.get(i))) {
-					fPatternRules.set(i, pmEvaluator);
-
-					return pmEvaluator;
-				}
-			}
-			fPatternRules.add(pmEvaluator);
-			return pmEvaluator;
+			compile(pmEvaluator);
+			return getPatternRulesIndex().add(pmEvaluator);
 		}
 
 	}
 
-	private PatternMatcher addSimplePatternRule(final IExpr leftHandSide, final PatternMatcher pmEvaluator) {
+	/**
+	 * Compile the rule, if it's a <code>PatternMatcherAndEvaluator</code>.
+	 * 
+	 * @param pmEvaluator
+	 * @see Config#COMPILE_PATTERN_MATCHERS
+	 */
+	private static void compile(final PatternMatcher pmEvaluator) {
+		if (Config.COMPILE_PATTERN_MATCHERS && pmEvaluator instanceof PatternMatcherAndEvaluator) {
+			((PatternMatcherAndEvaluator) pmEvaluator).compile();
+		}
+	}
+
+	private synchronized PatternMatcher addSimplePatternRule(final IExpr leftHandSide, final PatternMatcher pmEvaluator) {
+		compile(pmEvaluator);
 		final Integer hash = Integer.valueOf(((IAST) leftHandSide).patternHashCode());
-		if (fSimplePatternRules.containsEntry(hash, pmEvaluator)) {
-			fSimplePatternRules.remove(hash, pmEvaluator);
+		final Map<Integer, List<IPatternMatcher<IExpr>>> simplePatternRules = getSimplePatternRules();
+		List<IPatternMatcher<IExpr>> list = simplePatternRules.get(hash);
+		if (list == null) {
+			list = new CopyOnWriteArrayList<IPatternMatcher<IExpr>>();
+			simplePatternRules.put(hash, list);
+		} else {
+			list.remove(pmEvaluator);
 		}
-		fSimplePatternRules.put(hash, pmEvaluator);
+		list.add(pmEvaluator);
 		return pmEvaluator;
 	}
 
-	/** {@inheritDoc} */
-	public PatternMatcher putDownRule(final PatternMatcherAndInvoker pmEvaluator) {
+	/**
+	 * All rules, which are hashed by their <code>patternHashCode()</code>.
+	 *
+	 * @return
+	 */
+	private List<IPatternMatcher<IExpr>> getSimplePatternRuleList() {
+		final List<IPatternMatcher<IExpr>> result = new ArrayList<IPatternMatcher<IExpr>>();
+		for (List<IPatternMatcher<IExpr>> list : fSimplePatternRules.values()) {
+			result.addAll(list);
+		}
+		return result;
+	}
+
+	/**
+	 * The number of rules, which are hashed by their
+	 * <code>patternHashCode()</code>.
+	 *
+	 * @param simplePatternRules
+	 * @return
+	 */
+	private static int countSimplePatternRules(final Map<Integer, List<IPatternMatcher<IExpr>>> simplePatternRules) {
+		int count = 0;
+		for (List<IPatternMatcher<IExpr>> list : simplePatternRules.values()) {
+			count += list.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Add a pattern matching rule, which has already been created.
+	 * 
+	 * @param pmEvaluator
+	 * @return the added rule
+	 */
+	public synchronized PatternMatcher putDownRule(final PatternMatcher pmEvaluator) {
+		ensureLoaded();
+		EvalEngine.incRuleGeneration();
 		final IExpr leftHandSide = pmEvaluator.getLHS();
 		if (!isComplicatedPatternRule(leftHandSide)) {
 
-			fSimplePatternRules = getSimplePatternRules();
 			return addSimplePatternRule(leftHandSide, pmEvaluator);
 
 		} else {
 
-			fPatternRules = getPatternRules();
-			for (int i = 0; i < fPatternRules.size(); i++) {
-				if (pmEvaluator.equals(fPatternRules.get(i))) {
-					fPatternRules.set(i, pmEvaluator);
-					return pmEvaluator;
-				}
-			}
-			fPatternRules.add(pmEvaluator);
-			return pmEvaluator;
+			compile(pmEvaluator);
+			return getPatternRulesIndex().add(pmEvaluator);
 		}
 	}
 
@@ -199,27 +272,93 @@ public class RulesData implements Serializable {
 	 * @return Returns the equalRules.
 	 */
 	public Map<IExpr, Pair<ISymbol, IExpr>> getEqualRules() {
-		if (fEqualRules == null) {
-			fEqualRules = new HashMap<IExpr, Pair<ISymbol, IExpr>>();
+		ensureLoaded();
+		Map<IExpr, Pair<ISymbol, IExpr>> equalRules = fEqualRules;
+		if (equalRules == null) {
+			synchronized (this) {
+				if (fEqualRules == null) {
+					fEqualRules = new ConcurrentHashMap<IExpr, Pair<ISymbol, IExpr>>();
+				}
+				equalRules = fEqualRules;
+			}
 		}
-		return fEqualRules;
+		return equalRules;
 	}
 
-	private List<IPatternMatcher<IExpr>> getPatternRules() {
+	/**
+	 * @return Returns the index of the pattern rules, which couldn't be hashed
+	 *         by their <code>patternHashCode()</code>.
+	 */
+	public synchronized PatternRulesIndex getPatternRulesIndex() {
+		ensureLoaded();
 		if (fPatternRules == null) {
-			fPatternRules = new ArrayList<IPatternMatcher<IExpr>>();
+			fPatternRules = new PatternRulesIndex();
 		}
 		return fPatternRules;
 	}
 
-	private ArrayListMultimap<Integer, IPatternMatcher<IExpr>> getSimplePatternRules() {
+	private synchronized Map<Integer, List<IPatternMatcher<IExpr>>> getSimplePatternRules() {
 		if (fSimplePatternRules == null) {
-			fSimplePatternRules = ArrayListMultimap.create();
+			fSimplePatternRules = new ConcurrentHashMap<Integer, List<IPatternMatcher<IExpr>>>();
 		}
 		return fSimplePatternRules;
 	}
 
+	/**
+	 * Get all pattern matching rules, which aren't equal rules. The rules, which
+	 * are hashed by their <code>patternHashCode()</code>, are returned first.
+	 * 
+	 * @return
+	 */
+	public List<IPatternMatcher<IExpr>> getPatternRules() {
+		ensureLoaded();
+		final Map<Integer, List<IPatternMatcher<IExpr>>> simplePatternRules = fSimplePatternRules;
+		final PatternRulesIndex patternRules = fPatternRules;
+		final List<IPatternMatcher<IExpr>> result = new ArrayList<IPatternMatcher<IExpr>>();
+		if (simplePatternRules != null) {
+			for (List<IPatternMatcher<IExpr>> list : simplePatternRules.values()) {
+				result.addAll(list);
+			}
+		}
+		if (patternRules != null) {
+			for (int i = 0; i < patternRules.size(); i++) {
+				result.add(patternRules.get(i));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Set the loader, which adds the rules at the first access of the rules.
+	 * 
+	 * @param loader
+	 */
+	public synchronized void setLoader(final Loader loader) {
+		fLoader = loader;
+	}
+
+	private void ensureLoaded() {
+		if (fLoader != null) {
+			load();
+		}
+	}
+
+	private synchronized void load() {
+		final Loader loader = fLoader;
+		// the loader adds the rules through the public methods of this object
+		if (loader != null && !fLoading) {
+			fLoading = true;
+			try {
+				loader.load(this);
+			} finally {
+				fLoading = false;
+				fLoader = null;
+			}
+		}
+	}
+
 	public List<IAST> definition() {
+		ensureLoaded();
 		ArrayList<IAST> definitionList = new ArrayList<IAST>();
 		Iterator<IExpr> iter;
 		IExpr key;
@@ -228,11 +367,14 @@ public class RulesData implements Serializable {
 		ISymbol setSymbol;
 		IAST ast;
 		PatternMatcherAndEvaluator pmEvaluator;
-		if (fEqualRules != null && fEqualRules.size() > 0) {
-			iter = fEqualRules.keySet().iterator();
+		final Map<IExpr, Pair<ISymbol, IExpr>> equalRules = fEqualRules;
+		final Map<Integer, List<IPatternMatcher<IExpr>>> simplePatternRules = fSimplePatternRules;
+		final PatternRulesIndex patternRules = fPatternRules;
+		if (equalRules != null && equalRules.size() > 0) {
+			iter = equalRules.keySet().iterator();
 			while (iter.hasNext()) {
 				key = iter.next();
-				pair = fEqualRules.get(key);
+				pair = equalRules.get(key);
 				setSymbol = pair.getFirst();
 				ast = F.ast(setSymbol);
 				ast.add(key);
@@ -240,34 +382,33 @@ public class RulesData implements Serializable {
 				definitionList.add(ast);
 			}
 		}
-		if (fSimplePatternRules != null && fSimplePatternRules.size() > 0) {
-			Iterator<IPatternMatcher<IExpr>> listIter = fSimplePatternRules.values().iterator();
-			IPatternMatcher<IExpr> elem;
-			while (listIter.hasNext()) {
-				elem = listIter.next();
-				if (elem instanceof PatternMatcherAndEvaluator) {
-					pmEvaluator = (PatternMatcherAndEvaluator) elem;
-					setSymbol = pmEvaluator.getSetSymbol();
-
-					ast = F.ast(setSymbol);
-					ast.add(pmEvaluator.getLHS());
-					condition = pmEvaluator.getCondition();
-					if (condition != null) {
-						ast.add(F.Condition(pmEvaluator.getRHS(), condition));
-					} else {
-						ast.add(pmEvaluator.getRHS());
+		if (simplePatternRules != null && simplePatternRules.size() > 0) {
+			for (List<IPatternMatcher<IExpr>> list : simplePatternRules.values()) {
+				for (IPatternMatcher<IExpr> elem : list) {
+					if (elem instanceof PatternMatcherAndEvaluator) {
+						pmEvaluator = (PatternMatcherAndEvaluator) elem;
+						setSymbol = pmEvaluator.getSetSymbol();
+
+						ast = F.ast(setSymbol);
+						ast.add(pmEvaluator.getLHS());
+						condition = pmEvaluator.getCondition();
+						if (condition != null) {
+							ast.add(F.Condition(pmEvaluator.getRHS(), condition));
+						} else {
+							ast.add(pmEvaluator.getRHS());
+						}
+						definitionList.add(ast);
 					}
-					definitionList.add(ast);
+					// if (elem instanceof PatternMatcherAndInvoker) {
+					// don't show internal methods associated with a pattern
+					// }
 				}
-				// if (elem instanceof PatternMatcherAndInvoker) {
-				// don't show internal methods associated with a pattern
-				// }
 			}
 		}
-		if (fPatternRules != null && fPatternRules.size() > 0) {
-			for (int i = 0; i < fPatternRules.size(); i++) {
-				if (fPatternRules.get(i) instanceof PatternMatcherAndEvaluator) {
-					pmEvaluator = (PatternMatcherAndEvaluator) fPatternRules.get(i);
+		if (patternRules != null && patternRules.size() > 0) {
+			for (int i = 0; i < patternRules.size(); i++) {
+				if (patternRules.get(i) instanceof PatternMatcherAndEvaluator) {
+					pmEvaluator = (PatternMatcherAndEvaluator) patternRules.get(i);
 					setSymbol = pmEvaluator.getSetSymbol();
 					ast = F.ast(setSymbol);
 					ast.add(pmEvaluator.getLHS());
@@ -286,7 +427,9 @@ public class RulesData implements Serializable {
 		return definitionList;
 	}
 
-	public void readSymbol(java.io.ObjectInputStream stream) throws IOException {
+	public synchronized void readSymbol(java.io.ObjectInputStream stream) throws IOException {
+		ensureLoaded();
+		EvalEngine.incRuleGeneration();
 
 		String astString;
 		IExpr key;
@@ -295,7 +438,7 @@ public class RulesData implements Serializable {
 		ISymbol setSymbol;
 		int len = stream.read();
 		if (len > 0) {
-			fEqualRules = new HashMap<IExpr, Pair<ISymbol, IExpr>>();
+			fEqualRules = new ConcurrentHashMap<IExpr, Pair<ISymbol, IExpr>>();
 			for (int i = 0; i < len; i++) {
 				astString = stream.readUTF();
 				setSymbol = F.$s(astString);
@@ -316,7 +459,7 @@ public class RulesData implements Serializable {
 		int condLength;
 		PatternMatcherAndEvaluator pmEvaluator;
 		if (len > 0) {
-			fSimplePatternRules = ArrayListMultimap.create();
+			fSimplePatternRules = new ConcurrentHashMap<Integer, List<IPatternMatcher<IExpr>>>();
 			for (int i = 0; i < len; i++) {
 				astString = stream.readUTF();
 				setSymbol = F.$s(astString);
@@ -342,7 +485,7 @@ public class RulesData implements Serializable {
 
 		len = stream.read();
 		if (len > 0) {
-			fPatternRules = new ArrayList<IPatternMatcher<IExpr>>();
+			fPatternRules = new PatternRulesIndex();
 			listLength = stream.read();
 			for (int j = 0; j < listLength; j++) {
 				astString = stream.readUTF();
@@ -367,7 +510,8 @@ public class RulesData implements Serializable {
 		}
 	}
 
-	public void writeSymbol(java.io.ObjectOutputStream stream) throws java.io.IOException {
+	public synchronized void writeSymbol(java.io.ObjectOutputStream stream) throws java.io.IOException {
+		ensureLoaded();
 		Iterator<IExpr> iter;
 		IExpr key;
 		IExpr condition;
@@ -390,8 +534,8 @@ public class RulesData implements Serializable {
 		if (fSimplePatternRules == null || fSimplePatternRules.size() == 0) {
 			stream.write(0);
 		} else {
-			stream.write(fSimplePatternRules.size());
-			Iterator<IPatternMatcher<IExpr>> listIter = fSimplePatternRules.values().iterator();
+			stream.write(countSimplePatternRules(fSimplePatternRules));
+			Iterator<IPatternMatcher<IExpr>> listIter = getSimplePatternRuleList().iterator();
 			IPatternMatcher<IExpr> elem;
 			while (listIter.hasNext()) {
 				elem = listIter.next();
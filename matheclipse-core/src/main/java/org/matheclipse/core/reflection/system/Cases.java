@@ -1,5 +1,6 @@
 package org.matheclipse.core.reflection.system;
 
+import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.expression.F;
@@ -66,14 +67,16 @@ public class Cases implements IFunctionEvaluator {
 				if (ast.get(2).isRuleAST()) {
 					Function<IExpr, IExpr> function = Functors.rules((IAST) ast.get(2));
 					CasesRulesFunctor crf = new CasesRulesFunctor(function, result);
-					VisitorLevelSpecification level = new VisitorLevelSpecification(crf, ast.get(3), false);
+					VisitorLevelSpecification level = new VisitorLevelSpecification(crf, ast.get(3), false,
+							requiredSymbolMask(((IAST) ast.get(2)).get(1)));
 					ast.get(1).accept(level);
 					return result;
 				}
 
 				final PatternMatcher matcher = new PatternMatcher(ast.get(2));
 				CasesPatternMatcherFunctor cpmf = new CasesPatternMatcherFunctor(matcher, result);
-				VisitorLevelSpecification level = new VisitorLevelSpecification(cpmf, ast.get(3), false);
+				VisitorLevelSpecification level = new VisitorLevelSpecification(cpmf, ast.get(3), false,
+						requiredSymbolMask(ast.get(2)));
 				ast.get(1).accept(level);
 				return result;
 			} else {
@@ -85,14 +88,26 @@ public class Cases implements IFunctionEvaluator {
 
 	public static IAST cases(final IAST ast, final IExpr pattern) {
 		if (pattern.isRuleAST()) {
+			final long requiredMask = requiredSymbolMask(((IAST) pattern).get(1));
+			if ((ast.symbolMask() & requiredMask) != requiredMask) {
+				return ast.copyHead();
+			}
 			Function<IExpr, IExpr> function = Functors.rules((IAST) pattern);
 			IAST[] results = ast.split(function);
 			return results[0];
 		}
+		final long requiredMask = requiredSymbolMask(pattern);
+		if ((ast.symbolMask() & requiredMask) != requiredMask) {
+			return ast.copyHead();
+		}
 		final PatternMatcher matcher = new PatternMatcher(pattern);
 		return ast.filter(ast.copyHead(), matcher);
 	}
 
+	private static long requiredSymbolMask(final IExpr pattern) {
+		return Config.SYMBOL_MASK_PRUNING ? PatternMatcher.requiredSymbolMask(pattern) : 0L;
+	}
+
 	public IExpr numericEval(final IAST ast) {
 		return evaluate(ast);
 	}
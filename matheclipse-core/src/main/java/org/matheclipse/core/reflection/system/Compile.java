@@ -0,0 +1,54 @@
+package org.matheclipse.core.reflection.system;
+
+import org.matheclipse.core.eval.exception.Validate;
+import org.matheclipse.core.eval.interfaces.AbstractFunctionEvaluator;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Compile a numeric expression.
+ * 
+ * <p>
+ * Syntax: <code>Compile[{x, y, ...}, expr]</code>
+ * </p>
+ * 
+ * Returns <code>CompiledFunction[{x, y, ...}, expr]</code>, which evaluates
+ * <code>expr</code> for real arguments with the compiled code of the
+ * <code>ExprCompiler</code>. A variable could also be given as
+ * <code>{x, _Real}</code>.
+ * 
+ * @see CompiledFunction
+ * @see org.matheclipse.core.eval.ExprCompiler
+ */
+public class Compile extends AbstractFunctionEvaluator {
+
+	public Compile() {
+	}
+
+	@Override
+	public IExpr evaluate(final IAST ast) {
+		Validate.checkSize(ast, 3);
+
+		final IAST list = ast.get(1).isList() ? (IAST) ast.get(1) : F.List(ast.get(1));
+		final IAST variables = F.List();
+		for (int i = 1; i < list.size(); i++) {
+			IExpr variable = list.get(i);
+			if (variable.isList() && ((IAST) variable).size() == 3) {
+				// {x, _Real}
+				variable = ((IAST) variable).get(1);
+			}
+			if (!variable.isSymbol()) {
+				return null;
+			}
+			variables.add(variable);
+		}
+		return F.binary(F.CompiledFunction, variables, ast.get(2));
+	}
+
+	@Override
+	public void setUp(final ISymbol symbol) {
+		symbol.setAttributes(ISymbol.HOLDALL);
+	}
+}
@@ -0,0 +1,92 @@
+package org.matheclipse.core.reflection.system;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.exception.WrongNumberOfArguments;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.Num;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISignedNumber;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Evaluate a compiled function <code>CompiledFunction[{x, y, ...}, expr][a, b, ...]</code>,
+ * which was created by <code>Compile[]</code>.
+ * 
+ * If all arguments evaluate to real numbers, the compiled code is called,
+ * otherwise the expression is evaluated like
+ * <code>Function[{x, y, ...}, expr][a, b, ...]</code>
+ * 
+ * @see Compile
+ */
+public class CompiledFunction implements IFunctionEvaluator {
+
+	/**
+	 * The compiled code of the <code>CompiledFunction[...]</code> heads
+	 */
+	private final static Map<IAST, ICompiledFunction> CODE = Collections
+			.synchronizedMap(new WeakHashMap<IAST, ICompiledFunction>());
+
+	public CompiledFunction() {
+	}
+
+	public IExpr evaluate(final IAST ast) {
+		if (!ast.head().isAST(F.CompiledFunction, 3) || !((IAST) ast.head()).get(1).isList()) {
+			return null;
+		}
+		final IAST function = (IAST) ast.head();
+		final IAST variables = (IAST) function.get(1);
+		if (variables.size() != ast.size()) {
+			throw new WrongNumberOfArguments(ast, variables.size() - 1, ast.size() - 1);
+		}
+
+		final EvalEngine engine = EvalEngine.get();
+		final double[] args = new double[ast.size() - 1];
+		final IAST evaledAST = ast.clone();
+		boolean numeric = true;
+		for (int i = 1; i < ast.size(); i++) {
+			final IExpr arg = engine.evaluate(ast.get(i));
+			evaledAST.set(i, arg);
+			final IExpr numericArg = arg instanceof ISignedNumber ? arg : F.evaln(arg);
+			if (numericArg instanceof ISignedNumber) {
+				args[i - 1] = ((ISignedNumber) numericArg).doubleValue();
+			} else {
+				numeric = false;
+			}
+		}
+		if (!numeric) {
+			evaledAST.setHeader(F.binary(F.Function, variables, function.get(2)));
+			return evaledAST;
+		}
+		return Num.valueOf(getCode(function).apply(args));
+	}
+
+	private static ICompiledFunction getCode(final IAST function) {
+		ICompiledFunction code = CODE.get(function);
+		if (code == null) {
+			final IAST variables = (IAST) function.get(1);
+			final ISymbol[] symbols = new ISymbol[variables.size() - 1];
+			for (int i = 1; i < variables.size(); i++) {
+				symbols[i - 1] = (ISymbol) variables.get(i);
+			}
+			code = ExprCompiler.compile(function.get(2), symbols);
+			CODE.put(function, code);
+		}
+		return code;
+	}
+
+	public IExpr numericEval(final IAST ast) {
+		return evaluate(ast);
+	}
+
+	public void setUp(final ISymbol symbol) {
+		symbol.setAttributes(ISymbol.HOLDALL);
+	}
+}
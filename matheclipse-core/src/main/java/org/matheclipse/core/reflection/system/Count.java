@@ -1,5 +1,6 @@
 package org.matheclipse.core.reflection.system;
 
+import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.expression.F;
@@ -51,7 +52,8 @@ public class Count implements IFunctionEvaluator {
 		final VisitorLevelSpecification level;
 		CountFunctor mf = new CountFunctor(ast.get(2));
 		if (ast.size() == 4) {
-			level = new VisitorLevelSpecification(mf, ast.get(3), false);
+			final long requiredMask = Config.SYMBOL_MASK_PRUNING ? PatternMatcher.requiredSymbolMask(ast.get(2)) : 0L;
+			level = new VisitorLevelSpecification(mf, ast.get(3), false, requiredMask);
 		} else {
 			level = new VisitorLevelSpecification(mf, 1);
 		}
@@ -9,6 +9,7 @@ import org.matheclipse.core.generic.Functors;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.parser.client.SyntaxError;
 
 /**
  * Differentiation of a function. See <a
@@ -159,4 +160,10 @@ public class D extends AbstractFunctionEvaluator {
 		return null;
 	}
 
+	@Override
+	public void setUp(final ISymbol symbol) throws SyntaxError {
+		symbol.setAttributes(symbol.getAttributes() | ISymbol.PURE_FUNCTION);
+		super.setUp(symbol);
+	}
+
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package org.matheclipse.core.reflection.system;
 
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.AbstractFunctionEvaluator;
-import org.matheclipse.core.expression.AST;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
@@ -22,7 +21,7 @@ public class Depth extends AbstractFunctionEvaluator {
 		if (!(ast.get(1).isAST())) {
 			return F.C1;
 		}
-		return F.integer(AST.COPY.depth((IAST) ast.get(1), 1));
+		return F.integer(((IAST) ast.get(1)).depth());
 	}
 
 }
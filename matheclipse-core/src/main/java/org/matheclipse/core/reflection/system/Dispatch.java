@@ -0,0 +1,36 @@
+package org.matheclipse.core.reflection.system;
+
+import org.matheclipse.core.eval.exception.Validate;
+import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.patternmatching.DispatchTable;
+
+/**
+ * <code>Dispatch[rules]</code> precompiles a list of rules for
+ * <code>ReplaceAll</code>, <code>ReplaceRepeated</code> and
+ * <code>ReplacePart</code>. The expression remains unevaluated and the compiled
+ * table is cached for it.
+ * 
+ * @see DispatchTable
+ */
+public class Dispatch implements IFunctionEvaluator {
+
+	public Dispatch() {
+	}
+
+	public IExpr evaluate(final IAST ast) {
+		Validate.checkSize(ast, 2);
+		// compile the rules and check their syntax
+		DispatchTable.get(ast);
+		return null;
+	}
+
+	public IExpr numericEval(final IAST functionList) {
+		return evaluate(functionList);
+	}
+
+	public void setUp(final ISymbol symbol) {
+	}
+}
@@ -9,6 +9,7 @@ import org.matheclipse.core.convert.Convert;
 import org.matheclipse.core.eval.interfaces.AbstractNonOrderlessArgMultiple;
 import org.matheclipse.core.expression.ExprField;
 import org.matheclipse.core.expression.ExprFieldElement;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
@@ -28,6 +29,10 @@ public class Dot extends AbstractNonOrderlessArgMultiple {
 		try {
 			IAST list;
 
+			final IExpr packed = PackedArray.dot(o0, o1);
+			if (packed != null) {
+				return packed;
+			}
 			if (o0.isMatrix() != null) {
 				list = (IAST) o0;
 				matrix0 = Convert.list2Matrix(list);
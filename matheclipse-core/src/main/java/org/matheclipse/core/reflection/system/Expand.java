@@ -12,7 +12,9 @@ import org.matheclipse.core.generic.Functors;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.IInteger;
+import org.matheclipse.core.interfaces.ISymbol;
 import org.matheclipse.generic.combinatoric.KPermutationsIterable;
+import org.matheclipse.parser.client.SyntaxError;
 
 public class Expand extends AbstractFunctionEvaluator implements IConstantHeaders {
 	private static class Expander {
@@ -258,4 +260,11 @@ public class Expand extends AbstractFunctionEvaluator implements IConstantHeader
 
 		return ast.get(1);
 	}
+
+	@Override
+	public void setUp(final ISymbol symbol) throws SyntaxError {
+		symbol.setAttributes(symbol.getAttributes() | ISymbol.PURE_FUNCTION);
+		super.setUp(symbol);
+	}
+
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ public class FreeQ implements IFunctionEvaluator {
 	}
 
 	public void setUp(final ISymbol symbol) {
+		symbol.setAttributes(symbol.getAttributes() | ISymbol.PURE_FUNCTION);
 	}
 
 }
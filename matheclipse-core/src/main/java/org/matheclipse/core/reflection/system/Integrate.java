@@ -490,6 +490,13 @@ public class Integrate extends AbstractFunctionEvaluator implements IConstantHea
 		}
 	}
 
+	@Override
+	public void setUp(final ISymbol symbol) {
+		super.setUp(symbol);
+		// the hash rules aren't contained in the symbol image
+		UtilityFunctions.init();
+	}
+
 	@Override
 	public IAST getRuleAST() {
 
@@ -521,7 +528,6 @@ public class Integrate extends AbstractFunctionEvaluator implements IConstantHea
 		ast.addAll(IndefiniteIntegrationRules14.RULES);
 		ast.addAll(IndefiniteIntegrationRules15.RULES);
 		ast.addAll(IndefiniteIntegrationRules16.RULES);
-		UtilityFunctions.init();
 		// if (Config.SHOW_STACKTRACE) {
 		// long end = System.currentTimeMillis();
 		// System.out.println(end - start);
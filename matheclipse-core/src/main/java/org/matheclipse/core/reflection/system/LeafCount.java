@@ -63,7 +63,7 @@ public class LeafCount extends AbstractFunctionEvaluator {
 	public static int leafCount(IExpr expr) {
 		int leafCount = 0;
 		if (expr.isAST()) {
-			leafCount = expr.accept(new LeafCountVisitor(0));
+			leafCount = ((IAST) expr).leafCount();
 		} else {
 			leafCount = expr.isAtom() ? 1 : 0;
 		}
@@ -2,6 +2,7 @@ package org.matheclipse.core.reflection.system;
 
 import org.matheclipse.core.eval.interfaces.AbstractTrigArg1;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
@@ -19,7 +20,8 @@ public class Mean extends AbstractTrigArg1 {
 	public IExpr evaluateArg1(final IExpr arg1) {
 		if (arg1.isList()) {
 			final IAST list = (IAST) arg1;
-			return F.Times(list.apply(F.Plus), F.Power(F.integer(list.size() - 1),
+			final IExpr total = arg1 instanceof PackedArray ? ((PackedArray) arg1).total() : null;
+			return F.Times(total != null ? total : list.apply(F.Plus), F.Power(F.integer(list.size() - 1),
 					F.CN1));
 		}
 		return null;
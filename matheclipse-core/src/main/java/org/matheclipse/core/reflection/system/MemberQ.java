@@ -1,5 +1,6 @@
 package org.matheclipse.core.reflection.system;
 
+import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
@@ -31,8 +32,15 @@ public class MemberQ implements IFunctionEvaluator {
 	 * @return
 	 */
 	public static boolean isMember(final IAST ast, final IExpr expr) {
+		final long requiredMask = Config.SYMBOL_MASK_PRUNING ? PatternMatcher.requiredSymbolMask(expr) : 0L;
+		if ((ast.symbolMask() & requiredMask) != requiredMask) {
+			return false;
+		}
 		final PatternMatcher matcher = new PatternMatcher(expr);
 		for (int i = 1; i < ast.size(); i++) {
+			if ((ast.get(i).symbolMask() & requiredMask) != requiredMask) {
+				continue;
+			}
 			if (matcher.apply(ast.get(i))) {
 				return true;
 			}
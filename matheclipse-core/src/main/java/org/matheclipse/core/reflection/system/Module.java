@@ -145,6 +145,7 @@ public class Module extends AbstractFunctionEvaluator {
 		Map<String, ISymbol> variableMap = engine.getVariableMap();
 		for (ISymbol symbol : variables.values()) {
 			variableMap.remove(symbol.toString());
+			symbol.popModuleVariable();
 		}
 	}
 
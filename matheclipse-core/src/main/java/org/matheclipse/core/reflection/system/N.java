@@ -3,6 +3,7 @@ package org.matheclipse.core.reflection.system;
 import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.eval.exception.WrongNumberOfArguments;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
@@ -26,7 +27,12 @@ public class N implements IFunctionEvaluator {
 		final boolean numericMode = engine.isNumericMode();
 		try {
 			engine.setNumericMode(true);
-			return EvalEngine.eval(functionList.get(1));
+			final IExpr result = EvalEngine.eval(functionList.get(1));
+			if (result.isList()) {
+				// store machine numbers in primitive arrays
+				return PackedArray.pack((IAST) result);
+			}
+			return result;
 		} finally {
 			engine.setNumericMode(numericMode);
 		}
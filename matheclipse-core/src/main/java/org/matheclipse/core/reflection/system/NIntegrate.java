@@ -10,9 +10,12 @@ import org.apache.commons.math3.analysis.integration.TrapezoidIntegrator;
 import org.apache.commons.math3.analysis.integration.UnivariateIntegrator;
 import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.exception.TimeExceeded;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.exception.WrappedException;
 import org.matheclipse.core.eval.interfaces.AbstractFunctionEvaluator;
+import org.matheclipse.core.eval.util.AdaptiveIntegrator;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.expression.IConstantHeaders;
 import org.matheclipse.core.expression.Num;
@@ -25,11 +28,14 @@ import org.matheclipse.core.interfaces.ISymbol;
 /**
  * Function for <a
  * href="http://en.wikipedia.org/wiki/Numerical_integration">numerical
- * integration</a> of univariate real functions.
+ * integration</a> of real functions.
  * 
  * Uses the <a href="http://commons.apache.org/math/apidocs/org/apache/commons/math/analysis/integration/UnivariateRealIntegratorImpl.html"
  * >Commons math LegendreGaussIntegrator, RombergIntegrator, SimpsonIntegrator,
- * TrapezoidIntegrator</a> implementations.
+ * TrapezoidIntegrator</a> implementations for univariate functions over finite
+ * ranges. The method <code>GaussKronrod</code>, infinite ranges and integrals
+ * over several variables <code>NIntegrate[f, {x, a, b}, {y, c, d}, ...]</code>
+ * use the globally adaptive {@link AdaptiveIntegrator}.
  */
 public class NIntegrate extends AbstractFunctionEvaluator implements IConstantHeaders {
 
@@ -38,39 +44,82 @@ public class NIntegrate extends AbstractFunctionEvaluator implements IConstantHe
 
 	@Override
 	public IExpr evaluate(final IAST ast) {
-		Validate.checkRange(ast, 3, 4);
+		Validate.checkRange(ast, 3);
 
 		String method = "Trapezoid";
-		if (ast.size() == 4 && ast.get(3).isSymbol()) {
-			method = ast.get(3).toString();
+		int end = ast.size();
+		if (end > 3 && ast.get(end - 1).isSymbol()) {
+			method = ast.get(end - 1).toString();
+			end--;
 		}
-		if ((ast.get(2).isList())) {
-			IAST list = (IAST) ast.get(2);
-			IExpr function = ast.get(1);
-			if (list.size() == 4 && list.get(1).isSymbol() && list.get(2).isSignedNumber() && list.get(3).isSignedNumber()) {
-				if (function.isAST(Equal, 3)) {
-					function = F.Plus(((IAST) function).get(1), F.Times(F.CN1, ((IAST) function).get(2)));
-				}
-				try {
-					return Num.valueOf(integrate(method, list, function));
-				} catch (ConvergenceException e) {
-					throw new WrappedException(e);
-				} catch (Exception e) {
-					throw new WrappedException(e);
-					// if (Config.SHOW_STACKTRACE) {
-					// e.printStackTrace();
-					// }
-				}
+		final int dimension = end - 2;
+		final ISymbol[] vars = new ISymbol[dimension];
+		final double[] min = new double[dimension];
+		final double[] max = new double[dimension];
+		boolean finite = true;
+		for (int i = 0; i < dimension; i++) {
+			if (!ast.get(i + 2).isList()) {
+				return null;
 			}
+			IAST list = (IAST) ast.get(i + 2);
+			if (list.size() != 4 || !list.get(1).isSymbol()) {
+				return null;
+			}
+			vars[i] = (ISymbol) list.get(1);
+			Double a = limit(list.get(2));
+			Double b = limit(list.get(3));
+			if (a == null || b == null) {
+				return null;
+			}
+			min[i] = a;
+			max[i] = b;
+			finite &= !Double.isInfinite(min[i]) && !Double.isInfinite(max[i]);
+		}
+		IExpr function = ast.get(1);
+		if (function.isAST(Equal, 3)) {
+			function = F.Plus(((IAST) function).get(1), F.Times(F.CN1, ((IAST) function).get(2)));
+		}
+		try {
+			if (dimension == 1 && finite && !method.equals("GaussKronrod")) {
+				return Num.valueOf(integrate(method, vars[0], min[0], max[0], function));
+			}
+			final EvalEngine engine = EvalEngine.get();
+			AdaptiveIntegrator integrator = new AdaptiveIntegrator(engine, ExprCompiler.compile(F.eval(function), vars));
+			return Num.valueOf(integrator.integrate(min, max));
+		} catch (ConvergenceException e) {
+			throw new WrappedException(e);
+		} catch (TimeExceeded e) {
+			throw e;
+		} catch (Exception e) {
+			throw new WrappedException(e);
+			// if (Config.SHOW_STACKTRACE) {
+			// e.printStackTrace();
+			// }
+		}
+	}
 
+	/**
+	 * Get the value of a limit of integration.
+	 * 
+	 * @param expr
+	 * @return <code>null</code> if the limit isn't a real number or
+	 *         <code>Infinity</code> or <code>-Infinity</code>
+	 */
+	private static Double limit(final IExpr expr) {
+		if (expr.equals(F.CInfinity)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		if (expr.equals(F.CNInfinity)) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		IExpr value = expr.isSignedNumber() ? expr : F.evaln(expr);
+		if (value.isSignedNumber()) {
+			return ((ISignedNumber) value).doubleValue();
 		}
 		return null;
 	}
 
-	private double integrate(String method, IAST list, IExpr function) throws ConvergenceException {
-		ISymbol xVar = (ISymbol) list.get(1);
-		ISignedNumber min = (ISignedNumber) list.get(2);
-		ISignedNumber max = (ISignedNumber) list.get(3);
+	private double integrate(String method, ISymbol xVar, double min, double max, IExpr function) throws ConvergenceException {
 		final EvalEngine engine = EvalEngine.get();
 		function = F.eval(function);
 		DifferentiableUnivariateFunction f = new UnaryNumerical(function, xVar, engine);
@@ -86,7 +135,7 @@ public class NIntegrate extends AbstractFunctionEvaluator implements IConstantHe
 		} else {
 			// default: TrapezoidIntegrator
 		}
-		return integrator.integrate(10000, f, min.doubleValue(), max.doubleValue());
+		return integrator.integrate(10000, f, min, max);
 
 	}
 
@@ -0,0 +1,37 @@
+package org.matheclipse.core.reflection.system;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.exception.Validate;
+import org.matheclipse.core.eval.interfaces.AbstractFunctionEvaluator;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Map a function on the first level of an expression and evaluate the results
+ * in parallel.
+ * 
+ * @see Map
+ */
+public class ParallelMap extends AbstractFunctionEvaluator {
+
+	public ParallelMap() {
+	}
+
+	@Override
+	public IExpr evaluate(final IAST ast) {
+		Validate.checkSize(ast, 3);
+
+		if (!ast.get(2).isAST()) {
+			return ast.get(2);
+		}
+		final IAST list = (IAST) ast.get(2);
+		final IAST mapped = list.clone();
+		for (int i = 1; i < list.size(); i++) {
+			mapped.set(i, F.unary(ast.get(1), list.get(i)));
+		}
+		final IAST result = EvalEngine.get().evalArgsParallel(mapped);
+		return result == null ? mapped : result;
+	}
+
+}
@@ -0,0 +1,24 @@
+package org.matheclipse.core.reflection.system;
+
+import org.matheclipse.core.eval.exception.Validate;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Table structure generator, which evaluates the iterations of the first
+ * iterator in parallel.
+ * 
+ * @see Table
+ */
+public class ParallelTable extends Table {
+
+	public ParallelTable() {
+	}
+
+	@Override
+	public IExpr evaluate(final IAST ast) {
+		Validate.checkRange(ast, 3);
+
+		return evaluateParallelTable(ast, 1);
+	}
+}
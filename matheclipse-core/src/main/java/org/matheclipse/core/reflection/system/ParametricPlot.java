@@ -1,11 +1,25 @@
 package org.matheclipse.core.reflection.system;
 
+import static org.matheclipse.core.expression.F.Graphics;
+import static org.matheclipse.core.expression.F.Line;
+import static org.matheclipse.core.expression.F.List;
+import static org.matheclipse.core.expression.F.N;
+import static org.matheclipse.core.expression.F.Rule;
+import static org.matheclipse.core.expression.F.Show;
+
+import java.util.List;
 
 import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.eval.util.AdaptiveSampler;
+import org.matheclipse.core.eval.util.Options;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.INum;
 import org.matheclipse.core.interfaces.ISymbol;
 import org.matheclipse.parser.client.SyntaxError;
 import org.matheclipse.swing.plot.ParametricPlotter;
@@ -13,10 +27,18 @@ import org.matheclipse.swing.plot.PlotFrame;
 
 /**
  * Plots parametric shapes.
+ *
+ * The curves are sampled adaptively by the <code>AdaptiveSampler</code>,
+ * which is controlled by the <code>PlotPoints</code> and
+ * <code>MaxRecursion</code> options.
+ *
+ * @see org.matheclipse.core.eval.util.AdaptiveSampler
  */
 public class ParametricPlot implements IFunctionEvaluator {
 
-//	private final static int N = 100;
+	private final static int PLOT_POINTS = 100;
+
+	private final static int MAX_RECURSION = 4;
 
 	public ParametricPlot() {
 	}
@@ -28,9 +50,62 @@ public class ParametricPlot implements IFunctionEvaluator {
 			frame.invokeLater();
 			return F.Null;
 		}
+
+		final EvalEngine engine = EvalEngine.get();
+		if ((ast.size() >= 3) && ast.get(1).isList() && ast.get(2).isList()) {
+			final IAST lst = (IAST) ast.get(2);
+			if (lst.size() == 4 && lst.get(1).isSymbol()) {
+				final IExpr a = engine.evaluate(N(lst.get(2)));
+				final IExpr b = engine.evaluate(N(lst.get(3)));
+				if ((!(a instanceof INum)) || (!(b instanceof INum))) {
+					return null;
+				}
+				final double ad = ((INum) a).getRealPart();
+				final double bd = ((INum) b).getRealPart();
+				if (bd <= ad) {
+					return null;
+				}
+				final AdaptiveSampler sampler = AdaptiveSampler.create(engine, new Options(ast.topHead(), ast, 3), PLOT_POINTS,
+						MAX_RECURSION);
+				final IAST graphics = Graphics();
+				final IAST primitives = List();
+				final IAST list = (IAST) ast.get(1);
+				if (list.size() == 3 && !list.get(1).isList()) {
+					// a single curve {x(t), y(t)}
+					plotLines(sampler, ad, bd, list, (ISymbol) lst.get(1), primitives);
+				} else {
+					for (int i = 1; i < list.size(); i++) {
+						if (list.get(i).isList() && ((IAST) list.get(i)).size() == 3) {
+							plotLines(sampler, ad, bd, (IAST) list.get(i), (ISymbol) lst.get(1), primitives);
+						}
+					}
+				}
+				graphics.add(primitives);
+				final IExpr options[] = { Rule(F.PlotRange, F.Automatic), Rule(F.AxesStyle, F.Automatic),
+						Rule(F.AxesOrigin, List(F.C0, F.C0)), Rule(F.Axes, F.True), Rule(F.Background, F.White) };
+				graphics.add(F.ast(options, F.List));
+				return Show(graphics);
+			}
+		}
 		return F.Null;
 	}
 
+	/**
+	 * Sample the curve <code>{x(t), y(t)}</code> and add a <code>Line[]</code>
+	 * with packed <code>{x, y}</code> points for every segment of the curve to
+	 * the <code>primitives</code>.
+	 */
+	public void plotLines(final AdaptiveSampler sampler, final double ad, final double bd, final IAST curve, final ISymbol tVar,
+			final IAST primitives) {
+		final List<double[][]> segments = sampler.sampleCurve(ExprCompiler.compile(curve.get(1), tVar),
+				ExprCompiler.compile(curve.get(2), tVar), ad, bd);
+		for (double[][] data : segments) {
+			final IAST line = Line();
+			line.add(PackedArray.newMatrix(data));
+			primitives.add(line);
+		}
+	}
+
 	public IExpr numericEval(final IAST functionList) {
 		return evaluate(functionList);
 	}
@@ -5,6 +5,7 @@ import org.matheclipse.core.eval.exception.WrappedException;
 import org.matheclipse.core.eval.exception.WrongArgumentType;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
@@ -61,6 +62,9 @@ public class Part implements IFunctionEvaluator {
 					}
 				}
 			}
+			if (arg1 instanceof PackedArray) {
+				return PackedArray.pack(result);
+			}
 			return result;
 		}
 		throw new WrongArgumentType(ast, arg2, pos, "Wrong argument for Part[] function");
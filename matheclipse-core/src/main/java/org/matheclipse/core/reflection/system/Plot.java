@@ -7,13 +7,16 @@ import static org.matheclipse.core.expression.F.N;
 import static org.matheclipse.core.expression.F.Rule;
 import static org.matheclipse.core.expression.F.Show;
 
-import org.matheclipse.core.basic.Alloc;
+import java.util.List;
+
 import org.matheclipse.core.basic.Config;
-import org.matheclipse.core.convert.Convert;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.eval.util.AdaptiveSampler;
+import org.matheclipse.core.eval.util.Options;
 import org.matheclipse.core.expression.F;
-import org.matheclipse.core.generic.UnaryNumerical;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.INum;
@@ -25,10 +28,17 @@ import org.matheclipse.swing.plot.Plotter;
 /**
  * Plots x/y functions
  *
+ * The functions are sampled adaptively by the <code>AdaptiveSampler</code>,
+ * which is controlled by the <code>PlotPoints</code> and
+ * <code>MaxRecursion</code> options.
+ *
+ * @see org.matheclipse.core.eval.util.AdaptiveSampler
  */
 public class Plot implements IFunctionEvaluator {
 
-	private final static int N = 100;
+	private final static int PLOT_POINTS = 100;
+
+	private final static int MAX_RECURSION = 4;
 
 	public Plot() {
 	}
@@ -42,7 +52,7 @@ public class Plot implements IFunctionEvaluator {
 		}
 
 		final EvalEngine engine = EvalEngine.get();
-		if ((ast.size() >= 3) && (ast.size() <= 4) && ast.get(2).isList()) {
+		if ((ast.size() >= 3) && ast.get(2).isList()) {
 			final IAST lst = (IAST) ast.get(2);
 			if (lst.size() == 4) {
 				final IExpr a = engine.evaluate(N(lst.get(2)));
@@ -57,8 +67,10 @@ public class Plot implements IFunctionEvaluator {
 				}
 				double y0d = 0.0f;
 				double y1d = 0.0f;
+				int optionIndex = 3;
 
-				if ((ast.size() == 4) && ast.get(3).isList()) {
+				if ((ast.size() >= 4) && ast.get(3).isList()) {
+					optionIndex = 4;
 					final IAST lsty = (IAST) ast.get(3);
 					if (lsty.size() == 3) {
 						final IExpr y0 = engine.evaluate(N(lsty.get(1)));
@@ -69,31 +81,25 @@ public class Plot implements IFunctionEvaluator {
 						}
 					}
 				}
+				final AdaptiveSampler sampler = AdaptiveSampler.create(engine, new Options(F.Plot, ast, optionIndex), PLOT_POINTS,
+						MAX_RECURSION);
 				final IAST graphics = Graphics();
-				IAST line = Line();
-				IExpr temp;
+				final IAST primitives = List();
 
 				if (ast.get(1).isList()) {
 					final IAST list = (IAST) ast.get(1);
-					final IAST primitives = List();
 					for (int i = 1; i < list.size(); i++) {
-						temp = plotLine(ad, bd, y0d, y1d, list.get(2), (ISymbol) lst.get(1), engine);
-
-						if (temp != null) {
-							line.add(temp);
-							primitives.add(line);
-						}
-						if (i < list.size() - 1) {
-							line = Line();
-						}
+						plotLines(sampler, ad, bd, y0d, y1d, list.get(i), (ISymbol) lst.get(1), primitives);
 					}
 					graphics.add(primitives);
 
 				} else {
-					temp = plotLine(ad, bd, y0d, y1d, ast.get(1), (ISymbol) lst.get(1), engine);
-					if (temp != null) {
-						line.add(temp);
-						graphics.add(line);
+					plotLines(sampler, ad, bd, y0d, y1d, ast.get(1), (ISymbol) lst.get(1), primitives);
+					if (primitives.size() == 2) {
+						graphics.add(primitives.get(1));
+					} else if (primitives.size() > 2) {
+						// the curve is split at undefined points or discontinuities
+						graphics.add(primitives);
 					}
 				}
 				final IExpr options[] = { Rule(F.PlotRange, F.Automatic), Rule(F.AxesStyle, F.Automatic),
@@ -105,38 +111,28 @@ public class Plot implements IFunctionEvaluator {
 		return F.Null;
 	}
 
-	public IExpr plotLine(final double ad, final double bd, final double y0d, final double y1d, final IExpr function,
-			final ISymbol xVar, final EvalEngine engine) {
-		final double step = (bd - ad) / N;
-		double y;
-
-		final UnaryNumerical hun = new UnaryNumerical(function, xVar, engine);
-		Alloc alloc = Alloc.get();
-		final double data[][] = alloc.matrixCheck(2, N + 1);
-		double x = ad;
-
-		for (int i = 0; i < N + 1; i++) {
-			y = hun.value(x);
+	/**
+	 * Sample the <code>function</code> and add a <code>Line[]</code> with packed
+	 * <code>{x, y}</code> points for every segment of the curve to the
+	 * <code>primitives</code>.
+	 */
+	public void plotLines(final AdaptiveSampler sampler, final double ad, final double bd, final double y0d, final double y1d,
+			final IExpr function, final ISymbol xVar, final IAST primitives) {
+		final List<double[][]> segments = sampler.sampleCurve(null, ExprCompiler.compile(function, xVar), ad, bd);
+		for (double[][] data : segments) {
 			if ((y0d != 0.0) || (y1d != 0.0)) {
-				if ((y >= y0d) && (y <= y1d)) {
-					data[0][i] = x;
-					data[1][i] = y;
-				} else {
-					if (y < y0d) {
-						data[0][i] = x;
-						data[1][i] = y0d;
-					} else {
-						data[0][i] = x;
-						data[1][i] = y1d;
+				for (int i = 0; i < data.length; i++) {
+					if (data[i][1] < y0d) {
+						data[i][1] = y0d;
+					} else if (data[i][1] > y1d) {
+						data[i][1] = y1d;
 					}
 				}
-			} else {
-				data[0][i] = x;
-				data[1][i] = y;
 			}
-			x += step;
+			final IAST line = Line();
+			line.add(PackedArray.newMatrix(data));
+			primitives.add(line);
 		}
-		return Convert.doubleToExprTranspose(data);
 	}
 
 	public IExpr numericEval(final IAST functionList) {
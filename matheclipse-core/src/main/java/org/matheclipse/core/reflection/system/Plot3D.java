@@ -8,13 +8,13 @@ import static org.matheclipse.core.expression.F.SurfaceGraphics;
 
 import javax.swing.JOptionPane;
 
-import org.matheclipse.core.basic.Alloc;
 import org.matheclipse.core.convert.Object2Expr;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.eval.util.AdaptiveSampler;
 import org.matheclipse.core.eval.util.Options;
 import org.matheclipse.core.expression.F;
-import org.matheclipse.core.generic.BinaryNumerical;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.INum;
@@ -24,7 +24,12 @@ import org.matheclipse.parser.client.SyntaxError;
 /**
  * Represents the Plot3D function
  * 
+ * The function is sampled on a uniform grid by the
+ * <code>AdaptiveSampler</code>, which is controlled by the
+ * <code>PlotPoints</code> and <code>MaxRecursion</code> options.
+ * 
  * @see org.matheclipse.core.eval.util.Options
+ * @see org.matheclipse.core.eval.util.AdaptiveSampler
  */
 public class Plot3D implements IFunctionEvaluator {
 	/**
@@ -40,7 +45,9 @@ public class Plot3D implements IFunctionEvaluator {
 		}
 	}
 
-	private final static int NUMBER_OF_DIVISIONS = 21;
+	private final static int PLOT_POINTS = 21;
+
+	private final static int MAX_RECURSION = 2;
 
 	public Plot3D() {
 	}
@@ -90,7 +97,9 @@ public class Plot3D implements IFunctionEvaluator {
 				// double y1d = 10.0f;
 				// double params[] = {ad, bd, cd, dd, -10.0, 10.0};
 
-				temp = plotArray(ad, bd, cd, dd, ast.get(1), (ISymbol) lst1.get(1), (ISymbol) lst2.get(1), engine);
+				final AdaptiveSampler sampler = AdaptiveSampler.create(engine, new Options(F.Plot3D, ast, 4), PLOT_POINTS,
+						MAX_RECURSION);
+				temp = plotArray(sampler, ad, bd, cd, dd, ast.get(1), (ISymbol) lst1.get(1), (ISymbol) lst2.get(1));
 				if (temp != null) {
 					graphics.add(temp);
 				}
@@ -109,40 +118,9 @@ public class Plot3D implements IFunctionEvaluator {
 		return F.Null;
 	}
 
-	public IExpr plotArray(final double ad, final double bd, final double cd, final double dd, final IExpr function,
-			final ISymbol xVar, final ISymbol yVar, final EvalEngine session) {
-		final double xStep = (bd - ad) / NUMBER_OF_DIVISIONS;
-		final double yStep = (dd - cd) / NUMBER_OF_DIVISIONS;
-
-		final BinaryNumerical hbn = new BinaryNumerical(function, xVar, yVar);
-
-		Alloc alloc = Alloc.get();
-		final double data[][] = alloc.matrixCheck(NUMBER_OF_DIVISIONS + 1, NUMBER_OF_DIVISIONS + 1);
-		double x = ad;
-		double y;
-		double z;
-		// double zmin = Double.MAX_VALUE;
-		// double zmax = Double.MAX_VALUE;
-
-		for (int i = 0; i < NUMBER_OF_DIVISIONS; i++) {
-			y = cd;
-			for (int j = 0; j < NUMBER_OF_DIVISIONS; j++) {
-				try {
-					z = hbn.value(x, y);
-					// if (Double.isNaN(z)) {
-					// TODO
-					// }
-				} catch (final Throwable se) {
-					z = Double.NaN;
-				}
-
-				data[i][j] = z;
-
-				y += yStep;
-
-			}
-			x += xStep;
-		}
+	public IExpr plotArray(final AdaptiveSampler sampler, final double ad, final double bd, final double cd, final double dd,
+			final IExpr function, final ISymbol xVar, final ISymbol yVar) {
+		final double data[][] = sampler.sampleSurface(ExprCompiler.compile(function, xVar, yVar), ad, bd, cd, dd);
 		// return Convert.objectToExpr(data);
 		return Object2Expr.CONST.convert(data);
 	}
@@ -83,6 +83,9 @@ public class Plus extends AbstractArgMultiple implements INumeric {
 		if (temp != null) {
 			return temp;
 		}
+		if (isInfinityTerm(o0) || isInfinityTerm(o1)) {
+			return null;
+		}
 
 		if (o0.equals(o1)) {
 			return Times(F.C2, o0);
@@ -139,6 +142,70 @@ public class Plus extends AbstractArgMultiple implements INumeric {
 		return null;
 	}
 
+	/**
+	 * Test if the term is <code>Indeterminate</code> or a multiple of a
+	 * <code>DirectedInfinity[...]</code> form. These terms aren't combined with
+	 * like terms.
+	 */
+	private static boolean isInfinityTerm(final IExpr arg) {
+		IExpr term = arg;
+		if (arg.isTimes() && ((IAST) arg).size() == 3 && ((IAST) arg).get(1).isNumber()) {
+			term = ((IAST) arg).get(2);
+		}
+		return term.equals(F.Indeterminate) || term.isAST(F.DirectedInfinity);
+	}
+
+	/**
+	 * Get the term without it's numeric coefficient. <code>Indeterminate</code>
+	 * and all <code>DirectedInfinity[...]</code> forms aren't collected.
+	 */
+	@Override
+	public IExpr getCollectKey(final IExpr arg) {
+		if (isInfinityTerm(arg)) {
+			return null;
+		}
+		if (arg.isTimes() && ((IAST) arg).get(1).isNumber()) {
+			final IAST times = (IAST) arg;
+			if (times.size() == 3) {
+				return times.get(2);
+			}
+			return F.ast(times, F.Times, true, 2, times.size());
+		}
+		return arg;
+	}
+
+	/**
+	 * Get the numeric coefficient of the term.
+	 */
+	@Override
+	public IExpr getCollectCoefficient(final IExpr arg) {
+		if (arg.isTimes() && ((IAST) arg).get(1).isNumber()) {
+			return ((IAST) arg).get(1);
+		}
+		return F.C1;
+	}
+
+	@Override
+	public IExpr addCoefficients(final IExpr c0, final IExpr c1) {
+		return binaryOperator(c0, c1);
+	}
+
+	@Override
+	public IExpr createCollected(final IExpr key, final IExpr coefficient) {
+		if (coefficient.isZero()) {
+			return coefficient;
+		}
+		if (coefficient.isOne()) {
+			return key;
+		}
+		return Times(coefficient, key);
+	}
+
+	@Override
+	public boolean isNeutralNumber(final IExpr number) {
+		return number.isZero();
+	}
+
 	private IExpr eInfinity(IExpr inf, IExpr o1) {
 		if (inf.equals(F.CInfinity)) {
 			if (o1.equals(F.CInfinity)) {
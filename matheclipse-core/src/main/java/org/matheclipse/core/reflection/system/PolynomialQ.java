@@ -56,6 +56,7 @@ public class PolynomialQ extends AbstractFunctionEvaluator implements BiPredicat
 
 	@Override
 	public void setUp(final ISymbol symbol) {
+		symbol.setAttributes(symbol.getAttributes() | ISymbol.PURE_FUNCTION);
 	}
 
 	public boolean apply(final IExpr firstArg, final IExpr secondArg) {
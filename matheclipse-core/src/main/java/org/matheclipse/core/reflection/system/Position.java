@@ -2,17 +2,52 @@ package org.matheclipse.core.reflection.system;
 
 import static org.matheclipse.core.expression.F.List;
 
+import java.util.Collection;
+
+import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.AbstractFunctionEvaluator;
 import org.matheclipse.core.expression.AST;
+import org.matheclipse.core.expression.ASTCopy;
 import org.matheclipse.core.generic.LevelSpecification;
 import org.matheclipse.core.generic.PositionConverter;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.patternmatching.PatternMatcher;
+import org.matheclipse.generic.interfaces.IPositionConverter;
 import org.matheclipse.generic.nested.LevelSpec;
 
+import com.google.common.base.Predicate;
+
 public class Position extends AbstractFunctionEvaluator {
+	/**
+	 * Doesn't descend into the subexpressions, which don't contain the symbols
+	 * required by the pattern.
+	 */
+	private static class SymbolMaskASTCopy extends ASTCopy {
+		private final long fRequiredMask;
+
+		public SymbolMaskASTCopy(final long requiredMask) {
+			super(IAST.class);
+			fRequiredMask = requiredMask;
+		}
+
+		/**
+		 * A skipped <code>list</code> sets the current depth of the
+		 * <code>level</code> to the value of a full search, so that the negative
+		 * level specifications of the following elements give the same results.
+		 */
+		@Override
+		public Collection<? super IExpr> position(final IAST list, final IAST prototypeList,
+				final Collection<? super IExpr> resultCollection, final LevelSpec level, final Predicate<? super IExpr> matcher,
+				final IPositionConverter<? extends IExpr> positionConverter, int headOffset) {
+			if ((list.symbolMask() & fRequiredMask) != fRequiredMask) {
+				level.setCurrentDepth(1 - list.depth());
+				return resultCollection;
+			}
+			return super.position(list, prototypeList, resultCollection, level, matcher, positionConverter, headOffset);
+		}
+	}
 	
 	public Position() {
 	}
@@ -35,12 +70,17 @@ public class Position extends AbstractFunctionEvaluator {
 	}
 
 	public static IAST position(final IAST list, final IExpr pattern, final LevelSpec level) {
+		final long requiredMask = Config.SYMBOL_MASK_PRUNING ? PatternMatcher.requiredSymbolMask(pattern) : 0L;
+		if ((list.symbolMask() & requiredMask) != requiredMask) {
+			return List();
+		}
 		final PatternMatcher matcher = new PatternMatcher(pattern);
 		final PositionConverter pos = new PositionConverter();
 
 		final IAST cloneList = list.copyHead();
 		final IAST resultList = List();
-		AST.COPY.position(list, cloneList, resultList, level, matcher, pos, 1);
+		final ASTCopy copy = requiredMask == 0L ? AST.COPY : new SymbolMaskASTCopy(requiredMask);
+		copy.position(list, cloneList, resultList, level, matcher, pos, 1);
 		return resultList;
 	}
 
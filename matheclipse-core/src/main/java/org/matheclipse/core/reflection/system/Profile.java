@@ -0,0 +1,50 @@
+package org.matheclipse.core.reflection.system;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.EvalProfiler;
+import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Profile the evaluation of an expression.
+ * 
+ * <code>Profile[expr]</code> returns <code>{table, result}</code>, where the
+ * table contains the number of calls, the inclusive and exclusive time in
+ * nanoseconds, the number of tried and matching down rules and the allocated bytes
+ * for each evaluated head symbol.
+ * 
+ * @see EvalProfiler
+ */
+public class Profile implements IFunctionEvaluator {
+
+	public Profile() {
+	}
+
+	public IExpr evaluate(final IAST ast) {
+		if (ast.size() == 2) {
+			final EvalEngine engine = EvalEngine.get();
+			final EvalProfiler previous = engine.beginProfile();
+			IExpr result;
+			EvalProfiler profiler;
+			try {
+				result = engine.evaluate(ast.get(1));
+			} finally {
+				profiler = engine.endProfile(previous);
+			}
+			return F.List(profiler.getTable(), result);
+		}
+
+		return null;
+	}
+
+	public IExpr numericEval(final IAST functionList) {
+		return evaluate(functionList);
+	}
+
+	public void setUp(final ISymbol symbol) {
+		symbol.setAttributes(ISymbol.HOLDALL);
+	}
+}
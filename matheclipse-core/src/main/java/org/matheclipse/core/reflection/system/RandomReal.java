@@ -1,10 +1,20 @@
 package org.matheclipse.core.reflection.system;
 
+import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.AbstractFunctionEvaluator;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISignedNumber;
 
+/**
+ * <code>RandomReal[]</code>, <code>RandomReal[xmax]</code> or
+ * <code>RandomReal[{xmin,xmax}]</code> gives a pseudo-random real number.
+ * <code>RandomReal[range, n]</code> and
+ * <code>RandomReal[range, {n1, n2}]</code> give a packed vector or matrix of
+ * pseudo-random real numbers.
+ */
 public class RandomReal extends AbstractFunctionEvaluator {
 
 	public RandomReal() {
@@ -17,8 +27,52 @@ public class RandomReal extends AbstractFunctionEvaluator {
 			double r = Math.random();
 			return F.num(r);
 		}
+		Validate.checkRange(ast, 2, 3);
 
-		return null;
+		double min = 0.0;
+		double max;
+		if (ast.get(1).isSignedNumber()) {
+			max = ((ISignedNumber) ast.get(1)).doubleValue();
+		} else if (ast.get(1).isList() && ((IAST) ast.get(1)).size() == 3 && ((IAST) ast.get(1)).get(1).isSignedNumber()
+				&& ((IAST) ast.get(1)).get(2).isSignedNumber()) {
+			min = ((ISignedNumber) ((IAST) ast.get(1)).get(1)).doubleValue();
+			max = ((ISignedNumber) ((IAST) ast.get(1)).get(2)).doubleValue();
+		} else {
+			return null;
+		}
+		if (ast.size() == 2) {
+			return F.num(random(min, max));
+		}
+
+		if (ast.get(2).isList()) {
+			final IAST dimensions = (IAST) ast.get(2);
+			if (dimensions.size() == 2) {
+				return PackedArray.newInstance(random(min, max, Validate.checkIntType(dimensions, 1)));
+			}
+			if (dimensions.size() == 3) {
+				final int rows = Validate.checkIntType(dimensions, 1);
+				final int columns = Validate.checkIntType(dimensions, 2);
+				final double[][] matrix = new double[rows][];
+				for (int i = 0; i < rows; i++) {
+					matrix[i] = random(min, max, columns);
+				}
+				return PackedArray.newMatrix(matrix);
+			}
+			return null;
+		}
+		return PackedArray.newInstance(random(min, max, Validate.checkIntType(ast, 2)));
+	}
+
+	private static double random(final double min, final double max) {
+		return min + (max - min) * Math.random();
+	}
+
+	private static double[] random(final double min, final double max, final int n) {
+		final double[] result = new double[n];
+		for (int i = 0; i < n; i++) {
+			result[i] = random(min, max);
+		}
+		return result;
 	}
 
 }
@@ -9,6 +9,7 @@ import org.matheclipse.core.eval.EvalEngine;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.eval.util.Iterator;
 import org.matheclipse.core.expression.AST;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.generic.UnaryRangeFunction;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
@@ -21,7 +22,11 @@ public class Range implements IFunctionEvaluator {
   }
 
   public IExpr evaluate(final IAST ast) {
-    return evaluateTable(ast, List());
+    final IExpr result = evaluateTable(ast, List());
+    if (result != null && result.isList()) {
+      return PackedArray.pack((IAST) result);
+    }
+    return result;
   }
 
   public IExpr evaluateTable(final IAST ast, final IAST resultList) {
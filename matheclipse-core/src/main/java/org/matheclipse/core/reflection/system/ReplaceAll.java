@@ -6,6 +6,7 @@ import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.patternmatching.DispatchTable;
 
 public class ReplaceAll implements IFunctionEvaluator {
 
@@ -14,14 +15,22 @@ public class ReplaceAll implements IFunctionEvaluator {
 
 	public IExpr evaluate(final IAST ast) {
 		Validate.checkSize(ast, 3);
-		if (ast.get(2).isListOfLists()) {
+		IExpr rules = ast.get(2);
+		if (!rules.isAST()) {
+			// a variable which contains the rules or a dispatch table
+			rules = F.eval(rules);
+		}
+		if (DispatchTable.isDispatch(rules)) {
+			return F.subst(ast.get(1), DispatchTable.get((IAST) rules));
+		}
+		if (rules.isListOfLists()) {
 			IAST result = F.List();
-			for (IExpr subList : (IAST) ast.get(2)) {
+			for (IExpr subList : (IAST) rules) {
 				result.add(F.subst(ast.get(1), (IAST) subList));
 			}
 			return result;
 		}
-		return F.subst(ast.get(1), (IAST) ast.get(2));
+		return F.subst(ast.get(1), (IAST) rules);
 
 	}
 
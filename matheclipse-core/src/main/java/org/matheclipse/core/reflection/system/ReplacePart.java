@@ -6,6 +6,7 @@ import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.patternmatching.DispatchTable;
 
 public class ReplacePart implements IFunctionEvaluator {
 
@@ -28,9 +29,13 @@ public class ReplacePart implements IFunctionEvaluator {
 			final IExpr result = ast.get(1).replacePart(F.Rule(ast.get(3), ast.get(2)));
 			return (result == null) ? ast.get(1) : result;
 		}
-		if (ast.get(2).isList()) {
+		IExpr rules = ast.get(2);
+		if (DispatchTable.isDispatch(rules)) {
+			rules = DispatchTable.get((IAST) rules).getRules();
+		}
+		if (rules.isList()) {
 			IExpr result = ast.get(1);
-			for (IExpr subList : (IAST) ast.get(2)) {
+			for (IExpr subList : (IAST) rules) {
 				if (subList.isRuleAST()) {
 					IExpr expr = result.replacePart((IAST) subList);
 					if (expr != null) {
@@ -41,8 +46,8 @@ public class ReplacePart implements IFunctionEvaluator {
 			return result;
 		}
 		IExpr result = ast.get(1);
-		if (ast.get(2).isRuleAST()) {
-			result = ast.get(1).replacePart((IAST) ast.get(2));
+		if (rules.isRuleAST()) {
+			result = ast.get(1).replacePart((IAST) rules);
 			return (result == null) ? ast.get(1) : result;
 		}
 		return result;
@@ -6,6 +6,7 @@ import org.matheclipse.core.expression.F;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.patternmatching.DispatchTable;
 
 public class ReplaceRepeated implements IFunctionEvaluator {
 
@@ -14,6 +15,9 @@ public class ReplaceRepeated implements IFunctionEvaluator {
 
 	public IExpr evaluate(final IAST ast) {
 		Validate.checkSize(ast, 3);
+		if (DispatchTable.isDispatch(ast.get(2))) {
+			return ast.get(1).replaceRepeated(DispatchTable.get((IAST) ast.get(2)));
+		}
 		if (ast.get(2).isListOfLists()) {
 			IAST result = F.List();
 			for (IExpr subList : (IAST) ast.get(2)) {
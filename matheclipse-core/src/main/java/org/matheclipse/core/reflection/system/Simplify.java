@@ -15,6 +15,7 @@ import org.matheclipse.core.interfaces.INumber;
 import org.matheclipse.core.interfaces.ISymbol;
 import org.matheclipse.core.visit.AbstractVisitorBoolean;
 import org.matheclipse.core.visit.VisitorExpr;
+import org.matheclipse.parser.client.SyntaxError;
 
 /**
  * Try to simplify a given expression
@@ -285,4 +286,10 @@ public class Simplify extends AbstractFunctionEvaluator {
 		return result;
 	}
 
+	@Override
+	public void setUp(final ISymbol symbol) throws SyntaxError {
+		symbol.setAttributes(symbol.getAttributes() | ISymbol.PURE_FUNCTION);
+		super.setUp(symbol);
+	}
+
 }
@@ -6,10 +6,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ParallelEvaluator;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.eval.util.Iterator;
 import org.matheclipse.core.expression.AST;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.generic.UnaryArrayFunction;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
@@ -27,7 +29,18 @@ public class Table implements IFunctionEvaluator {
 	public IExpr evaluate(final IAST ast) {
 		Validate.checkRange(ast, 3);
 
-		return evaluateTable(ast, List(), null);
+		final EvalEngine engine = EvalEngine.get();
+		IExpr result = null;
+		if (engine.getParallelThreshold() > 0 && !engine.isParallelWorker()) {
+			result = evaluateParallelTable(ast, engine.getParallelThreshold());
+		} else {
+			result = evaluateTable(ast, List(), null);
+		}
+		if (result != null && result.isList()) {
+			// store machine numbers in primitive arrays
+			return PackedArray.pack((IAST) result);
+		}
+		return result;
 	}
 
 	/**
@@ -38,11 +51,30 @@ public class Table implements IFunctionEvaluator {
 	 * @return
 	 */
 	protected static IExpr evaluateTable(final IAST ast, final IAST resultList, IExpr defaultValue) {
+		return evaluateTable(ast, resultList, defaultValue, null);
+	}
+
+	/**
+	 * 
+	 * @param ast an AST with at least 3 arguments
+	 * @param resultList
+	 * @param defaultValue
+	 * @param firstIterator
+	 *          the already created iterator of the first iterator specification
+	 *          or <code>null</code>. The bounds of the iterator are evaluated
+	 *          only once.
+	 * @return
+	 */
+	private static IExpr evaluateTable(final IAST ast, final IAST resultList, IExpr defaultValue, final Iterator firstIterator) {
 		try {
 			final EvalEngine engine = EvalEngine.get();
 			final List<Iterator> iterList = new ArrayList<Iterator>();
 			for (int i = 2; i < ast.size(); i++) {
-				iterList.add(new Iterator((IAST) ast.get(i), engine));
+				if (i == 2 && firstIterator != null) {
+					iterList.add(firstIterator);
+				} else {
+					iterList.add(new Iterator((IAST) ast.get(i), engine));
+				}
 			}
 
 			final TableGenerator<IExpr, IAST> generator = new TableGenerator<IExpr, IAST>(iterList, resultList, new UnaryArrayFunction(
@@ -55,6 +87,71 @@ public class Table implements IFunctionEvaluator {
 		return null;
 	}
 
+	/**
+	 * Evaluate the iterations of the first iterator in parallel. The remaining
+	 * iterators are evaluated in the worker engines. If the first iterator has
+	 * less than <code>threshold</code> iterations, the table is evaluated
+	 * sequentially with the same iterator.
+	 * 
+	 * @param ast
+	 *          an AST with at least 3 arguments
+	 * @param threshold
+	 *          the minimum number of iterations of the first iterator
+	 * @return <code>null</code> if the first iterator isn't an AST
+	 * @see ParallelEvaluator
+	 */
+	protected static IExpr evaluateParallelTable(final IAST ast, final int threshold) {
+		try {
+			final EvalEngine engine = EvalEngine.get();
+			final Iterator iter = new Iterator((IAST) ast.get(2), engine);
+			final List<IExpr> values = new ArrayList<IExpr>();
+			if (iter.setUp()) {
+				try {
+					while (iter.hasNext()) {
+						values.add(iter.next());
+					}
+				} finally {
+					iter.tearDown();
+				}
+			}
+			if (values.isEmpty() || values.size() < threshold) {
+				return evaluateTable(ast, List(), null, iter);
+			}
+
+			final ISymbol variable = iter.getVariable();
+			final IExpr body;
+			if (ast.size() > 3) {
+				final IAST table = ast.clone();
+				table.remove(2);
+				body = table;
+			} else {
+				body = ast.get(1);
+			}
+			final IExpr[] results = ParallelEvaluator.evaluate(engine, values.size(), new ParallelEvaluator.IndexFunction() {
+				public IExpr evaluate(final EvalEngine worker, final int index) {
+					if (variable != null) {
+						variable.pushLocalVariable(values.get(index));
+					}
+					try {
+						return worker.evaluate(body);
+					} finally {
+						if (variable != null) {
+							variable.popLocalVariable();
+						}
+					}
+				}
+			});
+			final IAST resultList = List();
+			for (int i = 0; i < results.length; i++) {
+				resultList.add(results[i]);
+			}
+			return resultList;
+		} catch (final ClassCastException e) {
+			// the iterators are generated only from IASTs
+		}
+		return null;
+	}
+
 	public IExpr numericEval(final IAST functionList) {
 		return evaluate(functionList);
 	}
@@ -61,7 +61,6 @@ public class Times extends AbstractArgMultiple implements INumeric {
 
 	@Override
 	public IExpr e2ObjArg(final IExpr o0, final IExpr o1) {
-		IExpr temp = null;
 		if (o0.equals(F.Indeterminate) || o1.equals(F.Indeterminate)) {
 			return F.Indeterminate;
 		}
@@ -88,17 +87,17 @@ public class Times extends AbstractArgMultiple implements INumeric {
 			return o0;
 		}
 
-		if (o0.equals(o1)) {
-			return F.Power(o0, F.C2);
+		if (isInfinityFactor(o0) || isInfinityFactor(o1)) {
+			if (o0.isAST(F.DirectedInfinity, 2)) {
+				return eInfinity(o0, o1);
+			} else if (o1.isAST(F.DirectedInfinity, 2)) {
+				return eInfinity(o1, o0);
+			}
+			return null;
 		}
 
-		if (o0.isAST(F.DirectedInfinity, 2)) {
-			temp = eInfinity(o0, o1);
-		} else if (o1.isAST(F.DirectedInfinity, 2)) {
-			temp = eInfinity(o1, o0);
-		}
-		if (temp != null) {
-			return temp;
+		if (o0.equals(o1)) {
+			return F.Power(o0, F.C2);
 		}
 
 		if (o0.isPower()) {
@@ -131,6 +130,66 @@ public class Times extends AbstractArgMultiple implements INumeric {
 		return null;
 	}
 
+	/**
+	 * Test if the factor is <code>Indeterminate</code> or a power of a
+	 * <code>DirectedInfinity[...]</code> form. These factors aren't combined
+	 * with like factors.
+	 */
+	private static boolean isInfinityFactor(final IExpr arg) {
+		IExpr factor = arg;
+		if (arg.isPower() && ((IAST) arg).get(2).isNumber()) {
+			factor = ((IAST) arg).get(1);
+		}
+		return factor.equals(F.Indeterminate) || factor.isAST(F.DirectedInfinity);
+	}
+
+	/**
+	 * Get the base of the factor. <code>Indeterminate</code> and all
+	 * <code>DirectedInfinity[...]</code> forms aren't collected.
+	 */
+	@Override
+	public IExpr getCollectKey(final IExpr arg) {
+		if (isInfinityFactor(arg)) {
+			return null;
+		}
+		if (arg.isPower() && ((IAST) arg).get(2).isNumber()) {
+			return ((IAST) arg).get(1);
+		}
+		return arg;
+	}
+
+	/**
+	 * Get the numeric exponent of the factor.
+	 */
+	@Override
+	public IExpr getCollectCoefficient(final IExpr arg) {
+		if (arg.isPower() && ((IAST) arg).get(2).isNumber()) {
+			return ((IAST) arg).get(2);
+		}
+		return F.C1;
+	}
+
+	@Override
+	public IExpr addCoefficients(final IExpr c0, final IExpr c1) {
+		return org.matheclipse.core.reflection.system.Plus.CONST.binaryOperator(c0, c1);
+	}
+
+	@Override
+	public IExpr createCollected(final IExpr key, final IExpr exponent) {
+		if (exponent.isZero()) {
+			return F.C1;
+		}
+		if (exponent.isOne()) {
+			return key;
+		}
+		return Power(key, exponent);
+	}
+
+	@Override
+	public boolean isNeutralNumber(final IExpr number) {
+		return number.isOne();
+	}
+
 	private IExpr eInfinity(IExpr inf, IExpr o1) {
 		if (inf.equals(F.CInfinity)) {
 			if (o1.equals(F.CInfinity)) {
@@ -177,6 +236,15 @@ public class Times extends AbstractArgMultiple implements INumeric {
 		}
 
 		if (ast.size() > 3) {
+			// a zero factor is combined pairwise below
+			final IExpr collected = ast.get(1).isZero() ? null : collectLikeArguments(ast);
+			if (collected != null) {
+				if (collected == ast) {
+					// no arguments could be combined
+					return null;
+				}
+				return collected;
+			}
 			final ISymbol sym = ast.topHead();
 			final IAST result = F.function(sym);
 			IExpr tres;
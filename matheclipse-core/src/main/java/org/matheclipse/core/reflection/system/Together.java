@@ -123,7 +123,7 @@ public class Together extends AbstractFunctionEvaluator {
 
 	@Override
 	public void setUp(final ISymbol symbol) throws SyntaxError {
-		symbol.setAttributes(ISymbol.LISTABLE);
+		symbol.setAttributes(symbol.getAttributes() | ISymbol.LISTABLE | ISymbol.PURE_FUNCTION);
 		super.setUp(symbol);
 	}
 }
\ No newline at end of file
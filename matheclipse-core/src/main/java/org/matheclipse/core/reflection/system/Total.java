@@ -3,6 +3,7 @@ package org.matheclipse.core.reflection.system;
 import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.AbstractFunctionEvaluator;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.generic.Functors;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
@@ -19,6 +20,12 @@ public class Total extends AbstractFunctionEvaluator {
 	public IExpr evaluate(final IAST ast) {
 		Validate.checkRange(ast, 2, 3);
 
+		if (ast.size() == 2 && ast.get(1) instanceof PackedArray && ast.get(1).isList()) {
+			final IExpr total = ((PackedArray) ast.get(1)).total();
+			if (total != null) {
+				return total;
+			}
+		}
 		VisitorLevelSpecification level = null;
 		Function<IExpr, IExpr> tf = Functors.apply(F.Plus);
 		if (ast.size() == 3) {
@@ -4,6 +4,7 @@ import org.matheclipse.core.eval.exception.Validate;
 import org.matheclipse.core.eval.interfaces.IFunctionEvaluator;
 import org.matheclipse.core.expression.AST;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IExpr;
 import org.matheclipse.core.interfaces.ISymbol;
@@ -26,6 +27,11 @@ public class Transpose implements IFunctionEvaluator {
 		final int[] dim = ast.get(1).isMatrix();
 		if (dim != null) {
 			final IAST originalMatrix = (IAST) ast.get(1);
+			final IAST packed = PackedArray.transpose(originalMatrix);
+			if (packed != null) {
+				// the transpose of real or integer numbers
+				return packed;
+			}
 			final IAST transposedMatrix = F.ast(F.List, dim[1], true);
 			for (int i = 1; i <= dim[1]; i++) {
 				transposedMatrix.set(i, F.ast(F.List, dim[0], true));
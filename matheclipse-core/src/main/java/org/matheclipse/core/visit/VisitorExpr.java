@@ -150,9 +150,6 @@ public class VisitorExpr extends AbstractVisitor<IExpr> {
 			if (temp != null) {
 				// something was evaluated - return a new IAST:
 				result = ast.clone();
-				for (int j = 1; j < i; j++) {
-					result.set(j, ast.get(j));
-				}
 				result.set(i++, temp);
 				break;
 			}
@@ -162,8 +159,6 @@ public class VisitorExpr extends AbstractVisitor<IExpr> {
 			temp = ast.get(i).accept(this);
 			if (temp != null) {
 				result.set(i, temp);
-			} else {
-				result.set(i, ast.get(i));
 			}
 			i++;
 		}
@@ -39,6 +39,13 @@ public class VisitorLevelSpecification extends AbstractVisitor<IExpr> {
 
 	private int fCurrentDepth;
 
+	/**
+	 * The symbols (see <code>IExpr#symbolMask()</code>), which an
+	 * <code>IAST</code> must contain to be visited. <code>0</code> if all ASTs
+	 * should be visited.
+	 */
+	private long fRequiredSymbolMask = 0L;
+
 	/**
 	 * Create a LevelSpecification from an IInteger or IAST list-object.<br>
 	 * <br>
@@ -63,7 +70,35 @@ public class VisitorLevelSpecification extends AbstractVisitor<IExpr> {
 	 * @see
 	 */
 	public VisitorLevelSpecification(final Function<IExpr, IExpr> function, final IExpr expr, boolean includeHeads) {
+		this(function, expr, includeHeads, 0L);
+	}
+
+	/**
+	 * Create a LevelSpecification from an IInteger or IAST list-object, which
+	 * skips the subexpressions not containing all symbols of the
+	 * <code>requiredSymbolMask</code>. The <code>function</code> must return
+	 * <code>null</code> for these subexpressions and for all of their elements
+	 * (i.e. the function is a pattern matcher for a pattern, which requires these
+	 * symbols).
+	 * 
+	 * @param function
+	 *          the function which should be applied for an element
+	 * @param expr
+	 *          the given <i>level specification</i>
+	 * @param includeHeads
+	 *          set to <code>true</code>, if the header of an AST expression
+	 *          should be included
+	 * @param requiredSymbolMask
+	 *          the required <code>IExpr#symbolMask()</code> bits or
+	 *          <code>0</code>, if all subexpressions should be visited
+	 * @throws MathException
+	 *           if the <code>expr</code> is not a <i>level specification</i>
+	 * @see org.matheclipse.core.patternmatching.PatternMatcher#requiredSymbolMask(IExpr)
+	 */
+	public VisitorLevelSpecification(final Function<IExpr, IExpr> function, final IExpr expr, boolean includeHeads,
+			long requiredSymbolMask) {
 		fFromLevel = fToLevel = -1;
+		fRequiredSymbolMask = requiredSymbolMask;
 		fFromDepth = fToDepth = 0;
 		this.fIncludeHeads = includeHeads;
 		this.fFunction = function;
@@ -343,6 +378,11 @@ public class VisitorLevelSpecification extends AbstractVisitor<IExpr> {
 	}
 
 	public IExpr visit(IAST ast) {
+		if (!fIncludeHeads && (ast.symbolMask() & fRequiredSymbolMask) != fRequiredSymbolMask) {
+			// the cached depth doesn't consider the heads
+			fCurrentDepth = -ast.depth();
+			return null;
+		}
 		int minDepth = -1;
 		IExpr temp;
 		IAST result = null;
@@ -1,5 +1,10 @@
 package org.matheclipse.core.visit;
 
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.matheclipse.core.basic.Config;
 import org.matheclipse.core.generic.Functors;
 import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.IComplex;
@@ -11,6 +16,7 @@ import org.matheclipse.core.interfaces.INum;
 import org.matheclipse.core.interfaces.IPattern;
 import org.matheclipse.core.interfaces.IStringX;
 import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.patternmatching.PatternMatcher;
 
 import com.google.common.base.Function;
 
@@ -19,11 +25,39 @@ import com.google.common.base.Function;
  * <code>function.apply()</code> method returns a non <code>null</code> value.
  * The visitors <code>visit()</code> methods return <code>null</code> if no
  * substitution occurred.
+ * 
+ * Unchanged subexpressions are shared with the result. If the visitor is
+ * created for a list of rules, the subexpressions whose
+ * <code>symbolMask()</code> doesn't contain any of the symbols required by the
+ * left-hand-sides are skipped. For a repeated replacement the visitor remembers
+ * the changed argument positions of the ASTs it created, so that the next pass
+ * only revisits these positions and skips the arguments which were left
+ * unchanged by the previous pass.
+ * 
+ * @see Config#INCREMENTAL_REPLACE
  */
 public class VisitorReplaceAll extends VisitorExpr {
 	final Function<IExpr,IExpr> fFunction;
 	final int fOffset;
 
+	/**
+	 * The symbols required by the left-hand-sides of the rules.
+	 * <code>0</code> if some rule requires no symbols.
+	 */
+	final long fSymbolMask;
+
+	/**
+	 * The ASTs created by the previous pass (compared by identity) and the
+	 * positions of their changed arguments.
+	 */
+	private Map<IAST, int[]> fChanged;
+
+	/**
+	 * The ASTs created by the current pass and the positions of their changed
+	 * arguments.
+	 */
+	private Map<IAST, int[]> fNextChanged;
+
 	public VisitorReplaceAll(Function<IExpr,IExpr>  function) {
 		this(function, 0);
 	}
@@ -32,6 +66,7 @@ public class VisitorReplaceAll extends VisitorExpr {
 		super();
 		this.fFunction = function;
 		this.fOffset = offset;
+		this.fSymbolMask = 0L;
 	}
 
 	public VisitorReplaceAll(IAST ast) {
@@ -42,6 +77,40 @@ public class VisitorReplaceAll extends VisitorExpr {
 		super();
 		this.fFunction = Functors.rules(ast);
 		this.fOffset = offset;
+		this.fSymbolMask = requiredSymbolMask(ast);
+	}
+
+	/**
+	 * Combine the symbols required by the left-hand-sides of the rules.
+	 * 
+	 * @param rules
+	 *          a rule or a list of rules
+	 * @return <code>0</code> if some rule requires no symbols
+	 */
+	private static long requiredSymbolMask(IAST rules) {
+		if (rules.isRuleAST()) {
+			return PatternMatcher.requiredSymbolMask(rules.get(1));
+		}
+		long mask = 0L;
+		for (int i = 1; i < rules.size(); i++) {
+			final long ruleMask = PatternMatcher.requiredSymbolMask(((IAST) rules.get(i)).get(1));
+			if (ruleMask == 0L) {
+				return 0L;
+			}
+			mask |= ruleMask;
+		}
+		return mask;
+	}
+
+	/**
+	 * Start the next pass of a repeated replacement. The arguments which are
+	 * left unchanged by this pass will be skipped in the next pass.
+	 */
+	public void nextPass() {
+		if (Config.INCREMENTAL_REPLACE) {
+			fChanged = fNextChanged;
+			fNextChanged = new IdentityHashMap<IAST, int[]>();
+		}
 	}
 
 	public IExpr visit(IInteger element) {
@@ -106,6 +175,9 @@ public class VisitorReplaceAll extends VisitorExpr {
 
 	@Override
 	public IExpr visit(IAST ast) {
+		if (Config.INCREMENTAL_REPLACE && fSymbolMask != 0L && (ast.symbolMask() & fSymbolMask) == 0L) {
+			return null;
+		}
 		IExpr temp = fFunction.apply(ast);
 		if (temp != null) {
 			return temp;
@@ -114,25 +186,33 @@ public class VisitorReplaceAll extends VisitorExpr {
 	}
 
 	protected IExpr visitAST(IAST ast) {
+		// only the changed arguments of an AST created by the previous pass could
+		// be replaced
+		final int[] positions = (fChanged == null) ? null : fChanged.get(ast);
+		final int n = (positions == null) ? ast.size() - fOffset : positions.length;
 		IExpr temp;
 		IAST result = null;
-		int i = fOffset;
-		while (i < ast.size()) {
-			temp = ast.get(i).accept(this);
-			if (temp != null) {
-				// something was evaluated - return a new IAST:
-				result = ast.clone();
-				result.set(i++, temp);
-				break;
-			}
-			i++;
-		}
-		while (i < ast.size()) {
+		int[] changed = null;
+		int count = 0;
+		for (int k = 0; k < n; k++) {
+			final int i = (positions == null) ? fOffset + k : positions[k];
 			temp = ast.get(i).accept(this);
 			if (temp != null) {
+				if (result == null) {
+					// something was evaluated - return a new IAST:
+					result = ast.clone();
+				}
 				result.set(i, temp);
+				if (fNextChanged != null) {
+					if (changed == null) {
+						changed = new int[n - k];
+					}
+					changed[count++] = i;
+				}
 			}
-			i++;
+		}
+		if (result != null && fNextChanged != null) {
+			fNextChanged.put(result, (count == changed.length) ? changed : Arrays.copyOf(changed, count));
 		}
 		return result;
 	}
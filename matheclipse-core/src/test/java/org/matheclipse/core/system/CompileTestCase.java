@@ -0,0 +1,70 @@
+package org.matheclipse.core.system;
+
+import org.matheclipse.core.basic.Alloc;
+import org.matheclipse.core.eval.EvalDouble;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.Num;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Tests the compilation of numeric expressions with <code>Compile[]</code> and
+ * the <code>ExprCompiler</code>
+ */
+public class CompileTestCase extends AbstractTestCase {
+	private final static String[] FUNCTIONS = { "x^2+Sin[x]", "Cos[x]^3-x/2+Sqrt[Abs[x]]", "Exp[-x^2]*ArcTan[x]",
+			"If[x<0,-x,x^3]", "ArcSin[x/3]+Log[x^2+1]", "Sinh[x]-Tanh[x]+Floor[x]*Ceiling[x]" };
+
+	public CompileTestCase(String name) {
+		super(name);
+	}
+
+	public void testCompile() {
+		check("Compile[{x},x^2+Sin[x]][2.0]", "4.909297426825682");
+		check("Compile[{x,y},x*y+1][2,3]", "7.0");
+		check("Compile[{{x,_Real}},x^2][1.5]", "2.25");
+		check("Compile[x,x^3][2]", "8.0");
+		check("Compile[{x},If[x>0,1,-1]][-3]", "-1.0");
+		check("Compile[{x},Piecewise[{{1,x<0},{2,0<=x&&x<=1}}]]/@{-1,0.5,2}", "{1.0,2.0,0.0}");
+		check("Compile[{x},x^2][a]", "a^2");
+	}
+
+	/**
+	 * The compiled functions must return the same values as the interpreter.
+	 */
+	public void testInterpreterEquality() {
+		EvalEngine engine = EvalEngine.get();
+		ISymbol x = F.$s("x");
+		for (int i = 0; i < FUNCTIONS.length; i++) {
+			IExpr function = engine.parse(FUNCTIONS[i]);
+			ICompiledFunction compiled = ExprCompiler.compile(function, x);
+			assertEquals(compiled.getArgumentCount(), 1);
+			for (double d = -2.75; d < 3.0; d += 0.25) {
+				assertEquals(Double.toString(compiled.apply(d)), Double.toString(interpret(function, x, d)));
+			}
+		}
+	}
+
+	public void testIsCompiled() {
+		EvalEngine engine = EvalEngine.get();
+		ISymbol x = F.$s("x");
+		assertTrue(ExprCompiler.compile(engine.parse("x^2+Sin[x]*Pi"), x).isCompiled());
+		assertTrue(ExprCompiler.compile(engine.parse("If[x<1,x,Piecewise[{{1,x>2}}]]"), x).isCompiled());
+		assertFalse(ExprCompiler.compile(engine.parse("f[x]+1"), x).isCompiled());
+	}
+
+	private static double interpret(IExpr function, ISymbol x, double value) {
+		Alloc alloc = Alloc.get();
+		final double[] stack = alloc.vector(10);
+		try {
+			x.pushLocalVariable(Num.valueOf(value));
+			return EvalDouble.eval(stack, 0, function);
+		} finally {
+			x.popLocalVariable();
+			alloc.freeVector(10);
+		}
+	}
+}
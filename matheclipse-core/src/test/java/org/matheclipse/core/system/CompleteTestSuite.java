@@ -27,6 +27,13 @@ public class CompleteTestSuite extends TestCase {
 		suite.addTestSuite(ScriptEngineTestCase.class);
 		suite.addTestSuite(SystemTestCase.class);
 		suite.addTestSuite(SerializableTest.class);
+		suite.addTestSuite(ParallelTestCase.class);
+		suite.addTestSuite(ConcurrentSessionTestCase.class);
+		suite.addTestSuite(CompileTestCase.class);
+		suite.addTestSuite(PackedArrayTestCase.class);
+		suite.addTestSuite(PlotTestCase.class);
+		suite.addTestSuite(NIntegrateTestCase.class);
+		suite.addTestSuite(ExprParserTestCase.class);
 		return suite;
 
 	}
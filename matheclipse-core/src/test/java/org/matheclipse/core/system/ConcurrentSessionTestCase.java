@@ -0,0 +1,250 @@
+package org.matheclipse.core.system;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.matheclipse.core.basic.Config;
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.EvalUtilities;
+import org.matheclipse.core.eval.ParallelEvaluator;
+import org.matheclipse.core.eval.TimeConstrainedEvaluator;
+import org.matheclipse.core.eval.exception.TimeExceeded;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.form.output.OutputFormFactory;
+import org.matheclipse.core.form.output.StringBufferWriter;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+import org.matheclipse.core.patternmatching.RulesData;
+
+/**
+ * Stress tests for concurrent sessions, which evaluate in different threads
+ * with the shared global symbols.
+ */
+public class ConcurrentSessionTestCase extends TestCase {
+	private final static int THREADS = 8;
+
+	private final static int ROUNDS = 20;
+
+	/**
+	 * The server mode before this test
+	 */
+	private boolean fServerMode;
+
+	public ConcurrentSessionTestCase(String name) {
+		super(name);
+		F.initSymbols(null, null, false);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fServerMode = Config.SERVER_MODE;
+		Config.SERVER_MODE = true;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Config.SERVER_MODE = fServerMode;
+		super.tearDown();
+	}
+
+	/**
+	 * Every session defines the same user function with a different right hand
+	 * side. The definitions of one session mustn't be visible in another
+	 * session.
+	 */
+	public void testSessions() throws Exception {
+		runThreads(new SessionRunnable() {
+			public void run(int session) throws Exception {
+				EvalUtilities util = new EvalUtilities();
+				util.evaluate("$csf[$csx_]:=$csx^2+" + session);
+				for (int r = 0; r < ROUNDS; r++) {
+					assertEquals(convertToString(util.evaluate("$csf[" + r + "]")), Integer.toString(r * r + session));
+					assertEquals(convertToString(util.evaluate("Expand[($csa+$csb)^2]")), "$csb^2+2*$csa*$csb+$csa^2");
+					assertEquals(convertToString(util.evaluate("D[Sin[$csx]^2,$csx]")), "2*Cos[$csx]*Sin[$csx]");
+					assertEquals(convertToString(util.evaluate("$csv=" + session + ";$csv*" + r)), Integer.toString(session * r));
+				}
+			}
+		});
+	}
+
+	/**
+	 * The global symbols are created only once, if different threads create
+	 * them at the same time.
+	 */
+	public void testGlobalSymbols() throws Exception {
+		final ISymbol[][] symbols = new ISymbol[THREADS][ROUNDS];
+		runThreads(new SessionRunnable() {
+			public void run(int session) throws Exception {
+				for (int r = 0; r < ROUNDS; r++) {
+					symbols[session][r] = F.predefinedSymbol("ConcurrentSessionSymbol" + r);
+				}
+			}
+		});
+		for (int i = 1; i < THREADS; i++) {
+			for (int r = 0; r < ROUNDS; r++) {
+				assertSame(symbols[i][r], symbols[0][r]);
+			}
+		}
+	}
+
+	/**
+	 * Add and evaluate rules of the same symbol concurrently.
+	 */
+	public void testRulesData() throws Exception {
+		final RulesData rulesData = new RulesData();
+		final ISymbol f = F.$s("$csg");
+		final ISymbol x = F.$s("$csx");
+		runThreads(new SessionRunnable() {
+			public void run(int session) throws Exception {
+				new EvalEngine();
+				for (int r = 0; r < ROUNDS; r++) {
+					int n = session * ROUNDS + r;
+					// a simple pattern rule and an equal rule
+					rulesData.putDownRule(F.SetDelayed, false, F.function(f, F.integer(n), F.$p(x)), F.Plus(x, F.integer(n)),
+							ISymbol.DEFAULT_RULE_PRIORITY);
+					rulesData.putDownRule(F.Set, true, F.function(f, F.integer(n)), F.integer(n), ISymbol.DEFAULT_RULE_PRIORITY);
+					IExpr result = rulesData.evalDownRule(F.function(f, F.integer(n)));
+					assertEquals(result, F.integer(n));
+				}
+			}
+		});
+		assertEquals(rulesData.definition().size(), 2 * THREADS * ROUNDS);
+		for (int n = 0; n < THREADS * ROUNDS; n++) {
+			assertEquals(rulesData.evalDownRule(F.function(f, F.integer(n))), F.integer(n));
+			assertNotNull(rulesData.evalDownRule(F.function(f, F.integer(n), F.C1)));
+		}
+	}
+
+	/**
+	 * The worker engines of a parallel evaluation use the user symbols of their
+	 * session.
+	 */
+	public void testParallelSession() throws Exception {
+		EvalUtilities util = new EvalUtilities();
+		EvalEngine engine = EvalEngine.get();
+		int parallelism = ParallelEvaluator.getParallelism();
+		try {
+			ParallelEvaluator.setParallelism(4);
+			util.evaluate("$csh[$csx_]:=$csx+1");
+			assertEquals(convertToString(util.evaluate("ParallelTable[$csh[i],{i,10}]")), "{2,3,4,5,6,7,8,9,10,11}");
+			assertEquals(convertToString(util.evaluate("ParallelMap[$csh,{$csa,$csb}]")), "{$csa+1,$csb+1}");
+			assertEquals(engine.getVariableMap().get("$csh").definition().size(), 1);
+		} finally {
+			ParallelEvaluator.setParallelism(parallelism);
+		}
+	}
+
+	/**
+	 * Many sessions run time limited evaluations, which never terminate, at the
+	 * same time. Every evaluation is stopped shortly after its deadline and the
+	 * engine could be used again afterwards.
+	 */
+	public void testTimeConstrainedSessions() throws Exception {
+		final long timeLimit = 200L;
+		runThreads(new SessionRunnable() {
+			public void run(int session) throws Exception {
+				EvalEngine engine = new EvalEngine();
+				TimeConstrainedEvaluator util = new TimeConstrainedEvaluator(engine, false, timeLimit);
+				for (int r = 0; r < 3; r++) {
+					StringWriter writer = new StringWriter();
+					long start = System.currentTimeMillis();
+					IExpr result = null;
+					try {
+						result = util.constrainedEval(writer, "While[True,$csw=" + r + "]", false);
+					} catch (TimeExceeded e) {
+						// the evaluation didn't stop in the grace period
+					}
+					long time = System.currentTimeMillis() - start;
+					assertNull(result);
+					assertTrue("Time limit exceeded: " + time + " ms", time < timeLimit + Config.TIME_CONSTRAINED_SLEEP_MILLISECONDS + 5000L);
+
+					writer = new StringWriter();
+					result = util.constrainedEval(writer, "$csv=" + session + ";$csv*" + r, false);
+					assertEquals(writer.toString(), Integer.toString(session * r));
+				}
+			}
+		});
+	}
+
+	/**
+	 * An evaluation, which doesn't stop in the grace period, keeps running in
+	 * its pool thread. It mustn't change the results of the following fast
+	 * evaluations of the same evaluator.
+	 */
+	public void testTimedOutThenFast() throws Exception {
+		EvalEngine engine = new EvalEngine();
+		TimeConstrainedEvaluator util = new TimeConstrainedEvaluator(engine, false, 100L);
+		StringWriter writer = new StringWriter();
+		IExpr result = null;
+		try {
+			// the big integer multiplication doesn't check the time limit
+			result = util.constrainedEval(writer, "Mod[Factorial[300000],7]", false);
+		} catch (TimeExceeded e) {
+			// the evaluation didn't stop in the grace period
+		}
+		assertNull(result);
+
+		long end = System.currentTimeMillis() + 5000L;
+		int n = 0;
+		while (System.currentTimeMillis() < end) {
+			writer = new StringWriter();
+			result = util.constrainedEval(writer, n + "+1", false);
+			assertEquals(writer.toString(), Integer.toString(n + 1));
+			assertEquals(convertToString(result), Integer.toString(n + 1));
+			n++;
+		}
+	}
+
+	private static String convertToString(IExpr result) throws IOException {
+		StringBufferWriter buffer = new StringBufferWriter();
+		OutputFormFactory.get().convert(buffer, result);
+		return buffer.toString();
+	}
+
+	private interface SessionRunnable {
+		public void run(int session) throws Exception;
+	}
+
+	/**
+	 * Run the <code>runnable</code> in <code>THREADS</code> threads and rethrow
+	 * the first failure.
+	 */
+	private static void runThreads(final SessionRunnable runnable) throws Exception {
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			final int session = i;
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						runnable.run(session);
+					} catch (Throwable t) {
+						synchronized (failures) {
+							failures.add(t);
+						}
+					} finally {
+						EvalEngine.remove();
+					}
+				}
+			});
+		}
+		for (int i = 0; i < THREADS; i++) {
+			threads[i].start();
+		}
+		for (int i = 0; i < THREADS; i++) {
+			threads[i].join();
+		}
+		if (!failures.isEmpty()) {
+			Throwable t = failures.get(0);
+			if (t instanceof Exception) {
+				throw (Exception) t;
+			}
+			throw (Error) t;
+		}
+	}
+}
@@ -2,6 +2,8 @@ package org.matheclipse.core.system;
 
 import org.matheclipse.core.convert.AST2Expr;
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.EvalProfiler;
+import org.matheclipse.core.eval.LocalVariableFrames;
 import org.matheclipse.core.expression.F;
 import org.matheclipse.core.form.output.OutputFormFactory;
 import org.matheclipse.core.form.output.StringBufferWriter;
@@ -59,6 +61,166 @@ public class EvalEngineTestCase extends SpecialTestCase {
 		}
 	}
 
+	public void testMemoCache() {
+		EvalEngine engine = new EvalEngine();
+		engine.setMemoCacheSize(100);
+		try {
+			// the first evaluation sets up the built-in functions
+			IExpr expected = engine.evaluate("Expand[(a+b)^3]");
+			IExpr result = engine.evaluate("Expand[(a+b)^3]");
+			assertEquals(result.toString(), expected.toString());
+			long hits = engine.getMemoCacheHits();
+			long misses = engine.getMemoCacheMisses();
+			result = engine.evaluate("Expand[(a+b)^3]");
+			assertEquals(result.toString(), expected.toString());
+			assertEquals(engine.getMemoCacheHits(), hits + 1);
+			assertEquals(engine.getMemoCacheMisses(), misses);
+			// a new rule invalidates the cached results
+			engine.evaluate("$memo[x_]:=x^2");
+			result = engine.evaluate("Expand[(a+b)^3]");
+			assertEquals(result.toString(), expected.toString());
+			assertEquals(engine.getMemoCacheHits(), hits + 1);
+			assertEquals(engine.getMemoCacheMisses(), misses + 1);
+			// the cache isn't used, while local variables are bound
+			hits = engine.getMemoCacheHits();
+			misses = engine.getMemoCacheMisses();
+			result = engine.evaluate("Block[{$memoy=2},Expand[(a+b)^3]]");
+			assertEquals(result.toString(), expected.toString());
+			result = engine.evaluate("Module[{y=2},D[y*x^2,x]]");
+			assertEquals(result.toString(), "Times[4, x]");
+			assertEquals(engine.getMemoCacheHits(), hits);
+			assertEquals(engine.getMemoCacheMisses(), misses);
+		} finally {
+			engine.setMemoCacheSize(0);
+		}
+	}
+
+	public void testInternResults() {
+		EvalEngine engine = new EvalEngine();
+		engine.setInternResults(true);
+		try {
+			IExpr result1 = engine.evaluate("Expand[(a+b)^3]");
+			IExpr result2 = engine.evaluate("Expand[(b+a)^3]");
+			assertSame(result1, result2);
+			assertEquals(result1.toString(), "Plus[Power[a, 3], Times[3, Power[a, 2], b], Times[3, a, Power[b, 2]], Power[b, 3]]");
+		} finally {
+			engine.setInternResults(false);
+		}
+	}
+
+	public void testInternResultsAreShared() {
+		EvalEngine engine = new EvalEngine();
+		engine.setInternResults(true);
+		try {
+			IAST result = (IAST) engine.evaluate("{$ir[c,b,a],$ir[a,b,c]}");
+			assertTrue(result.isShared());
+			assertTrue(((IAST) result.get(1)).isShared());
+			try {
+				result.remove(1);
+				fail();
+			} catch (UnsupportedOperationException e) {
+				// expected
+			}
+			// a copy is modifiable
+			IAST copy = result.clone();
+			assertFalse(copy.isShared());
+			copy.remove(1);
+			assertEquals(copy.toString(), "{$ir[a, b, c]}");
+			// the evaluation doesn't modify the shared instance in place
+			engine.evaluate("SetAttributes[$ir, Orderless]");
+			IExpr sorted = engine.evaluate(result);
+			assertEquals(sorted.toString(), "{$ir[a, b, c], $ir[a, b, c]}");
+			assertEquals(result.toString(), "{$ir[c, b, a], $ir[a, b, c]}");
+			assertSame(sorted.getAt(1), sorted.getAt(2));
+		} finally {
+			engine.setInternResults(false);
+		}
+	}
+
+	public void testLocalVariableSlots() {
+		EvalEngine engine = EvalEngine.get();
+		engine.evaluate("Module[{x,y=1},Block[{z=2},Table[i,{i,3}]]]");
+		int slotCount = LocalVariableFrames.getSlotCount();
+		// the slots of the Module variables are released and reused
+		for (int i = 0; i < 1000; i++) {
+			engine.evaluate("Module[{x,y=1},Block[{z=2},Table[i,{i,3}]]]");
+		}
+		assertEquals(LocalVariableFrames.getSlotCount(), slotCount);
+		assertTrue(engine.getLocalVariableFrames().isEmpty());
+		// the value of a Module variable remains after the evaluation of the Module
+		engine.evaluate("$lvs=Module[{c=1},Function[c=c+#]]");
+		assertEquals(engine.evaluate("$lvs[2]").toString(), "3");
+		assertEquals(engine.evaluate("$lvs[2]").toString(), "5");
+	}
+
+	public void testEvaluatedGeneration() {
+		EvalEngine engine = new EvalEngine();
+		IExpr result = engine.evaluate("{$fp[a],$fp[b]}");
+		assertEquals(result.toString(), "{$fp[a], $fp[b]}");
+		assertEquals(((IAST) result).getEvaluatedGeneration(), EvalEngine.getRuleGeneration());
+		assertSame(engine.evaluate(result), result);
+		// a new rule invalidates the evaluated generation
+		engine.evaluate("$fp[a]:=1");
+		result = engine.evaluate(result);
+		assertEquals(result.toString(), "{1, $fp[b]}");
+		// a modification resets the evaluated generation
+		((IAST) result).set(1, F.$s("$fp"));
+		assertEquals(((IAST) result).getEvaluatedGeneration(), 0L);
+		// a modification of an element invalidates the evaluated generation of
+		// the parent
+		engine.evaluate("$fpg[2]:=7");
+		result = engine.evaluate("$fp[$fpg[1]]");
+		assertSame(engine.evaluate(result), result);
+		((IAST) ((IAST) result).get(1)).set(1, F.C2);
+		result = engine.evaluate(result);
+		assertEquals(result.toString(), "$fp[7]");
+	}
+
+	public void testProfile() {
+		EvalEngine engine = new EvalEngine();
+		engine.evaluate("$prof[0]:=1; $prof[n_]:=n*$prof[n-1]");
+		EvalProfiler previous = engine.beginProfile();
+		IExpr result = engine.evaluate("$prof[10]");
+		EvalProfiler profiler = engine.endProfile(previous);
+		assertNull(previous);
+		assertNull(engine.getProfiler());
+		assertEquals(result.toString(), "3628800");
+		EvalProfiler.Entry entry = find(profiler, "$prof");
+		assertEquals(entry.getCalls(), 11L);
+		assertEquals(entry.getRuleMatches(), 11L);
+		assertTrue(entry.getRuleAttempts() >= 11L);
+		assertTrue(entry.getExclusiveTime() <= entry.getInclusiveTime());
+		// n-1 is parsed as Plus[n, Times[-1, 1]]
+		assertEquals(find(profiler, "Times").getCalls(), 20L);
+
+		// the worker engines of a parallel evaluation record into the same profile
+		engine.setParallelThreshold(2);
+		try {
+			previous = engine.beginProfile();
+			engine.evaluate("{$prof[1],$prof[2],$prof[3],$prof[4]}");
+			profiler = engine.endProfile(previous);
+			assertEquals(find(profiler, "$prof").getCalls(), 14L);
+		} finally {
+			engine.setParallelThreshold(0);
+		}
+
+		result = EvalEngine.get().evaluate("Profile[$prof[2]]");
+		assertEquals(((IAST) result).get(2).toString(), "2");
+		IAST table = (IAST) ((IAST) result).get(1);
+		assertEquals(table.get(1).toString(),
+				"{Head, Calls, InclusiveNanoseconds, ExclusiveNanoseconds, RuleAttempts, RuleMatches, AllocatedBytes}");
+	}
+
+	private static EvalProfiler.Entry find(EvalProfiler profiler, String name) {
+		for (EvalProfiler.Entry entry : profiler.getEntries()) {
+			if (entry.getSymbol().toString().equals(name)) {
+				return entry;
+			}
+		}
+		fail(name);
+		return null;
+	}
+
 	/**
 	 * Test extension with Package[] function
 	 */
@@ -0,0 +1,75 @@
+package org.matheclipse.core.system;
+
+import java.util.List;
+
+import org.matheclipse.core.convert.AST2Expr;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.parser.ExprParser;
+import org.matheclipse.parser.client.Parser;
+import org.matheclipse.parser.client.SyntaxError;
+
+/**
+ * Tests the direct parsing into <code>IExpr</code> expressions with the
+ * <code>ExprParser</code>
+ */
+public class ExprParserTestCase extends AbstractTestCase {
+	private final static String[] INPUTS = { "a+b*c-d/e", "-2", "-2.5", "-(1/2)", "-x^2", "1/2/3", "a/2", "a/-3", "2/3*x", "x^-1",
+			"a<b<=c", "a>=b>c", "f[x_,y__,z_.,w_Integer]:=x+y+z+w", "_", "{1,2,{3}}[[2,1]]", "{a,b}[[1]][[2]]",
+			"f[a][b,c]", "f'[x]", "#+#2&", "##&", "%", "%%", "%3", "Complex[1,2]", "Rational[1,2]", "Pattern[x,Blank[]]", "I*Infinity",
+			"a:=b;c", "a->b:>c", "x/.a->b", "x//.a->b", "f/@{a,b}", "f@@{a,b}", "a!!", "a!", "!a", "x++", "--x", "a&&b||!c",
+			"a===b=!=c", "a!=b==c", "\"str\"<>\"ing\"", "1.5e3", "a.b.c", "(a+b)(c+d)", "2 x y", "x^2 y^3", "f[]", "f[][]",
+			"Sin[x]^2+Cos[x]^2", "a-b-c", "a/b/c", "a^b^c", "+a" };
+
+	public ExprParserTestCase(String name) {
+		super(name);
+	}
+
+	/**
+	 * The direct parser returns the same expressions as the conversion of the
+	 * <code>ASTNode</code> tree
+	 */
+	public void testSameAsAST2Expr() {
+		for (int i = 0; i < INPUTS.length; i++) {
+			IExpr expected = AST2Expr.CONST.convert(new Parser().parse(INPUTS[i]));
+			assertEquals(INPUTS[i], new ExprParser().parse(INPUTS[i]), expected);
+		}
+	}
+
+	public void testRelaxedSyntax() {
+		String[] inputs = { "sin(x)+cos(x)", "f(x)(y)", "integrate(x^2,x)", "d(x*y,x)", "N(pi)" };
+		for (int i = 0; i < inputs.length; i++) {
+			IExpr expected = AST2Expr.CONST_LC.convert(new Parser(true).parse(inputs[i]));
+			assertEquals(inputs[i], new ExprParser(true).parse(inputs[i]), expected);
+		}
+	}
+
+	public void testPackageMode() {
+		String input = "f[x_]:=x^2\nf[x_,y_]:=\n x*y\ng[x_]:=f[x] f[x]\n";
+		ExprParser parser = new ExprParser(false, true);
+		List<IExpr> list = parser.parseList(input);
+		assertEquals(list.size(), 3);
+
+		// parse one statement after the other
+		parser.setInput(input);
+		for (int i = 0; i < list.size(); i++) {
+			assertTrue(parser.hasNext());
+			assertEquals(parser.next(), list.get(i));
+		}
+		assertFalse(parser.hasNext());
+
+		// without package mode the lines are multiplied
+		assertEquals(new ExprParser().parseList("a\nb").size(), 1);
+	}
+
+	public void testSyntaxError() {
+		String[] inputs = { "f[x", "{a,b", "a+", "a)", "a]" };
+		for (int i = 0; i < inputs.length; i++) {
+			try {
+				new ExprParser().parse(inputs[i]);
+				fail(inputs[i]);
+			} catch (SyntaxError e) {
+				// expected
+			}
+		}
+	}
+}
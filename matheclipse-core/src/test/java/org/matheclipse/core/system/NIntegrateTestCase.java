@@ -0,0 +1,95 @@
+package org.matheclipse.core.system;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.ParallelEvaluator;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.eval.util.AdaptiveIntegrator;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Tests the adaptive Gauss-Kronrod integration and the cubature of
+ * <code>NIntegrate[]</code>
+ */
+public class NIntegrateTestCase extends AbstractTestCase {
+	public NIntegrateTestCase(String name) {
+		super(name);
+	}
+
+	public void testGaussKronrod() {
+		check("NIntegrate[(x-1)*(x-0.5)*x*(x+0.5)*(x+1),{x,0,1},GaussKronrod]", "-0.020833333333333343");
+		check("NIntegrate[Sin[x],{x,0,Pi},GaussKronrod]", "2.0");
+		check("NIntegrate[x,{x,1,0},GaussKronrod]", "-0.5");
+		// the limits are evaluated numerically
+		check("NIntegrate[x,{x,0,Pi}]", "4.934802200544679");
+		check("NIntegrate[x,{x,0,a}]", "NIntegrate[x,{x,0,a}]");
+	}
+
+	public void testInfiniteRange() {
+		check("NIntegrate[Exp[-x^2],{x,-Infinity,Infinity}]", "1.7724538509055159");
+		check("NIntegrate[1/(1+x^2),{x,0,Infinity}]", "1.5707963267948966");
+		check("NIntegrate[Exp[x],{x,-Infinity,0}]", "1.0000000000000002");
+	}
+
+	public void testMultipleRanges() {
+		check("NIntegrate[x*y,{x,0,1},{y,0,2}]", "1.0");
+		check("NIntegrate[x^2+y^2,{x,0,1},{y,0,1},{z,0,2}]", "1.3333333333333337");
+	}
+
+	public void testSingularity() {
+		ISymbol x = F.$s("x");
+		ISymbol y = F.$s("y");
+		assertEquals(integrate(compile("1/Sqrt[x]", x), 0.0, 1.0), 2.0, 1.0e-9);
+		assertEquals(integrate(compile("Log[x]", x), 0.0, 1.0), -1.0, 1.0e-9);
+		assertEquals(integrate(compile("Exp[-x^2-y^2]", x, y), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY), Math.PI,
+				1.0e-5);
+		try {
+			integrate(compile("1/x", x), 0.0, 1.0);
+			fail();
+		} catch (ArithmeticException e) {
+			// the integral doesn't converge
+		}
+	}
+
+	/**
+	 * The parallel evaluation of an interpreted integrand in the worker engines
+	 * returns the same integral as the serial evaluation.
+	 */
+	public void testParallelIntegration() {
+		EvalEngine engine = EvalEngine.get();
+		ISymbol x = F.$s("x");
+		ISymbol y = F.$s("y");
+		engine.evaluate(engine.parse("$intf[$intx_,$inty_]:=Sin[3*$intx]*$inty"));
+		ICompiledFunction function = compile("$intf[x,y]", x, y);
+		assertFalse(function.isCompiled());
+		int parallelism = ParallelEvaluator.getParallelism();
+		try {
+			ParallelEvaluator.setParallelism(1);
+			double serial = integrate(function, 0.0, 2.0);
+			ParallelEvaluator.setParallelism(4);
+			double parallel = integrate(function, 0.0, 2.0);
+			assertEquals(parallel, serial);
+			assertEquals(serial, 2.0 * (1.0 - Math.cos(6.0)) / 3.0, 1.0e-6);
+		} finally {
+			ParallelEvaluator.setParallelism(parallelism);
+		}
+	}
+
+	private static double integrate(ICompiledFunction function, double min, double max) {
+		int dimension = function.getArgumentCount();
+		double[] mins = new double[dimension];
+		double[] maxs = new double[dimension];
+		for (int k = 0; k < dimension; k++) {
+			mins[k] = min;
+			maxs[k] = max;
+		}
+		return new AdaptiveIntegrator(EvalEngine.get(), function).integrate(mins, maxs);
+	}
+
+	private static ICompiledFunction compile(String expression, ISymbol... variables) {
+		IExpr expr = EvalEngine.get().parse(expression);
+		return ExprCompiler.compile(expr, variables);
+	}
+}
@@ -0,0 +1,123 @@
+package org.matheclipse.core.system;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.expression.AST;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+
+/**
+ * Tests the creation of packed arrays and the functions, which use the
+ * primitive arrays without boxing the elements
+ */
+public class PackedArrayTestCase extends AbstractTestCase {
+	private final static double[] VALUES = { 0.7, -2.5, 0.1, 1.0 / 3.0, 0.2, 1.0e10, -0.3 };
+
+	private final static double[][] MATRIX = { { 4.0, -2.0, 1.5 }, { 0.25, 3.0, -1.0 }, { 1.0 / 7.0, 2.0, 5.0 } };
+
+	public PackedArrayTestCase(String name) {
+		super(name);
+	}
+
+	public void testCreation() {
+		EvalEngine engine = EvalEngine.get();
+		assertPacked(engine.evaluate("Range[5]"), PackedArray.INTEGER);
+		assertPacked(engine.evaluate("N[Range[5]]"), PackedArray.REAL);
+		assertPacked(engine.evaluate("Table[i/2.0,{i,10}]"), PackedArray.REAL);
+		assertPacked(engine.evaluate("RandomReal[{-1,1},10]"), PackedArray.REAL);
+		assertPacked(((IAST) engine.evaluate("N[{{1,2},{3,4}}]")).get(2), PackedArray.REAL);
+		assertPacked(((IAST) engine.evaluate("RandomReal[1,{3,4}]")).get(3), PackedArray.REAL);
+		assertFalse(engine.evaluate("Table[i^2,{i,x,x+2}]") instanceof PackedArray);
+
+		check("Range[5]", "{1,2,3,4,5}");
+		check("N[Range[3]]", "{1.0,2.0,3.0}");
+		check("Dimensions[RandomReal[1,{3,4}]]", "{3,4}");
+		check("Length[RandomReal[{-1,1},7]]", "7");
+	}
+
+	public void testConsumers() {
+		check("N[{1,2}].N[{3,4}]", "11.0");
+		check("N[{{1,2},{3,4}}].N[{{1,2},{3,4}}]", "{{7.0,10.0},\n" + " {15.0,22.0}}");
+		check("N[{{1,2},{3,4}}].N[{1,2}]", "{5.0,11.0}");
+		check("N[Range[3]]+N[Range[3]]", "{2.0,4.0,6.0}");
+		check("2*Range[3]", "{2,4,6}");
+		check("Range[3]+0.5", "{1.5,2.5,3.5}");
+		check("Total[Range[100]]", "5050");
+		check("Total[N[{0.1,0.7,0.2}]]", "1.0");
+		check("Mean[N[{1,2,4}]]", "2.333333333333333");
+		check("Det[N[{{1,2},{3,4}}]]", "-2.0");
+		check("LinearSolve[N[{{1,2},{3,4}}],N[{1,2}]]", "{0.0,0.5}");
+		check("Transpose[N[{{1,2},{3,4}}]]", "{{1.0,3.0},\n" + " {2.0,4.0}}");
+		check("Transpose[{Range[3],Range[3]}]", "{{1,1},\n" + " {2,2},\n" + " {3,3}}");
+		check("Part[N[Range[5]],{2,4}]", "{2.0,4.0}");
+		check("Part[N[Range[5]],-1]", "5.0");
+	}
+
+	/**
+	 * The functions must return the same results for packed arrays and for
+	 * lists of boxed elements.
+	 */
+	public void testBoxedEquality() {
+		EvalEngine engine = EvalEngine.get();
+		IAST packed = PackedArray.newInstance(VALUES.clone());
+		IAST boxed = AST.newInstance(F.List, VALUES);
+		IAST packedMatrix = PackedArray.newMatrix(new double[][] { MATRIX[0].clone(), MATRIX[1].clone(), MATRIX[2].clone() });
+		IAST boxedMatrix = AST.newInstance(F.List, MATRIX);
+		assertFalse(boxed instanceof PackedArray);
+		assertEquals(packed, boxed);
+		assertEquals(packed.hashCode(), boxed.hashCode());
+
+		IExpr[][] functions = { { F.$s("Total") }, { F.$s("Mean") }, { F.Plus, F.C2 }, { F.Times, F.num(0.3) }, { F.Plus, null }, { F.Times, null },
+				{ F.Plus, null, null } };
+		for (int i = 0; i < functions.length; i++) {
+			IAST packedAST = F.ast(functions[i][0]);
+			IAST boxedAST = F.ast(functions[i][0]);
+			packedAST.add(packed);
+			boxedAST.add(boxed);
+			for (int j = 1; j < functions[i].length; j++) {
+				packedAST.add(functions[i][j] == null ? packed : functions[i][j]);
+				boxedAST.add(functions[i][j] == null ? boxed : functions[i][j]);
+			}
+			assertEquals(engine.evaluate(packedAST).toString(), engine.evaluate(boxedAST).toString());
+		}
+		assertEquals(engine.evaluate(F.Dot(packedMatrix, packedMatrix)).toString(), engine.evaluate(
+				F.Dot(boxedMatrix, boxedMatrix)).toString());
+		assertEquals(engine.evaluate(F.Dot(packedMatrix, F.List(F.num(1.5), F.num(-2.0), F.num(0.1)))).toString(), engine
+				.evaluate(F.Dot(boxedMatrix, F.List(F.num(1.5), F.num(-2.0), F.num(0.1)))).toString());
+		assertEquals(engine.evaluate(F.Transpose(packedMatrix)).toString(), engine.evaluate(F.Transpose(boxedMatrix)).toString());
+	}
+
+	/**
+	 * Modifications with machine numbers keep the array packed, all other
+	 * modifications unpack the array.
+	 */
+	public void testModification() {
+		PackedArray packed = PackedArray.newInstance(new double[] { 1.0, 2.0, 3.0 });
+		IAST copy = packed.clone();
+		packed.set(2, F.num(5.0));
+		assertTrue(packed.isPacked());
+		assertEquals(packed.toString(), "{1.0, 5.0, 3.0}");
+		assertEquals(copy.toString(), "{1.0, 2.0, 3.0}");
+
+		packed.set(1, F.x);
+		assertFalse(packed.isPacked());
+		assertEquals(packed.toString(), "{x, 5.0, 3.0}");
+		packed.add(F.C1);
+		assertEquals(packed.size(), 5);
+		assertEquals(packed.get(4), F.C1);
+
+		PackedArray integers = PackedArray.newInstance(new long[] { 3L, 1L, 2L });
+		integers.args().sort(org.matheclipse.core.generic.ExprComparator.CONS);
+		assertTrue(integers.isPacked());
+		assertEquals(integers.toString(), "{1, 2, 3}");
+		integers.remove(1);
+		assertFalse(integers.isPacked());
+		assertEquals(integers.toString(), "{2, 3}");
+	}
+
+	private static void assertPacked(IExpr expr, int type) {
+		assertTrue(expr.toString(), expr instanceof PackedArray);
+		assertEquals(((PackedArray) expr).getType(), type);
+	}
+}
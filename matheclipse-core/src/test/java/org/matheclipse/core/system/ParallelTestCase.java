@@ -0,0 +1,79 @@
+package org.matheclipse.core.system;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ParallelEvaluator;
+
+/**
+ * Tests the parallel evaluation of <code>ParallelMap</code>,
+ * <code>ParallelTable</code> and of large lists
+ */
+public class ParallelTestCase extends AbstractTestCase {
+	private final static String[] INPUTS = { "Table[Expand[(x+i)^3],{i,200}]", "Map[Factor,Table[x^i-1,{i,2,12}]]",
+			"Sin[Range[500]*0.001]", "MapThread[f,{Range[300],Range[300]^2}]", "Table[i*j,{i,50},{j,i}]" };
+
+	public ParallelTestCase(String name) {
+		super(name);
+	}
+
+	public void testParallelMap() {
+		check("ParallelMap[f,{a,b,c}]", "{f[a],f[b],f[c]}");
+		check("ParallelMap[#^2&,Range[10]]", "{1,4,9,16,25,36,49,64,81,100}");
+		check("ParallelMap[f,s[x,y]]", "s[f[x],f[y]]");
+		check("ParallelMap[f,a]", "a");
+	}
+
+	public void testParallelTable() {
+		check("ParallelTable[i^2,{i,10}]", "{1,4,9,16,25,36,49,64,81,100}");
+		check("ParallelTable[i*j,{i,3},{j,i}]", "{{1},{2,4},{3,6,9}}");
+		check("ParallelTable[a,{3}]", "{a,a,a}");
+		check("Block[{$y=2},ParallelTable[$y*i,{i,4}]]", "{2,4,6,8}");
+	}
+
+	/**
+	 * The parallel evaluation of the arguments doesn't evaluate the held
+	 * arguments. The bounds of the first Table iterator are evaluated only once,
+	 * also if there are less iterations than the threshold.
+	 */
+	public void testParallelThreshold() {
+		EvalEngine engine = new EvalEngine();
+		int parallelism = ParallelEvaluator.getParallelism();
+		try {
+			ParallelEvaluator.setParallelism(4);
+			engine.setParallelThreshold(3);
+			engine.evaluate("SetAttributes[$phf,HoldFirst]");
+			assertEquals(engine.evaluate("$phf[1+1,1+1,1+1,1+1,1+1]").toString(), "$phf[Plus[1, 1], 2, 2, 2, 2]");
+			assertEquals(engine.evaluate("$ptk=0;Table[i,{i,$ptk=$ptk+2}]").toString(), "{1, 2}");
+			assertEquals(engine.evaluate("$ptk").toString(), "2");
+			assertEquals(engine.evaluate("$ptk=0;Table[i,{i,$ptk=$ptk+4}]").toString(), "{1, 2, 3, 4}");
+			assertEquals(engine.evaluate("$ptk").toString(), "4");
+		} finally {
+			engine.setParallelThreshold(0);
+			ParallelEvaluator.setParallelism(parallelism);
+		}
+	}
+
+	/**
+	 * The parallel evaluation must return the same results in the same order as
+	 * the sequential evaluation.
+	 */
+	public void testDeterminism() {
+		EvalEngine engine = new EvalEngine();
+		String[] expected = new String[INPUTS.length];
+		for (int i = 0; i < INPUTS.length; i++) {
+			expected[i] = engine.evaluate(INPUTS[i]).toString();
+		}
+		int parallelism = ParallelEvaluator.getParallelism();
+		try {
+			ParallelEvaluator.setParallelism(4);
+			engine.setParallelThreshold(10);
+			for (int r = 0; r < 5; r++) {
+				for (int i = 0; i < INPUTS.length; i++) {
+					assertEquals(engine.evaluate(INPUTS[i]).toString(), expected[i]);
+				}
+			}
+		} finally {
+			engine.setParallelThreshold(0);
+			ParallelEvaluator.setParallelism(parallelism);
+		}
+	}
+}
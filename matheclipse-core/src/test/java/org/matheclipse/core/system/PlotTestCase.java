@@ -0,0 +1,144 @@
+package org.matheclipse.core.system;
+
+import java.util.List;
+
+import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.ExprCompiler;
+import org.matheclipse.core.eval.ParallelEvaluator;
+import org.matheclipse.core.eval.interfaces.ICompiledFunction;
+import org.matheclipse.core.eval.util.AdaptiveSampler;
+import org.matheclipse.core.expression.F;
+import org.matheclipse.core.expression.PackedArray;
+import org.matheclipse.core.interfaces.IAST;
+import org.matheclipse.core.interfaces.IExpr;
+import org.matheclipse.core.interfaces.ISymbol;
+
+/**
+ * Tests the adaptive sampling of <code>Plot[]</code>,
+ * <code>ParametricPlot[]</code> and <code>Plot3D[]</code>
+ */
+public class PlotTestCase extends AbstractTestCase {
+	public PlotTestCase(String name) {
+		super(name);
+	}
+
+	public void testPlotPoints() {
+		check("Plot[x,{x,0,3},PlotPoints->4,MaxRecursion->0]", "Show[Graphics[Line[\n" + "{{0.0,0.0},\n" + " {1.0,1.0},\n" + " {2.0,2.0},\n"
+				+ " {3.0,3.0}}],{PlotRange->Automatic,AxesStyle->Automatic,AxesOrigin->{0,0},Axes->True,Background->White}]]");
+		check("Plot[{x,2*x},{x,0,1},PlotPoints->2]", "Show[Graphics[{Line[\n" + "{{0.0,0.0},\n" + " {1.0,1.0}}],Line[\n" + "{{0.0,0.0},\n"
+				+ " {1.0,2.0}}]},{PlotRange->Automatic,AxesStyle->Automatic,AxesOrigin->{0,0},Axes->True,Background->White}]]");
+		check("Plot[x^2,{x,-1,1},{0,0.5},PlotPoints->3,MaxRecursion->0]", "Show[Graphics[Line[\n" + "{{-1.0,0.5},\n" + " {0.0,0.0},\n"
+				+ " {1.0,0.5}}],{PlotRange->Automatic,AxesStyle->Automatic,AxesOrigin->{0,0},Axes->True,Background->White}]]");
+		check("ParametricPlot[{Cos[t],Sin[t]},{t,0,Pi},PlotPoints->3,MaxRecursion->0]", "Show[Graphics[{Line[\n" + "{{1.0,0.0},\n" + " {6.123233995736766E-17,1.0},\n"
+				+ " {-1.0,1.2246467991473532E-16}}]},{PlotRange->Automatic,AxesStyle->Automatic,AxesOrigin->{\n"
+				+ "0,0},Axes->True,Background->White}]]");
+		check("Plot3D[x*y,{x,0,1},{y,0,2},PlotPoints->3]", "Show[SurfaceGraphics[{{0.0,0.0,0.0},{0.0,0.5,1.0},{0.0,1.0,2.0}},{PlotRange->Automatic,MeshRange->{{0.0,1.0},{0.0,2.0}}}]]");
+	}
+
+	public void testRefinement() {
+		EvalEngine engine = EvalEngine.get();
+		ISymbol x = F.$s("x");
+		ISymbol y = F.$s("y");
+		AdaptiveSampler sampler = new AdaptiveSampler(engine, 11, 6);
+
+		// a straight line isn't refined
+		List<double[][]> segments = sampler.sampleCurve(null, compile("2*x+1", x), 0.0, 1.0);
+		assertEquals(segments.size(), 1);
+		assertEquals(segments.get(0).length, 11);
+
+		// the curve is refined at the kink
+		segments = sampler.sampleCurve(null, compile("Abs[x-0.05]", x), -1.0, 1.0);
+		assertEquals(segments.size(), 1);
+		assertTrue(segments.get(0).length > 11);
+		assertEquals(minDistance(segments.get(0), 0.05), 0.0, 0.2 / 64);
+
+		// the start of the defined part is bisected
+		segments = sampler.sampleCurve(null, compile("Sqrt[x]", x), -1.0, 1.0);
+		assertEquals(segments.size(), 1);
+		assertEquals(segments.get(0)[0][0], 0.0, 0.2 / 64);
+
+		// the curve is split at the pole
+		segments = sampler.sampleCurve(null, compile("1/(x-0.33)", x), 0.0, 1.0);
+		assertEquals(segments.size(), 2);
+		assertTrue(segments.get(0)[segments.get(0).length - 1][0] < 0.33);
+		assertTrue(segments.get(1)[0][0] > 0.33);
+
+		// a flat surface isn't refined, a curved surface is refined
+		assertEquals(sampler.sampleSurface(compile("x+y", x, y), 0.0, 1.0, 0.0, 1.0).length, 11);
+		double[][] z = sampler.sampleSurface(compile("Sin[5*x]*y", x, y), 0.0, 2.0, 0.0, 1.0);
+		assertTrue(z.length > 11);
+		assertEquals(z[z.length - 1][z.length - 1], Math.sin(10.0), 1.0e-15);
+	}
+
+	public void testDiscontinuities() {
+		check("Plot[x^8,{x,0,1},PlotPoints->3,MaxRecursion->1]", "Show[Graphics[Line[\n" + "{{0.0,0.0},\n" + " {0.25,1.52587890625E-5},\n"
+				+ " {0.5,0.00390625},\n" + " {0.75,0.1001129150390625},\n"
+				+ " {1.0,1.0}}],{PlotRange->Automatic,AxesStyle->Automatic,AxesOrigin->{0,0},Axes->True,Background->White}]]");
+
+		EvalEngine engine = EvalEngine.get();
+		ISymbol x = F.$s("x");
+		AdaptiveSampler sampler = new AdaptiveSampler(engine, 3, 1);
+
+		// a steep continuous curve isn't split
+		List<double[][]> segments = sampler.sampleCurve(null, compile("Exp[20*x]", x), 0.0, 1.0);
+		assertEquals(segments.size(), 1);
+		assertEquals(segments.get(0).length, 5);
+		assertEquals(segments.get(0)[4][0], 1.0, 0.0);
+		assertEquals(segments.get(0)[4][1], Math.exp(20.0), 1.0e-6);
+
+		// the curve is split at the pole, the points next to the pole are kept
+		segments = new AdaptiveSampler(engine, 10, 1).sampleCurve(null, compile("1/x", x), -1.0, 1.0);
+		assertEquals(segments.size(), 2);
+		double[][] left = segments.get(0);
+		assertEquals(left[left.length - 1][0], -1.0 / 9.0, 1.0e-15);
+		assertEquals(segments.get(1)[0][0], 1.0 / 9.0, 1.0e-15);
+
+		// the curve is split at the step
+		segments = new AdaptiveSampler(engine, 4, 1).sampleCurve(null, compile("Sign[x]", x), -1.0, 1.0);
+		assertEquals(segments.size(), 2);
+
+		// an isolated point is kept
+		segments = new AdaptiveSampler(engine, 3, 0).sampleCurve(null, compile("Sqrt[-x^2]", x), -1.0, 1.0);
+		assertEquals(segments.size(), 1);
+		assertEquals(segments.get(0).length, 1);
+		assertEquals(segments.get(0)[0][0], 0.0, 0.0);
+	}
+
+	/**
+	 * The parallel evaluation of an interpreted function in the worker engines
+	 * returns the same samples as the serial evaluation.
+	 */
+	public void testParallelSampling() {
+		EvalEngine engine = EvalEngine.get();
+		ISymbol x = F.$s("x");
+		engine.evaluate(engine.parse("$plotf[$plotx_]:=Sin[3*$plotx]*$plotx"));
+		ICompiledFunction function = compile("$plotf[x]", x);
+		assertFalse(function.isCompiled());
+		int parallelism = ParallelEvaluator.getParallelism();
+		try {
+			ParallelEvaluator.setParallelism(1);
+			List<double[][]> serial = new AdaptiveSampler(engine, 50, 3).sampleCurve(null, function, 0.0, 5.0);
+			ParallelEvaluator.setParallelism(4);
+			List<double[][]> parallel = new AdaptiveSampler(engine, 50, 3).sampleCurve(null, function, 0.0, 5.0);
+			assertEquals(parallel.size(), serial.size());
+			for (int i = 0; i < serial.size(); i++) {
+				assertEquals(PackedArray.newMatrix(parallel.get(i)), PackedArray.newMatrix(serial.get(i)));
+			}
+		} finally {
+			ParallelEvaluator.setParallelism(parallelism);
+		}
+	}
+
+	private static ICompiledFunction compile(String expression, ISymbol... variables) {
+		IExpr expr = EvalEngine.get().parse(expression);
+		return ExprCompiler.compile(expr, variables);
+	}
+
+	private static double minDistance(double[][] points, double x) {
+		double min = Double.MAX_VALUE;
+		for (int i = 0; i < points.length; i++) {
+			min = Math.min(min, Math.abs(points[i][0] - x));
+		}
+		return min;
+	}
+}
@@ -1,14 +1,22 @@
 package org.matheclipse.core.system;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.matheclipse.core.eval.EvalEngine;
+import org.matheclipse.core.eval.SymbolImage;
 import org.matheclipse.core.expression.F;
+import org.matheclipse.core.interfaces.IAST;
 import org.matheclipse.core.interfaces.ISymbol;
 
 public class SerializableTest extends SpecialTestCase {
@@ -66,4 +74,37 @@ public class SerializableTest extends SpecialTestCase {
 		check(engine, false, "Sin[Pi/5]", "1/4*2^(1/2)*(-5^(1/2)+5)^(1/2)");
 		check(engine, false, "Sin[Pi/2]", "1");
 	}
+
+	public void testRoundTripSymbolImage() throws Exception {
+		EvalEngine engine = EvalEngine.get();
+		ISymbol sym = F.Sin;
+		List<String> definition = sortedRules(sym);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SymbolImage.write(out, Arrays.asList(new ISymbol[] { sym }));
+
+		sym.clearAll(engine);
+		assertTrue(SymbolImage.load(new ByteArrayInputStream(out.toByteArray())));
+		assertTrue(SymbolImage.isLoaded(sym));
+		// the rules are decoded at the first access
+		assertEquals(sortedRules(sym), definition);
+
+		check(engine, false, "Sin[3/10*Pi]", "1/4*5^(1/2)+1/4");
+		check(engine, false, "Sin[ArcSin[y]]", "y");
+		check(engine, false, "Sin[Pi/2]", "1");
+	}
+
+	/**
+	 * The rules of the symbol sorted by their string form. The order of the
+	 * equal rules depends on the iteration order of a hash map.
+	 */
+	private static List<String> sortedRules(ISymbol symbol) {
+		// load the rules of the symbol
+		symbol.getEvaluator();
+		List<String> rules = new ArrayList<String>();
+		for (IAST rule : symbol.definition()) {
+			rules.add(rule.toString());
+		}
+		Collections.sort(rules);
+		return rules;
+	}
 }
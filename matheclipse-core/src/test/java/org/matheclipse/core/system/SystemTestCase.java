@@ -2459,6 +2459,177 @@ public class SystemTestCase extends AbstractTestCase {
 		check("Default[Times]", "1");
 	}
 
+	public void testSystem423() {
+		// the pruned and the enumerating Flat/Orderless matcher give the same
+		// results
+		boolean pruned = Config.PRUNED_FLAT_ORDERLESS_MATCHING;
+		try {
+			Config.PRUNED_FLAT_ORDERLESS_MATCHING = true;
+			checkFlatOrderless();
+			Config.PRUNED_FLAT_ORDERLESS_MATCHING = false;
+			checkFlatOrderless();
+		} finally {
+			Config.PRUNED_FLAT_ORDERLESS_MATCHING = pruned;
+		}
+		Config.PRUNED_FLAT_ORDERLESS_MATCHING = true;
+		check("f[a+b+g[c]+g[d]] /. f[x_+g[y_]] -> {x,y}", "{g[d]+b+a,c}");
+	}
+
+	private void checkFlatOrderless() {
+		check("f[a+b+c] /. f[x_+y_] -> {x,y}", "{a,c+b}");
+		check("f[a*b+c+d] /. f[a*x_+y_] -> {x,y}", "{b,d+c}");
+		check("f[a*b^2*c^3*d] /. f[x_^2*y_^3*z_] -> {x,y,z}", "{b,c,a*d}");
+		check("f[a+b+c+d] /. f[x_+y_ /; FreeQ[x,a]] -> {x,y}", "{b,d+c+a}");
+		check("f[2*a*b*c] /. f[n_Integer*x_*y_] -> {n,x,y}", "{2,a,b*c}");
+		check("f[a+b+c+d] /. f[x_+y_+z_] -> {x,y,z}", "{a,b,d+c}");
+		check("f[a+b+c] /. f[x_+y_+z_+w_] -> {x,y,z,w}", "f[c+b+a]");
+		check("MatchQ[a+b+c, a+x_]", "True");
+		check("MatchQ[b+c+d, a+x_]", "False");
+		check("MatchQ[a+b+c, x_Integer+y_]", "False");
+		check("MatchQ[g[a]+g[b]+h[a], g[x_]+h[x_]+y_]", "True");
+		check("MatchQ[g[a]+g[b]+h[c], g[x_]+h[x_]+y_]", "False");
+	}
+
+	public void testSystem424() {
+		// the compiled and the interpreted matchers give the same results
+		boolean compile = Config.COMPILE_PATTERN_MATCHERS;
+		try {
+			Config.COMPILE_PATTERN_MATCHERS = true;
+			check("$cm[x_Integer,y_]:={x,y} /; FreeQ[y,a]", "");
+			check("$cm[x_,x_]:=same", "");
+			check("$cm[g[x_],y_]:=x+y /; IntegerQ[x] && !AtomQ[y]", "");
+			check("$cm[{x_,y_}]:=x*y /; EvenQ[x] || y===b", "");
+			checkCompiledMatcher();
+			Config.COMPILE_PATTERN_MATCHERS = false;
+			checkCompiledMatcher();
+		} finally {
+			Config.COMPILE_PATTERN_MATCHERS = compile;
+		}
+	}
+
+	private void checkCompiledMatcher() {
+		check("$cm[2,b]", "{2,b}");
+		check("$cm[2,a+b]", "$cm[2,b+a]");
+		check("$cm[c,c]", "same");
+		check("$cm[c,d]", "$cm[c,d]");
+		check("$cm[g[3],f[z]]", "f[z]+3");
+		check("$cm[g[3],z]", "$cm[g[3],z]");
+		check("$cm[g[c],f[z]]", "$cm[g[c],f[z]]");
+		check("$cm[{4,c}]", "4*c");
+		check("$cm[{3,b}]", "3*b");
+		check("$cm[{3,c}]", "$cm[{3,c}]");
+	}
+
+	public void testSystem425() {
+		// Dispatch tables resolve the rules like the rule lists: literal rules
+		// have priority and the last duplicate literal rule wins
+		check("Dispatch[{a->1,b->2}]", "Dispatch[{a->1,b->2}]");
+		check("{a,b,c,f[a]} /. Dispatch[{a->1,b->2}]", "{1,2,c,f[1]}");
+		check("a /. Dispatch[a->2]", "2");
+		check("{a,a} /. Dispatch[{a->1,a->2}]", "{2,2}");
+		check("{a,a} /. {a->1,a->2}", "{2,2}");
+		check("{f[a],a} /. Dispatch[{f[x_]->x,f[a]->lit}]", "{lit,a}");
+		check("{f[a],a} /. {f[x_]->x,f[a]->lit}", "{lit,a}");
+		check("ReplacePart[{a,b,c},Dispatch[{2->x,2->y}]]", "{a,y,c}");
+		check("f[a,b] /. Dispatch[{a->1,f[x_,y_]->{x,y}}]", "{a,b}");
+		// a pattern sequence is a pattern in a Dispatch table only
+		check("h[1,2,3] /. Dispatch[{h[x__]->{x}}]", "{1,2,3}");
+		check("h[1,2,3] /. {h[x__]->{x}}", "{h[1,2,3]}");
+		check("{1,2,c} /. Dispatch[{x_Integer:>x^2 /; x>1}]", "{1,4,c}");
+		check("{g[a],g[a,b],h[c]} /. Dispatch[{g[x_]->x,g[x_,y_]->y,h[x_]->0}]", "{a,b,0}");
+		check("x^2 //. Dispatch[{x->y,y->z}]", "z^2");
+		check("ReplacePart[{a,b,c},Dispatch[{2->x,{3}->y}]]", "{a,x,y}");
+		check("$disp=Dispatch[{a->1,g[x_]:>x+1}]", "Dispatch[{a->1,g[x_]:>1+x}]");
+		check("{a,g[b]} /. $disp", "{1,b+1}");
+		check("$rulelist={a->1,b->2}", "{a->1,b->2}");
+		check("{a,b} /. $rulelist", "{1,2}");
+	}
+
+	public void testSystem426() {
+		// the incremental and the full replacement give the same results
+		boolean incremental = Config.INCREMENTAL_REPLACE;
+		try {
+			Config.INCREMENTAL_REPLACE = true;
+			checkReplace();
+			Config.INCREMENTAL_REPLACE = false;
+			checkReplace();
+		} finally {
+			Config.INCREMENTAL_REPLACE = incremental;
+		}
+	}
+
+	private void checkReplace() {
+		check("f[a,g[b]] //. {b->c, f[x_,g[c]]->done}", "done");
+		check("{a,{b,{c,{d}}}} //. {d->c, c->b, b->a}", "{a,{a,{a,{a}}}}");
+		check("f[f[f[a]]] //. f[f[x_]]->f[x]", "f[a]");
+		check("{g[s0],h[t],k[g[s0]]} //. {s0->s1, s1->s2, g[s2]->done}", "{done,h[t],k[done]}");
+		check("f[g[h[a]],k[b]] /. h[x_]->x", "f[g[a],k[b]]");
+		check("f[a] /. Condition[f[x_],x===a]->1", "1");
+		check("{1,2,3} /. 2->c", "{1,c,3}");
+		check("{f[a],g[b],f[c]} /. f[x_]->x", "{a,g[b],c}");
+	}
+
+	public void testSystem427() {
+		// the pruned and the full search give the same results
+		boolean pruning = Config.SYMBOL_MASK_PRUNING;
+		try {
+			Config.SYMBOL_MASK_PRUNING = true;
+			checkSymbolMaskPruning();
+			Config.SYMBOL_MASK_PRUNING = false;
+			checkSymbolMaskPruning();
+		} finally {
+			Config.SYMBOL_MASK_PRUNING = pruning;
+		}
+		check("LeafCount[f[1/2,x]]", "5");
+		check("Depth[f[a][{{b}}]]", "4");
+	}
+
+	private void checkSymbolMaskPruning() {
+		check("FreeQ[f[a,g[b]],b]", "False");
+		check("FreeQ[f[a,g[b]],c]", "True");
+		check("FreeQ[f[a,g[b]],g[_]]", "False");
+		check("FreeQ[f[a,g[b]],h[_]]", "True");
+		check("FreeQ[{x^2,y},x^_]", "False");
+		check("FreeQ[{x^2,y},z^_]", "True");
+		check("MemberQ[{a,f[b],c},f[_]]", "True");
+		check("MemberQ[{a,f[b],c},g[_]]", "False");
+		check("MemberQ[{a,f[g[b]]},b]", "False");
+		check("Cases[{a,f[b],g[c],f[d]},f[_]]", "{f[b],f[d]}");
+		check("Cases[{a,f[b],g[c]},h[_]]", "{}");
+		check("Cases[{f[a],{g[f[b]]}},h[x_]->x,Infinity]", "{}");
+		check("Count[{f[a],{g[f[b]]}},f[_],Infinity]", "2");
+		check("Count[{f[a],{g[f[b]]}},h[_],Infinity]", "0");
+		check("Count[{f[a],{g[h[b]]}},f[_],{-2}]", "1");
+		check("Count[{{g[h[b]]},f[{a}]},f[_],{-3}]", "1");
+		check("Position[{f[a],{g[f[b]]}},f[_]]", "{{1},{2,1,1}}");
+		check("Position[{f[a],g[b]},h[_]]", "{}");
+		// negative levels after a skipped sibling
+		check("Position[{h[h[h[q]]],x},x,{-1}]", "{}");
+		check("Position[{h[h[h[q]]],f[x]},x,{-1}]", "{}");
+		check("Position[{h[q],g[h[h[q]],x],x},x,{-3}]", "{{3}}");
+		check("Position[{h[q],g[h[h[q]],x],x},x,-2]", "{{2,2},{3}}");
+		check("Position[{f[x],h[h[q]],f[f[x]]},x,{-2}]", "{{3,1,1}}");
+	}
+
+	public void testSystem428() {
+		// DirectedInfinity[] forms aren't collected like other terms
+		check("ComplexInfinity+ComplexInfinity+x", "ComplexInfinity+ComplexInfinity+x");
+		check("2*ComplexInfinity+ComplexInfinity+x", "2*ComplexInfinity+ComplexInfinity+x");
+		check("ComplexInfinity*ComplexInfinity*x", "x*ComplexInfinity*ComplexInfinity");
+		check("ComplexInfinity^2*ComplexInfinity*x", "x*ComplexInfinity*ComplexInfinity^2");
+		check("Infinity+Infinity+x", "Infinity+x");
+		check("a+a+2*b+b", "3*b+2*a");
+		check("x*x^2*y", "x^3*y");
+	}
+
+	public void testSystem429() {
+		// packed arrays of machine numbers are solved like boxed lists
+		check("LinearSolve[N[{{1,2},{3,4}}],N[{5,6}]]", "{-4.0,4.5}");
+		check("LinearSolve[{{1.0,2.0},{3.0,4.0}},{5.0,6.0}]", "{-4.0,4.5}");
+		check("LinearSolve[{{1,2},{3,4}},{5,6}]", "{-4,9/2}");
+		check("LinearSolve[N[{{1,2},{2,4}}],N[{5,10}]]", "{NaN,NaN}");
+	}
+
 	// public void testSystem404() {
 	// check("Plot3D[Sin[x]*Cos[y],{x,-10,10},{y,-10,10},{PlotRange->Automatic}]",
 	// "");
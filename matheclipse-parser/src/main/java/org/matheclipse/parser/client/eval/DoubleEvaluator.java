@@ -430,6 +430,244 @@ public class DoubleEvaluator {
     return evaluateNode(fNode);
   }
 
+  /**
+   * Parse the given <code>expression String</code> and prepare it for the
+   * repeated evaluation with the given input variables.
+   * 
+   * @param expression
+   * @param variables
+   *          the names of the input variables in the order of the value arrays
+   *          of the returned formula
+   * @return
+   * @throws SyntaxError
+   * @throws ArithmeticException
+   *           if the <code>expression</code> cannot be prepared
+   * @see DoubleFormula
+   */
+  public DoubleFormula prepare(String expression, String[] variables) {
+    return prepare(parse(expression), variables);
+  }
+
+  /**
+   * Prepare an already parsed in abstract syntax tree node for the repeated
+   * evaluation with the given input variables. All symbols and functions are
+   * resolved once: the input variables to slots of the evaluated values, the
+   * other symbols to the variables defined in this evaluator or to the
+   * constants. A variable assigned with <code>Set</code> in the formula is
+   * stored in a slot of the evaluated row and doesn't change the variables of
+   * this evaluator.
+   * 
+   * @param node
+   *          abstract syntax tree node
+   * @param variables
+   *          the names of the input variables in the order of the value arrays
+   *          of the returned formula
+   * @return
+   * @throws ArithmeticException
+   *           if the <code>node</code> cannot be prepared
+   * @see DoubleFormula
+   */
+  public DoubleFormula prepare(final ASTNode node, String[] variables) {
+    Map<String, Integer> slots = new HashMap<String, Integer>();
+    for (int i = 0; i < variables.length; i++) {
+      if (slots.put(variables[i], Integer.valueOf(i)) != null) {
+        throw new IllegalArgumentException(
+            "DoubleEvaluator#prepare() duplicate variable: " + variables[i]);
+      }
+    }
+    DoubleFormula.Node root = prepareNode(node, slots);
+    return new DoubleFormula(variables.clone(), slots.size(), root);
+  }
+
+  private DoubleFormula.Node prepareNode(final ASTNode node,
+      Map<String, Integer> slots) {
+    if (node instanceof DoubleNode) {
+      return new DoubleFormula.ConstantNode(((DoubleNode) node).doubleValue());
+    }
+    if (node instanceof FunctionNode) {
+      return prepareFunction((FunctionNode) node, slots);
+    }
+    if (node instanceof SymbolNode) {
+      Integer slot = slots.get(node.toString());
+      if (slot != null) {
+        return new DoubleFormula.SlotNode(slot.intValue());
+      }
+      IDoubleValue v = fVariableMap.get(node.toString());
+      if (v != null) {
+        return new DoubleFormula.ValueNode(v);
+      }
+      Double dbl = SYMBOL_DOUBLE_MAP.get(node.toString());
+      if (dbl != null) {
+        return new DoubleFormula.ConstantNode(dbl.doubleValue());
+      }
+    } else if (node instanceof NumberNode) {
+      return new DoubleFormula.ConstantNode(((NumberNode) node).doubleValue());
+    }
+
+    throw new ArithmeticException(
+        "EvalDouble#prepare(ASTNode) not possible for: " + node.toString());
+  }
+
+  private DoubleFormula.Node[] prepareArguments(
+      final FunctionNode functionNode, Map<String, Integer> slots) {
+    DoubleFormula.Node[] args = new DoubleFormula.Node[functionNode.size() - 1];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = prepareNode(functionNode.getNode(i + 1), slots);
+    }
+    return args;
+  }
+
+  private DoubleFormula.Node prepareFunction(final FunctionNode functionNode,
+      Map<String, Integer> slots) {
+    if (functionNode.size() > 0
+        && functionNode.getNode(0) instanceof SymbolNode) {
+      String symbol = functionNode.getNode(0).toString();
+      if (symbol.equals("If")) {
+        if (functionNode.size() == 3 || functionNode.size() == 4) {
+          DoubleFormula.LogicalNode condition = prepareNodeLogical(
+              functionNode.getNode(1), slots);
+          DoubleFormula.Node trueNode = prepareNode(functionNode.getNode(2),
+              slots);
+          DoubleFormula.Node falseNode = null;
+          if (functionNode.size() == 4) {
+            falseNode = prepareNode(functionNode.getNode(3), slots);
+          }
+          return new DoubleFormula.IfNode(condition, trueNode, falseNode,
+              functionNode);
+        }
+      } else {
+        Object obj = FUNCTION_DOUBLE_MAP.get(symbol);
+        if (obj instanceof SetFunction) {
+          if (functionNode.size() != 3) {
+            throw new ArithmeticException(
+                "SetFunction#evaluate(DoubleEvaluator,FunctionNode) needs 2 arguments: "
+                    + functionNode.toString());
+          }
+          if (!(functionNode.getNode(1) instanceof SymbolNode)) {
+            throw new ArithmeticException(
+                "SetFunction#evaluate(DoubleEvaluator,FunctionNode) symbol required on the left hand side: "
+                    + functionNode.toString());
+          }
+          // the right hand side doesn't see the new slot
+          DoubleFormula.Node value = prepareNode(functionNode.getNode(2), slots);
+          String variableName = ((SymbolNode) functionNode.getNode(1))
+              .getString();
+          Integer slot = slots.get(variableName);
+          if (slot == null) {
+            slot = Integer.valueOf(slots.size());
+            slots.put(variableName, slot);
+          }
+          return new DoubleFormula.SetNode(slot.intValue(), value);
+        }
+        if (obj instanceof IDoubleFunction) {
+          DoubleFormula.Node[] args = prepareArguments(functionNode, slots);
+          if (obj instanceof PlusFunction) {
+            return constantNode(new DoubleFormula.PlusNode(args), args);
+          }
+          if (obj instanceof TimesFunction) {
+            return constantNode(new DoubleFormula.TimesNode(args), args);
+          }
+          if (obj instanceof MaxFunction) {
+            return constantNode(new DoubleFormula.MaxNode(args), args);
+          }
+          if (obj instanceof MinFunction) {
+            return constantNode(new DoubleFormula.MinNode(args), args);
+          }
+          if (obj instanceof CompoundExpressionFunction) {
+            return new DoubleFormula.CompoundExpressionNode(args);
+          }
+        }
+        if (functionNode.size() == 1) {
+          if (obj instanceof IDouble0Function) {
+            return new DoubleFormula.Function0Node((IDouble0Function) obj);
+          }
+        } else if (functionNode.size() == 2) {
+          if (obj instanceof IDouble1Function) {
+            DoubleFormula.Node[] args = prepareArguments(functionNode, slots);
+            return constantNode(new DoubleFormula.Function1Node(
+                (IDouble1Function) obj, args[0]), args);
+          }
+        } else if (functionNode.size() == 3) {
+          if (obj instanceof IDouble2Function) {
+            DoubleFormula.Node[] args = prepareArguments(functionNode, slots);
+            return constantNode(new DoubleFormula.Function2Node(
+                (IDouble2Function) obj, args[0], args[1]), args);
+          }
+        }
+        if (fCallbackFunction != null) {
+          DoubleFormula.Node[] args = prepareArguments(functionNode, slots);
+          return new DoubleFormula.CallbackNode(fCallbackFunction, this,
+              functionNode, args);
+        }
+      }
+    }
+    throw new ArithmeticException(
+        "EvalDouble#evaluateFunction(FunctionNode) not possible for: "
+            + functionNode.toString());
+  }
+
+  /**
+   * Evaluate the <code>node</code> of a function without side effects once, if
+   * all arguments are constant.
+   */
+  private static DoubleFormula.Node constantNode(DoubleFormula.Node node,
+      DoubleFormula.Node[] args) {
+    for (int i = 0; i < args.length; i++) {
+      if (!(args[i] instanceof DoubleFormula.ConstantNode)) {
+        return node;
+      }
+    }
+    return new DoubleFormula.ConstantNode(node.evaluate(null));
+  }
+
+  private DoubleFormula.LogicalNode prepareNodeLogical(final ASTNode node,
+      Map<String, Integer> slots) {
+    if (node instanceof FunctionNode) {
+      FunctionNode functionNode = (FunctionNode) node;
+      if (functionNode.size() > 0
+          && functionNode.getNode(0) instanceof SymbolNode) {
+        Object obj = FUNCTION_BOOLEAN_MAP.get(functionNode.getNode(0)
+            .toString());
+        if (functionNode.size() == 2) {
+          if (obj instanceof IBooleanBoolean1Function) {
+            return new DoubleFormula.BooleanBoolean1Node(
+                (IBooleanBoolean1Function) obj, prepareNodeLogical(
+                    functionNode.getNode(1), slots));
+          }
+        } else if (functionNode.size() == 3) {
+          if (obj instanceof IBooleanDouble2Function) {
+            return new DoubleFormula.BooleanDouble2Node(
+                (IBooleanDouble2Function) obj, prepareNode(
+                    functionNode.getNode(1), slots), prepareNode(
+                    functionNode.getNode(2), slots));
+          } else if (obj instanceof IBooleanBoolean2Function) {
+            return new DoubleFormula.BooleanBoolean2Node(
+                (IBooleanBoolean2Function) obj, prepareNodeLogical(
+                    functionNode.getNode(1), slots), prepareNodeLogical(
+                    functionNode.getNode(2), slots));
+          }
+        }
+      }
+      throw new ArithmeticException(
+          "EvalDouble#evaluateFunctionLogical(FunctionNode) not possible for: "
+              + functionNode.toString());
+    }
+    if (node instanceof SymbolNode) {
+      BooleanVariable v = fBooleanVariables.get(node.toString());
+      if (v != null) {
+        return new DoubleFormula.BooleanVariableNode(v);
+      }
+      Boolean boole = SYMBOL_BOOLEAN_MAP.get(node.toString());
+      if (boole != null) {
+        return new DoubleFormula.BooleanConstantNode(boole.booleanValue());
+      }
+    }
+
+    throw new ArithmeticException(
+        "EvalDouble#evaluateNodeLogical(ASTNode) not possible for: "
+            + node.toString());
+  }
+
   /**
    * Evaluate an already parsed in abstract syntax tree node into a
    * <code>double</code> number value.
@@ -0,0 +1,559 @@
+/*
+ * Copyright 2005-2008 Axel Kramer (axelclk@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.matheclipse.parser.client.eval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.matheclipse.parser.client.ast.FunctionNode;
+
+/**
+ * A math expression, which was prepared by
+ * {@link DoubleEvaluator#prepare(String, String[])} for the repeated
+ * evaluation to <code>double</code> numbers.
+ *
+ * All symbol names and function names are resolved once in the preparation.
+ * The input variables are stored in an array of <code>double</code> slots and
+ * the functions are called directly, so that the evaluation of one row
+ * doesn't need any map lookup. The batch methods evaluate the formula over
+ * columnar inputs (one array per variable) and could split the rows across
+ * several threads.
+ *
+ * A <code>DoubleFormula</code> doesn't change after the preparation and could
+ * be evaluated by different threads at the same time, if the used
+ * {@link IDoubleValue} variables, {@link BooleanVariable} variables and the
+ * {@link IDoubleCallbackFunction} aren't modified during the evaluation.
+ */
+public class DoubleFormula {
+  /**
+   * The minimal number of rows, which are evaluated in one thread of a
+   * parallel batch evaluation.
+   */
+  public static int MIN_ROWS_PER_THREAD = 10000;
+
+  private static ExecutorService fPool = null;
+
+  abstract static class Node {
+    abstract double evaluate(double[] slots);
+  }
+
+  abstract static class LogicalNode {
+    abstract boolean evaluate(double[] slots);
+  }
+
+  static final class ConstantNode extends Node {
+    final double value;
+
+    ConstantNode(double value) {
+      this.value = value;
+    }
+
+    double evaluate(double[] slots) {
+      return value;
+    }
+  }
+
+  static final class SlotNode extends Node {
+    final int slot;
+
+    SlotNode(int slot) {
+      this.slot = slot;
+    }
+
+    double evaluate(double[] slots) {
+      return slots[slot];
+    }
+  }
+
+  static final class ValueNode extends Node {
+    final IDoubleValue value;
+
+    ValueNode(IDoubleValue value) {
+      this.value = value;
+    }
+
+    double evaluate(double[] slots) {
+      return value.getValue();
+    }
+  }
+
+  static final class Function0Node extends Node {
+    final IDouble0Function function;
+
+    Function0Node(IDouble0Function function) {
+      this.function = function;
+    }
+
+    double evaluate(double[] slots) {
+      return function.evaluate();
+    }
+  }
+
+  static final class Function1Node extends Node {
+    final IDouble1Function function;
+
+    final Node arg1;
+
+    Function1Node(IDouble1Function function, Node arg1) {
+      this.function = function;
+      this.arg1 = arg1;
+    }
+
+    double evaluate(double[] slots) {
+      return function.evaluate(arg1.evaluate(slots));
+    }
+  }
+
+  static final class Function2Node extends Node {
+    final IDouble2Function function;
+
+    final Node arg1;
+
+    final Node arg2;
+
+    Function2Node(IDouble2Function function, Node arg1, Node arg2) {
+      this.function = function;
+      this.arg1 = arg1;
+      this.arg2 = arg2;
+    }
+
+    double evaluate(double[] slots) {
+      return function.evaluate(arg1.evaluate(slots), arg2.evaluate(slots));
+    }
+  }
+
+  static final class PlusNode extends Node {
+    final Node[] args;
+
+    PlusNode(Node[] args) {
+      this.args = args;
+    }
+
+    double evaluate(double[] slots) {
+      double result = 0.0;
+      for (int i = 0; i < args.length; i++) {
+        result += args[i].evaluate(slots);
+      }
+      return result;
+    }
+  }
+
+  static final class TimesNode extends Node {
+    final Node[] args;
+
+    TimesNode(Node[] args) {
+      this.args = args;
+    }
+
+    double evaluate(double[] slots) {
+      double result = 1.0;
+      for (int i = 0; i < args.length; i++) {
+        result *= args[i].evaluate(slots);
+      }
+      return result;
+    }
+  }
+
+  static final class MaxNode extends Node {
+    final Node[] args;
+
+    MaxNode(Node[] args) {
+      this.args = args;
+    }
+
+    double evaluate(double[] slots) {
+      // same as DoubleEvaluator.MaxFunction
+      double result = Double.MIN_VALUE;
+      double temp;
+      for (int i = 0; i < args.length; i++) {
+        temp = Math.max(result, args[i].evaluate(slots));
+        if (temp > result) {
+          result = temp;
+        }
+      }
+      return result;
+    }
+  }
+
+  static final class MinNode extends Node {
+    final Node[] args;
+
+    MinNode(Node[] args) {
+      this.args = args;
+    }
+
+    double evaluate(double[] slots) {
+      double result = Double.MAX_VALUE;
+      double temp;
+      for (int i = 0; i < args.length; i++) {
+        temp = Math.min(result, args[i].evaluate(slots));
+        if (temp < result) {
+          result = temp;
+        }
+      }
+      return result;
+    }
+  }
+
+  static final class CompoundExpressionNode extends Node {
+    final Node[] args;
+
+    CompoundExpressionNode(Node[] args) {
+      this.args = args;
+    }
+
+    double evaluate(double[] slots) {
+      double result = Double.NaN;
+      for (int i = 0; i < args.length; i++) {
+        result = args[i].evaluate(slots);
+      }
+      return result;
+    }
+  }
+
+  static final class SetNode extends Node {
+    final int slot;
+
+    final Node value;
+
+    SetNode(int slot, Node value) {
+      this.slot = slot;
+      this.value = value;
+    }
+
+    double evaluate(double[] slots) {
+      return slots[slot] = value.evaluate(slots);
+    }
+  }
+
+  static final class IfNode extends Node {
+    final LogicalNode condition;
+
+    final Node trueNode;
+
+    /**
+     * <code>null</code> for <code>If[condition, true]</code>
+     */
+    final Node falseNode;
+
+    final FunctionNode function;
+
+    IfNode(LogicalNode condition, Node trueNode, Node falseNode, FunctionNode function) {
+      this.condition = condition;
+      this.trueNode = trueNode;
+      this.falseNode = falseNode;
+      this.function = function;
+    }
+
+    double evaluate(double[] slots) {
+      if (condition.evaluate(slots)) {
+        return trueNode.evaluate(slots);
+      }
+      if (falseNode != null) {
+        return falseNode.evaluate(slots);
+      }
+      throw new ArithmeticException(
+          "EvalDouble#evaluateFunction(FunctionNode) not possible for: "
+              + function.toString());
+    }
+  }
+
+  static final class CallbackNode extends Node {
+    final IDoubleCallbackFunction callbackFunction;
+
+    final DoubleEvaluator engine;
+
+    final FunctionNode function;
+
+    final Node[] args;
+
+    CallbackNode(IDoubleCallbackFunction callbackFunction,
+        DoubleEvaluator engine, FunctionNode function, Node[] args) {
+      this.callbackFunction = callbackFunction;
+      this.engine = engine;
+      this.function = function;
+      this.args = args;
+    }
+
+    double evaluate(double[] slots) {
+      double doubleArgs[] = new double[args.length];
+      for (int i = 0; i < doubleArgs.length; i++) {
+        doubleArgs[i] = args[i].evaluate(slots);
+      }
+      return callbackFunction.evaluate(engine, function, doubleArgs);
+    }
+  }
+
+  static final class BooleanConstantNode extends LogicalNode {
+    final boolean value;
+
+    BooleanConstantNode(boolean value) {
+      this.value = value;
+    }
+
+    boolean evaluate(double[] slots) {
+      return value;
+    }
+  }
+
+  static final class BooleanVariableNode extends LogicalNode {
+    final BooleanVariable variable;
+
+    BooleanVariableNode(BooleanVariable variable) {
+      this.variable = variable;
+    }
+
+    boolean evaluate(double[] slots) {
+      return variable.getValue();
+    }
+  }
+
+  static final class BooleanBoolean1Node extends LogicalNode {
+    final IBooleanBoolean1Function function;
+
+    final LogicalNode arg1;
+
+    BooleanBoolean1Node(IBooleanBoolean1Function function, LogicalNode arg1) {
+      this.function = function;
+      this.arg1 = arg1;
+    }
+
+    boolean evaluate(double[] slots) {
+      return function.evaluate(arg1.evaluate(slots));
+    }
+  }
+
+  static final class BooleanBoolean2Node extends LogicalNode {
+    final IBooleanBoolean2Function function;
+
+    final LogicalNode arg1;
+
+    final LogicalNode arg2;
+
+    BooleanBoolean2Node(IBooleanBoolean2Function function, LogicalNode arg1,
+        LogicalNode arg2) {
+      this.function = function;
+      this.arg1 = arg1;
+      this.arg2 = arg2;
+    }
+
+    boolean evaluate(double[] slots) {
+      return function.evaluate(arg1.evaluate(slots), arg2.evaluate(slots));
+    }
+  }
+
+  static final class BooleanDouble2Node extends LogicalNode {
+    final IBooleanDouble2Function function;
+
+    final Node arg1;
+
+    final Node arg2;
+
+    BooleanDouble2Node(IBooleanDouble2Function function, Node arg1, Node arg2) {
+      this.function = function;
+      this.arg1 = arg1;
+      this.arg2 = arg2;
+    }
+
+    boolean evaluate(double[] slots) {
+      return function.evaluate(arg1.evaluate(slots), arg2.evaluate(slots));
+    }
+  }
+
+  private final String[] fVariables;
+
+  /**
+   * The number of slots; the slots after the input variables store the values
+   * of the variables assigned with <code>Set</code> in the formula.
+   */
+  private final int fSlotCount;
+
+  private final Node fRoot;
+
+  DoubleFormula(String[] variables, int slotCount, Node root) {
+    fVariables = variables;
+    fSlotCount = slotCount;
+    fRoot = root;
+  }
+
+  private static synchronized ExecutorService getPool() {
+    if (fPool == null) {
+      fPool = Executors.newCachedThreadPool(new ThreadFactory() {
+        private int fCounter = 1;
+
+        public Thread newThread(final Runnable runnable) {
+          final Thread thread = new Thread(runnable, "DoubleFormula-"
+              + (fCounter++));
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return fPool;
+  }
+
+  /**
+   * The names of the input variables in the order of the value arrays.
+   *
+   * @return
+   */
+  public String[] getVariables() {
+    return fVariables.clone();
+  }
+
+  /**
+   * Evaluate the formula for one set of variable values.
+   *
+   * @param values
+   *          the values of the input variables in the order of
+   *          {@link #getVariables()}
+   * @return
+   * @throws ArithmeticException
+   *           if the formula cannot be evaluated.
+   */
+  public double evaluate(double[] values) {
+    if (values.length != fVariables.length) {
+      throw new IllegalArgumentException("DoubleFormula#evaluate() needs "
+          + fVariables.length + " values: " + values.length);
+    }
+    final double[] slots = new double[fSlotCount];
+    System.arraycopy(values, 0, slots, 0, values.length);
+    Arrays.fill(slots, values.length, fSlotCount, Double.NaN);
+    return fRoot.evaluate(slots);
+  }
+
+  /**
+   * Evaluate the formula for every row of the columnar input. The number of
+   * rows is the length of the <code>result</code> array.
+   *
+   * @param columns
+   *          one array of values for each input variable in the order of
+   *          {@link #getVariables()}
+   * @param result
+   *          the array which contains the result of each row
+   * @throws ArithmeticException
+   *           if the formula cannot be evaluated for a row.
+   */
+  public void evaluate(double[][] columns, double[] result) {
+    checkColumns(columns, result.length);
+    evaluate(columns, result, 0, result.length);
+  }
+
+  /**
+   * Evaluate the formula for every row of the columnar input and split the
+   * rows across <code>threads</code> threads. The number of rows is the length
+   * of the <code>result</code> array.
+   *
+   * @param columns
+   *          one array of values for each input variable in the order of
+   *          {@link #getVariables()}
+   * @param result
+   *          the array which contains the result of each row
+   * @param threads
+   *          the maximum number of threads, for example
+   *          <code>Runtime.getRuntime().availableProcessors()</code>
+   * @throws ArithmeticException
+   *           if the formula cannot be evaluated for a row.
+   */
+  public void evaluate(final double[][] columns, final double[] result,
+      int threads) {
+    checkColumns(columns, result.length);
+    final int rows = result.length;
+    int chunks = Math.min(threads, rows / Math.max(1, MIN_ROWS_PER_THREAD));
+    if (chunks <= 1) {
+      evaluate(columns, result, 0, rows);
+      return;
+    }
+    final int chunkSize = (rows + chunks - 1) / chunks;
+    List<Future<?>> futures = new ArrayList<Future<?>>(chunks);
+    ExecutorService pool = getPool();
+    // the first chunk is evaluated in the calling thread
+    for (int start = chunkSize; start < rows; start += chunkSize) {
+      final int from = start;
+      final int to = Math.min(start + chunkSize, rows);
+      futures.add(pool.submit(new Runnable() {
+        public void run() {
+          evaluate(columns, result, from, to);
+        }
+      }));
+    }
+    RuntimeException exception = null;
+    try {
+      evaluate(columns, result, 0, chunkSize);
+    } catch (RuntimeException e) {
+      exception = e;
+    }
+    boolean interrupted = false;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).get();
+      } catch (InterruptedException e) {
+        interrupted = true;
+        i--;
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          if (e.getCause() instanceof RuntimeException) {
+            exception = (RuntimeException) e.getCause();
+          } else if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
+          } else {
+            exception = new IllegalStateException(e.getCause());
+          }
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private void evaluate(double[][] columns, double[] result, int start, int end) {
+    final int variableCount = columns.length;
+    final double[] slots = new double[fSlotCount];
+    for (int row = start; row < end; row++) {
+      for (int i = 0; i < variableCount; i++) {
+        slots[i] = columns[i][row];
+      }
+      if (variableCount < fSlotCount) {
+        // don't use the assigned variables of the previous row
+        Arrays.fill(slots, variableCount, fSlotCount, Double.NaN);
+      }
+      result[row] = fRoot.evaluate(slots);
+    }
+  }
+
+  private void checkColumns(double[][] columns, int rows) {
+    if (columns.length != fVariables.length) {
+      throw new IllegalArgumentException("DoubleFormula#evaluate() needs "
+          + fVariables.length + " columns: " + columns.length);
+    }
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i].length < rows) {
+        throw new IllegalArgumentException("DoubleFormula#evaluate() column "
+            + fVariables[i] + " has less than " + rows + " rows");
+      }
+    }
+  }
+}
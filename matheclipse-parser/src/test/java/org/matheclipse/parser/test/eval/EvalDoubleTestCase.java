@@ -8,6 +8,7 @@ import junit.framework.TestCase;
 import org.junit.Assert;
 import org.matheclipse.parser.client.eval.BooleanVariable;
 import org.matheclipse.parser.client.eval.DoubleEvaluator;
+import org.matheclipse.parser.client.eval.DoubleFormula;
 import org.matheclipse.parser.client.eval.DoubleVariable;
 import org.matheclipse.parser.client.eval.IDoubleValue;
 
@@ -190,6 +191,105 @@ public class EvalDoubleTestCase extends TestCase {
     }
   }
   
+  public void testPrepare001() {
+    try {
+      DoubleEvaluator engine = new DoubleEvaluator();
+      IDoubleValue vc = new DoubleVariable(10.0);
+      engine.defineVariable("c", vc);
+      DoubleFormula formula = engine.prepare("x^2+3*y+c+Sin[Pi/2]",
+          new String[] { "x", "y" });
+      Assert.assertEquals(formula.evaluate(new double[] { 3.0, 2.0 }), 26d,
+          DoubleEvaluator.EPSILON);
+      // defined variables are read at evaluation time
+      vc.setValue(20.0);
+      Assert.assertEquals(formula.evaluate(new double[] { 3.0, 2.0 }), 36d,
+          DoubleEvaluator.EPSILON);
+
+      formula = engine.prepare("$i = $1+$2; If[$i>0 && !($1<0), Max[$i,1], -1]",
+          new String[] { "$1", "$2" });
+      Assert.assertEquals(formula.evaluate(new double[] { 3.0, -4.0 }), -1d,
+          DoubleEvaluator.EPSILON);
+      Assert.assertEquals(formula.evaluate(new double[] { 3.0, 4.0 }), 7d,
+          DoubleEvaluator.EPSILON);
+      // Set doesn't define a variable in the evaluator
+      assertNull(engine.getVariable("$i"));
+    } catch (Exception e) {
+      e.printStackTrace();
+      Assert.assertEquals("", e.getMessage());
+    }
+  }
+
+  public void testPrepare002() {
+    try {
+      String expression = "If[x>y, Sqrt[x]*Log[y+1], ArcTan[x,y]]-Exp[-x*y]";
+      int rows = 1000;
+      double[][] columns = new double[2][rows];
+      for (int i = 0; i < rows; i++) {
+        columns[0][i] = i * 0.01;
+        columns[1][i] = 5.0 - i * 0.005;
+      }
+      double[] result = new double[rows];
+      DoubleEvaluator engine = new DoubleEvaluator();
+      engine.prepare(expression, new String[] { "x", "y" }).evaluate(columns,
+          result);
+
+      // same results as the evaluation of the abstract syntax tree
+      DoubleVariable vx = new DoubleVariable(0.0);
+      DoubleVariable vy = new DoubleVariable(0.0);
+      engine = new DoubleEvaluator();
+      engine.defineVariable("x", vx);
+      engine.defineVariable("y", vy);
+      engine.parse(expression);
+      for (int i = 0; i < rows; i++) {
+        vx.setValue(columns[0][i]);
+        vy.setValue(columns[1][i]);
+        assertEquals(result[i], engine.evaluate());
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+      Assert.assertEquals("", e.getMessage());
+    }
+  }
+
+  public void testPrepare003() {
+    int minRows = DoubleFormula.MIN_ROWS_PER_THREAD;
+    try {
+      DoubleFormula.MIN_ROWS_PER_THREAD = 100;
+      DoubleFormula formula = new DoubleEvaluator().prepare(
+          "a*Cos[b]+a^2/(b+1)", new String[] { "a", "b" });
+      int rows = 10007;
+      double[][] columns = new double[2][rows];
+      for (int i = 0; i < rows; i++) {
+        columns[0][i] = i;
+        columns[1][i] = rows - i;
+      }
+      double[] result = new double[rows];
+      double[] parallelResult = new double[rows];
+      formula.evaluate(columns, result);
+      formula.evaluate(columns, parallelResult, 4);
+      for (int i = 0; i < rows; i++) {
+        assertEquals(parallelResult[i], result[i]);
+      }
+      assertEquals(result[3], 3 * Math.cos(rows - 3) + 9.0 / (rows - 2));
+    } catch (Exception e) {
+      e.printStackTrace();
+      Assert.assertEquals("", e.getMessage());
+    } finally {
+      DoubleFormula.MIN_ROWS_PER_THREAD = minRows;
+    }
+  }
+
+  public void testPrepareMissingFunction() {
+    try {
+      new DoubleEvaluator().prepare("x+aTest[x]", new String[] { "x" });
+      fail();
+    } catch (ArithmeticException e) {
+      assertEquals(
+          "EvalDouble#evaluateFunction(FunctionNode) not possible for: aTest[x]",
+          e.getMessage());
+    }
+  }
+
   public void testMissingFunction009() {
     try {
       DoubleEvaluator engine = new DoubleEvaluator();